@@ -0,0 +1,148 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.apache.guacamole.net.auth.Credentials;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+  /** Headers typical of a login request from a browser behind a proxy. */
+  static final Map<String, List<String>> BROWSER_HEADERS =
+      new LinkedHashMap<>();
+
+  static {
+    header("Host", "guacamole.example.com");
+    header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64; rv:128.0) "
+        + "Gecko/20100101 Firefox/128.0");
+    header("Accept", "application/json, text/plain, */*");
+    header("Accept-Language", "en-US,en;q=0.5");
+    header("Accept-Encoding", "gzip, deflate, br, zstd");
+    header("Content-Type", "application/x-www-form-urlencoded");
+    header("Content-Length", "37");
+    header("Origin", "https://guacamole.example.com");
+    header("Referer", "https://guacamole.example.com/guacamole/");
+    header("Cookie", "JSESSIONID=2C6B0D1C0F7A4E2B9A8D3F5E6C7B8A90; "
+        + "_ga=GA1.2.1234567890.1700000000; theme=dark");
+    header("Sec-Fetch-Dest", "empty");
+    header("Sec-Fetch-Mode", "cors");
+    header("Sec-Fetch-Site", "same-origin");
+    header("X-Forwarded-For", "203.0.113.17", "10.0.0.2");
+    header("X-Forwarded-Proto", "https");
+    header("X-Request-Id", "6f1c2d3e-4b5a-6978-8a9b-0c1d2e3f4a5b");
+    header("Connection", "keep-alive");
+  }
+
+  private BenchmarkFixtures() {
+  }
+
+  private static void header(String name, String... values) {
+    BROWSER_HEADERS.put(name, Arrays.asList(values));
+  }
+
+  /**
+   * Creates credentials for a login request with the given headers.
+   *
+   * @param headers
+   *    Headers of the request.
+   *
+   * @return
+   *    Credentials whose request presents the given headers.
+   */
+  static Credentials newCredentials(Map<String, List<String>> headers) {
+    return new Credentials("jdoe", "secret", newRequest(headers));
+  }
+
+  /**
+   * Creates a request that presents the given headers. Methods other than
+   * those that get headers throw {@link UnsupportedOperationException}.
+   *
+   * @param headers
+   *    Headers of the request.
+   *
+   * @return
+   *    Request.
+   */
+  static HttpServletRequest newRequest(
+      final Map<String, List<String>> headers) {
+    final HttpServletRequest unsupported = (HttpServletRequest)
+        Proxy.newProxyInstance(BenchmarkFixtures.class.getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class },
+            (proxy, method, args) -> {
+              throw new UnsupportedOperationException(method.getName());
+            });
+
+    return new HttpServletRequestWrapper(unsupported) {
+      @Override
+      public Enumeration getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+      }
+
+      @Override
+      public Enumeration getHeaders(String name) {
+        return Collections.enumeration(valuesOf(name));
+      }
+
+      @Override
+      public String getHeader(String name) {
+        final List<String> values = valuesOf(name);
+        return values.isEmpty() ? null : values.get(0);
+      }
+
+      @Override
+      public String getRemoteAddr() {
+        return "10.0.0.2";
+      }
+
+      @Override
+      public String getRemoteHost() {
+        return "proxy.example.com";
+      }
+
+      @Override
+      public HttpSession getSession(boolean create) {
+        return null;
+      }
+
+      private List<String> valuesOf(String name) {
+        for (final Map.Entry<String, List<String>> entry
+            : headers.entrySet()) {
+          if (entry.getKey().equalsIgnoreCase(name)) {
+            return entry.getValue();
+          }
+        }
+        return Collections.emptyList();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of reading an authorization result and building its
+ * connection configurations.
+ * <p>
+ * Configurations are built as the result is parsed by
+ * {@link JacksonJsonMarshaller#readResult}, so each invocation parses a
+ * result that authorizes the given number of connections, each with a
+ * handful of parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConfigurationBenchmark {
+
+  @Param({ "1", "100", "5000" })
+  public int connections;
+
+  @Param({ "json", "smile" })
+  public String format;
+
+  private JacksonJsonMarshaller marshaller;
+
+  private byte[] entity;
+
+  @Setup
+  public void setUp() throws IOException {
+    final JsonFactory factory = "smile".equals(format) ?
+        new SmileFactory() : new JsonFactory();
+    marshaller = new JacksonJsonMarshaller(factory);
+    entity = new ObjectMapper(factory).writeValueAsBytes(newResult());
+  }
+
+  @Benchmark
+  public AuthResult readResult() throws IOException {
+    return marshaller.readResult(new ByteArrayInputStream(entity));
+  }
+
+  private Map<String, Object> newResult() {
+    final Map<String, Object> configurations = new LinkedHashMap<>();
+    for (int i = 0; i < connections; i++) {
+      final Map<String, Object> parameters = new LinkedHashMap<>();
+      parameters.put("hostname", "host-" + i + ".example.com");
+      parameters.put("port", 3389);
+      parameters.put("username", "jdoe");
+      parameters.put("domain", "EXAMPLE");
+      parameters.put("security", "nla");
+      parameters.put("ignore-cert", true);
+      parameters.put("resize-method", "display-update");
+      final Map<String, Object> configuration = new LinkedHashMap<>();
+      configuration.put(ProtocolConstants.PROTOCOL_KEY, "rdp");
+      configuration.put(ProtocolConstants.PARAMS_KEY, parameters);
+      configurations.put("connection-" + i, configuration);
+    }
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put(ProtocolConstants.AUTH_KEY, true);
+    result.put(ProtocolConstants.CONFIGS_KEY, configurations);
+    return result;
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleException;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link JacksonJsonMarshaller} for the entities other than
+ * authorization results: writing a subject as a string and as a stream,
+ * and reading an OAuth2 token response as a map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MarshallerBenchmark {
+
+  private static final String TOKEN_RESPONSE = "{"
+      + "\"access_token\":\"eyJhbGciOiJSUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOi"
+      + "JndWFjYW1vbGUiLCJzY29wZSI6InJlYWQgd3JpdGUiLCJleHAiOjE3MDAwMDAwMDB9"
+      + ".c2lnbmF0dXJl\","
+      + "\"token_type\":\"Bearer\",\"expires_in\":3600,"
+      + "\"scope\":\"read write\"}";
+
+  @Param({ "json", "smile" })
+  public String format;
+
+  private JacksonJsonMarshaller json;
+
+  private JacksonJsonMarshaller marshaller;
+
+  private AuthSubject subject;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Setup
+  public void setUp() {
+    json = new JacksonJsonMarshaller();
+    marshaller = "smile".equals(format) ?
+        new JacksonJsonMarshaller(new SmileFactory()) : json;
+    subject = new DelegatingAuthSubject(BenchmarkFixtures.newCredentials(
+        BenchmarkFixtures.BROWSER_HEADERS));
+  }
+
+  @Benchmark
+  public String toJson() throws GuacamoleException {
+    return json.toJson(subject);
+  }
+
+  @Benchmark
+  public int write() throws IOException {
+    out.reset();
+    marshaller.write(subject, out);
+    return out.size();
+  }
+
+  @Benchmark
+  public Object toMap() throws GuacamoleException {
+    return json.toMap(TOKEN_RESPONSE);
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.net.auth.Credentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of capturing the request headers of a subject.
+ * <p>
+ * Headers are captured when a {@link DelegatingAuthSubject} is constructed,
+ * so each invocation constructs a subject and gets its headers, for a
+ * request with {@link BenchmarkFixtures#BROWSER_HEADERS typical browser
+ * headers} under a projection that captures all of them, one that allows
+ * only a few, and one that denies the cookie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SubjectBenchmark {
+
+  @Param({ "all", "allow", "deny" })
+  public String projection;
+
+  private Credentials credentials;
+
+  private HeaderProjection headerProjection;
+
+  @Setup
+  public void setUp() {
+    credentials = BenchmarkFixtures.newCredentials(
+        BenchmarkFixtures.BROWSER_HEADERS);
+    headerProjection = newProjection(projection);
+  }
+
+  @Benchmark
+  public Object captureHeaders() {
+    return new DelegatingAuthSubject(credentials, headerProjection)
+        .getHeaders();
+  }
+
+  private static HeaderProjection newProjection(String name) {
+    final List<String> none = Collections.emptyList();
+    switch (name) {
+      case "all":
+        return HeaderProjection.ALL;
+      case "allow":
+        return new HeaderProjection(Arrays.asList("User-Agent",
+            "X-Forwarded-For", "X-Request-Id"), none);
+      case "deny":
+        return new HeaderProjection(none,
+            Collections.singletonList("Cookie"));
+      default:
+        throw new IllegalArgumentException("unknown projection: " + name);
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A factory for the executors on which authorization requests run.
+ * <p>
+ * Where the runtime supports virtual threads, an executor may run each task
+ * on a new virtual thread, so that a request blocked on I/O does not hold a
+ * platform thread. The virtual thread API is located reflectively, so that
+ * this extension continues to run on releases that do not provide it.
+ */
+final class AsyncExecutors {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(AsyncExecutors.class);
+
+  private AsyncExecutors() {
+  }
+
+  /**
+   * Creates a new executor.
+   *
+   * @param name
+   *    Name for the threads of the executor, if platform threads are used.
+   *
+   * @param virtual
+   *    Flag indicating whether virtual threads should be used if the runtime
+   *    supports them.
+   *
+   * @return
+   *    Executor.
+   */
+  static ExecutorService newExecutor(String name, boolean virtual) {
+    if (virtual) {
+      final ExecutorService executor = newVirtualThreadExecutor();
+      if (executor != null) return executor;
+    }
+    return Executors.newCachedThreadPool(r -> {
+      final Thread thread = new Thread(r, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread.
+   *
+   * @return
+   *    Executor, or {@code null} if the runtime does not support virtual
+   *    threads.
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      final Method method =
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    }
+    catch (NoSuchMethodException ex) {
+      logger.debug("virtual threads are not supported by this runtime");
+      return null;
+    }
+    catch (ReflectiveOperationException | RuntimeException ex) {
+      logger.warn("cannot create virtual thread executor: {}", ex.toString());
+      return null;
+    }
+  }
+
+}
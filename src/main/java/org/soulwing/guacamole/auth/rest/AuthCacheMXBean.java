@@ -0,0 +1,151 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the authorization result cache.
+ * <p>
+ * The statistics exposed by this interface are intended to support sizing
+ * the cache; e.g. a low hit rate combined with a high eviction count
+ * suggests that the cache is too small.
+ */
+public interface AuthCacheMXBean {
+
+  /**
+   * Gets the number of authorization requests satisfied from the cache.
+   *
+   * @return
+   *    Hit count.
+   */
+  long getHitCount();
+
+  /**
+   * Gets the number of authorization requests not satisfied from the cache.
+   *
+   * @return
+   *    Miss count.
+   */
+  long getMissCount();
+
+  /**
+   * Gets the ratio of cache hits to total authorization requests.
+   *
+   * @return
+   *    Hit rate in the range 0 to 1, or 0 if there have been no requests.
+   */
+  double getHitRate();
+
+  /**
+   * Gets the number of entries evicted due to the size or weight bound.
+   *
+   * @return
+   *    Eviction count.
+   */
+  long getEvictionCount();
+
+  /**
+   * Gets the total weight of evicted entries.
+   *
+   * @return
+   *    Eviction weight.
+   */
+  long getEvictionWeight();
+
+  /**
+   * Gets the number of entries removed because they had expired.
+   *
+   * @return
+   *    Expiration count.
+   */
+  long getExpirationCount();
+
+  /**
+   * Gets the number of times the REST service was called due to a cache
+   * miss.
+   *
+   * @return
+   *    Load count.
+   */
+  long getLoadCount();
+
+  /**
+   * Gets the number of loads that ended in an error.
+   *
+   * @return
+   *    Load failure count.
+   */
+  long getLoadFailureCount();
+
+  /**
+   * Gets the total time spent in loads.
+   *
+   * @return
+   *    Total load time in milliseconds.
+   */
+  long getTotalLoadTime();
+
+  /**
+   * Gets the mean time spent in a load.
+   *
+   * @return
+   *    Average load time in milliseconds, or 0 if there have been no loads.
+   */
+  double getAverageLoadTime();
+
+  /**
+   * Gets the number of authorization requests answered with a cached result
+   * that denies authorization.
+   *
+   * @return
+   *    Hit count.
+   */
+  long getNegativeHitCount();
+
+  /**
+   * Gets the number of results that deny authorization currently in the
+   * cache.
+   *
+   * @return
+   *    Entry count.
+   */
+  int getNegativeSize();
+
+  /**
+   * Gets the number of entries currently in the cache.
+   *
+   * @return
+   *    Entry count.
+   */
+  int getSize();
+
+  /**
+   * Gets the total weight of the entries currently in the cache.
+   *
+   * @return
+   *    Weighted size.
+   */
+  long getWeightedSize();
+
+  /**
+   * Discards all entries in the cache, including results that deny
+   * authorization.
+   */
+  void invalidateAll();
+
+}
@@ -0,0 +1,163 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+
+/**
+ * JDK Flight Recorder events for the stages of an authorization.
+ * <p>
+ * An event is created and begun before each stage, and committed after it;
+ * when the event type is not enabled in a recording, the JIT eliminates
+ * the event entirely, so the events can be left compiled in. No event
+ * records a username, password, or any other property of the subject.
+ */
+final class AuthEvents {
+
+  /** Category under which all of the events are shown. */
+  private static final String CATEGORY = "Guacamole";
+
+  /** Outcome of a request to the REST service that produced a result. */
+  static final String SUCCESS = "success";
+
+  /** Outcome of a request or call that failed for a reason other than time. */
+  static final String ERROR = "error";
+
+  /** Outcome of a request or call that timed out. */
+  static final String TIMEOUT = "timeout";
+
+  private AuthEvents() {
+  }
+
+  /**
+   * Gets the outcome that describes a failure.
+   *
+   * @param failure
+   *    The cause of the failure.
+   *
+   * @return
+   *    {@link #TIMEOUT} if the failure was a timeout, otherwise
+   *    {@link #ERROR}.
+   */
+  static String outcomeOf(Throwable failure) {
+    return Futures.unwrap(failure) instanceof GuacamoleUpstreamTimeoutException
+        ? TIMEOUT : ERROR;
+  }
+
+  /**
+   * A call to the provider to authorize a user.
+   */
+  @Name("org.soulwing.guacamole.auth.rest.Authorization")
+  @Label("REST Authorization")
+  @Description("Authorization of a user by the REST auth provider")
+  @Category({ CATEGORY, "REST Auth" })
+  @StackTrace(false)
+  static class Authorization extends Event {
+
+    @Label("Outcome")
+    @Description("authorized, denied, error, or timeout")
+    String outcome;
+
+    @Label("Configuration Count")
+    int configurationCount;
+
+  }
+
+  /**
+   * A request to an endpoint of the REST service.
+   */
+  @Name("org.soulwing.guacamole.auth.rest.Request")
+  @Label("REST Auth Request")
+  @Description("Request to the REST service, from sending it until its "
+      + "result is parsed")
+  @Category({ CATEGORY, "REST Auth" })
+  @StackTrace(false)
+  static class Request extends Event {
+
+    @Label("Transport")
+    String transport;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status of the response, or zero if none")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Outcome")
+    @Description("success, error, or timeout")
+    String outcome;
+
+  }
+
+  /**
+   * Encoding of a subject as a request entity.
+   */
+  @Name("org.soulwing.guacamole.auth.rest.Serialize")
+  @Label("REST Auth Serialize")
+  @Category({ CATEGORY, "REST Auth" })
+  @StackTrace(false)
+  static class Serialize extends Event {
+
+    @Label("Format")
+    String format;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+  }
+
+  /**
+   * Parsing of an authorization result.
+   */
+  @Name("org.soulwing.guacamole.auth.rest.Parse")
+  @Label("REST Auth Parse")
+  @Category({ CATEGORY, "REST Auth" })
+  @StackTrace(false)
+  static class Parse extends Event {
+
+    @Label("Format")
+    String format;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Authorized")
+    boolean authorized;
+
+    @Label("Configuration Count")
+    int configurationCount;
+
+  }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the authorization pipeline: outcome counts, counts of stale
+ * cached results served, and distributions of the latency of each call and
+ * of each stage of a request to the REST service, and of payload sizes.
+ * <p>
+ * Recording a value costs an increment of a {@link LongAdder} or a
+ * wait-free histogram update, so metrics are always recorded. A single
+ * {@link #SHARED shared} instance is used by the provider and its
+ * transports, so that the metrics are not reset when the service is rebuilt
+ * after its configuration is reloaded.
+ */
+class AuthMetrics implements AuthMetricsMXBean {
+
+  /** Type name under which the metrics management bean is registered. */
+  static final String MBEAN_TYPE = "AuthMetrics";
+
+  /** Metrics shared by the provider and its transports. */
+  static final AuthMetrics SHARED = new AuthMetrics();
+
+  /** Scale that converts a latency in microseconds to milliseconds. */
+  private static final double MILLIS_PER_MICRO = 0.001;
+
+  /**
+   * Outcome of a call to the provider.
+   */
+  enum Outcome {
+    AUTHORIZED,
+    DENIED,
+    ERROR,
+    TIMEOUT
+  }
+
+  /**
+   * Stage of a request to the REST service.
+   */
+  enum Stage {
+    /** Encoding the subject as a request entity. */
+    SERIALIZE,
+    /** Sending the request until its response is available. */
+    ROUND_TRIP,
+    /** Parsing the result and building its configurations. */
+    PARSE
+  }
+
+  /**
+   * Reason for which a stale cached result was served.
+   */
+  enum StaleReason {
+    /** The result was being refreshed in the background. */
+    REVALIDATE,
+    /** The request to refresh the result failed. */
+    ERROR
+  }
+
+  private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+
+  private final LongAdder[] staleResults =
+      new LongAdder[StaleReason.values().length];
+
+  private final Distribution callLatency = new Distribution(MILLIS_PER_MICRO);
+
+  private final Distribution[] stageLatencies =
+      new Distribution[Stage.values().length];
+
+  private final Distribution requestSize = new Distribution(1);
+  private final Distribution responseSize = new Distribution(1);
+
+  /**
+   * Constructs a new instance with no recorded values.
+   */
+  AuthMetrics() {
+    for (int i = 0; i < outcomes.length; i++) {
+      outcomes[i] = new LongAdder();
+    }
+    for (int i = 0; i < staleResults.length; i++) {
+      staleResults[i] = new LongAdder();
+    }
+    for (int i = 0; i < stageLatencies.length; i++) {
+      stageLatencies[i] = new Distribution(MILLIS_PER_MICRO);
+    }
+  }
+
+  /**
+   * Records the outcome and latency of a call to the provider.
+   *
+   * @param outcome
+   *    Outcome of the call.
+   *
+   * @param latency
+   *    Latency in nanoseconds.
+   */
+  void recordCall(Outcome outcome, long latency) {
+    outcomes[outcome.ordinal()].increment();
+    callLatency.record(TimeUnit.NANOSECONDS.toMicros(latency));
+  }
+
+  /**
+   * Records that a stale cached result was served.
+   *
+   * @param reason
+   *    Reason for which the result was served.
+   */
+  void recordStale(StaleReason reason) {
+    staleResults[reason.ordinal()].increment();
+  }
+
+  /**
+   * Records the latency of a stage of a request.
+   *
+   * @param stage
+   *    The stage.
+   *
+   * @param latency
+   *    Latency in nanoseconds.
+   */
+  void recordStage(Stage stage, long latency) {
+    stageLatencies[stage.ordinal()].record(
+        TimeUnit.NANOSECONDS.toMicros(latency));
+  }
+
+  /**
+   * Records the size of a request entity.
+   *
+   * @param size
+   *    Size in bytes, as sent.
+   */
+  void recordRequestSize(long size) {
+    requestSize.record(size);
+  }
+
+  /**
+   * Records the size of a response entity.
+   *
+   * @param size
+   *    Size in bytes, as received.
+   */
+  void recordResponseSize(long size) {
+    responseSize.record(size);
+  }
+
+  /**
+   * Gets the number of calls with a given outcome.
+   *
+   * @param outcome
+   *    The outcome.
+   *
+   * @return
+   *    Call count.
+   */
+  long getCount(Outcome outcome) {
+    return outcomes[outcome.ordinal()].sum();
+  }
+
+  /**
+   * Gets the number of stale cached results served for a given reason.
+   *
+   * @param reason
+   *    The reason.
+   *
+   * @return
+   *    Result count.
+   */
+  long getStaleCount(StaleReason reason) {
+    return staleResults[reason.ordinal()].sum();
+  }
+
+  /**
+   * Gets the distribution of the latency of a stage of a request.
+   *
+   * @param stage
+   *    The stage.
+   *
+   * @return
+   *    Latency summary in milliseconds.
+   */
+  DistributionSummary getStageLatency(Stage stage) {
+    return stageLatencies[stage.ordinal()].summarize();
+  }
+
+  @Override
+  public long getAuthorizedCount() {
+    return getCount(Outcome.AUTHORIZED);
+  }
+
+  @Override
+  public long getDeniedCount() {
+    return getCount(Outcome.DENIED);
+  }
+
+  @Override
+  public long getErrorCount() {
+    return getCount(Outcome.ERROR);
+  }
+
+  @Override
+  public long getTimeoutCount() {
+    return getCount(Outcome.TIMEOUT);
+  }
+
+  @Override
+  public long getStaleWhileRevalidateCount() {
+    return getStaleCount(StaleReason.REVALIDATE);
+  }
+
+  @Override
+  public long getStaleIfErrorCount() {
+    return getStaleCount(StaleReason.ERROR);
+  }
+
+  @Override
+  public DistributionSummary getCallLatency() {
+    return callLatency.summarize();
+  }
+
+  @Override
+  public DistributionSummary getSerializeLatency() {
+    return getStageLatency(Stage.SERIALIZE);
+  }
+
+  @Override
+  public DistributionSummary getRoundTripLatency() {
+    return getStageLatency(Stage.ROUND_TRIP);
+  }
+
+  @Override
+  public DistributionSummary getParseLatency() {
+    return getStageLatency(Stage.PARSE);
+  }
+
+  @Override
+  public DistributionSummary getRequestSize() {
+    return requestSize.summarize();
+  }
+
+  @Override
+  public DistributionSummary getResponseSize() {
+    return responseSize.summarize();
+  }
+
+  @Override
+  public void reset() {
+    for (final LongAdder outcome : outcomes) {
+      outcome.reset();
+    }
+    for (final LongAdder stale : staleResults) {
+      stale.reset();
+    }
+    callLatency.reset();
+    for (final Distribution latency : stageLatencies) {
+      latency.reset();
+    }
+    requestSize.reset();
+    responseSize.reset();
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the metrics of the authorization pipeline.
+ * <p>
+ * Outcomes are counted for each call to the provider. Latencies are given
+ * in milliseconds, for the call as a whole and for each stage of a request
+ * to the REST service; payload sizes are given in bytes, as sent or
+ * received. Distributions are cumulative from startup or the last
+ * {@link #reset() reset}.
+ */
+public interface AuthMetricsMXBean {
+
+  /**
+   * Gets the number of calls in which the subject was authorized.
+   *
+   * @return
+   *    Call count.
+   */
+  long getAuthorizedCount();
+
+  /**
+   * Gets the number of calls in which the subject was denied authorization.
+   *
+   * @return
+   *    Call count.
+   */
+  long getDeniedCount();
+
+  /**
+   * Gets the number of calls that failed for a reason other than a timeout.
+   *
+   * @return
+   *    Call count.
+   */
+  long getErrorCount();
+
+  /**
+   * Gets the number of calls that failed because a request timed out or its
+   * deadline passed.
+   *
+   * @return
+   *    Call count.
+   */
+  long getTimeoutCount();
+
+  /**
+   * Gets the number of calls answered with an expired cached result while
+   * the result was refreshed in the background.
+   *
+   * @return
+   *    Call count.
+   */
+  long getStaleWhileRevalidateCount();
+
+  /**
+   * Gets the number of calls answered with an expired cached result because
+   * a request to refresh it failed or timed out.
+   *
+   * @return
+   *    Call count.
+   */
+  long getStaleIfErrorCount();
+
+  /**
+   * Gets the distribution of the latency of calls to the provider,
+   * including time spent waiting in a bulkhead queue and cache hits.
+   *
+   * @return
+   *    Latency summary in milliseconds.
+   */
+  DistributionSummary getCallLatency();
+
+  /**
+   * Gets the distribution of the time spent encoding subjects.
+   *
+   * @return
+   *    Latency summary in milliseconds.
+   */
+  DistributionSummary getSerializeLatency();
+
+  /**
+   * Gets the distribution of the time from sending a request to the REST
+   * service until its response is available to be parsed.
+   *
+   * @return
+   *    Latency summary in milliseconds.
+   */
+  DistributionSummary getRoundTripLatency();
+
+  /**
+   * Gets the distribution of the time spent parsing authorization results
+   * and building their configurations.
+   *
+   * @return
+   *    Latency summary in milliseconds.
+   */
+  DistributionSummary getParseLatency();
+
+  /**
+   * Gets the distribution of the sizes of request entities.
+   *
+   * @return
+   *    Size summary in bytes.
+   */
+  DistributionSummary getRequestSize();
+
+  /**
+   * Gets the distribution of the sizes of response entities.
+   *
+   * @return
+   *    Size summary in bytes.
+   */
+  DistributionSummary getResponseSize();
+
+  /**
+   * Discards all recorded latencies and sizes, and resets the outcome
+   * counts to zero.
+   */
+  void reset();
+
+}
@@ -0,0 +1,98 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * An authorization result as defined by the REST API specification in the
+ * top level README.
+ * <p>
+ * An instance of this type is immutable and may safely be shared between
+ * threads.
+ */
+final class AuthResult {
+
+  /** A result that denies authorization. */
+  static final AuthResult DENIED = new AuthResult(false, null);
+
+  /** Flag indicating whether the subject is authorized. */
+  private final boolean authorized;
+
+  /** Configurations authorized for the subject. */
+  private final Map<String, GuacamoleConfiguration> configurations;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param authorized
+   *    Flag indicating whether the subject is authorized.
+   *
+   * @param configurations
+   *    Configurations authorized for the subject; may be {@code null}.
+   */
+  private AuthResult(boolean authorized,
+      Map<String, GuacamoleConfiguration> configurations) {
+    this.authorized = authorized;
+    this.configurations = configurations != null ?
+        Collections.unmodifiableMap(configurations) : null;
+  }
+
+  /**
+   * Creates a result that authorizes the subject.
+   *
+   * @param configurations
+   *    Configurations authorized for the subject, keyed by connection name;
+   *    may be {@code null} if the authorization response did not include
+   *    any configurations. The caller must not subsequently modify the map.
+   *
+   * @return
+   *    Authorization result.
+   */
+  static AuthResult authorized(
+      Map<String, GuacamoleConfiguration> configurations) {
+    return new AuthResult(true, configurations);
+  }
+
+  /**
+   * Gets a flag indicating whether the subject is authorized.
+   *
+   * @return
+   *    Flag state.
+   */
+  boolean isAuthorized() {
+    return authorized;
+  }
+
+  /**
+   * Gets the configurations authorized for the subject.
+   *
+   * @return
+   *    An unmodifiable map of configurations keyed by connection name, or
+   *    {@code null} if the authorization response did not include any
+   *    configurations.
+   */
+  Map<String, GuacamoleConfiguration> getConfigurations() {
+    return configurations;
+  }
+
+}
@@ -18,7 +18,7 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.guacamole.GuacamoleException;
 
@@ -43,17 +43,44 @@ interface AuthService {
 
   /**
    * Requests authorization of a user subject identified by the given
-   * credentials.
+   * credentials, without blocking the calling thread.
+   * <p>
+   * The subject must remain usable until the returned future completes.
    *
    * @param subject
    *   The subject to be authorized.
    *
    * @return
-   *   A map representation of the authorization response structure.
+   *   A future that completes with the authorization result, or
+   *   exceptionally with a {@link GuacamoleException} if an error occurs in
+   *   getting the result.
+   */
+  CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject);
+
+  /**
+   * Requests authorization of a user subject identified by the given
+   * credentials, waiting for the result.
+   * <p>
+   * The default implementation waits for the result of
+   * {@link #authorizeAsync}, letting a blocking request run on the calling
+   * thread rather than on a thread of an executor.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   The authorization result.
    *
    * @throws GuacamoleException
    *   If an error occurs in getting the authorization result.
    */
-  Map authorize(AuthSubject subject) throws GuacamoleException;
+  default AuthResult authorize(AuthSubject subject) throws GuacamoleException {
+    return Futures.call(() -> authorizeAsync(subject));
+  }
+
+  /**
+   * Releases any resources held by the service.
+   */
+  void destroy();
 
 }
@@ -18,6 +18,8 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
+import java.util.List;
+
 import org.apache.guacamole.GuacamoleException;
 
 /**
@@ -30,16 +32,16 @@ import org.apache.guacamole.GuacamoleException;
 interface AuthServiceConfig {
 
   /**
-   * Gets the base URL for the REST auth service.
+   * Gets the base URLs for the endpoints of the REST auth service.
    *
    * @return
-   *    The service URL.
+   *    List of service URLs; never empty.
    *
    * @throws GuacamoleException
    *    If no service URL is configured or if some other error occurs in
-   *    retrieving the URL.
+   *    retrieving the URLs.
    */
-  String getServiceUrl() throws GuacamoleException;
+  List<String> getServiceUrls() throws GuacamoleException;
 
   /**
    * Gets the authorization URI path for the REST auth service.
@@ -52,6 +54,91 @@ interface AuthServiceConfig {
    */
   String getAuthorizationUri() throws GuacamoleException;
 
+  /**
+   * Gets the name of the HTTP transport used to send requests to the REST
+   * service.
+   *
+   * @return
+   *    Transport name; either {@code jersey} or {@code jdk}.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the transport name.
+   */
+  String getTransport() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether requests should run on virtual threads,
+   * where the runtime supports them.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isVirtualThreadsEnabled() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether request entities should be sent using
+   * chunked transfer encoding. When chunking is enabled, a request entity is
+   * streamed to the connection as it is produced; otherwise it must be
+   * buffered in its entirety in order to compute its length.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isRequestChunkingEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the total time allowed for an authorization request, including
+   * waiting for a connection, connecting, the TLS handshake, sending the
+   * request, and reading the response.
+   *
+   * @return
+   *    Deadline budget in milliseconds; zero if requests have no deadline.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the budget.
+   */
+  int getDeadline() throws GuacamoleException;
+
+  /**
+   * Gets the time allowed to establish a connection to the REST service.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the timeout.
+   */
+  int getConnectTimeout() throws GuacamoleException;
+
+  /**
+   * Gets the time allowed for the TLS handshake with the REST service.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the timeout.
+   */
+  int getTlsTimeout() throws GuacamoleException;
+
+  /**
+   * Gets the maximum time to wait for data from the REST service once the
+   * request has been sent.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the timeout.
+   */
+  int getReadTimeout() throws GuacamoleException;
+
   /**
    * Gets a flag indicating whether Basic authentication is configured.
    *
@@ -122,4 +209,590 @@ interface AuthServiceConfig {
    */
   String getDigestPassword() throws GuacamoleException;
 
+  /**
+   * Gets a flag indicating whether concurrent requests to authorize the same
+   * subject should be coalesced into a single request to the REST service.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isCoalescingEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the time for which a successful authorization result may be cached.
+   *
+   * @return
+   *    Time to live in seconds; zero disables caching.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the time to live.
+   */
+  int getCacheTtl() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of authorization results to cache.
+   *
+   * @return
+   *    Maximum number of entries; zero disables caching.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the maximum.
+   */
+  int getCacheMaxEntries() throws GuacamoleException;
+
+  /**
+   * Gets the maximum total weight of cached authorization results. The
+   * weight of a result is the number of configurations and parameters
+   * it contains.
+   *
+   * @return
+   *    Maximum weight; zero if the cache is bounded only by number of entries.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the maximum.
+   */
+  long getCacheMaxWeight() throws GuacamoleException;
+
+  /**
+   * Gets the names of the request headers that, in addition to the username
+   * and password, distinguish one cached authorization result from another.
+   *
+   * @return
+   *    List of header names; possibly empty.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the header names.
+   */
+  List<String> getCacheKeyHeaders() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether requests should be sent using a pool of
+   * persistent connections.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isPoolEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of connections in the connection pool.
+   *
+   * @return
+   *    Maximum number of connections.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the maximum.
+   */
+  int getPoolMaxTotal() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of pooled connections to any single route
+   * (scheme, host, and port).
+   *
+   * @return
+   *    Maximum number of connections per route.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the maximum.
+   */
+  int getPoolMaxPerRoute() throws GuacamoleException;
+
+  /**
+   * Gets the time after which an idle pooled connection is closed.
+   *
+   * @return
+   *    Idle timeout in seconds; zero disables idle eviction.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the timeout.
+   */
+  int getPoolIdleTimeout() throws GuacamoleException;
+
+  /**
+   * Gets the period of inactivity after which a pooled connection is
+   * validated before it is reused.
+   *
+   * @return
+   *    Inactivity period in milliseconds; zero or less disables validation.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the period.
+   */
+  int getPoolValidateAfterInactivity() throws GuacamoleException;
+
+  /**
+   * Gets the number of recent calls whose outcomes are considered by the
+   * circuit breaker.
+   *
+   * @return
+   *    Number of calls; zero disables the circuit breaker.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the window size.
+   */
+  int getBreakerWindowSize() throws GuacamoleException;
+
+  /**
+   * Gets the minimum number of calls that must be recorded before the circuit
+   * breaker evaluates failure and slow call rates.
+   *
+   * @return
+   *    Minimum number of calls.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the minimum.
+   */
+  int getBreakerMinimumCalls() throws GuacamoleException;
+
+  /**
+   * Gets the percentage of failed calls at which the circuit breaker opens.
+   *
+   * @return
+   *    Threshold percentage.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the threshold.
+   */
+  int getBreakerFailureRateThreshold() throws GuacamoleException;
+
+  /**
+   * Gets the percentage of slow calls at which the circuit breaker opens.
+   *
+   * @return
+   *    Threshold percentage.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the threshold.
+   */
+  int getBreakerSlowCallRateThreshold() throws GuacamoleException;
+
+  /**
+   * Gets the duration at or above which a call is considered slow by the
+   * circuit breaker.
+   *
+   * @return
+   *    Duration in milliseconds.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the duration.
+   */
+  int getBreakerSlowCallDuration() throws GuacamoleException;
+
+  /**
+   * Gets the time for which the circuit breaker remains open before it
+   * permits probe calls.
+   *
+   * @return
+   *    Duration in seconds.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the duration.
+   */
+  int getBreakerOpenDuration() throws GuacamoleException;
+
+  /**
+   * Gets the number of probe calls permitted while the circuit breaker is
+   * half open.
+   *
+   * @return
+   *    Number of calls.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the number of calls.
+   */
+  int getBreakerHalfOpenCalls() throws GuacamoleException;
+
+  /**
+   * Gets the number of consecutive failed requests after which a service
+   * endpoint is ejected from load balancing.
+   *
+   * @return
+   *    Number of failures.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the number of failures.
+   */
+  int getEjectFailures() throws GuacamoleException;
+
+  /**
+   * Gets the time for which a service endpoint is first ejected from load
+   * balancing. The time doubles for each further ejection of the same
+   * endpoint, up to a limit.
+   *
+   * @return
+   *    Ejection time in seconds.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the ejection time.
+   */
+  int getEjectDuration() throws GuacamoleException;
+
+  /**
+   * Gets the time over which the share of requests sent to a service
+   * endpoint is gradually increased after the endpoint is readmitted.
+   *
+   * @return
+   *    Slow start time in seconds; zero disables slow start.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the slow start time.
+   */
+  int getSlowStart() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether slow requests should be hedged by sending
+   * a duplicate request to another endpoint.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isHedgeEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the time to wait for a response before sending a hedged request.
+   *
+   * @return
+   *    Delay in milliseconds; zero if the delay is the 95th percentile of
+   *    recently observed latencies.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the delay.
+   */
+  int getHedgeDelay() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of hedged requests, as a percentage of all
+   * requests.
+   *
+   * @return
+   *    Percentage of requests.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the percentage.
+   */
+  int getHedgeBudget() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of concurrent requests to the REST service.
+   *
+   * @return
+   *    Request limit; zero if the number of concurrent requests is not limited.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the limit.
+   */
+  int getBulkheadMaxConcurrent() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of requests that may wait to be sent to the REST
+   * service.
+   *
+   * @return
+   *    Queue limit.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the limit.
+   */
+  int getBulkheadMaxQueue() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of requests from a single source network that may
+   * wait to be sent to the REST service.
+   *
+   * @return
+   *    Queue limit; zero if only the overall queue is limited.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the limit.
+   */
+  int getBulkheadMaxQueuePerSource() throws GuacamoleException;
+
+  /**
+   * Gets the maximum time that a request may wait to be sent to the REST
+   * service.
+   *
+   * @return
+   *    Wait time in milliseconds.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the wait time.
+   */
+  int getBulkheadMaxWait() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether the maximum number of concurrent requests to
+   * the REST service adapts to its observed latency.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state.
+   */
+  boolean isBulkheadAdaptive() throws GuacamoleException;
+
+  /**
+   * Gets the number of concurrent requests below which an adaptive limit does
+   * not fall.
+   *
+   * @return
+   *    Request limit.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the limit.
+   */
+  int getBulkheadMinConcurrent() throws GuacamoleException;
+
+  /**
+   * Gets the URL of the OAuth2 access token service, used when the realm of a
+   * {@code Bearer} challenge is not a URL.
+   *
+   * @return
+   *    Service URL or {@code null} if not configured.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the URL.
+   */
+  String getOAuth2ServiceUrl() throws GuacamoleException;
+
+  /**
+   * Gets the scope requested with an OAuth2 access token.
+   *
+   * @return
+   *    Scope or {@code null} if none is to be requested.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the scope.
+   */
+  String getOAuth2Scope() throws GuacamoleException;
+
+  /**
+   * Gets the time before an OAuth2 access token expires at which a replacement
+   * is requested.
+   *
+   * @return
+   *    Time in seconds.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the time.
+   */
+  int getOAuth2RefreshAhead() throws GuacamoleException;
+
+  /**
+   * Gets the names of the request headers to send to the REST service.
+   *
+   * @return
+   *    List of header names; if empty, all headers not denied are sent.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the header names.
+   */
+  List<String> getHeaderAllow() throws GuacamoleException;
+
+  /**
+   * Gets the names of the request headers never to send to the REST service.
+   *
+   * @return
+   *    List of header names.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the header names.
+   */
+  List<String> getHeaderDeny() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether compressed response entities are accepted
+   * from the REST service, and request entities are compressed.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the flag state.
+   */
+  boolean isCompressionEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the size of the smallest request entity that is compressed when
+   * compression is enabled.
+   *
+   * @return
+   *    Size in bytes; zero if request entities are not compressed.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the size.
+   */
+  int getCompressionRequestThreshold() throws GuacamoleException;
+
+  /**
+   * Gets the name of the preferred encoding of the entities exchanged with the
+   * REST service.
+   *
+   * @return
+   *    Wire format name; either {@code json} or {@code smile}.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the wire format name.
+   */
+  String getWireFormat() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether changes to {@code guacamole.properties} are
+   * applied to the auth service without restarting the web application.
+   *
+   * @return
+   *    {@code true} if the configuration is reloaded when it changes.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the reload flag.
+   */
+  boolean isConfigReloadEnabled() throws GuacamoleException;
+
+  /**
+   * Gets a flag indicating whether the metrics of the provider are exposed in
+   * the Prometheus text format by a REST resource of the Guacamole web
+   * application.
+   *
+   * @return
+   *    {@code true} if the metrics endpoint is enabled.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the metrics endpoint flag.
+   */
+  boolean isMetricsEndpointEnabled() throws GuacamoleException;
+
+  /**
+   * Gets the time after a cached authorization result expires during which the
+   * result is served at once, while it is refreshed in the background.
+   *
+   * @return
+   *    Interval in seconds; 0 if expired results are never served while
+   *    refreshed.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the stale-while-revalidate interval.
+   */
+  int getCacheStaleWhileRevalidate() throws GuacamoleException;
+
+  /**
+   * Gets the time after a cached authorization result expires during which the
+   * result is served if a request to refresh it fails or times out.
+   *
+   * @return
+   *    Interval in seconds; 0 if expired results are never served when a
+   *    refresh fails.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the stale-if-error interval.
+   */
+  int getCacheStaleIfError() throws GuacamoleException;
+
+  /**
+   * Gets the time for which a result that denies authorization to a subject is
+   * cached.
+   *
+   * @return
+   *    Time to live in seconds; 0 if denied results are not cached.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the negative cache time to live.
+   */
+  int getCacheNegativeTtl() throws GuacamoleException;
+
+  /**
+   * Gets the sustained rate of requests to the REST service allowed for each
+   * username.
+   *
+   * @return
+   *    Requests per minute; 0 if requests are not limited by username.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the per-user rate limit.
+   */
+  int getRateLimitUser() throws GuacamoleException;
+
+  /**
+   * Gets the number of requests to the REST service that may be made at once
+   * for each username, after a period without requests.
+   *
+   * @return
+   *    Burst size; 0 if the burst is the per-minute limit.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the per-user burst size.
+   */
+  int getRateLimitUserBurst() throws GuacamoleException;
+
+  /**
+   * Gets the sustained rate of requests to the REST service allowed for each
+   * remote address.
+   *
+   * @return
+   *    Requests per minute; 0 if requests are not limited by address.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the per-address rate limit.
+   */
+  int getRateLimitAddress() throws GuacamoleException;
+
+  /**
+   * Gets the number of requests to the REST service that may be made at once
+   * for each remote address, after a period without requests.
+   *
+   * @return
+   *    Burst size; 0 if the burst is the per-minute limit.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the per-address burst size.
+   */
+  int getRateLimitAddressBurst() throws GuacamoleException;
+
+  /**
+   * Gets the maximum number of usernames, and of remote addresses, for which
+   * rate limiter state is retained.
+   *
+   * @return
+   *    Key count.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the maximum number of rate limited
+   *    keys.
+   */
+  int getRateLimitMaxKeys() throws GuacamoleException;
+
+  /**
+   * Gets the path of the resource from which the parameters of a single
+   * connection are requested when the connection is opened.
+   *
+   * @return
+   *    Resource path relative to each service URL, or {@code null} if
+   *    connection parameters are included in each authorization result.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the connection parameters resource
+   *    path.
+   */
+  String getParametersUri() throws GuacamoleException;
+
+  /**
+   * Gets the time for which the parameters of a connection, once requested,
+   * are reused when the same subject opens the connection again.
+   *
+   * @return
+   *    TTL in seconds; 0 if connection parameters are not cached.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the connection parameters cache TTL.
+   */
+  int getParametersCacheTtl() throws GuacamoleException;
+
 }
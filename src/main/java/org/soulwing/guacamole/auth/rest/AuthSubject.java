@@ -68,4 +68,33 @@ interface AuthSubject {
    */
   Map<String, List<String>> getHeaders();
 
+  /**
+   * Gets the name of the connection whose parameters are requested.
+   * <p>
+   * The default implementation returns {@code null}, which identifies a
+   * request to authorize the subject.
+   *
+   * @return
+   *    The connection name, or null if the subject is to be authorized.
+   */
+  default String getConnectionName() {
+    return null;
+  }
+
+  /**
+   * Gets the deadline for the request to authorize this subject, which is
+   * started once when the request enters the auth service, so that time
+   * spent waiting at each stage of the service counts against it.
+   * <p>
+   * The default implementation returns zero, which identifies a request
+   * with no deadline.
+   *
+   * @return
+   *    Time, in terms of {@link Ticker#SYSTEM}, at which the deadline
+   *    passes, or zero if the request has no deadline.
+   */
+  default long getDeadline() {
+    return 0;
+  }
+
 }
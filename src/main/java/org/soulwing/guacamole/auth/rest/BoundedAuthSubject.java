@@ -0,0 +1,111 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A subject whose authorization request has a deadline.
+ * <p>
+ * The deadline is started when the request enters the auth service, and
+ * travels with the subject through each stage of the service, so that the
+ * time spent waiting for admission, behind a coalesced request, or for an
+ * access token counts against the same budget as the request sent to the
+ * REST service.
+ */
+class BoundedAuthSubject implements AuthSubject {
+
+  /** The subject to be authorized. */
+  private final AuthSubject subject;
+
+  /** Deadline, in terms of {@link Ticker#SYSTEM}. */
+  private final long deadline;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param subject
+   *    The subject to be authorized.
+   *
+   * @param deadline
+   *    Time, in terms of {@link Ticker#SYSTEM}, at which the deadline passes.
+   */
+  private BoundedAuthSubject(AuthSubject subject, long deadline) {
+    this.subject = subject;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Starts the deadline for a request to authorize a subject.
+   *
+   * @param subject
+   *    The subject to be authorized.
+   *
+   * @param budget
+   *    Total time allowed for the request in milliseconds; zero if the
+   *    request has no deadline.
+   *
+   * @return
+   *    A subject whose deadline passes when the budget is spent, or the
+   *    given subject if the request has no deadline.
+   */
+  static AuthSubject start(AuthSubject subject, int budget) {
+    if (budget <= 0) return subject;
+    return new BoundedAuthSubject(subject,
+        Ticker.SYSTEM.read() + TimeUnit.MILLISECONDS.toNanos(budget));
+  }
+
+  @Override
+  public String getUsername() {
+    return subject.getUsername();
+  }
+
+  @Override
+  public String getPassword() {
+    return subject.getPassword();
+  }
+
+  @Override
+  public String getRemoteAddress() {
+    return subject.getRemoteAddress();
+  }
+
+  @Override
+  public String getRemoteHostname() {
+    return subject.getRemoteHostname();
+  }
+
+  @Override
+  public Map<String, List<String>> getHeaders() {
+    return subject.getHeaders();
+  }
+
+  @Override
+  public String getConnectionName() {
+    return subject.getConnectionName();
+  }
+
+  @Override
+  public long getDeadline() {
+    return deadline;
+  }
+
+}
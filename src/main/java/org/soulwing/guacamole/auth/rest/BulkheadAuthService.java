@@ -0,0 +1,363 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerBusyException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+
+/**
+ * An {@link AuthService} that bounds the number of concurrent requests to a
+ * delegate service with a {@link FairBulkhead}.
+ * <p>
+ * Requests in excess of the limit wait in a queue that is served fairly by
+ * source network, so that a storm of logins from one network cannot starve
+ * users elsewhere. A request that cannot be queued, or that waits too long,
+ * fails with a {@link GuacamoleServerBusyException}. When the configured
+ * maximum number of concurrent requests is zero, this service simply
+ * delegates every request.
+ * <p>
+ * If the bulkhead is adaptive, the configured maximum is an upper bound,
+ * and the limit in effect is discovered by a {@link GradientLimit} from the
+ * round trip times of successful requests; it shrinks when latency inflates
+ * or requests time out, and grows while latency is stable.
+ */
+class BulkheadAuthService implements AuthService, BulkheadMXBean {
+
+  /** Type name under which the bulkhead management bean is registered. */
+  static final String MBEAN_TYPE = "Bulkhead";
+
+  /** Number of leading octets of an IPv4 address that identify a source. */
+  private static final int IPV4_SOURCE_OCTETS = 3;
+
+  /** Number of leading groups of an IPv6 address that identify a source. */
+  private static final int IPV6_SOURCE_GROUPS = 4;
+
+  /** The delegate service. */
+  private final AuthService delegate;
+
+  /** Time source for wait times. */
+  private final Ticker ticker;
+
+  /** Executor for permit hand off, or {@code null} if disabled. */
+  private ExecutorService executor;
+
+  /** The bulkhead, or {@code null} if the bulkhead is disabled. */
+  private volatile FairBulkhead bulkhead;
+
+  /** The adaptive limit, or {@code null} if the limit is fixed. */
+  private volatile GradientLimit limit;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   */
+  BulkheadAuthService(AuthService delegate) {
+    this(delegate, Ticker.SYSTEM);
+  }
+
+  /**
+   * Constructs a new instance using the given time source.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   *
+   * @param ticker
+   *    Time source for wait times.
+   */
+  BulkheadAuthService(AuthService delegate, Ticker ticker) {
+    this.delegate = delegate;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Initializes the delegate service and creates the bulkhead.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in initializing the delegate or in retrieving the
+   *   bulkhead configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    delegate.init(config);
+    final int maxConcurrent = config.getBulkheadMaxConcurrent();
+    if (maxConcurrent <= 0) {
+      this.bulkhead = null;
+      return;
+    }
+    this.executor = AsyncExecutors.newExecutor("auth-rest-bulkhead",
+        config.isVirtualThreadsEnabled());
+    final int minConcurrent = config.getBulkheadMinConcurrent();
+    this.limit = config.isBulkheadAdaptive() ? new GradientLimit(
+        Math.max(minConcurrent, maxConcurrent / 2), minConcurrent,
+        maxConcurrent) : null;
+    this.bulkhead = new FairBulkhead(
+        limit != null ? limit.getLimit() : maxConcurrent,
+        config.getBulkheadMaxQueue(), config.getBulkheadMaxQueuePerSource(),
+        TimeUnit.MILLISECONDS.toNanos(config.getBulkheadMaxWait()),
+        executor, ticker);
+    JmxSupport.register(MBEAN_TYPE, this);
+  }
+
+  /**
+   * Requests authorization for a subject from the delegate service once
+   * admitted by the bulkhead. A subject with a deadline waits for admission
+   * no longer than the time that remains before its deadline.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the authorization result, or
+   *   exceptionally if the delegate service fails; with a
+   *   {@link GuacamoleServerBusyException} if the request is rejected by the
+   *   bulkhead.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    final FairBulkhead bulkhead = this.bulkhead;
+    if (bulkhead == null) return delegate.authorizeAsync(subject);
+
+    final GradientLimit limit = this.limit;
+    final long deadline = subject.getDeadline();
+    final long remaining = deadline != 0 ?
+        deadline - Ticker.SYSTEM.read() : Long.MAX_VALUE;
+    return bulkhead.acquire(sourceOf(subject.getRemoteAddress()), remaining)
+        .thenCompose(permit -> {
+          final int inflight = limit != null ? bulkhead.getActive() : 0;
+          final long start = ticker.read();
+          final CompletableFuture<AuthResult> result;
+          try {
+            result = delegate.authorizeAsync(subject);
+          }
+          catch (RuntimeException ex) {
+            bulkhead.release();
+            throw ex;
+          }
+          return result.whenComplete((r, ex) -> {
+            if (limit != null) {
+              sample(bulkhead, limit, ticker.read() - start, inflight, ex);
+            }
+            bulkhead.release();
+          });
+        });
+  }
+
+  /**
+   * Updates the adaptive limit for a completed request. A request that
+   * failed other than by timing out says nothing about the latency of the
+   * REST service, and is not sampled.
+   *
+   * @param bulkhead
+   *    The bulkhead.
+   *
+   * @param limit
+   *    The adaptive limit.
+   *
+   * @param rtt
+   *    Round trip time of the request in nanoseconds.
+   *
+   * @param inflight
+   *    Number of requests in flight when the request started.
+   *
+   * @param ex
+   *    The exception with which the request failed, or {@code null}.
+   */
+  private static void sample(FairBulkhead bulkhead, GradientLimit limit,
+      long rtt, int inflight, Throwable ex) {
+    final boolean dropped = ex != null
+        && Futures.unwrap(ex) instanceof GuacamoleUpstreamTimeoutException;
+    if (ex == null || dropped) {
+      bulkhead.setMaxConcurrent(limit.onSample(rtt, inflight, dropped));
+    }
+  }
+
+  /**
+   * Gets the source network for a remote address. An IPv4 address is
+   * reduced to its /24 network, and an IPv6 address to its /64 network;
+   * any other address is its own source.
+   * <p>
+   * An address literal is parsed and its bytes masked, so that the
+   * compressed and expanded forms of an IPv6 address have the same source,
+   * and an IPv4-mapped IPv6 address, which {@link InetAddress} converts to
+   * an IPv4 address, has the source of that IPv4 address.
+   *
+   * @param address
+   *    Remote address; may be {@code null}.
+   *
+   * @return
+   *    Source identifier.
+   */
+  static String sourceOf(String address) {
+    if (address == null) return "";
+    final byte[] bytes = parseLiteral(address);
+    if (bytes == null) return address;
+    final StringBuilder sb = new StringBuilder();
+    if (bytes.length == 4) {
+      for (int i = 0; i < IPV4_SOURCE_OCTETS; i++) {
+        if (i > 0) sb.append('.');
+        sb.append(bytes[i] & 0xff);
+      }
+    }
+    else {
+      for (int i = 0; i < IPV6_SOURCE_GROUPS; i++) {
+        if (i > 0) sb.append(':');
+        sb.append(Integer.toHexString(
+            (bytes[2 * i] & 0xff) << 8 | bytes[2 * i + 1] & 0xff));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Parses an IP address literal. A string that is not a literal is not
+   * given to {@link InetAddress}, which would otherwise look it up as a
+   * host name.
+   *
+   * @param address
+   *    The address.
+   *
+   * @return
+   *    Bytes of the address, or {@code null} if it is not a literal.
+   */
+  private static byte[] parseLiteral(String address) {
+    if (address.indexOf(':') == -1 && !isIPv4Literal(address)) return null;
+    try {
+      return InetAddress.getByName(address).getAddress();
+    }
+    catch (UnknownHostException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Tests whether a string is an IPv4 address in dotted decimal form.
+   *
+   * @param address
+   *    The string.
+   *
+   * @return
+   *    {@code true} if it consists of four decimal octets.
+   */
+  private static boolean isIPv4Literal(String address) {
+    final String[] octets = address.split("\\.", -1);
+    if (octets.length != 4) return false;
+    for (final String octet : octets) {
+      if (octet.isEmpty() || octet.length() > 3
+          || !octet.chars().allMatch(c -> c >= '0' && c <= '9')
+          || Integer.parseInt(octet) > 255) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void destroy() {
+    JmxSupport.unregister(MBEAN_TYPE, this);
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    delegate.destroy();
+  }
+
+  @Override
+  public int getLimit() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getMaxConcurrent() : 0;
+  }
+
+  @Override
+  public double getRtt() {
+    final GradientLimit limit = this.limit;
+    return limit != null ?
+        limit.getRtt() / TimeUnit.MILLISECONDS.toNanos(1) : 0.0;
+  }
+
+  @Override
+  public double getRttNoLoad() {
+    final GradientLimit limit = this.limit;
+    return limit != null ?
+        limit.getRttNoLoad() / TimeUnit.MILLISECONDS.toNanos(1) : 0.0;
+  }
+
+  @Override
+  public int getActive() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getActive() : 0;
+  }
+
+  @Override
+  public int getQueued() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getQueued() : 0;
+  }
+
+  @Override
+  public int getQueuedSources() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getQueuedSources() : 0;
+  }
+
+  @Override
+  public long getAdmittedCount() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getAdmittedCount() : 0;
+  }
+
+  @Override
+  public long getRejectedCount() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getRejectedCount() : 0;
+  }
+
+  @Override
+  public long getTimedOutCount() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ? bulkhead.getTimedOutCount() : 0;
+  }
+
+  @Override
+  public double getAverageWaitTime() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    if (bulkhead == null) return 0.0;
+    final long count = bulkhead.getAdmittedCount();
+    return count > 0 ? (double) bulkhead.getTotalWaitTime() / count
+        / TimeUnit.MILLISECONDS.toNanos(1) : 0.0;
+  }
+
+  @Override
+  public long getMaxWaitTime() {
+    final FairBulkhead bulkhead = this.bulkhead;
+    return bulkhead != null ?
+        TimeUnit.NANOSECONDS.toMillis(bulkhead.getMaxWaitTime()) : 0;
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the bulkhead that bounds concurrent requests
+ * to the REST service.
+ */
+public interface BulkheadMXBean {
+
+  /**
+   * Gets the maximum number of concurrent requests currently in effect.
+   *
+   * @return
+   *    Request limit.
+   */
+  int getLimit();
+
+  /**
+   * Gets the short-term average round trip time of requests, if the limit
+   * is adaptive.
+   *
+   * @return
+   *    Round trip time in milliseconds, or zero if the limit is fixed.
+   */
+  double getRtt();
+
+  /**
+   * Gets the estimated round trip time of requests without queuing, if the
+   * limit is adaptive.
+   *
+   * @return
+   *    Round trip time in milliseconds, or zero if the limit is fixed.
+   */
+  double getRttNoLoad();
+
+  /**
+   * Gets the number of requests in progress.
+   *
+   * @return
+   *    Request count.
+   */
+  int getActive();
+
+  /**
+   * Gets the number of requests waiting to be sent.
+   *
+   * @return
+   *    Queue depth.
+   */
+  int getQueued();
+
+  /**
+   * Gets the number of source networks that have waiting requests.
+   *
+   * @return
+   *    Source count.
+   */
+  int getQueuedSources();
+
+  /**
+   * Gets the number of requests admitted by the bulkhead.
+   *
+   * @return
+   *    Request count.
+   */
+  long getAdmittedCount();
+
+  /**
+   * Gets the number of requests rejected because the queue was full.
+   *
+   * @return
+   *    Request count.
+   */
+  long getRejectedCount();
+
+  /**
+   * Gets the number of requests rejected because they waited longer than
+   * the maximum wait.
+   *
+   * @return
+   *    Request count.
+   */
+  long getTimedOutCount();
+
+  /**
+   * Gets the average time that admitted requests waited to be sent.
+   *
+   * @return
+   *    Wait time in milliseconds.
+   */
+  double getAverageWaitTime();
+
+  /**
+   * Gets the longest time that an admitted request waited to be sent.
+   *
+   * @return
+   *    Wait time in milliseconds.
+   */
+  long getMaxWaitTime();
+
+}
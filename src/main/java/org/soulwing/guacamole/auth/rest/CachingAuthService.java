@@ -0,0 +1,429 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * An {@link AuthService} that caches successful authorization results
+ * obtained from a delegate service.
+ * <p>
+ * Results are cached in a {@link TinyLfuCache}, keyed by a {@link SubjectKey}
+ * so that subject passwords are never retained in plaintext. Results that
+ * deny authorization are cached separately, for a shorter time to live, so
+ * that repeated attempts with the same wrong password are answered without
+ * a request to the delegate; they are not cached if the negative time to
+ * live is zero. When neither kind of result is cached, this service simply
+ * delegates every request.
+ * <p>
+ * An expired result is retained for the longer of the stale-while-revalidate
+ * and stale-if-error intervals. Within the stale-while-revalidate interval,
+ * the expired result is returned at once while a single background request
+ * refreshes it. Within the stale-if-error interval, a request to refresh the
+ * result is made as for a miss, but if it fails the expired result is
+ * returned instead of the failure. Because entries are found by the keyed
+ * digest of the subject's credentials, a stale result is only ever served to
+ * a subject with the same credentials as the one that obtained it. A result
+ * that no longer authorizes the subject evicts the stale one.
+ */
+class CachingAuthService implements AuthService, AuthCacheMXBean {
+
+  /** Type name under which the cache management bean is registered. */
+  static final String MBEAN_TYPE = "AuthCache";
+
+  /**
+   * Weigher that counts the configurations and parameters in an
+   * authorization result.
+   */
+  static final TinyLfuCache.Weigher<AuthResult> RESULT_WEIGHER =
+      new TinyLfuCache.Weigher<AuthResult>() {
+        @Override
+        public long weigh(AuthResult result) {
+          final Map<String, GuacamoleConfiguration> configs =
+              result.getConfigurations();
+          if (configs == null) return 1;
+          long weight = 1;
+          for (final GuacamoleConfiguration config : configs.values()) {
+            weight += 1 + config.getParameterNames().size();
+          }
+          return weight;
+        }
+      };
+
+  /** Weigher for cache entries, by the weight of the cached result. */
+  private static final TinyLfuCache.Weigher<CachedResult> ENTRY_WEIGHER =
+      entry -> RESULT_WEIGHER.weigh(entry.result);
+
+  /** The delegate service. */
+  private final AuthService delegate;
+
+  /** Time source for entry expiration. */
+  private final Ticker ticker;
+
+  /** Metrics in which stale results are recorded. */
+  private final AuthMetrics metrics;
+
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong loadFailureCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
+
+  /** The cache, or {@code null} if caching is disabled. */
+  private volatile TinyLfuCache<SubjectKey, CachedResult> cache;
+
+  /** Cache of denied results, or {@code null} if not cached. */
+  private volatile TinyLfuCache<SubjectKey, AuthResult> denials;
+
+  /** Time to live of a cached result in nanoseconds. */
+  private volatile long ttl;
+
+  /** Age in nanoseconds up to which a result is served while refreshed. */
+  private volatile long staleWhileRevalidate;
+
+  /** Age in nanoseconds up to which a result is served on an error. */
+  private volatile long staleIfError;
+
+  /** Factory for cache keys. */
+  private volatile SubjectKeyFactory keyFactory;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The service that will be used to obtain authorization results that
+   *    are not cached.
+   */
+  CachingAuthService(AuthService delegate) {
+    this(delegate, Ticker.SYSTEM);
+  }
+
+  /**
+   * Constructs a new instance using the given time source.
+   *
+   * @param delegate
+   *    The service that will be used to obtain authorization results that
+   *    are not cached.
+   *
+   * @param ticker
+   *    Time source for cache entry expiration.
+   */
+  CachingAuthService(AuthService delegate, Ticker ticker) {
+    this(delegate, ticker, AuthMetrics.SHARED);
+  }
+
+  /**
+   * Constructs a new instance using the given time source and metrics.
+   *
+   * @param delegate
+   *    The service that will be used to obtain authorization results that
+   *    are not cached.
+   *
+   * @param ticker
+   *    Time source for cache entry expiration.
+   *
+   * @param metrics
+   *    Metrics in which stale results served will be recorded.
+   */
+  CachingAuthService(AuthService delegate, Ticker ticker,
+      AuthMetrics metrics) {
+    this.delegate = delegate;
+    this.ticker = ticker;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Initializes the delegate service and creates the cache.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in initializing the delegate or in retrieving the
+   *   cache configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    delegate.init(config);
+    final int ttl = config.getCacheTtl();
+    final int negativeTtl = config.getCacheNegativeTtl();
+    final int maxEntries = config.getCacheMaxEntries();
+    this.cache = null;
+    this.denials = null;
+    if (maxEntries <= 0 || (ttl <= 0 && negativeTtl <= 0)) return;
+
+    this.keyFactory = new SubjectKeyFactory(config.getCacheKeyHeaders());
+    if (negativeTtl > 0) {
+      this.denials = new TinyLfuCache<SubjectKey, AuthResult>(maxEntries, 0,
+          TimeUnit.SECONDS.toNanos(negativeTtl), RESULT_WEIGHER, ticker);
+    }
+    JmxSupport.register(MBEAN_TYPE, this);
+    if (ttl <= 0) return;
+
+    this.ttl = TimeUnit.SECONDS.toNanos(ttl);
+    this.staleWhileRevalidate = this.ttl + TimeUnit.SECONDS.toNanos(
+        Math.max(0, config.getCacheStaleWhileRevalidate()));
+    this.staleIfError = this.ttl + TimeUnit.SECONDS.toNanos(
+        Math.max(0, config.getCacheStaleIfError()));
+    this.cache = new TinyLfuCache<SubjectKey, CachedResult>(maxEntries,
+        config.getCacheMaxWeight(),
+        Math.max(staleWhileRevalidate, staleIfError), ENTRY_WEIGHER, ticker);
+  }
+
+  /**
+   * Gets the authorization result for a subject from the cache, or from the
+   * delegate service if the cache contains no result for the subject.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the authorization result; a cached result,
+   *   or a stale one that is being refreshed, is returned as a completed
+   *   future. A request for connection parameters is never answered from
+   *   the cache.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    final TinyLfuCache<SubjectKey, AuthResult> denials = this.denials;
+    if (cache == null && denials == null
+        || subject.getConnectionName() != null) {
+      return delegate.authorizeAsync(subject);
+    }
+
+    final SubjectKey key;
+    try {
+      key = keyFactory.newKey(subject);
+    }
+    catch (GuacamoleException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+    if (denials != null) {
+      final AuthResult denied = denials.get(key);
+      if (denied != null) return CompletableFuture.completedFuture(denied);
+    }
+    final CachedResult cached = cache != null ? cache.get(key) : null;
+    if (cached == null) return load(cache, denials, key, subject);
+
+    final long age = ticker.read() - cached.loadTime;
+    if (age < ttl) {
+      return CompletableFuture.completedFuture(cached.result);
+    }
+    if (age < staleWhileRevalidate) {
+      if (cached.refreshing.compareAndSet(false, true)) {
+        Futures.detach(() -> load(cache, denials, key, subject))
+            .whenComplete((result, ex) -> cached.refreshing.set(false));
+      }
+      metrics.recordStale(AuthMetrics.StaleReason.REVALIDATE);
+      return CompletableFuture.completedFuture(cached.result);
+    }
+
+    final CompletableFuture<AuthResult> result =
+        load(cache, denials, key, subject);
+    if (age >= staleIfError) return result;
+
+    final CompletableFuture<AuthResult> fallback = new CompletableFuture<>();
+    result.whenComplete((r, ex) -> {
+      if (ex == null) {
+        fallback.complete(r);
+        return;
+      }
+      metrics.recordStale(AuthMetrics.StaleReason.ERROR);
+      fallback.complete(cached.result);
+    });
+    return fallback;
+  }
+
+  /**
+   * Obtains the authorization result for a subject from the delegate
+   * service, and caches it if it authorizes the subject; otherwise, the
+   * denial is cached and any cached result for the subject is discarded.
+   *
+   * @param cache
+   *   The cache, or {@code null} if authorized results are not cached.
+   *
+   * @param denials
+   *   The cache of denied results, or {@code null} if they are not cached.
+   *
+   * @param key
+   *   Cache key for the subject.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the result of the delegate service.
+   */
+  private CompletableFuture<AuthResult> load(
+      TinyLfuCache<SubjectKey, CachedResult> cache,
+      TinyLfuCache<SubjectKey, AuthResult> denials, SubjectKey key,
+      AuthSubject subject) {
+    final long start = ticker.read();
+    return delegate.authorizeAsync(subject).whenComplete((result, ex) -> {
+      final long now = ticker.read();
+      loadCount.incrementAndGet();
+      totalLoadTime.addAndGet(now - start);
+      if (ex != null) {
+        loadFailureCount.incrementAndGet();
+      }
+      else if (result.isAuthorized()) {
+        if (cache != null) {
+          cache.put(key, new CachedResult(result, now));
+        }
+      }
+      else {
+        if (cache != null) {
+          cache.invalidate(key);
+        }
+        if (denials != null) {
+          denials.put(key, result);
+        }
+      }
+    });
+  }
+
+  @Override
+  public void destroy() {
+    JmxSupport.unregister(MBEAN_TYPE, this);
+    delegate.destroy();
+  }
+
+  @Override
+  public long getHitCount() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.hitCount() : 0;
+  }
+
+  @Override
+  public long getMissCount() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.missCount() : 0;
+  }
+
+  @Override
+  public double getHitRate() {
+    final long hits = getHitCount();
+    final long total = hits + getMissCount();
+    return total > 0 ? (double) hits / total : 0.0;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.evictionCount() : 0;
+  }
+
+  @Override
+  public long getEvictionWeight() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.evictionWeight() : 0;
+  }
+
+  @Override
+  public long getExpirationCount() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.expirationCount() : 0;
+  }
+
+  @Override
+  public long getLoadCount() {
+    return loadCount.get();
+  }
+
+  @Override
+  public long getLoadFailureCount() {
+    return loadFailureCount.get();
+  }
+
+  @Override
+  public long getTotalLoadTime() {
+    return TimeUnit.NANOSECONDS.toMillis(totalLoadTime.get());
+  }
+
+  @Override
+  public double getAverageLoadTime() {
+    final long count = loadCount.get();
+    return count > 0 ?
+        (double) totalLoadTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1)
+        : 0.0;
+  }
+
+  @Override
+  public long getNegativeHitCount() {
+    final TinyLfuCache<SubjectKey, AuthResult> denials = this.denials;
+    return denials != null ? denials.hitCount() : 0;
+  }
+
+  @Override
+  public int getNegativeSize() {
+    final TinyLfuCache<SubjectKey, AuthResult> denials = this.denials;
+    return denials != null ? denials.size() : 0;
+  }
+
+  @Override
+  public int getSize() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.size() : 0;
+  }
+
+  @Override
+  public long getWeightedSize() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    return cache != null ? cache.weightedSize() : 0;
+  }
+
+  @Override
+  public void invalidateAll() {
+    final TinyLfuCache<SubjectKey, CachedResult> cache = this.cache;
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+    final TinyLfuCache<SubjectKey, AuthResult> denials = this.denials;
+    if (denials != null) {
+      denials.invalidateAll();
+    }
+  }
+
+  /**
+   * An authorization result in the cache.
+   */
+  private static final class CachedResult {
+
+    final AuthResult result;
+
+    /** Time at which the result was obtained, as read from the ticker. */
+    final long loadTime;
+
+    /** Flag indicating whether a request to refresh the result is pending. */
+    final AtomicBoolean refreshing = new AtomicBoolean();
+
+    CachedResult(AuthResult result, long loadTime) {
+      this.result = result;
+      this.loadTime = loadTime;
+    }
+
+  }
+
+}
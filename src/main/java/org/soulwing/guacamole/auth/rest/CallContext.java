@@ -0,0 +1,299 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state of a single authorization call, including its deadline and
+ * phase timeouts.
+ * <p>
+ * The context for a call is bound to the calling thread for the duration of
+ * the call, so that the transport can apply the timeouts that remain in the
+ * budget when each phase of the request begins, and can register a hook
+ * that aborts the request when the deadline passes.
+ */
+final class CallContext {
+
+  /**
+   * A hook that aborts an in-flight request.
+   */
+  interface Abortable {
+
+    /**
+     * Aborts the request, causing any thread blocked on it to fail.
+     */
+    void abort();
+
+  }
+
+  private static final ThreadLocal<CallContext> CURRENT =
+      new ThreadLocal<CallContext>();
+
+  /** Flag indicating whether this call has a deadline. */
+  private final boolean bounded;
+
+  /** Deadline, in terms of {@link System#nanoTime()}. */
+  private final long deadline;
+
+  /** Connect timeout in milliseconds; zero if bounded only by deadline. */
+  private final int connectTimeout;
+
+  /** TLS timeout in milliseconds; zero if bounded only by deadline. */
+  private final int tlsTimeout;
+
+  /** Read timeout in milliseconds; zero if bounded only by deadline. */
+  private final int readTimeout;
+
+  /** Hook that aborts the request currently in flight for this call. */
+  private volatile Abortable abortable;
+
+  /** Flag indicating that the deadline has passed and the call was aborted. */
+  private volatile boolean expired;
+
+  /** Flag indicating that the call was aborted. */
+  private volatile boolean aborted;
+
+  private CallContext(boolean bounded, long deadline, int connectTimeout,
+      int tlsTimeout, int readTimeout) {
+    this.bounded = bounded;
+    this.deadline = deadline;
+    this.connectTimeout = connectTimeout;
+    this.tlsTimeout = tlsTimeout;
+    this.readTimeout = readTimeout;
+  }
+
+  /**
+   * Creates the context for a new call.
+   *
+   * @param budget
+   *    Total time allowed for the call in milliseconds; zero if the call has
+   *    no deadline.
+   *
+   * @param connectTimeout
+   *    Connect timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @param tlsTimeout
+   *    TLS handshake timeout in milliseconds; zero if bounded only by the
+   *    deadline.
+   *
+   * @param readTimeout
+   *    Read timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @return
+   *    The new context.
+   */
+  static CallContext create(long budget, int connectTimeout, int tlsTimeout,
+      int readTimeout) {
+    return new CallContext(budget > 0,
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget),
+        connectTimeout, tlsTimeout, readTimeout);
+  }
+
+  /**
+   * Creates the context for a new call whose deadline has already been
+   * started.
+   *
+   * @param deadline
+   *    Time, in terms of {@link System#nanoTime()}, at which the deadline
+   *    passes.
+   *
+   * @param connectTimeout
+   *    Connect timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @param tlsTimeout
+   *    TLS handshake timeout in milliseconds; zero if bounded only by the
+   *    deadline.
+   *
+   * @param readTimeout
+   *    Read timeout in milliseconds; zero if bounded only by the deadline.
+   *
+   * @return
+   *    The new context.
+   */
+  static CallContext until(long deadline, int connectTimeout, int tlsTimeout,
+      int readTimeout) {
+    return new CallContext(true, deadline, connectTimeout, tlsTimeout,
+        readTimeout);
+  }
+
+  /**
+   * Creates a context for another attempt at this call, with the same
+   * deadline and timeouts, that can be aborted independently of this one.
+   *
+   * @return
+   *    The new context.
+   */
+  CallContext newAttempt() {
+    return new CallContext(bounded, deadline, connectTimeout, tlsTimeout,
+        readTimeout);
+  }
+
+  /**
+   * Binds this context to the calling thread for the duration of the call.
+   */
+  void bind() {
+    CURRENT.set(this);
+  }
+
+  /**
+   * Gets the context of the call in progress on the calling thread.
+   *
+   * @return
+   *    Call context or {@code null} if no call is in progress.
+   */
+  static CallContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Ends this call, unbinding it from the calling thread.
+   */
+  void end() {
+    abortable = null;
+    CURRENT.remove();
+  }
+
+  /**
+   * Gets a flag indicating whether this call has a deadline.
+   *
+   * @return
+   *    Flag state.
+   */
+  boolean isBounded() {
+    return bounded;
+  }
+
+  /**
+   * Gets the time remaining before the deadline.
+   *
+   * @return
+   *    Remaining time in milliseconds; zero or less if the deadline has
+   *    passed, or {@link Long#MAX_VALUE} if this call has no deadline.
+   */
+  long getRemaining() {
+    if (!bounded) return Long.MAX_VALUE;
+    return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+  }
+
+  /**
+   * Gets a flag indicating whether the deadline for this call has passed.
+   *
+   * @return
+   *    Flag state.
+   */
+  boolean isExpired() {
+    return expired || bounded && deadline - System.nanoTime() <= 0;
+  }
+
+  /**
+   * Gets the time to wait to lease a pooled connection.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if there is no limit.
+   */
+  int getLeaseTimeout() {
+    return timeout(0);
+  }
+
+  /**
+   * Gets the connect timeout, limited by the time remaining in the budget.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if there is no limit.
+   */
+  int getConnectTimeout() {
+    return timeout(connectTimeout);
+  }
+
+  /**
+   * Gets the TLS handshake timeout, limited by the time remaining in the
+   * budget.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if there is no limit.
+   */
+  int getTlsTimeout() {
+    return timeout(tlsTimeout);
+  }
+
+  /**
+   * Gets the read timeout, limited by the time remaining in the budget.
+   *
+   * @return
+   *    Timeout in milliseconds; zero if there is no limit.
+   */
+  int getReadTimeout() {
+    return timeout(readTimeout);
+  }
+
+  /**
+   * Sets the hook that aborts the request currently in flight for this call.
+   * If the call has already been aborted, the request is aborted immediately.
+   *
+   * @param abortable
+   *    The hook to set.
+   */
+  void setAbortable(Abortable abortable) {
+    this.abortable = abortable;
+    if (aborted) {
+      abortable.abort();
+    }
+  }
+
+  /**
+   * Marks this call as expired and aborts the request in flight, if any.
+   * This method is invoked by a thread other than the one making the call.
+   */
+  void expire() {
+    expired = true;
+    abort();
+  }
+
+  /**
+   * Aborts the request in flight for this call, if any, and any request
+   * subsequently made for this call. This method may be invoked by a thread
+   * other than the one making the call.
+   */
+  void abort() {
+    aborted = true;
+    final Abortable abortable = this.abortable;
+    if (abortable != null) {
+      abortable.abort();
+    }
+  }
+
+  /**
+   * Computes the timeout for a phase of the call.
+   *
+   * @param phaseTimeout
+   *    Configured timeout for the phase; zero if bounded only by the
+   *    deadline.
+   *
+   * @return
+   *    Effective timeout in milliseconds; zero if there is no limit.
+   */
+  private int timeout(int phaseTimeout) {
+    if (!bounded) return phaseTimeout;
+    final int remaining =
+        (int) Math.max(1, Math.min(getRemaining(), Integer.MAX_VALUE));
+    return phaseTimeout > 0 ? Math.min(phaseTimeout, remaining) : remaining;
+  }
+
+}
@@ -0,0 +1,371 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A circuit breaker that tracks the outcomes of recent calls in a
+ * count-based sliding window.
+ * <p>
+ * While {@linkplain State#CLOSED closed}, every call is permitted and its
+ * outcome is recorded. When the window contains at least the minimum number
+ * of calls and either the rate of failed calls or the rate of slow calls
+ * reaches its threshold, the breaker {@linkplain State#OPEN opens} and
+ * rejects every call. After the open duration elapses, the breaker becomes
+ * {@linkplain State#HALF_OPEN half open} and permits a limited number of
+ * probe calls; if the probes succeed the breaker closes, otherwise it opens
+ * again.
+ */
+class CircuitBreaker {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(CircuitBreaker.class);
+
+  /**
+   * Circuit breaker states.
+   */
+  enum State {
+    /** Calls are permitted and outcomes recorded. */
+    CLOSED,
+    /** Calls are rejected. */
+    OPEN,
+    /** A limited number of probe calls are permitted. */
+    HALF_OPEN
+  }
+
+  /** Value returned by {@link #acquire()} when a call is rejected. */
+  static final long REJECTED = -1;
+
+  private static final byte FAILED = 0x1;
+  private static final byte SLOW = 0x2;
+
+  private final int minimumCalls;
+  private final int failureRateThreshold;
+  private final int slowCallRateThreshold;
+  private final long slowCallDuration;
+  private final long openDuration;
+  private final int halfOpenCalls;
+  private final Ticker ticker;
+
+  private final Lock lock = new ReentrantLock();
+
+  /** Outcomes of the most recent calls, as a ring buffer. */
+  private final byte[] window;
+
+  private State state = State.CLOSED;
+
+  /** Incremented on every state transition, to discard stale outcomes. */
+  private long generation;
+
+  /** Time at which an open breaker becomes half open. */
+  private long openUntil;
+
+  private int head;
+  private int calls;
+  private int failedCalls;
+  private int slowCalls;
+
+  /** Number of probe calls permitted in the current half open state. */
+  private int probesPermitted;
+
+  private long rejectedCount;
+  private long openedCount;
+  private long halfOpenedCount;
+  private long closedCount;
+
+  /**
+   * Constructs a new breaker in the closed state.
+   *
+   * @param windowSize
+   *    Number of calls in the sliding window.
+   *
+   * @param minimumCalls
+   *    Minimum number of calls in the window before failure and slow call
+   *    rates are evaluated.
+   *
+   * @param failureRateThreshold
+   *    Percentage of failed calls at which the breaker opens.
+   *
+   * @param slowCallRateThreshold
+   *    Percentage of slow calls at which the breaker opens.
+   *
+   * @param slowCallDuration
+   *    Duration in nanoseconds at or above which a call is considered slow.
+   *
+   * @param openDuration
+   *    Time in nanoseconds for which the breaker remains open before
+   *    permitting probe calls.
+   *
+   * @param halfOpenCalls
+   *    Number of probe calls permitted in the half open state.
+   *
+   * @param ticker
+   *    Time source.
+   */
+  CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+      int slowCallRateThreshold, long slowCallDuration, long openDuration,
+      int halfOpenCalls, Ticker ticker) {
+    this.window = new byte[Math.max(windowSize, 1)];
+    this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallDuration = slowCallDuration;
+    this.openDuration = openDuration;
+    this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    this.ticker = ticker;
+  }
+
+  /**
+   * Requests permission to make a call.
+   *
+   * @return
+   *    A permit that must be passed to {@link #release} when the call
+   *    completes, or {@link #REJECTED} if the call is not permitted.
+   */
+  long acquire() {
+    lock.lock();
+    try {
+      if (state == State.OPEN && ticker.read() - openUntil >= 0) {
+        transition(State.HALF_OPEN);
+      }
+      switch (state) {
+        case CLOSED:
+          return generation;
+        case HALF_OPEN:
+          if (probesPermitted < halfOpenCalls) {
+            probesPermitted++;
+            return generation;
+          }
+          break;
+        default:
+          break;
+      }
+      rejectedCount++;
+      return REJECTED;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records the outcome of a permitted call.
+   *
+   * @param permit
+   *    The permit returned by {@link #acquire()} for the call.
+   *
+   * @param duration
+   *    Duration of the call in nanoseconds.
+   *
+   * @param failed
+   *    Flag indicating whether the call failed.
+   */
+  void release(long permit, long duration, boolean failed) {
+    lock.lock();
+    try {
+      if (permit != generation || state == State.OPEN) return;
+      record(failed, duration >= slowCallDuration);
+      if (state == State.CLOSED) {
+        if (calls >= minimumCalls && isThresholdReached()) {
+          transition(State.OPEN);
+        }
+      }
+      else if (calls >= halfOpenCalls) {
+        transition(isThresholdReached() ? State.OPEN : State.CLOSED);
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forces this breaker into the closed state, discarding recorded outcomes.
+   */
+  void reset() {
+    lock.lock();
+    try {
+      transition(State.CLOSED);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  State getState() {
+    lock.lock();
+    try {
+      return state;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the percentage of failed calls in the window.
+   *
+   * @return
+   *    Failure rate, or zero if the window contains no calls.
+   */
+  float getFailureRate() {
+    lock.lock();
+    try {
+      return calls > 0 ? 100f * failedCalls / calls : 0f;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the percentage of slow calls in the window.
+   *
+   * @return
+   *    Slow call rate, or zero if the window contains no calls.
+   */
+  float getSlowCallRate() {
+    lock.lock();
+    try {
+      return calls > 0 ? 100f * slowCalls / calls : 0f;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  int getBufferedCalls() {
+    lock.lock();
+    try {
+      return calls;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  long getRejectedCount() {
+    lock.lock();
+    try {
+      return rejectedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  long getOpenedCount() {
+    lock.lock();
+    try {
+      return openedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  long getHalfOpenedCount() {
+    lock.lock();
+    try {
+      return halfOpenedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  long getClosedCount() {
+    lock.lock();
+    try {
+      return closedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records the outcome of a call in the window, displacing the oldest
+   * outcome if the window is full.
+   */
+  private void record(boolean failed, boolean slow) {
+    if (calls == window.length) {
+      final byte oldest = window[head];
+      if ((oldest & FAILED) != 0) failedCalls--;
+      if ((oldest & SLOW) != 0) slowCalls--;
+    }
+    else {
+      calls++;
+    }
+    byte outcome = 0;
+    if (failed) {
+      outcome |= FAILED;
+      failedCalls++;
+    }
+    if (slow) {
+      outcome |= SLOW;
+      slowCalls++;
+    }
+    window[head] = outcome;
+    head = (head + 1) % window.length;
+  }
+
+  private boolean isThresholdReached() {
+    return 100L * failedCalls >= (long) failureRateThreshold * calls
+        || 100L * slowCalls >= (long) slowCallRateThreshold * calls;
+  }
+
+  /**
+   * Transitions to a new state, discarding recorded outcomes.
+   */
+  private void transition(State newState) {
+    if (newState != state) {
+      logger.info("circuit breaker transition from {} to {}: "
+          + "{} of {} calls failed, {} slow", new Object[] { state, newState,
+          failedCalls, calls, slowCalls });
+      switch (newState) {
+        case OPEN:
+          openedCount++;
+          break;
+        case HALF_OPEN:
+          halfOpenedCount++;
+          break;
+        default:
+          closedCount++;
+          break;
+      }
+    }
+    if (newState == State.OPEN) {
+      openUntil = ticker.read() + openDuration;
+    }
+    state = newState;
+    generation++;
+    head = 0;
+    calls = 0;
+    failedCalls = 0;
+    slowCalls = 0;
+    probesPermitted = 0;
+  }
+
+}
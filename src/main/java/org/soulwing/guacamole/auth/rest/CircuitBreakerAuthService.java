@@ -0,0 +1,203 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleUpstreamUnavailableException;
+
+/**
+ * An {@link AuthService} that guards a delegate service with a
+ * {@link CircuitBreaker}.
+ * <p>
+ * When the breaker is open, requests fail immediately with a
+ * {@link GuacamoleUpstreamUnavailableException} rather than tying up a
+ * container thread waiting on a REST service that is failing or slow. When
+ * the configured window size is zero, this service simply delegates every
+ * request.
+ */
+class CircuitBreakerAuthService implements AuthService, CircuitBreakerMXBean {
+
+  /** Type name under which the breaker management bean is registered. */
+  static final String MBEAN_TYPE = "CircuitBreaker";
+
+  /** The delegate service. */
+  private final AuthService delegate;
+
+  /** Time source for call durations and the open state. */
+  private final Ticker ticker;
+
+  /** The circuit breaker, or {@code null} if the breaker is disabled. */
+  private volatile CircuitBreaker breaker;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   */
+  CircuitBreakerAuthService(AuthService delegate) {
+    this(delegate, Ticker.SYSTEM);
+  }
+
+  /**
+   * Constructs a new instance using the given time source.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   *
+   * @param ticker
+   *    Time source for call durations and the open state.
+   */
+  CircuitBreakerAuthService(AuthService delegate, Ticker ticker) {
+    this.delegate = delegate;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Initializes the delegate service and creates the circuit breaker.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in initializing the delegate or in retrieving the
+   *   breaker configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    delegate.init(config);
+    final int windowSize = config.getBreakerWindowSize();
+    if (windowSize <= 0) {
+      this.breaker = null;
+      return;
+    }
+    this.breaker = new CircuitBreaker(windowSize,
+        config.getBreakerMinimumCalls(),
+        config.getBreakerFailureRateThreshold(),
+        config.getBreakerSlowCallRateThreshold(),
+        TimeUnit.MILLISECONDS.toNanos(config.getBreakerSlowCallDuration()),
+        TimeUnit.SECONDS.toNanos(config.getBreakerOpenDuration()),
+        config.getBreakerHalfOpenCalls(), ticker);
+    JmxSupport.register(MBEAN_TYPE, this);
+  }
+
+  /**
+   * Requests authorization for a subject from the delegate service, if
+   * permitted by the circuit breaker.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the authorization result, or
+   *   exceptionally if the delegate service fails; with a
+   *   {@link GuacamoleUpstreamUnavailableException} if the breaker is open.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    final CircuitBreaker breaker = this.breaker;
+    if (breaker == null) return delegate.authorizeAsync(subject);
+
+    final long permit = breaker.acquire();
+    if (permit == CircuitBreaker.REJECTED) {
+      return CompletableFuture.failedFuture(
+          new GuacamoleUpstreamUnavailableException(
+              "REST service circuit is open"));
+    }
+
+    final long start = ticker.read();
+    final CompletableFuture<AuthResult> result;
+    try {
+      result = delegate.authorizeAsync(subject);
+    }
+    catch (RuntimeException ex) {
+      breaker.release(permit, ticker.read() - start, true);
+      throw ex;
+    }
+    return result.whenComplete((r, ex) ->
+        breaker.release(permit, ticker.read() - start, ex != null));
+  }
+
+  @Override
+  public void destroy() {
+    JmxSupport.unregister(MBEAN_TYPE, this);
+    delegate.destroy();
+  }
+
+  @Override
+  public String getState() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ?
+        breaker.getState().name() : CircuitBreaker.State.CLOSED.name();
+  }
+
+  @Override
+  public float getFailureRate() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getFailureRate() : 0f;
+  }
+
+  @Override
+  public float getSlowCallRate() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getSlowCallRate() : 0f;
+  }
+
+  @Override
+  public int getBufferedCalls() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getBufferedCalls() : 0;
+  }
+
+  @Override
+  public long getRejectedCount() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getRejectedCount() : 0;
+  }
+
+  @Override
+  public long getOpenedCount() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getOpenedCount() : 0;
+  }
+
+  @Override
+  public long getHalfOpenedCount() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getHalfOpenedCount() : 0;
+  }
+
+  @Override
+  public long getClosedCount() {
+    final CircuitBreaker breaker = this.breaker;
+    return breaker != null ? breaker.getClosedCount() : 0;
+  }
+
+  @Override
+  public void reset() {
+    final CircuitBreaker breaker = this.breaker;
+    if (breaker != null) {
+      breaker.reset();
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the circuit breaker that guards requests to the
+ * REST service.
+ */
+public interface CircuitBreakerMXBean {
+
+  /**
+   * Gets the current state of the breaker.
+   *
+   * @return
+   *    {@code CLOSED}, {@code OPEN}, or {@code HALF_OPEN}.
+   */
+  String getState();
+
+  /**
+   * Gets the percentage of failed calls among those recorded since the
+   * last state transition.
+   *
+   * @return
+   *    Failure rate.
+   */
+  float getFailureRate();
+
+  /**
+   * Gets the percentage of slow calls among those recorded since the last
+   * state transition.
+   *
+   * @return
+   *    Slow call rate.
+   */
+  float getSlowCallRate();
+
+  /**
+   * Gets the number of call outcomes recorded since the last state
+   * transition.
+   *
+   * @return
+   *    Call count.
+   */
+  int getBufferedCalls();
+
+  /**
+   * Gets the number of calls rejected because the breaker was open.
+   *
+   * @return
+   *    Rejected call count.
+   */
+  long getRejectedCount();
+
+  /**
+   * Gets the number of times the breaker has opened.
+   *
+   * @return
+   *    Transition count.
+   */
+  long getOpenedCount();
+
+  /**
+   * Gets the number of times the breaker has become half open.
+   *
+   * @return
+   *    Transition count.
+   */
+  long getHalfOpenedCount();
+
+  /**
+   * Gets the number of times the breaker has closed after being open.
+   *
+   * @return
+   *    Transition count.
+   */
+  long getClosedCount();
+
+  /**
+   * Forces the breaker into the closed state.
+   */
+  void reset();
+
+}
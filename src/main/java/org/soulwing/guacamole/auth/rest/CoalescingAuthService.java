@@ -0,0 +1,161 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.guacamole.GuacamoleException;
+
+/**
+ * An {@link AuthService} that coalesces concurrent requests to authorize
+ * the same subject into a single request to a delegate service.
+ * <p>
+ * Requests are identified by a {@link SubjectKey}, computed from the
+ * username, password, and the same request headers that distinguish cached
+ * results. The first caller for a key makes the request; callers that
+ * arrive while it is in flight wait for, and share, its result or failure.
+ */
+class CoalescingAuthService implements AuthService, RequestCoalescingMXBean {
+
+  /** Type name under which the coalescing management bean is registered. */
+  static final String MBEAN_TYPE = "RequestCoalescing";
+
+  /** The delegate service. */
+  private final AuthService delegate;
+
+  /** Requests in flight, on which later callers for the same key wait. */
+  private final ConcurrentMap<SubjectKey, CompletableFuture<AuthResult>>
+      flights = new ConcurrentHashMap<>();
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong collapsedCount = new AtomicLong();
+
+  /** Factory for request keys, or {@code null} if coalescing is disabled. */
+  private volatile SubjectKeyFactory keyFactory;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The service that will be used to obtain authorization results.
+   */
+  CoalescingAuthService(AuthService delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Initializes the delegate service and enables coalescing if configured.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in initializing the delegate or in retrieving the
+   *   coalescing configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    delegate.init(config);
+    if (!config.isCoalescingEnabled()) {
+      this.keyFactory = null;
+      return;
+    }
+    this.keyFactory = new SubjectKeyFactory(config.getCacheKeyHeaders());
+    JmxSupport.register(MBEAN_TYPE, this);
+  }
+
+  /**
+   * Gets the authorization result for a subject from a request already in
+   * flight for the same subject, or from a new request to the delegate
+   * service.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the authorization result. Each caller
+   *   gets a future that depends on the shared request, so that a caller
+   *   who cancels its future does not affect the others.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    final SubjectKeyFactory keyFactory = this.keyFactory;
+    if (keyFactory == null) return delegate.authorizeAsync(subject);
+
+    final SubjectKey key;
+    try {
+      key = keyFactory.newKey(subject);
+    }
+    catch (GuacamoleException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+    final CompletableFuture<AuthResult> flight = new CompletableFuture<>();
+    final CompletableFuture<AuthResult> inFlight =
+        flights.putIfAbsent(key, flight);
+    if (inFlight != null) {
+      collapsedCount.incrementAndGet();
+      return inFlight.thenApply(Function.identity());
+    }
+
+    requestCount.incrementAndGet();
+    CompletableFuture<AuthResult> result;
+    try {
+      result = delegate.authorizeAsync(subject);
+    }
+    catch (RuntimeException ex) {
+      result = CompletableFuture.failedFuture(ex);
+    }
+    result.whenComplete((r, ex) -> {
+      flights.remove(key, flight);
+      if (ex != null) {
+        flight.completeExceptionally(Futures.unwrap(ex));
+      }
+      else {
+        flight.complete(r);
+      }
+    });
+    return flight.thenApply(Function.identity());
+  }
+
+  @Override
+  public void destroy() {
+    JmxSupport.unregister(MBEAN_TYPE, this);
+    delegate.destroy();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  @Override
+  public long getCollapsedCount() {
+    return collapsedCount.get();
+  }
+
+  @Override
+  public int getInFlightCount() {
+    return flights.size();
+  }
+
+}
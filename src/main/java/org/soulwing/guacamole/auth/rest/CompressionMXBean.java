@@ -0,0 +1,82 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the compression of entities exchanged with
+ * the REST service.
+ * <p>
+ * Entity bytes are counted before compression of a request and after
+ * decompression of a response; wire bytes are the bytes actually sent or
+ * received. The difference between the two is the saving due to
+ * compression. Request entities are counted only when request compression
+ * is enabled.
+ */
+public interface CompressionMXBean {
+
+  /**
+   * Gets the number of request entity bytes before compression.
+   *
+   * @return
+   *    Byte count.
+   */
+  long getRequestEntityBytes();
+
+  /**
+   * Gets the number of request entity bytes sent to the REST service.
+   *
+   * @return
+   *    Byte count.
+   */
+  long getRequestWireBytes();
+
+  /**
+   * Gets the number of requests whose entity was compressed.
+   *
+   * @return
+   *    Request count.
+   */
+  long getCompressedRequestCount();
+
+  /**
+   * Gets the number of response entity bytes after decompression.
+   *
+   * @return
+   *    Byte count.
+   */
+  long getResponseEntityBytes();
+
+  /**
+   * Gets the number of response entity bytes received from the REST
+   * service.
+   *
+   * @return
+   *    Byte count.
+   */
+  long getResponseWireBytes();
+
+  /**
+   * Gets the number of responses whose entity was compressed.
+   *
+   * @return
+   *    Response count.
+   */
+  long getCompressedResponseCount();
+
+}
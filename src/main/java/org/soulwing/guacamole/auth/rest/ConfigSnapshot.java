@@ -0,0 +1,603 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.guacamole.GuacamoleException;
+
+/**
+ * An immutable {@link AuthServiceConfig} whose property values are all
+ * resolved when the snapshot is taken.
+ * <p>
+ * Services read a snapshot without any further property lookups. Snapshots
+ * with the same property values are equal, so that a configuration that has
+ * been reloaded can be compared with the one in use.
+ */
+final class ConfigSnapshot implements AuthServiceConfig {
+
+  private final List<String> serviceUrls;
+  private final String authorizationUri;
+  private final String transport;
+  private final boolean virtualThreadsEnabled;
+  private final boolean requestChunkingEnabled;
+  private final int deadline;
+  private final int connectTimeout;
+  private final int tlsTimeout;
+  private final int readTimeout;
+  private final boolean basicConfigured;
+  private final String basicUsername;
+  private final String basicPassword;
+  private final boolean digestConfigured;
+  private final String digestUsername;
+  private final String digestPassword;
+  private final boolean coalescingEnabled;
+  private final int cacheTtl;
+  private final int cacheMaxEntries;
+  private final long cacheMaxWeight;
+  private final List<String> cacheKeyHeaders;
+  private final boolean poolEnabled;
+  private final int poolMaxTotal;
+  private final int poolMaxPerRoute;
+  private final int poolIdleTimeout;
+  private final int poolValidateAfterInactivity;
+  private final int breakerWindowSize;
+  private final int breakerMinimumCalls;
+  private final int breakerFailureRateThreshold;
+  private final int breakerSlowCallRateThreshold;
+  private final int breakerSlowCallDuration;
+  private final int breakerOpenDuration;
+  private final int breakerHalfOpenCalls;
+  private final int ejectFailures;
+  private final int ejectDuration;
+  private final int slowStart;
+  private final boolean hedgeEnabled;
+  private final int hedgeDelay;
+  private final int hedgeBudget;
+  private final int bulkheadMaxConcurrent;
+  private final int bulkheadMaxQueue;
+  private final int bulkheadMaxQueuePerSource;
+  private final int bulkheadMaxWait;
+  private final boolean bulkheadAdaptive;
+  private final int bulkheadMinConcurrent;
+  private final String oAuth2ServiceUrl;
+  private final String oAuth2Scope;
+  private final int oAuth2RefreshAhead;
+  private final List<String> headerAllow;
+  private final List<String> headerDeny;
+  private final boolean compressionEnabled;
+  private final int compressionRequestThreshold;
+  private final String wireFormat;
+  private final boolean configReloadEnabled;
+  private final boolean metricsEndpointEnabled;
+  private final int cacheStaleWhileRevalidate;
+  private final int cacheStaleIfError;
+  private final int cacheNegativeTtl;
+  private final int rateLimitUser;
+  private final int rateLimitUserBurst;
+  private final int rateLimitAddress;
+  private final int rateLimitAddressBurst;
+  private final int rateLimitMaxKeys;
+  private final String parametersUri;
+  private final int parametersCacheTtl;
+
+  private ConfigSnapshot(AuthServiceConfig config) throws GuacamoleException {
+    this.serviceUrls = List.copyOf(config.getServiceUrls());
+    this.authorizationUri = config.getAuthorizationUri();
+    this.transport = config.getTransport();
+    this.virtualThreadsEnabled = config.isVirtualThreadsEnabled();
+    this.requestChunkingEnabled = config.isRequestChunkingEnabled();
+    this.deadline = config.getDeadline();
+    this.connectTimeout = config.getConnectTimeout();
+    this.tlsTimeout = config.getTlsTimeout();
+    this.readTimeout = config.getReadTimeout();
+    this.basicConfigured = config.isBasicConfigured();
+    this.basicUsername = basicConfigured ? config.getBasicUsername() : null;
+    this.basicPassword = basicConfigured ? config.getBasicPassword() : null;
+    this.digestConfigured = config.isDigestConfigured();
+    this.digestUsername = digestConfigured ? config.getDigestUsername() : null;
+    this.digestPassword = digestConfigured ? config.getDigestPassword() : null;
+    this.coalescingEnabled = config.isCoalescingEnabled();
+    this.cacheTtl = config.getCacheTtl();
+    this.cacheMaxEntries = config.getCacheMaxEntries();
+    this.cacheMaxWeight = config.getCacheMaxWeight();
+    this.cacheKeyHeaders = List.copyOf(config.getCacheKeyHeaders());
+    this.poolEnabled = config.isPoolEnabled();
+    this.poolMaxTotal = config.getPoolMaxTotal();
+    this.poolMaxPerRoute = config.getPoolMaxPerRoute();
+    this.poolIdleTimeout = config.getPoolIdleTimeout();
+    this.poolValidateAfterInactivity = config.getPoolValidateAfterInactivity();
+    this.breakerWindowSize = config.getBreakerWindowSize();
+    this.breakerMinimumCalls = config.getBreakerMinimumCalls();
+    this.breakerFailureRateThreshold = config.getBreakerFailureRateThreshold();
+    this.breakerSlowCallRateThreshold =
+        config.getBreakerSlowCallRateThreshold();
+    this.breakerSlowCallDuration = config.getBreakerSlowCallDuration();
+    this.breakerOpenDuration = config.getBreakerOpenDuration();
+    this.breakerHalfOpenCalls = config.getBreakerHalfOpenCalls();
+    this.ejectFailures = config.getEjectFailures();
+    this.ejectDuration = config.getEjectDuration();
+    this.slowStart = config.getSlowStart();
+    this.hedgeEnabled = config.isHedgeEnabled();
+    this.hedgeDelay = config.getHedgeDelay();
+    this.hedgeBudget = config.getHedgeBudget();
+    this.bulkheadMaxConcurrent = config.getBulkheadMaxConcurrent();
+    this.bulkheadMaxQueue = config.getBulkheadMaxQueue();
+    this.bulkheadMaxQueuePerSource = config.getBulkheadMaxQueuePerSource();
+    this.bulkheadMaxWait = config.getBulkheadMaxWait();
+    this.bulkheadAdaptive = config.isBulkheadAdaptive();
+    this.bulkheadMinConcurrent = config.getBulkheadMinConcurrent();
+    this.oAuth2ServiceUrl = config.getOAuth2ServiceUrl();
+    this.oAuth2Scope = config.getOAuth2Scope();
+    this.oAuth2RefreshAhead = config.getOAuth2RefreshAhead();
+    this.headerAllow = List.copyOf(config.getHeaderAllow());
+    this.headerDeny = List.copyOf(config.getHeaderDeny());
+    this.compressionEnabled = config.isCompressionEnabled();
+    this.compressionRequestThreshold = config.getCompressionRequestThreshold();
+    this.wireFormat = config.getWireFormat();
+    this.configReloadEnabled = config.isConfigReloadEnabled();
+    this.metricsEndpointEnabled = config.isMetricsEndpointEnabled();
+    this.cacheStaleWhileRevalidate = config.getCacheStaleWhileRevalidate();
+    this.cacheStaleIfError = config.getCacheStaleIfError();
+    this.cacheNegativeTtl = config.getCacheNegativeTtl();
+    this.rateLimitUser = config.getRateLimitUser();
+    this.rateLimitUserBurst = config.getRateLimitUserBurst();
+    this.rateLimitAddress = config.getRateLimitAddress();
+    this.rateLimitAddressBurst = config.getRateLimitAddressBurst();
+    this.rateLimitMaxKeys = config.getRateLimitMaxKeys();
+    this.parametersUri = config.getParametersUri();
+    this.parametersCacheTtl = config.getParametersCacheTtl();
+  }
+
+  /**
+   * Takes a snapshot of a configuration.
+   * <p>
+   * Credentials for Basic and Digest authentication are resolved only if
+   * the corresponding authentication scheme is configured.
+   *
+   * @param config
+   *    The configuration whose property values are to be resolved.
+   *
+   * @return
+   *    Snapshot of {@code config}.
+   *
+   * @throws GuacamoleException
+   *    If a property value cannot be resolved.
+   */
+  static ConfigSnapshot of(AuthServiceConfig config)
+      throws GuacamoleException {
+    return new ConfigSnapshot(config);
+  }
+
+  @Override
+  public List<String> getServiceUrls() {
+    return serviceUrls;
+  }
+
+  @Override
+  public String getAuthorizationUri() {
+    return authorizationUri;
+  }
+
+  @Override
+  public String getTransport() {
+    return transport;
+  }
+
+  @Override
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  @Override
+  public boolean isRequestChunkingEnabled() {
+    return requestChunkingEnabled;
+  }
+
+  @Override
+  public int getDeadline() {
+    return deadline;
+  }
+
+  @Override
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  @Override
+  public int getTlsTimeout() {
+    return tlsTimeout;
+  }
+
+  @Override
+  public int getReadTimeout() {
+    return readTimeout;
+  }
+
+  @Override
+  public boolean isBasicConfigured() {
+    return basicConfigured;
+  }
+
+  @Override
+  public String getBasicUsername() {
+    return basicUsername;
+  }
+
+  @Override
+  public String getBasicPassword() {
+    return basicPassword;
+  }
+
+  @Override
+  public boolean isDigestConfigured() {
+    return digestConfigured;
+  }
+
+  @Override
+  public String getDigestUsername() {
+    return digestUsername;
+  }
+
+  @Override
+  public String getDigestPassword() {
+    return digestPassword;
+  }
+
+  @Override
+  public boolean isCoalescingEnabled() {
+    return coalescingEnabled;
+  }
+
+  @Override
+  public int getCacheTtl() {
+    return cacheTtl;
+  }
+
+  @Override
+  public int getCacheMaxEntries() {
+    return cacheMaxEntries;
+  }
+
+  @Override
+  public long getCacheMaxWeight() {
+    return cacheMaxWeight;
+  }
+
+  @Override
+  public List<String> getCacheKeyHeaders() {
+    return cacheKeyHeaders;
+  }
+
+  @Override
+  public boolean isPoolEnabled() {
+    return poolEnabled;
+  }
+
+  @Override
+  public int getPoolMaxTotal() {
+    return poolMaxTotal;
+  }
+
+  @Override
+  public int getPoolMaxPerRoute() {
+    return poolMaxPerRoute;
+  }
+
+  @Override
+  public int getPoolIdleTimeout() {
+    return poolIdleTimeout;
+  }
+
+  @Override
+  public int getPoolValidateAfterInactivity() {
+    return poolValidateAfterInactivity;
+  }
+
+  @Override
+  public int getBreakerWindowSize() {
+    return breakerWindowSize;
+  }
+
+  @Override
+  public int getBreakerMinimumCalls() {
+    return breakerMinimumCalls;
+  }
+
+  @Override
+  public int getBreakerFailureRateThreshold() {
+    return breakerFailureRateThreshold;
+  }
+
+  @Override
+  public int getBreakerSlowCallRateThreshold() {
+    return breakerSlowCallRateThreshold;
+  }
+
+  @Override
+  public int getBreakerSlowCallDuration() {
+    return breakerSlowCallDuration;
+  }
+
+  @Override
+  public int getBreakerOpenDuration() {
+    return breakerOpenDuration;
+  }
+
+  @Override
+  public int getBreakerHalfOpenCalls() {
+    return breakerHalfOpenCalls;
+  }
+
+  @Override
+  public int getEjectFailures() {
+    return ejectFailures;
+  }
+
+  @Override
+  public int getEjectDuration() {
+    return ejectDuration;
+  }
+
+  @Override
+  public int getSlowStart() {
+    return slowStart;
+  }
+
+  @Override
+  public boolean isHedgeEnabled() {
+    return hedgeEnabled;
+  }
+
+  @Override
+  public int getHedgeDelay() {
+    return hedgeDelay;
+  }
+
+  @Override
+  public int getHedgeBudget() {
+    return hedgeBudget;
+  }
+
+  @Override
+  public int getBulkheadMaxConcurrent() {
+    return bulkheadMaxConcurrent;
+  }
+
+  @Override
+  public int getBulkheadMaxQueue() {
+    return bulkheadMaxQueue;
+  }
+
+  @Override
+  public int getBulkheadMaxQueuePerSource() {
+    return bulkheadMaxQueuePerSource;
+  }
+
+  @Override
+  public int getBulkheadMaxWait() {
+    return bulkheadMaxWait;
+  }
+
+  @Override
+  public boolean isBulkheadAdaptive() {
+    return bulkheadAdaptive;
+  }
+
+  @Override
+  public int getBulkheadMinConcurrent() {
+    return bulkheadMinConcurrent;
+  }
+
+  @Override
+  public String getOAuth2ServiceUrl() {
+    return oAuth2ServiceUrl;
+  }
+
+  @Override
+  public String getOAuth2Scope() {
+    return oAuth2Scope;
+  }
+
+  @Override
+  public int getOAuth2RefreshAhead() {
+    return oAuth2RefreshAhead;
+  }
+
+  @Override
+  public List<String> getHeaderAllow() {
+    return headerAllow;
+  }
+
+  @Override
+  public List<String> getHeaderDeny() {
+    return headerDeny;
+  }
+
+  @Override
+  public boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  @Override
+  public int getCompressionRequestThreshold() {
+    return compressionRequestThreshold;
+  }
+
+  @Override
+  public String getWireFormat() {
+    return wireFormat;
+  }
+
+  @Override
+  public boolean isConfigReloadEnabled() {
+    return configReloadEnabled;
+  }
+
+  @Override
+  public boolean isMetricsEndpointEnabled() {
+    return metricsEndpointEnabled;
+  }
+
+  @Override
+  public int getCacheStaleWhileRevalidate() {
+    return cacheStaleWhileRevalidate;
+  }
+
+  @Override
+  public int getCacheStaleIfError() {
+    return cacheStaleIfError;
+  }
+
+  @Override
+  public int getCacheNegativeTtl() {
+    return cacheNegativeTtl;
+  }
+
+  @Override
+  public int getRateLimitUser() {
+    return rateLimitUser;
+  }
+
+  @Override
+  public int getRateLimitUserBurst() {
+    return rateLimitUserBurst;
+  }
+
+  @Override
+  public int getRateLimitAddress() {
+    return rateLimitAddress;
+  }
+
+  @Override
+  public int getRateLimitAddressBurst() {
+    return rateLimitAddressBurst;
+  }
+
+  @Override
+  public int getRateLimitMaxKeys() {
+    return rateLimitMaxKeys;
+  }
+
+  @Override
+  public String getParametersUri() {
+    return parametersUri;
+  }
+
+  @Override
+  public int getParametersCacheTtl() {
+    return parametersCacheTtl;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (!(obj instanceof ConfigSnapshot)) return false;
+    final ConfigSnapshot that = (ConfigSnapshot) obj;
+    return Objects.equals(serviceUrls, that.serviceUrls)
+        && Objects.equals(authorizationUri, that.authorizationUri)
+        && Objects.equals(transport, that.transport)
+        && virtualThreadsEnabled == that.virtualThreadsEnabled
+        && requestChunkingEnabled == that.requestChunkingEnabled
+        && deadline == that.deadline
+        && connectTimeout == that.connectTimeout
+        && tlsTimeout == that.tlsTimeout
+        && readTimeout == that.readTimeout
+        && basicConfigured == that.basicConfigured
+        && Objects.equals(basicUsername, that.basicUsername)
+        && Objects.equals(basicPassword, that.basicPassword)
+        && digestConfigured == that.digestConfigured
+        && Objects.equals(digestUsername, that.digestUsername)
+        && Objects.equals(digestPassword, that.digestPassword)
+        && coalescingEnabled == that.coalescingEnabled
+        && cacheTtl == that.cacheTtl
+        && cacheMaxEntries == that.cacheMaxEntries
+        && cacheMaxWeight == that.cacheMaxWeight
+        && Objects.equals(cacheKeyHeaders, that.cacheKeyHeaders)
+        && poolEnabled == that.poolEnabled
+        && poolMaxTotal == that.poolMaxTotal
+        && poolMaxPerRoute == that.poolMaxPerRoute
+        && poolIdleTimeout == that.poolIdleTimeout
+        && poolValidateAfterInactivity == that.poolValidateAfterInactivity
+        && breakerWindowSize == that.breakerWindowSize
+        && breakerMinimumCalls == that.breakerMinimumCalls
+        && breakerFailureRateThreshold == that.breakerFailureRateThreshold
+        && breakerSlowCallRateThreshold == that.breakerSlowCallRateThreshold
+        && breakerSlowCallDuration == that.breakerSlowCallDuration
+        && breakerOpenDuration == that.breakerOpenDuration
+        && breakerHalfOpenCalls == that.breakerHalfOpenCalls
+        && ejectFailures == that.ejectFailures
+        && ejectDuration == that.ejectDuration
+        && slowStart == that.slowStart
+        && hedgeEnabled == that.hedgeEnabled
+        && hedgeDelay == that.hedgeDelay
+        && hedgeBudget == that.hedgeBudget
+        && bulkheadMaxConcurrent == that.bulkheadMaxConcurrent
+        && bulkheadMaxQueue == that.bulkheadMaxQueue
+        && bulkheadMaxQueuePerSource == that.bulkheadMaxQueuePerSource
+        && bulkheadMaxWait == that.bulkheadMaxWait
+        && bulkheadAdaptive == that.bulkheadAdaptive
+        && bulkheadMinConcurrent == that.bulkheadMinConcurrent
+        && Objects.equals(oAuth2ServiceUrl, that.oAuth2ServiceUrl)
+        && Objects.equals(oAuth2Scope, that.oAuth2Scope)
+        && oAuth2RefreshAhead == that.oAuth2RefreshAhead
+        && Objects.equals(headerAllow, that.headerAllow)
+        && Objects.equals(headerDeny, that.headerDeny)
+        && compressionEnabled == that.compressionEnabled
+        && compressionRequestThreshold == that.compressionRequestThreshold
+        && Objects.equals(wireFormat, that.wireFormat)
+        && configReloadEnabled == that.configReloadEnabled
+        && metricsEndpointEnabled == that.metricsEndpointEnabled
+        && cacheStaleWhileRevalidate == that.cacheStaleWhileRevalidate
+        && cacheStaleIfError == that.cacheStaleIfError
+        && cacheNegativeTtl == that.cacheNegativeTtl
+        && rateLimitUser == that.rateLimitUser
+        && rateLimitUserBurst == that.rateLimitUserBurst
+        && rateLimitAddress == that.rateLimitAddress
+        && rateLimitAddressBurst == that.rateLimitAddressBurst
+        && rateLimitMaxKeys == that.rateLimitMaxKeys
+        && Objects.equals(parametersUri, that.parametersUri)
+        && parametersCacheTtl == that.parametersCacheTtl;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(serviceUrls, authorizationUri, transport,
+        virtualThreadsEnabled, requestChunkingEnabled, deadline, connectTimeout,
+        tlsTimeout, readTimeout, basicConfigured, basicUsername, basicPassword,
+        digestConfigured, digestUsername, digestPassword, coalescingEnabled,
+        cacheTtl, cacheMaxEntries, cacheMaxWeight, cacheKeyHeaders, poolEnabled,
+        poolMaxTotal, poolMaxPerRoute, poolIdleTimeout,
+        poolValidateAfterInactivity, breakerWindowSize, breakerMinimumCalls,
+        breakerFailureRateThreshold, breakerSlowCallRateThreshold,
+        breakerSlowCallDuration, breakerOpenDuration, breakerHalfOpenCalls,
+        ejectFailures, ejectDuration, slowStart, hedgeEnabled, hedgeDelay,
+        hedgeBudget, bulkheadMaxConcurrent, bulkheadMaxQueue,
+        bulkheadMaxQueuePerSource, bulkheadMaxWait, bulkheadAdaptive,
+        bulkheadMinConcurrent, oAuth2ServiceUrl, oAuth2Scope,
+        oAuth2RefreshAhead, headerAllow, headerDeny, compressionEnabled,
+        compressionRequestThreshold, wireFormat, configReloadEnabled,
+        metricsEndpointEnabled, cacheStaleWhileRevalidate, cacheStaleIfError,
+        cacheNegativeTtl, rateLimitUser, rateLimitUserBurst, rateLimitAddress,
+        rateLimitAddressBurst, rateLimitMaxKeys, parametersUri,
+        parametersCacheTtl);
+  }
+
+}
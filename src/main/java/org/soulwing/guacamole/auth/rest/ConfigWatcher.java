@@ -0,0 +1,168 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A watcher that notifies a listener when {@code guacamole.properties} is
+ * created or modified.
+ * <p>
+ * Editors and deployment tools often write a file in several steps, so a
+ * change is reported only after the directory has been quiet for a short
+ * interval; a burst of events produces a single notification. The listener
+ * runs on the watcher's own daemon thread.
+ */
+class ConfigWatcher implements Closeable {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(ConfigWatcher.class);
+
+  /** Name of the watched file. */
+  static final String PROPERTIES_FILE = "guacamole.properties";
+
+  /** Quiet interval in milliseconds that ends a burst of changes. */
+  static final long DEFAULT_QUIET_INTERVAL = 500;
+
+  private final Path directory;
+  private final Path file;
+  private final long quietInterval;
+  private final Runnable listener;
+
+  private WatchService watchService;
+  private Thread thread;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param directory
+   *    The directory that contains {@code guacamole.properties}.
+   *
+   * @param quietInterval
+   *    Interval in milliseconds without further changes after which a change
+   *    is reported.
+   *
+   * @param listener
+   *    Listener that will be run after each change.
+   */
+  ConfigWatcher(File directory, long quietInterval, Runnable listener) {
+    this.directory = directory.toPath();
+    this.file = this.directory.getFileSystem().getPath(PROPERTIES_FILE);
+    this.quietInterval = quietInterval;
+    this.listener = listener;
+  }
+
+  /**
+   * Starts watching for changes.
+   *
+   * @throws IOException
+   *    If the directory cannot be watched.
+   */
+  void start() throws IOException {
+    watchService = directory.getFileSystem().newWatchService();
+    try {
+      directory.register(watchService,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+    catch (IOException | RuntimeException ex) {
+      watchService.close();
+      throw ex;
+    }
+    thread = new Thread(this::watch, "auth-rest-config-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops watching for changes.
+   */
+  @Override
+  public void close() {
+    if (watchService == null) return;
+    try {
+      watchService.close();
+    }
+    catch (IOException ex) {
+      logger.warn("error closing watch service: {}", ex);
+    }
+    thread.interrupt();
+  }
+
+  /**
+   * Waits for changes and notifies the listener until the watch service is
+   * closed.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        if (!isChanged(watchService.take())) continue;
+        WatchKey key;
+        while ((key = watchService.poll(quietInterval,
+            TimeUnit.MILLISECONDS)) != null) {
+          isChanged(key);
+        }
+        try {
+          listener.run();
+        }
+        catch (RuntimeException ex) {
+          logger.error("error applying configuration change: {}", ex, ex);
+        }
+      }
+    }
+    catch (ClosedWatchServiceException | InterruptedException ex) {
+      logger.debug("stopped watching {}", directory);
+    }
+  }
+
+  /**
+   * Consumes the events of a watch key and resets it.
+   *
+   * @param key
+   *    The signalled key.
+   *
+   * @return
+   *    {@code true} if any event concerns the watched file, or if events
+   *    were lost.
+   */
+  private boolean isChanged(WatchKey key) {
+    boolean changed = false;
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW
+          || file.equals(event.context())) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleSecurityException;
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * A source of the parameters of a single connection, requested from an
+ * {@link AuthService} when the connection is opened.
+ * <p>
+ * Each request is made for a {@link ConnectionSubject} that names the
+ * connection. The configuration in the result is cached for a short time,
+ * keyed by a {@link SubjectKey} of the connection subject, so that a user
+ * who reopens a connection (e.g. after a dropped network) does not cause
+ * another request. The cache is disabled if its time to live is zero.
+ */
+class ConnectionParameterCache implements ConnectionParameterCacheMXBean {
+
+  /** Type name under which the cache management bean is registered. */
+  static final String MBEAN_TYPE = "ConnectionParameterCache";
+
+  /** Weigher that gives each configuration the same weight. */
+  private static final TinyLfuCache.Weigher<GuacamoleConfiguration>
+      UNIT_WEIGHER = configuration -> 1;
+
+  /** The service from which connection parameters are requested. */
+  private final AuthService authService;
+
+  /** Factory for cache keys. */
+  private final SubjectKeyFactory keyFactory;
+
+  /** Deadline budget in milliseconds; zero if requests have no deadline. */
+  private final int deadline;
+
+  /** Cached configurations, or {@code null} if caching is disabled. */
+  private final TinyLfuCache<SubjectKey, GuacamoleConfiguration> cache;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param authService
+   *    The service from which connection parameters are requested.
+   *
+   * @param config
+   *    Configuration that specifies the time to live, the maximum number of
+   *    entries, the request headers that distinguish cached entries, and the
+   *    deadline for each request.
+   *
+   * @param ticker
+   *    Time source for entry expiration.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the cache configuration.
+   */
+  ConnectionParameterCache(AuthService authService, AuthServiceConfig config,
+      Ticker ticker) throws GuacamoleException {
+    this.authService = authService;
+    this.keyFactory = new SubjectKeyFactory(config.getCacheKeyHeaders());
+    this.deadline = config.getDeadline();
+    final int ttl = config.getParametersCacheTtl();
+    final int maxEntries = config.getCacheMaxEntries();
+    this.cache = ttl > 0 && maxEntries > 0 ?
+        new TinyLfuCache<SubjectKey, GuacamoleConfiguration>(maxEntries, 0,
+            TimeUnit.SECONDS.toNanos(ttl), UNIT_WEIGHER, ticker) : null;
+  }
+
+  /**
+   * Gets the configuration of a connection, including its parameters.
+   *
+   * @param subject
+   *    The subject that was authorized at login.
+   *
+   * @param connectionName
+   *    Name of the connection.
+   *
+   * @return
+   *    Configuration of the connection.
+   *
+   * @throws GuacamoleException
+   *    If the REST service does not authorize the subject to use the
+   *    connection, if its result does not include the configuration of the
+   *    connection, or if an error occurs in requesting the configuration.
+   */
+  GuacamoleConfiguration getConfiguration(AuthSubject subject,
+      String connectionName) throws GuacamoleException {
+    final AuthSubject connectionSubject =
+        new ConnectionSubject(subject, connectionName);
+    final TinyLfuCache<SubjectKey, GuacamoleConfiguration> cache = this.cache;
+    final SubjectKey key = cache != null ?
+        keyFactory.newKey(connectionSubject) : null;
+    if (cache != null) {
+      final GuacamoleConfiguration configuration = cache.get(key);
+      if (configuration != null) return configuration;
+    }
+
+    final AuthResult result = authService.authorize(
+        BoundedAuthSubject.start(connectionSubject, deadline));
+    if (!result.isAuthorized()) {
+      throw new GuacamoleSecurityException(
+          "not authorized for connection '" + connectionName + "'");
+    }
+    final Map<String, GuacamoleConfiguration> configurations =
+        result.getConfigurations();
+    final GuacamoleConfiguration configuration = configurations != null ?
+        configurations.get(connectionName) : null;
+    if (configuration == null) {
+      throw new GuacamoleServerException(
+          "REST service provided no configuration for connection");
+    }
+    if (cache != null) {
+      cache.put(key, configuration);
+    }
+    return configuration;
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache != null ? cache.hitCount() : 0;
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache != null ? cache.missCount() : 0;
+  }
+
+  @Override
+  public int getSize() {
+    return cache != null ? cache.size() : 0;
+  }
+
+}
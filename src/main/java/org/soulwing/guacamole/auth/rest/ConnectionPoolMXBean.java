@@ -0,0 +1,92 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the pool of HTTP connections to the REST
+ * service.
+ */
+public interface ConnectionPoolMXBean {
+
+  /**
+   * Gets the number of connections currently leased to requests.
+   *
+   * @return
+   *    Leased connection count.
+   */
+  int getLeased();
+
+  /**
+   * Gets the number of idle connections available for reuse.
+   *
+   * @return
+   *    Available connection count.
+   */
+  int getAvailable();
+
+  /**
+   * Gets the number of requests waiting to lease a connection.
+   *
+   * @return
+   *    Pending request count.
+   */
+  int getPending();
+
+  /**
+   * Gets the maximum number of connections in the pool.
+   *
+   * @return
+   *    Maximum connection count.
+   */
+  int getMaxTotal();
+
+  /**
+   * Gets the number of connection leases granted.
+   *
+   * @return
+   *    Lease count.
+   */
+  long getLeaseCount();
+
+  /**
+   * Gets the total time requests have spent waiting to lease a connection.
+   *
+   * @return
+   *    Total lease wait time in milliseconds.
+   */
+  long getTotalLeaseWaitTime();
+
+  /**
+   * Gets the mean time a request has waited to lease a connection.
+   *
+   * @return
+   *    Average lease wait time in milliseconds, or 0 if no leases have been
+   *    granted.
+   */
+  double getAverageLeaseWaitTime();
+
+  /**
+   * Gets the longest time any request has waited to lease a connection.
+   *
+   * @return
+   *    Maximum lease wait time in milliseconds.
+   */
+  long getMaxLeaseWaitTime();
+
+}
@@ -0,0 +1,84 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A subject whose parameters for a single connection are requested.
+ * <p>
+ * A connection subject carries the same credentials and request headers as
+ * the subject that was authorized at login, so that the REST service can
+ * authorize access to the connection before it discloses the connection
+ * parameters.
+ */
+class ConnectionSubject implements AuthSubject {
+
+  /** The authorized subject. */
+  private final AuthSubject subject;
+
+  /** Name of the connection whose parameters are requested. */
+  private final String connectionName;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param subject
+   *    The authorized subject.
+   *
+   * @param connectionName
+   *    Name of the connection whose parameters are requested.
+   */
+  ConnectionSubject(AuthSubject subject, String connectionName) {
+    this.subject = subject;
+    this.connectionName = connectionName;
+  }
+
+  @Override
+  public String getUsername() {
+    return subject.getUsername();
+  }
+
+  @Override
+  public String getPassword() {
+    return subject.getPassword();
+  }
+
+  @Override
+  public String getRemoteAddress() {
+    return subject.getRemoteAddress();
+  }
+
+  @Override
+  public String getRemoteHostname() {
+    return subject.getRemoteHostname();
+  }
+
+  @Override
+  public Map<String, List<String>> getHeaders() {
+    return subject.getHeaders();
+  }
+
+  @Override
+  public String getConnectionName() {
+    return connectionName;
+  }
+
+}
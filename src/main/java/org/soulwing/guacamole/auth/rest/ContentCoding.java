@@ -0,0 +1,212 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The content codings used to compress entities exchanged with the REST
+ * service, with counters of the bytes exchanged.
+ * <p>
+ * Responses in the {@code gzip} or {@code deflate} coding are decompressed
+ * as a stream while the entity is parsed. Request entities at least as
+ * large as a configured threshold are compressed using the {@code gzip}
+ * coding.
+ */
+class ContentCoding implements CompressionMXBean {
+
+  /** Type name under which the compression management bean is registered. */
+  static final String MBEAN_TYPE = "Compression";
+
+  /** Name of the request header that lists the acceptable codings. */
+  static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+
+  /** Name of the header that identifies the coding of an entity. */
+  static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+  /** Value of the {@value #ACCEPT_ENCODING_HEADER} request header. */
+  static final String ACCEPT_ENCODING = "gzip, deflate";
+
+  /** Name of the coding used to compress request entities. */
+  static final String GZIP = "gzip";
+
+  private static final String DEFLATE = "deflate";
+
+  private static final String IDENTITY = "identity";
+
+  /** Size of the buffers used by the compression streams. */
+  private static final int BUFFER_SIZE = 8192;
+
+  /** Smallest request entity that is compressed; zero for none. */
+  private final int requestThreshold;
+
+  private final AtomicLong requestEntityBytes = new AtomicLong();
+  private final AtomicLong requestWireBytes = new AtomicLong();
+  private final AtomicLong compressedRequestCount = new AtomicLong();
+  private final AtomicLong responseEntityBytes = new AtomicLong();
+  private final AtomicLong responseWireBytes = new AtomicLong();
+  private final AtomicLong compressedResponseCount = new AtomicLong();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param requestThreshold
+   *    Size in bytes of the smallest request entity to compress; zero if
+   *    request entities are not to be compressed.
+   */
+  ContentCoding(int requestThreshold) {
+    this.requestThreshold = requestThreshold;
+  }
+
+  /**
+   * Determines whether any request entities are compressed.
+   *
+   * @return
+   *    {@code true} if request entities at least as large as the threshold
+   *    are compressed.
+   */
+  boolean isRequestCompressionEnabled() {
+    return requestThreshold > 0;
+  }
+
+  /**
+   * Determines whether a request entity of a given size should be
+   * compressed.
+   *
+   * @param length
+   *    Size of the entity in bytes.
+   *
+   * @return
+   *    {@code true} if the entity should be compressed using the
+   *    {@value #GZIP} coding.
+   */
+  boolean isCompressible(int length) {
+    return requestThreshold > 0 && length >= requestThreshold;
+  }
+
+  /**
+   * Encodes a request entity, compressing it if it is
+   * {@linkplain #isCompressible(int) compressible}.
+   *
+   * @param entity
+   *    The entity.
+   *
+   * @return
+   *    The entity in the {@value #GZIP} coding, or {@code entity} itself
+   *    if it is not compressible.
+   */
+  byte[] encode(byte[] entity) {
+    requestEntityBytes.addAndGet(entity.length);
+    if (!isCompressible(entity.length)) {
+      requestWireBytes.addAndGet(entity.length);
+      return entity;
+    }
+    final ByteArrayOutputStream bos =
+        new ByteArrayOutputStream(entity.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(bos, BUFFER_SIZE)) {
+      out.write(entity);
+    }
+    catch (IOException ex) {
+      // not thrown by a ByteArrayOutputStream
+      throw new AssertionError(ex);
+    }
+    final byte[] encoded = bos.toByteArray();
+    requestWireBytes.addAndGet(encoded.length);
+    compressedRequestCount.incrementAndGet();
+    return encoded;
+  }
+
+  /**
+   * Decodes a response entity as it is read.
+   *
+   * @param contentEncoding
+   *    Value of the {@value #CONTENT_ENCODING_HEADER} header of the
+   *    response; may be {@code null}.
+   *
+   * @param in
+   *    Stream from which the entity as received can be read.
+   *
+   * @return
+   *    Stream from which the decoded entity can be read.
+   *
+   * @throws IOException
+   *    If the coding is not supported, or if an error occurs in reading the
+   *    header of a compressed entity.
+   */
+  InputStream decode(String contentEncoding, InputStream in)
+      throws IOException {
+    final InputStream wire = new CountingInputStream(in, responseWireBytes);
+    final String coding = contentEncoding != null ?
+        contentEncoding.trim().toLowerCase(Locale.ENGLISH) : IDENTITY;
+    if (coding.isEmpty() || coding.equals(IDENTITY)) {
+      return new CountingInputStream(wire, responseEntityBytes);
+    }
+    final InputStream decoded;
+    if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+      decoded = new GZIPInputStream(wire, BUFFER_SIZE);
+    }
+    else if (coding.equals(DEFLATE)) {
+      decoded = new InflaterInputStream(wire);
+    }
+    else {
+      throw new IOException("unsupported content encoding: "
+          + contentEncoding);
+    }
+    compressedResponseCount.incrementAndGet();
+    return new CountingInputStream(decoded, responseEntityBytes);
+  }
+
+  @Override
+  public long getRequestEntityBytes() {
+    return requestEntityBytes.get();
+  }
+
+  @Override
+  public long getRequestWireBytes() {
+    return requestWireBytes.get();
+  }
+
+  @Override
+  public long getCompressedRequestCount() {
+    return compressedRequestCount.get();
+  }
+
+  @Override
+  public long getResponseEntityBytes() {
+    return responseEntityBytes.get();
+  }
+
+  @Override
+  public long getResponseWireBytes() {
+    return responseWireBytes.get();
+  }
+
+  @Override
+  public long getCompressedResponseCount() {
+    return compressedResponseCount.get();
+  }
+
+}
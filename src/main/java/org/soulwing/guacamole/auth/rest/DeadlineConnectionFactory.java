@@ -0,0 +1,52 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import com.sun.jersey.client.urlconnection.HttpURLConnectionFactory;
+
+/**
+ * An {@link HttpURLConnectionFactory} that applies the timeouts of the
+ * current {@link CallContext} to each connection, and allows the call to
+ * abort the connection when its deadline passes.
+ */
+class DeadlineConnectionFactory implements HttpURLConnectionFactory {
+
+  @Override
+  public HttpURLConnection getHttpURLConnection(URL url) throws IOException {
+    final HttpURLConnection connection =
+        (HttpURLConnection) url.openConnection();
+    final CallContext call = CallContext.current();
+    if (call != null) {
+      connection.setConnectTimeout(call.getConnectTimeout());
+      connection.setReadTimeout(call.getReadTimeout());
+      call.setAbortable(new CallContext.Abortable() {
+        @Override
+        public void abort() {
+          connection.disconnect();
+        }
+      });
+    }
+    return connection;
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * An Apache HttpClient request interceptor that applies the timeouts of the
+ * current {@link CallContext} to each request, and allows the call to abort
+ * the request when its deadline passes.
+ * <p>
+ * The interceptor runs before a connection is leased from the pool, so the
+ * lease wait and connect timeouts it sets take effect for the request.
+ */
+class DeadlineRequestInterceptor implements HttpRequestInterceptor {
+
+  @Override
+  public void process(HttpRequest request, HttpContext context) {
+    final CallContext call = CallContext.current();
+    if (call == null) return;
+
+    final HttpClientContext clientContext = HttpClientContext.adapt(context);
+    clientContext.setRequestConfig(
+        RequestConfig.copy(clientContext.getRequestConfig())
+            .setConnectionRequestTimeout(call.getLeaseTimeout())
+            .setConnectTimeout(call.getConnectTimeout())
+            .setSocketTimeout(call.getReadTimeout())
+            .build());
+
+    if (request instanceof HttpRequestWrapper) {
+      final HttpRequest original = ((HttpRequestWrapper) request).getOriginal();
+      if (original instanceof HttpUriRequest) {
+        final HttpUriRequest uriRequest = (HttpUriRequest) original;
+        call.setAbortable(new CallContext.Abortable() {
+          @Override
+          public void abort() {
+            uriRequest.abort();
+          }
+        });
+      }
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+
+/**
+ * An {@link SSLConnectionSocketFactory} that limits the time allowed for
+ * the TLS handshake to the TLS timeout of the current {@link CallContext}.
+ * <p>
+ * The connection manager replaces the socket timeout with the read timeout
+ * once the connection is established.
+ */
+class DeadlineSSLSocketFactory extends SSLConnectionSocketFactory {
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param sslContext
+   *    SSL context for new sockets.
+   *
+   * @param hostnameVerifier
+   *    Verifier for server host names.
+   */
+  DeadlineSSLSocketFactory(SSLContext sslContext,
+      HostnameVerifier hostnameVerifier) {
+    super(sslContext, hostnameVerifier);
+  }
+
+  @Override
+  protected void prepareSocket(SSLSocket socket) throws IOException {
+    final CallContext call = CallContext.current();
+    if (call != null) {
+      socket.setSoTimeout(call.getTlsTimeout());
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A watchdog that expires calls whose deadline has passed, aborting the
+ * request in flight so that the calling thread is released promptly.
+ */
+class DeadlineWatchdog {
+
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Constructs a new watchdog with its own daemon timer thread.
+   */
+  DeadlineWatchdog() {
+    final ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, "auth-rest-deadline");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    // a call that completes cancels its expiry, which must not stay queued
+    // (holding the call) until its deadline would have passed
+    executor.setRemoveOnCancelPolicy(true);
+    this.executor = executor;
+  }
+
+  /**
+   * Watches a call, expiring it if it does not complete before its deadline.
+   *
+   * @param call
+   *    The call to watch; must have a deadline.
+   *
+   * @return
+   *    A future that must be cancelled when the call completes.
+   */
+  Future<?> watch(final CallContext call) {
+    return executor.schedule(new Runnable() {
+      @Override
+      public void run() {
+        call.expire();
+      }
+    }, Math.max(0, call.getRemaining()), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the timer thread.
+   */
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+}
@@ -18,40 +18,53 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.guacamole.net.auth.Credentials;
 
 /**
  * An authorization subject that delegates to a {@link Credentials} object.
+ * <p>
+ * The selected headers of the HTTP request are captured when the subject is
+ * constructed, so that the subject remains usable after the request has
+ * completed.
  */
 public class DelegatingAuthSubject implements AuthSubject {
 
-  /** Lock used in lazy initialization of {@link #headers} field. */
-  private final Lock lock = new ReentrantLock();
-
   /** Credentials to which accessor methods will delegate. */
   private final Credentials credentials;
 
-  /** Lazily initialized headers extract from the delegate. */
-  private volatile Map<String, List<String>> headers;
+  /** Headers captured from the request, or {@code null} if no request. */
+  private final HeaderSnapshot headers;
 
+  /**
+   * Constructs a new instance that delegates to the given credentials,
+   * capturing all request headers.
+   *
+   * @param credentials
+   *    The credentials delegate.
+   */
+  DelegatingAuthSubject(Credentials credentials) {
+    this(credentials, HeaderProjection.ALL);
+  }
 
   /**
    * Constructs a new instance that delegates to the given credentials.
    *
    * @param credentials
    *    The credentials delegate.
+   *
+   * @param projection
+   *    Projection that selects the request headers to capture.
    */
-  DelegatingAuthSubject(Credentials credentials) {
+  DelegatingAuthSubject(Credentials credentials,
+      HeaderProjection projection) {
     this.credentials = credentials;
+    final HttpServletRequest request = credentials.getRequest();
+    this.headers = request != null ?
+        HeaderSnapshot.capture(request, projection) : null;
   }
 
   /**
@@ -107,54 +120,7 @@ public class DelegatingAuthSubject implements AuthSubject {
    */
   @Override
   public Map<String, List<String>> getHeaders() {
-    final HttpServletRequest request = credentials.getRequest();
-    if (request == null) return null;
-    if (headers == null) {
-      lock.lock();
-      try {
-        if (headers == null) {
-          headers = createHeaderMap(request);
-        }
-      }
-      finally {
-        lock.unlock();
-      }
-    }
     return headers;
   }
 
-  /**
-   * Creates a map of the header values in an HTTP request.
-   * <p>
-   * The resulting Map has as its keys the names of the headers in the request.
-   * Associated with each key is a List of Strings corresponding to the values
-   * for the given header.
-   *
-   * @param request
-   *    The subject HTTP request
-   *
-   * @return
-   *    Map of the headers in the given request.
-   */
-  private Map<String, List<String>> createHeaderMap(
-      HttpServletRequest request) {
-    final Map<String, List<String>> map =
-        new LinkedHashMap<String, List<String>>();
-    final Enumeration headers = request.getHeaderNames();
-    while (headers.hasMoreElements()) {
-      final String name = (String) headers.nextElement();
-      final Enumeration values = request.getHeaders(name);
-      while (values.hasMoreElements()) {
-        final String value = (String) values.nextElement();
-        List<String> list = map.get(name);
-        if (list == null) {
-          list = new ArrayList<String>();
-          map.put(name, list);
-        }
-        list.add(value);
-      }
-    }
-    return map;
-  }
-
 }
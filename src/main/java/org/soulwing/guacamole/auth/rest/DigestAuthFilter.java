@@ -0,0 +1,105 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.net.URI;
+import javax.ws.rs.core.HttpHeaders;
+
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * A Jersey client filter that authenticates requests using a
+ * {@link DigestAuthenticator}, sending credentials pre-emptively once the
+ * server's nonce is known.
+ */
+class DigestAuthFilter extends ClientFilter {
+
+  private final DigestAuthenticator authenticator;
+
+  /**
+   * Constructs a new filter.
+   *
+   * @param username
+   *    Username.
+   *
+   * @param password
+   *    Password.
+   */
+  DigestAuthFilter(String username, String password) {
+    this(new DigestAuthenticator(username, password));
+  }
+
+  /**
+   * Constructs a new filter that uses the given authenticator.
+   *
+   * @param authenticator
+   *    The authenticator.
+   */
+  DigestAuthFilter(DigestAuthenticator authenticator) {
+    this.authenticator = authenticator;
+  }
+
+  @Override
+  public ClientResponse handle(ClientRequest request)
+      throws ClientHandlerException {
+    final String method = request.getMethod();
+    final String uri = requestUri(request.getURI());
+    final String authorization = authenticator.authorize(method, uri);
+    if (authorization != null) {
+      request.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+          authorization);
+    }
+
+    final ClientResponse response = getNext().handle(request);
+    if (response.getStatus() != ClientResponse.Status.UNAUTHORIZED
+        .getStatusCode()) {
+      return response;
+    }
+    if (!authenticator.challenge(
+        response.getHeaders().get(HttpHeaders.WWW_AUTHENTICATE),
+        authorization != null)) {
+      return response;
+    }
+
+    response.close();
+    request.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+        authenticator.authorize(method, uri));
+    return getNext().handle(request);
+  }
+
+  /**
+   * Gets the request URI as it appears in the request line.
+   *
+   * @param uri
+   *    Absolute request URI.
+   *
+   * @return
+   *    Path and query of the URI.
+   */
+  private static String requestUri(URI uri) {
+    final String path = uri.getRawPath();
+    final String query = uri.getRawQuery();
+    final String s = path == null || path.isEmpty() ? "/" : path;
+    return query != null ? s + "?" + query : s;
+  }
+
+}
@@ -0,0 +1,347 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * An HTTP Digest authenticator that reuses the server's nonce across
+ * requests.
+ * <p>
+ * Once a challenge has been received, the authenticator computes the
+ * {@code Authorization} header for each subsequent request pre-emptively,
+ * using the cached realm and nonce with an incrementing nonce count, so that
+ * a request does not incur a challenge round trip. A new challenge is
+ * followed only when the request carried no credentials, or when the server
+ * reports that the nonce is stale; any other challenge to a request that
+ * carried credentials means that the credentials were rejected.
+ * <p>
+ * An instance of this class may be used concurrently by multiple threads.
+ * Supported algorithms are {@code MD5} and {@code SHA-256}, and their
+ * {@code -sess} variants, with quality of protection {@code auth} or none.
+ */
+class DigestAuthenticator {
+
+  /** Name of the authentication scheme. */
+  private static final String SCHEME = "Digest";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * A challenge received from the server, with the state needed to answer
+   * it.
+   */
+  private static class Challenge {
+
+    final String realm;
+    final String nonce;
+    final String opaque;
+    final String algorithm;
+    final String digestName;
+    final boolean session;
+    final String qop;
+    final AtomicLong nonceCount = new AtomicLong();
+
+    /** HA1 for a non-session algorithm; {@code null} for a session. */
+    final String ha1;
+
+    Challenge(String realm, String nonce, String opaque, String algorithm,
+        String digestName, boolean session, String qop, String ha1) {
+      this.realm = realm;
+      this.nonce = nonce;
+      this.opaque = opaque;
+      this.algorithm = algorithm;
+      this.digestName = digestName;
+      this.session = session;
+      this.qop = qop;
+      this.ha1 = ha1;
+    }
+
+  }
+
+  private final String username;
+  private final String password;
+  private final Supplier<String> cnonces;
+
+  private final AtomicReference<Challenge> challenge =
+      new AtomicReference<>();
+
+  /**
+   * Constructs a new authenticator.
+   *
+   * @param username
+   *    Username.
+   *
+   * @param password
+   *    Password.
+   */
+  DigestAuthenticator(String username, String password) {
+    this(username, password, randomCnonces());
+  }
+
+  /**
+   * Constructs a new authenticator that uses the given client nonces.
+   *
+   * @param username
+   *    Username.
+   *
+   * @param password
+   *    Password.
+   *
+   * @param cnonces
+   *    Supplier of client nonces.
+   */
+  DigestAuthenticator(String username, String password,
+      Supplier<String> cnonces) {
+    this.username = username;
+    this.password = password;
+    this.cnonces = cnonces;
+  }
+
+  /**
+   * Computes the {@code Authorization} header for a request, using the most
+   * recent challenge.
+   *
+   * @param method
+   *    Request method.
+   *
+   * @param uri
+   *    Request URI, as it appears in the request line.
+   *
+   * @return
+   *    Header value, or {@code null} if no challenge has been received.
+   */
+  String authorize(String method, String uri) {
+    final Challenge challenge = this.challenge.get();
+    if (challenge == null) return null;
+
+    final String cnonce = challenge.qop != null || challenge.session ?
+        cnonces.get() : null;
+    final String ha1 = challenge.session ?
+        digest(challenge.digestName, digest(challenge.digestName,
+            username + ":" + challenge.realm + ":" + password)
+            + ":" + challenge.nonce + ":" + cnonce) : challenge.ha1;
+    final String ha2 = digest(challenge.digestName, method + ":" + uri);
+
+    final StringBuilder sb = new StringBuilder(SCHEME).append(' ');
+    appendQuoted(sb, "username", username);
+    appendQuoted(sb.append(", "), "realm", challenge.realm);
+    appendQuoted(sb.append(", "), "nonce", challenge.nonce);
+    appendQuoted(sb.append(", "), "uri", uri);
+    final String response;
+    if (challenge.qop != null) {
+      final String nc = String.format("%08x",
+          challenge.nonceCount.incrementAndGet());
+      response = digest(challenge.digestName, ha1 + ":" + challenge.nonce
+          + ":" + nc + ":" + cnonce + ":" + challenge.qop + ":" + ha2);
+      sb.append(", qop=").append(challenge.qop);
+      sb.append(", nc=").append(nc);
+      appendQuoted(sb.append(", "), "cnonce", cnonce);
+    }
+    else {
+      response = digest(challenge.digestName,
+          ha1 + ":" + challenge.nonce + ":" + ha2);
+      if (cnonce != null) {
+        appendQuoted(sb.append(", "), "cnonce", cnonce);
+      }
+    }
+    appendQuoted(sb.append(", "), "response", response);
+    if (challenge.algorithm != null) {
+      sb.append(", algorithm=").append(challenge.algorithm);
+    }
+    if (challenge.opaque != null) {
+      appendQuoted(sb.append(", "), "opaque", challenge.opaque);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Processes the challenges in a response that requires authentication.
+   *
+   * @param headers
+   *    Values of the {@code WWW-Authenticate} headers of the response; may
+   *    be {@code null}.
+   *
+   * @param sentCredentials
+   *    Flag indicating whether the request that was challenged carried
+   *    credentials.
+   *
+   * @return
+   *    {@code true} if a supported Digest challenge was received and the
+   *    request should be retried with new credentials.
+   */
+  boolean challenge(List<?> headers, boolean sentCredentials) {
+    if (headers == null) return false;
+    for (final Object header : headers) {
+      final String value = header.toString().trim();
+      if (!value.regionMatches(true, 0, SCHEME + " ", 0,
+          SCHEME.length() + 1)) {
+        continue;
+      }
+      final Map<String, String> params =
+          parseParams(value.substring(SCHEME.length() + 1));
+      final Challenge challenge = newChallenge(params);
+      if (challenge == null) continue;
+      this.challenge.set(challenge);
+      return !sentCredentials
+          || "true".equalsIgnoreCase(params.get("stale"));
+    }
+    return false;
+  }
+
+  /**
+   * Creates a challenge from the parameters of a Digest challenge.
+   *
+   * @param params
+   *    Challenge parameters.
+   *
+   * @return
+   *    Challenge, or {@code null} if the challenge is malformed or requires
+   *    an unsupported algorithm or quality of protection.
+   */
+  private Challenge newChallenge(Map<String, String> params) {
+    final String realm = params.get("realm");
+    final String nonce = params.get("nonce");
+    if (realm == null || nonce == null) return null;
+
+    final String algorithm = params.get("algorithm");
+    String name = algorithm != null ?
+        algorithm.toUpperCase(Locale.ENGLISH) : "MD5";
+    final boolean session = name.endsWith("-SESS");
+    if (session) {
+      name = name.substring(0, name.length() - "-SESS".length());
+    }
+    if (!name.equals("MD5") && !name.equals("SHA-256")) return null;
+
+    String qop = null;
+    final String qopOptions = params.get("qop");
+    if (qopOptions != null) {
+      for (final String option : qopOptions.split(",")) {
+        if (option.trim().equalsIgnoreCase("auth")) {
+          qop = "auth";
+        }
+      }
+      if (qop == null) return null;
+    }
+
+    final String ha1 = session ?
+        null : digest(name, username + ":" + realm + ":" + password);
+    return new Challenge(realm, nonce, params.get("opaque"), algorithm, name,
+        session, qop, ha1);
+  }
+
+  /**
+   * Parses the comma-separated parameters of a challenge.
+   *
+   * @param s
+   *    The parameters.
+   *
+   * @return
+   *    Map of lower case parameter names to unquoted values.
+   */
+  static Map<String, String> parseParams(String s) {
+    final Map<String, String> params = new HashMap<>();
+    final int length = s.length();
+    int i = 0;
+    while (i < length) {
+      while (i < length
+          && (s.charAt(i) == ',' || Character.isWhitespace(s.charAt(i)))) {
+        i++;
+      }
+      final int eq = s.indexOf('=', i);
+      if (eq == -1) break;
+      final String name = s.substring(i, eq).trim().toLowerCase(Locale.ENGLISH);
+      i = eq + 1;
+      while (i < length && Character.isWhitespace(s.charAt(i))) {
+        i++;
+      }
+      final StringBuilder value = new StringBuilder();
+      if (i < length && s.charAt(i) == '"') {
+        i++;
+        while (i < length && s.charAt(i) != '"') {
+          if (s.charAt(i) == '\\' && i + 1 < length) {
+            i++;
+          }
+          value.append(s.charAt(i++));
+        }
+        i++;
+      }
+      else {
+        while (i < length && s.charAt(i) != ',') {
+          value.append(s.charAt(i++));
+        }
+      }
+      params.put(name, value.toString().trim());
+    }
+    return params;
+  }
+
+  private static void appendQuoted(StringBuilder sb, String name,
+      String value) {
+    sb.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    sb.append('"');
+  }
+
+  private static String digest(String algorithm, String s) {
+    try {
+      final byte[] hash = MessageDigest.getInstance(algorithm)
+          .digest(s.getBytes(StandardCharsets.UTF_8));
+      return hex(hash);
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    final char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+  private static Supplier<String> randomCnonces() {
+    final SecureRandom random = new SecureRandom();
+    return () -> {
+      final byte[] bytes = new byte[16];
+      random.nextBytes(bytes);
+      return hex(bytes);
+    };
+  }
+
+}
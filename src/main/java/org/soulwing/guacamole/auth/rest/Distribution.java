@@ -0,0 +1,100 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * A distribution of recorded values, such as latencies or sizes.
+ * <p>
+ * Values are recorded in an HdrHistogram {@link Recorder}, which is
+ * wait-free, so recording adds little to the cost of a request. When the
+ * distribution is read, the values recorded since the last read are added
+ * to a cumulative histogram, from which percentiles are computed with two
+ * significant digits of precision.
+ */
+class Distribution {
+
+  /** Number of significant decimal digits retained for each value. */
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  /** Recorder of values not yet added to the cumulative histogram. */
+  private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+  /** All values recorded since creation or the last reset. */
+  private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+
+  /** Scale applied to recorded values when they are summarized. */
+  private final double scale;
+
+  /** Interval histogram recycled between reads. */
+  private Histogram interval;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param scale
+   *    Factor that converts a recorded value to the unit in which the
+   *    distribution is summarized.
+   */
+  Distribution(double scale) {
+    this.scale = scale;
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value
+   *    The value to record; a negative value is recorded as zero.
+   */
+  void record(long value) {
+    recorder.recordValue(Math.max(0, value));
+  }
+
+  /**
+   * Summarizes the values recorded since creation or the last reset.
+   *
+   * @return
+   *    Summary in the unit given by the scale of this distribution.
+   */
+  synchronized DistributionSummary summarize() {
+    interval = recorder.getIntervalHistogram(interval);
+    total.add(interval);
+    final long count = total.getTotalCount();
+    return new DistributionSummary(count,
+        count > 0 ? total.getMean() * count * scale : 0,
+        count > 0 ? total.getMean() * scale : 0,
+        percentile(50.0), percentile(90.0), percentile(99.0),
+        percentile(99.9), total.getMaxValue() * scale);
+  }
+
+  /**
+   * Discards all recorded values.
+   */
+  synchronized void reset() {
+    recorder.reset();
+    total.reset();
+  }
+
+  private double percentile(double percentile) {
+    return total.getValueAtPercentile(percentile) * scale;
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A summary of a {@link Distribution}, exposed to management clients as
+ * composite data.
+ */
+public class DistributionSummary {
+
+  private final long count;
+  private final double sum;
+  private final double mean;
+  private final double p50;
+  private final double p90;
+  private final double p99;
+  private final double p999;
+  private final double max;
+
+  DistributionSummary(long count, double sum, double mean, double p50,
+      double p90, double p99, double p999, double max) {
+    this.count = count;
+    this.sum = sum;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  /**
+   * Gets the number of recorded values.
+   *
+   * @return
+   *    Value count.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the sum of the recorded values.
+   *
+   * @return
+   *    Sum, to the precision of the distribution.
+   */
+  public double getSum() {
+    return sum;
+  }
+
+  /**
+   * Gets the mean of the recorded values.
+   *
+   * @return
+   *    Mean, or zero if no values have been recorded.
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Gets the median of the recorded values.
+   *
+   * @return
+   *    50th percentile.
+   */
+  public double getP50() {
+    return p50;
+  }
+
+  /**
+   * Gets the 90th percentile of the recorded values.
+   *
+   * @return
+   *    90th percentile.
+   */
+  public double getP90() {
+    return p90;
+  }
+
+  /**
+   * Gets the 99th percentile of the recorded values.
+   *
+   * @return
+   *    99th percentile.
+   */
+  public double getP99() {
+    return p99;
+  }
+
+  /**
+   * Gets the 99.9th percentile of the recorded values.
+   *
+   * @return
+   *    99.9th percentile.
+   */
+  public double getP999() {
+    return p999;
+  }
+
+  /**
+   * Gets the largest recorded value.
+   *
+   * @return
+   *    Maximum.
+   */
+  public double getMax() {
+    return max;
+  }
+
+}
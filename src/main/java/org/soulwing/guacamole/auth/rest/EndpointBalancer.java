@@ -0,0 +1,355 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A load balancer that chooses among the endpoints of the REST service.
+ * <p>
+ * Each request is sent to the better of two endpoints chosen at random
+ * (the <em>power of two choices</em>), where an endpoint's cost is an
+ * exponentially weighted moving average (EWMA) of its observed latency,
+ * scaled by the number of requests outstanding to it. An endpoint that fails
+ * repeatedly is ejected for a time that grows with each successive ejection;
+ * when readmitted, its share of requests is increased gradually over the
+ * slow start period, and a single failure during slow start ejects it again.
+ */
+class EndpointBalancer {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(EndpointBalancer.class);
+
+  /** Time over which the weight of a latency observation decays by 1/e. */
+  static final long DECAY_TIME = TimeUnit.SECONDS.toNanos(10);
+
+  /**
+   * Latency assumed for an endpoint that has not yet been observed, and the
+   * least latency used in computing the cost of any endpoint, so that the
+   * number of outstanding requests always contributes to the cost.
+   */
+  private static final double MIN_LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /** Limit on the number of times the ejection time is doubled. */
+  private static final int MAX_BACKOFF_SHIFT = 5;
+
+  /** Minimum weight of an endpoint at the beginning of slow start. */
+  private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+  /**
+   * An endpoint of the REST service and its observed behavior.
+   */
+  static class Endpoint {
+
+    private final String url;
+
+    private int outstanding;
+    private double ewma;
+    private long lastObserved;
+    private boolean observed;
+    private int consecutiveFailures;
+    private int ejections;
+    private boolean ejected;
+    private long ejectedUntil;
+    private boolean slowStarting;
+    private long readmittedAt;
+
+    Endpoint(String url) {
+      this.url = url;
+    }
+
+    /**
+     * Gets the base URL of this endpoint.
+     *
+     * @return
+     *    URL.
+     */
+    String getUrl() {
+      return url;
+    }
+
+    synchronized int getOutstanding() {
+      return outstanding;
+    }
+
+    synchronized boolean isEjected() {
+      return ejected;
+    }
+
+    /**
+     * Gets the EWMA of the latency observed for this endpoint.
+     *
+     * @return
+     *    Latency in nanoseconds.
+     */
+    synchronized double getLatency() {
+      return ewma;
+    }
+
+    @Override
+    public String toString() {
+      return url;
+    }
+
+  }
+
+  private final List<Endpoint> endpoints;
+  private final int ejectFailures;
+  private final long ejectDuration;
+  private final long slowStart;
+  private final Ticker ticker;
+  private final Random random;
+
+  /**
+   * Constructs a new balancer.
+   *
+   * @param urls
+   *    Base URLs of the service endpoints; must not be empty.
+   *
+   * @param ejectFailures
+   *    Number of consecutive failures after which an endpoint is ejected.
+   *
+   * @param ejectDuration
+   *    Time in nanoseconds for which an endpoint is first ejected.
+   *
+   * @param slowStart
+   *    Time in nanoseconds over which the share of requests sent to a
+   *    readmitted endpoint is increased; zero disables slow start.
+   *
+   * @param ticker
+   *    Time source.
+   *
+   * @param random
+   *    Source of random endpoint choices.
+   */
+  EndpointBalancer(List<String> urls, int ejectFailures, long ejectDuration,
+      long slowStart, Ticker ticker, Random random) {
+    final List<Endpoint> endpoints = new ArrayList<Endpoint>(urls.size());
+    for (final String url : urls) {
+      endpoints.add(new Endpoint(url));
+    }
+    this.endpoints = Collections.unmodifiableList(endpoints);
+    this.ejectFailures = Math.max(ejectFailures, 1);
+    this.ejectDuration = ejectDuration;
+    this.slowStart = slowStart;
+    this.ticker = ticker;
+    this.random = random;
+  }
+
+  /**
+   * Gets the endpoints known to this balancer.
+   *
+   * @return
+   *    List of endpoints.
+   */
+  List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Chooses the endpoint for a request. The caller must invoke
+   * {@link #complete} when the request completes.
+   * <p>
+   * If every endpoint is ejected, the endpoint whose ejection ends soonest
+   * is chosen, since failing the request outright is no better.
+   *
+   * @return
+   *    The chosen endpoint.
+   */
+  Endpoint select() {
+    return select(null);
+  }
+
+  /**
+   * Chooses the endpoint for a request, avoiding a given endpoint unless it
+   * is the only one. The caller must invoke {@link #complete} or
+   * {@link #cancel} when the request completes.
+   *
+   * @param excluded
+   *    The endpoint to avoid; may be {@code null}.
+   *
+   * @return
+   *    The chosen endpoint.
+   */
+  Endpoint select(Endpoint excluded) {
+    final long now = ticker.read();
+    final List<Endpoint> available = new ArrayList<Endpoint>(endpoints.size());
+    Endpoint soonest = null;
+    for (final Endpoint endpoint : endpoints) {
+      if (endpoint == excluded && endpoints.size() > 1) continue;
+      synchronized (endpoint) {
+        if (endpoint.ejected && now - endpoint.ejectedUntil >= 0) {
+          readmit(endpoint, now);
+        }
+        if (!endpoint.ejected) {
+          available.add(endpoint);
+        }
+        else if (soonest == null
+            || endpoint.ejectedUntil - soonest.ejectedUntil < 0) {
+          soonest = endpoint;
+        }
+      }
+    }
+
+    final Endpoint choice;
+    if (available.isEmpty()) {
+      choice = soonest;
+    }
+    else if (available.size() == 1) {
+      choice = available.get(0);
+    }
+    else {
+      final int i = random.nextInt(available.size());
+      int j = random.nextInt(available.size() - 1);
+      if (j >= i) j++;
+      final Endpoint a = available.get(i);
+      final Endpoint b = available.get(j);
+      choice = cost(a, now) <= cost(b, now) ? a : b;
+    }
+
+    acquire(choice);
+    return choice;
+  }
+
+  /**
+   * Records that a request is to be sent to an endpoint. The caller must
+   * invoke {@link #complete} when the request completes.
+   *
+   * @param endpoint
+   *    The endpoint to which the request will be sent.
+   */
+  void acquire(Endpoint endpoint) {
+    synchronized (endpoint) {
+      endpoint.outstanding++;
+    }
+  }
+
+  /**
+   * Records the completion of a request.
+   *
+   * @param endpoint
+   *    The endpoint to which the request was sent.
+   *
+   * @param latency
+   *    Time in nanoseconds taken by the request.
+   *
+   * @param failed
+   *    Flag indicating whether the request failed.
+   */
+  void complete(Endpoint endpoint, long latency, boolean failed) {
+    final long now = ticker.read();
+    synchronized (endpoint) {
+      endpoint.outstanding--;
+      observe(endpoint, latency, now);
+      if (!failed) {
+        endpoint.consecutiveFailures = 0;
+        if (!endpoint.slowStarting || weight(endpoint, now) >= 1.0) {
+          endpoint.slowStarting = false;
+          endpoint.ejections = 0;
+        }
+        return;
+      }
+      endpoint.consecutiveFailures++;
+      if (!endpoint.ejected && (endpoint.slowStarting
+          || endpoint.consecutiveFailures >= ejectFailures)) {
+        eject(endpoint, now);
+      }
+    }
+  }
+
+  /**
+   * Records that a request was cancelled before it completed, without
+   * recording an outcome for the endpoint.
+   *
+   * @param endpoint
+   *    The endpoint to which the request was sent.
+   */
+  void cancel(Endpoint endpoint) {
+    synchronized (endpoint) {
+      endpoint.outstanding--;
+    }
+  }
+
+  /**
+   * Computes the cost of sending a request to an endpoint.
+   */
+  private double cost(Endpoint endpoint, long now) {
+    synchronized (endpoint) {
+      return Math.max(endpoint.ewma, MIN_LATENCY)
+          * (endpoint.outstanding + 1) / weight(endpoint, now);
+    }
+  }
+
+  /**
+   * Computes the slow start weight of an endpoint, in the range
+   * {@value #MIN_SLOW_START_WEIGHT} to 1.
+   */
+  private double weight(Endpoint endpoint, long now) {
+    if (!endpoint.slowStarting || slowStart <= 0) return 1.0;
+    final double progress =
+        (double) (now - endpoint.readmittedAt) / slowStart;
+    return Math.max(MIN_SLOW_START_WEIGHT, Math.min(1.0, progress));
+  }
+
+  /**
+   * Updates the latency EWMA of an endpoint, decaying the weight of past
+   * observations according to the time elapsed since the last.
+   */
+  private void observe(Endpoint endpoint, long latency, long now) {
+    if (!endpoint.observed) {
+      endpoint.ewma = latency;
+      endpoint.observed = true;
+    }
+    else {
+      final long elapsed = Math.max(0, now - endpoint.lastObserved);
+      final double w = Math.exp(-(double) elapsed / DECAY_TIME);
+      endpoint.ewma = endpoint.ewma * w + latency * (1.0 - w);
+    }
+    endpoint.lastObserved = now;
+  }
+
+  private void eject(Endpoint endpoint, long now) {
+    final long duration =
+        ejectDuration << Math.min(endpoint.ejections, MAX_BACKOFF_SHIFT);
+    endpoint.ejected = true;
+    endpoint.ejectedUntil = now + duration;
+    endpoint.ejections++;
+    endpoint.slowStarting = false;
+    logger.warn("ejecting endpoint {} for {} seconds after {} "
+        + "consecutive failures", new Object[] { endpoint.url,
+        TimeUnit.NANOSECONDS.toSeconds(duration),
+        endpoint.consecutiveFailures });
+  }
+
+  private void readmit(Endpoint endpoint, long now) {
+    endpoint.ejected = false;
+    endpoint.consecutiveFailures = 0;
+    endpoint.slowStarting = slowStart > 0;
+    endpoint.readmittedAt = now;
+    logger.info("readmitting endpoint {}", endpoint.url);
+  }
+
+}
@@ -0,0 +1,476 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.guacamole.GuacamoleServerBusyException;
+
+/**
+ * A bulkhead that bounds the number of concurrent calls, queuing excess
+ * callers fairly by source.
+ * <p>
+ * Each waiting caller is queued in the bucket for its source. When a call
+ * completes, its permit passes to the head waiter of the next bucket in
+ * round-robin order, so that a source with many waiters cannot delay the
+ * callers from other sources by more than one call each. A caller is
+ * rejected with a {@link GuacamoleServerBusyException} if the queue, or the
+ * queue for its source, is full, or if it waits longer than the maximum
+ * wait.
+ * <p>
+ * Permits granted to waiters are handed off on an executor, so that a call
+ * that completes does not run the call of the next waiter on its own stack.
+ */
+class FairBulkhead {
+
+  /**
+   * A caller waiting for a permit.
+   */
+  private static class Waiter {
+
+    final CompletableFuture<Void> permit = new CompletableFuture<>();
+    final Bucket bucket;
+    final long enqueued;
+
+    /** Flag indicating whether the waiter is still queued. */
+    boolean queued = true;
+
+    Waiter(Bucket bucket, long enqueued) {
+      this.bucket = bucket;
+      this.enqueued = enqueued;
+    }
+
+  }
+
+  /**
+   * The waiters from a source.
+   */
+  private static class Bucket {
+
+    final String source;
+    final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+    Bucket(String source) {
+      this.source = source;
+    }
+
+  }
+
+  private final int maxQueue;
+  private final int maxQueuePerSource;
+  private final long maxWait;
+  private final Executor executor;
+  private final Ticker ticker;
+
+  private final Lock lock = new ReentrantLock();
+
+  /** Buckets that have waiters, by source. */
+  private final Map<String, Bucket> buckets = new HashMap<>();
+
+  /** Buckets that have waiters, in the order they will be served. */
+  private final ArrayDeque<Bucket> rotation = new ArrayDeque<>();
+
+  private int maxConcurrent;
+  private int active;
+  private int queued;
+
+  private long admittedCount;
+  private long rejectedCount;
+  private long timedOutCount;
+  private long totalWaitTime;
+  private long maxWaitTime;
+
+  /**
+   * Constructs a new bulkhead.
+   *
+   * @param maxConcurrent
+   *    Maximum number of concurrent calls.
+   *
+   * @param maxQueue
+   *    Maximum number of waiting callers.
+   *
+   * @param maxQueuePerSource
+   *    Maximum number of waiting callers from a single source.
+   *
+   * @param maxWait
+   *    Maximum time in nanoseconds that a caller may wait for a permit.
+   *
+   * @param executor
+   *    Executor on which permits are handed off to waiters and waiters are
+   *    timed out.
+   *
+   * @param ticker
+   *    Time source for wait times.
+   */
+  FairBulkhead(int maxConcurrent, int maxQueue, int maxQueuePerSource,
+      long maxWait, Executor executor, Ticker ticker) {
+    this.maxConcurrent = Math.max(maxConcurrent, 1);
+    this.maxQueue = Math.max(maxQueue, 0);
+    this.maxQueuePerSource = maxQueuePerSource > 0 ?
+        maxQueuePerSource : Integer.MAX_VALUE;
+    this.maxWait = maxWait;
+    this.executor = executor;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Requests a permit to make a call. The caller must invoke
+   * {@link #release()} when a call made with the permit completes.
+   *
+   * @param source
+   *    Identifier of the source of the call.
+   *
+   * @return
+   *    A future that completes when the permit is granted, or exceptionally
+   *    with a {@link GuacamoleServerBusyException} if the caller is
+   *    rejected.
+   */
+  CompletableFuture<Void> acquire(String source) {
+    return acquire(source, Long.MAX_VALUE);
+  }
+
+  /**
+   * Requests a permit to make a call, waiting no longer than the time that
+   * remains before the caller's deadline. The caller must invoke
+   * {@link #release()} when a call made with the permit completes.
+   *
+   * @param source
+   *    Identifier of the source of the call.
+   *
+   * @param remaining
+   *    Time in nanoseconds remaining before the caller's deadline, or
+   *    {@link Long#MAX_VALUE} if the caller has no deadline.
+   *
+   * @return
+   *    A future that completes when the permit is granted, or exceptionally
+   *    with a {@link GuacamoleServerBusyException} if the caller is
+   *    rejected.
+   */
+  CompletableFuture<Void> acquire(String source, long remaining) {
+    final Waiter waiter;
+    lock.lock();
+    try {
+      if (active < maxConcurrent) {
+        active++;
+        admittedCount++;
+        return CompletableFuture.completedFuture(null);
+      }
+      Bucket bucket = buckets.get(source);
+      if (queued >= maxQueue || bucket != null
+          && bucket.waiters.size() >= maxQueuePerSource) {
+        rejectedCount++;
+        return CompletableFuture.failedFuture(new GuacamoleServerBusyException(
+            "too many concurrent authorization requests"));
+      }
+      if (bucket == null) {
+        bucket = new Bucket(source);
+        buckets.put(source, bucket);
+        rotation.addLast(bucket);
+      }
+      waiter = new Waiter(bucket, ticker.read());
+      bucket.waiters.addLast(waiter);
+      queued++;
+    }
+    finally {
+      lock.unlock();
+    }
+    CompletableFuture.delayedExecutor(Math.max(0, Math.min(maxWait, remaining)),
+        TimeUnit.NANOSECONDS, executor).execute(() -> expire(waiter));
+    return waiter.permit;
+  }
+
+  /**
+   * Releases the permit for a completed call, passing it to the next
+   * waiter, if any.
+   */
+  void release() {
+    final Waiter next;
+    lock.lock();
+    try {
+      next = active <= maxConcurrent ? nextWaiter() : null;
+      if (next == null) {
+        active--;
+      }
+      else {
+        admit(next);
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+    if (next != null) {
+      handOff(next);
+    }
+  }
+
+  /**
+   * Changes the maximum number of concurrent calls. If the maximum is
+   * raised, waiters are admitted up to the new maximum; if it is lowered,
+   * calls in progress are allowed to complete, but no waiter is admitted
+   * until the number of calls falls below the new maximum.
+   *
+   * @param maxConcurrent
+   *    Maximum number of concurrent calls.
+   */
+  void setMaxConcurrent(int maxConcurrent) {
+    final List<Waiter> admitted = new ArrayList<>();
+    lock.lock();
+    try {
+      this.maxConcurrent = Math.max(maxConcurrent, 1);
+      while (active < this.maxConcurrent) {
+        final Waiter next = nextWaiter();
+        if (next == null) break;
+        active++;
+        admit(next);
+        admitted.add(next);
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+    admitted.forEach(this::handOff);
+  }
+
+  /**
+   * Records the admission of a waiter. The caller must hold the lock.
+   *
+   * @param waiter
+   *    The waiter.
+   */
+  private void admit(Waiter waiter) {
+    final long wait = ticker.read() - waiter.enqueued;
+    admittedCount++;
+    totalWaitTime += wait;
+    maxWaitTime = Math.max(maxWaitTime, wait);
+  }
+
+  /**
+   * Hands off a permit to an admitted waiter.
+   *
+   * @param waiter
+   *    The waiter.
+   */
+  private void handOff(Waiter waiter) {
+    executor.execute(() -> waiter.permit.complete(null));
+  }
+
+  /**
+   * Removes the head waiter of the next bucket in the rotation. The caller
+   * must hold the lock.
+   *
+   * @return
+   *    Waiter, or {@code null} if there are no waiters.
+   */
+  private Waiter nextWaiter() {
+    final Bucket bucket = rotation.pollFirst();
+    if (bucket == null) return null;
+    final Waiter waiter = bucket.waiters.removeFirst();
+    if (bucket.waiters.isEmpty()) {
+      buckets.remove(bucket.source);
+    }
+    else {
+      rotation.addLast(bucket);
+    }
+    waiter.queued = false;
+    queued--;
+    return waiter;
+  }
+
+  /**
+   * Rejects a waiter that is still queued after the maximum wait.
+   *
+   * @param waiter
+   *    The waiter.
+   */
+  private void expire(Waiter waiter) {
+    lock.lock();
+    try {
+      if (!waiter.queued) return;
+      waiter.queued = false;
+      queued--;
+      final Bucket bucket = waiter.bucket;
+      bucket.waiters.remove(waiter);
+      if (bucket.waiters.isEmpty()) {
+        buckets.remove(bucket.source);
+        rotation.remove(bucket);
+      }
+      timedOutCount++;
+    }
+    finally {
+      lock.unlock();
+    }
+    waiter.permit.completeExceptionally(new GuacamoleServerBusyException(
+        "timed out waiting to send authorization request"));
+  }
+
+  /**
+   * Gets the maximum number of concurrent calls.
+   *
+   * @return
+   *    Call limit.
+   */
+  int getMaxConcurrent() {
+    lock.lock();
+    try {
+      return maxConcurrent;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of calls in progress.
+   *
+   * @return
+   *    Call count.
+   */
+  int getActive() {
+    lock.lock();
+    try {
+      return active;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of waiting callers.
+   *
+   * @return
+   *    Queue depth.
+   */
+  int getQueued() {
+    lock.lock();
+    try {
+      return queued;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of sources that have waiting callers.
+   *
+   * @return
+   *    Source count.
+   */
+  int getQueuedSources() {
+    lock.lock();
+    try {
+      return buckets.size();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of callers granted a permit.
+   *
+   * @return
+   *    Caller count.
+   */
+  long getAdmittedCount() {
+    lock.lock();
+    try {
+      return admittedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of callers rejected because the queue was full.
+   *
+   * @return
+   *    Caller count.
+   */
+  long getRejectedCount() {
+    lock.lock();
+    try {
+      return rejectedCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of callers rejected because they waited longer than
+   * the maximum wait.
+   *
+   * @return
+   *    Caller count.
+   */
+  long getTimedOutCount() {
+    lock.lock();
+    try {
+      return timedOutCount;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the total time that admitted callers waited for a permit.
+   *
+   * @return
+   *    Wait time in nanoseconds.
+   */
+  long getTotalWaitTime() {
+    lock.lock();
+    try {
+      return totalWaitTime;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the longest time that an admitted caller waited for a permit.
+   *
+   * @return
+   *    Wait time in nanoseconds.
+   */
+  long getMaxWaitTime() {
+    lock.lock();
+    try {
+      return maxWaitTime;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A count-min sketch that estimates the popularity of cache keys.
+ * <p>
+ * This is the frequency filter used by the TinyLFU admission policy of
+ * {@link TinyLfuCache}. Each counter is saturated at a small maximum, and
+ * all counters are periodically halved so that the sketch tracks recent
+ * popularity rather than all-time popularity.
+ * <p>
+ * An instance of this type is not thread safe; the owning cache must guard
+ * access to it.
+ */
+class FrequencySketch {
+
+  /** Number of independent hash functions (rows) used by the sketch. */
+  private static final int DEPTH = 4;
+
+  /** Maximum value of any counter in the sketch. */
+  private static final int MAX_COUNT = 15;
+
+  /** Upper bound on the width of a sketch row. */
+  private static final int MAX_WIDTH = 1 << 22;
+
+  /** Seeds used to derive a distinct hash for each row. */
+  private static final int[] SEEDS = {
+      0x97cb3127, 0x5a3c9e25, 0x1b873593, 0xcc9e2d51
+  };
+
+  /** Counter table; one row for each hash function. */
+  private final byte[][] table;
+
+  /** Mask used to reduce a hash to a column index. */
+  private final int mask;
+
+  /** Number of increments after which all counters are halved. */
+  private final int sampleSize;
+
+  /** Number of increments since the last reset. */
+  private int additions;
+
+  /**
+   * Constructs a new sketch sized for the given number of cache entries.
+   *
+   * @param maximumSize
+   *    Maximum number of entries in the owning cache.
+   */
+  FrequencySketch(int maximumSize) {
+    final int size = Math.max(maximumSize, 1);
+    int width = 16;
+    while (width < size && width < MAX_WIDTH) {
+      width <<= 1;
+    }
+    this.table = new byte[DEPTH][width];
+    this.mask = width - 1;
+    this.sampleSize = size >= Integer.MAX_VALUE / 10 ?
+        Integer.MAX_VALUE : 10 * size;
+  }
+
+  /**
+   * Gets the estimated number of occurrences of the given item.
+   *
+   * @param item
+   *    The subject item.
+   *
+   * @return
+   *    Estimated frequency, in the range 0 to {@value #MAX_COUNT}.
+   */
+  int frequency(Object item) {
+    final int hash = spread(item.hashCode());
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < DEPTH; i++) {
+      frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an occurrence of the given item.
+   *
+   * @param item
+   *    The subject item.
+   */
+  void increment(Object item) {
+    final int hash = spread(item.hashCode());
+    boolean added = false;
+    for (int i = 0; i < DEPTH; i++) {
+      final int index = indexOf(hash, i);
+      if (table[i][index] < MAX_COUNT) {
+        table[i][index]++;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Ages the sketch by halving every counter.
+   */
+  private void reset() {
+    for (final byte[] row : table) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] = (byte) (row[i] >>> 1);
+      }
+    }
+    additions /= 2;
+  }
+
+  /**
+   * Gets the column index for a hash in the given row.
+   *
+   * @param hash
+   *    The spread hash code of an item.
+   *
+   * @param row
+   *    Row index.
+   *
+   * @return
+   *    Column index.
+   */
+  private int indexOf(int hash, int row) {
+    int h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 16;
+    return h & mask;
+  }
+
+  /**
+   * Applies a supplemental hash function to defend against poor quality
+   * hash codes.
+   *
+   * @param hashCode
+   *    Hash code of an item.
+   *
+   * @return
+   *    Spread hash code.
+   */
+  private static int spread(int hashCode) {
+    int h = hashCode;
+    h = ((h >>> 16) ^ h) * 0x45d9f3b;
+    h = ((h >>> 16) ^ h) * 0x45d9f3b;
+    return (h >>> 16) ^ h;
+  }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
+
+/**
+ * Static utility methods for bridging between {@link GuacamoleException}
+ * and {@link CompletableFuture}.
+ */
+final class Futures {
+
+  /**
+   * A supplier of a value that may throw a {@link GuacamoleException}.
+   *
+   * @param <T> value type
+   */
+  @FunctionalInterface
+  interface GuacamoleSupplier<T> {
+
+    /**
+     * Gets the value.
+     *
+     * @return
+     *    The value.
+     *
+     * @throws GuacamoleException
+     *    If the value cannot be obtained.
+     */
+    T get() throws GuacamoleException;
+
+  }
+
+  /**
+   * Marks a thread that is about to wait for the future it is obtaining, so
+   * that the first blocking supplier started for it runs on that thread.
+   */
+  private static final ThreadLocal<Boolean> callerWaits = new ThreadLocal<>();
+
+  private Futures() {
+  }
+
+  /**
+   * Runs a supplier using the given executor.
+   * <p>
+   * If the calling thread is waiting in {@link #call} for the future, the
+   * first supplier it starts runs on the calling thread rather than the
+   * executor, since the calling thread would otherwise be idle.
+   *
+   * @param supplier
+   *    The supplier to run.
+   *
+   * @param executor
+   *    The executor on which to run it.
+   *
+   * @param <T> value type
+   *
+   * @return
+   *    A future that completes with the supplied value, or exceptionally with
+   *    the exception thrown by the supplier.
+   */
+  static <T> CompletableFuture<T> supplyAsync(GuacamoleSupplier<T> supplier,
+      Executor executor) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    if (callerWaits.get() != null) {
+      callerWaits.remove();
+      try {
+        future.complete(supplier.get());
+      }
+      catch (GuacamoleException | RuntimeException ex) {
+        future.completeExceptionally(ex);
+      }
+      return future;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          future.complete(supplier.get());
+        }
+        catch (GuacamoleException | RuntimeException ex) {
+          future.completeExceptionally(ex);
+        }
+      });
+    }
+    catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+  /**
+   * Obtains a future and waits for it to complete, letting a blocking
+   * supplier started by {@link #supplyAsync} run on the calling thread.
+   *
+   * @param start
+   *    Supplier of the future.
+   *
+   * @param <T> value type
+   *
+   * @return
+   *    The value of the future.
+   *
+   * @throws GuacamoleException
+   *    As for {@link #await}.
+   */
+  static <T> T call(Supplier<? extends Future<T>> start)
+      throws GuacamoleException {
+    final Boolean waiting = callerWaits.get();
+    callerWaits.set(Boolean.TRUE);
+    final Future<T> future;
+    try {
+      future = start.get();
+    }
+    finally {
+      restore(waiting);
+    }
+    return await(future);
+  }
+
+  /**
+   * Obtains a future for work that continues in the background after the
+   * caller returns, so that it does not run on a calling thread that is
+   * waiting in {@link #call}.
+   *
+   * @param start
+   *    Supplier of the future.
+   *
+   * @param <T> value type
+   *
+   * @return
+   *    The future.
+   */
+  static <T> CompletableFuture<T> detach(
+      Supplier<CompletableFuture<T>> start) {
+    final Boolean waiting = callerWaits.get();
+    callerWaits.remove();
+    try {
+      return start.get();
+    }
+    finally {
+      restore(waiting);
+    }
+  }
+
+  /**
+   * Restores the marker of a waiting calling thread.
+   *
+   * @param waiting
+   *    Previous value of the marker; may be {@code null}.
+   */
+  private static void restore(Boolean waiting) {
+    if (waiting != null) {
+      callerWaits.set(waiting);
+    }
+    else {
+      callerWaits.remove();
+    }
+  }
+
+  /**
+   * Waits for a future to complete.
+   * <p>
+   * The future is never cancelled, even if the calling thread is
+   * interrupted, because it may be shared with other callers (e.g. by a
+   * {@link CoalescingAuthService}).
+   *
+   * @param future
+   *    The future to wait for.
+   *
+   * @param <T> value type
+   *
+   * @return
+   *    The value of the future.
+   *
+   * @throws GuacamoleException
+   *    If the future completed exceptionally with a
+   *    {@link GuacamoleException}, if it was cancelled, or if the calling
+   *    thread is interrupted.
+   */
+  static <T> T await(Future<T> future) throws GuacamoleException {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new GuacamoleServerException(
+          "interrupted while awaiting authorization result", ex);
+    }
+    catch (CancellationException ex) {
+      throw new GuacamoleServerException(
+          "authorization request was cancelled", ex);
+    }
+    catch (ExecutionException ex) {
+      throw rethrow(ex.getCause());
+    }
+  }
+
+  /**
+   * Strips the {@link CompletionException} and {@link ExecutionException}
+   * wrappers from an exception.
+   *
+   * @param ex
+   *    The exception.
+   *
+   * @return
+   *    The underlying cause.
+   */
+  static Throwable unwrap(Throwable ex) {
+    Throwable t = ex;
+    while ((t instanceof CompletionException
+        || t instanceof ExecutionException) && t.getCause() != null) {
+      t = t.getCause();
+    }
+    return t;
+  }
+
+  /**
+   * Throws the exception underlying the failure of a future.
+   *
+   * @param ex
+   *    The exception with which a future completed.
+   *
+   * @return
+   *    Never returns normally; declared so that callers may write
+   *    {@code throw rethrow(ex)}.
+   *
+   * @throws GuacamoleException
+   *    The underlying exception, or a {@link GuacamoleServerException} that
+   *    wraps it if it is a checked exception of another type.
+   */
+  static GuacamoleException rethrow(Throwable ex) throws GuacamoleException {
+    final Throwable cause = unwrap(ex);
+    if (cause instanceof GuacamoleException) throw (GuacamoleException) cause;
+    if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+    if (cause instanceof Error) throw (Error) cause;
+    throw new GuacamoleServerException("authorization failed", cause);
+  }
+
+}
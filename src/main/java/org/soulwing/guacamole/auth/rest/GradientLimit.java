@@ -0,0 +1,192 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A concurrency limit that adapts to the round trip times of calls, in the
+ * manner of a gradient limiter.
+ * <p>
+ * The limiter tracks a short-term average round trip time and a long-term
+ * average that estimates the round trip time without queuing. The ratio of
+ * the two, the <em>gradient</em>, measures how much latency has inflated:
+ * when calls are no slower than usual the gradient is one, and the limit
+ * grows by a headroom term that allows for some queuing; as latency inflates
+ * the gradient falls and the limit shrinks in proportion. A call that times
+ * out reduces the limit multiplicatively. While fewer than half of the
+ * permitted calls are in flight, the observed latency says nothing about a
+ * larger limit, so the limit does not grow.
+ */
+class GradientLimit {
+
+  /** Weight of each new limit in the smoothed limit. */
+  private static final double SMOOTHING = 0.2;
+
+  /** Latency inflation tolerated before the limit shrinks. */
+  private static final double TOLERANCE = 1.5;
+
+  /** Lower bound on the gradient, so that one slow call cannot halve it. */
+  private static final double MIN_GRADIENT = 0.5;
+
+  /** Factor by which the limit is reduced when a call times out. */
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /** Number of samples in the short-term round trip time average. */
+  private static final int SHORT_WINDOW = 10;
+
+  /** Number of samples in the long-term round trip time average. */
+  private static final int LONG_WINDOW = 600;
+
+  /**
+   * Ratio of the long-term to the short-term average above which the
+   * long-term average is decayed, so that it can recover after a period of
+   * inflated latency.
+   */
+  private static final double DRIFT_RATIO = 2.0;
+
+  /** Factor by which the long-term average is decayed on drift. */
+  private static final double DRIFT_DECAY = 0.95;
+
+  /**
+   * An exponentially weighted moving average that is a simple average until
+   * it has seen as many samples as its window.
+   */
+  private static class Average {
+
+    private final int window;
+    private final double factor;
+    private double value;
+    private int count;
+
+    Average(int window) {
+      this.window = window;
+      this.factor = 2.0 / (window + 1);
+    }
+
+    double add(double sample) {
+      if (count < window) {
+        count++;
+        value += (sample - value) / count;
+      }
+      else {
+        value += (sample - value) * factor;
+      }
+      return value;
+    }
+
+  }
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private final Average shortRtt = new Average(SHORT_WINDOW);
+  private final Average longRtt = new Average(LONG_WINDOW);
+
+  private double limit;
+  private double shortValue;
+  private double longValue;
+
+  /**
+   * Constructs a new limit.
+   *
+   * @param initialLimit
+   *    Initial limit.
+   *
+   * @param minLimit
+   *    Minimum limit.
+   *
+   * @param maxLimit
+   *    Maximum limit.
+   */
+  GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = Math.max(minLimit, 1);
+    this.maxLimit = Math.max(maxLimit, this.minLimit);
+    this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+  }
+
+  /**
+   * Updates the limit for a completed call.
+   *
+   * @param rtt
+   *    Round trip time of the call in nanoseconds.
+   *
+   * @param inflight
+   *    Number of calls in flight when the call started.
+   *
+   * @param dropped
+   *    Flag indicating that the call timed out, in which case its round
+   *    trip time is not a measure of the service's latency.
+   *
+   * @return
+   *    The updated limit.
+   */
+  synchronized int onSample(long rtt, int inflight, boolean dropped) {
+    if (dropped) {
+      limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      return getLimit();
+    }
+
+    shortValue = shortRtt.add(rtt);
+    longValue = longRtt.add(rtt);
+    if (longValue / shortValue > DRIFT_RATIO) {
+      longValue = longRtt.value *= DRIFT_DECAY;
+    }
+
+    if (inflight < limit / 2) return getLimit();
+
+    final double gradient = Math.max(MIN_GRADIENT,
+        Math.min(1.0, TOLERANCE * longValue / shortValue));
+    final double headroom = Math.sqrt(limit);
+    final double newLimit = limit * gradient + headroom;
+    limit = Math.max(minLimit, Math.min(maxLimit,
+        limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    return getLimit();
+  }
+
+  /**
+   * Gets the current limit.
+   *
+   * @return
+   *    Limit.
+   */
+  synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Gets the short-term average round trip time.
+   *
+   * @return
+   *    Round trip time in nanoseconds.
+   */
+  synchronized double getRtt() {
+    return shortValue;
+  }
+
+  /**
+   * Gets the long-term average round trip time, which estimates the round
+   * trip time without queuing.
+   *
+   * @return
+   *    Round trip time in nanoseconds.
+   */
+  synchronized double getRttNoLoad() {
+    return longValue;
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A selection of the request headers that are sent to the REST service.
+ * <p>
+ * A header is selected if its name is in the allowlist, or if the allowlist
+ * is empty, and its name is not in the denylist. Header names are matched
+ * without regard to case.
+ */
+class HeaderProjection {
+
+  /** A projection that selects every header. */
+  static final HeaderProjection ALL = new HeaderProjection(
+      Collections.<String>emptyList(), Collections.<String>emptyList());
+
+  private final Set<String> allowed;
+  private final Set<String> denied;
+
+  /**
+   * Constructs a new projection.
+   *
+   * @param allowed
+   *    Names of the headers to select; if empty, all headers not denied are
+   *    selected.
+   *
+   * @param denied
+   *    Names of the headers never to select.
+   */
+  HeaderProjection(List<String> allowed, List<String> denied) {
+    this.allowed = toLowerCase(allowed);
+    this.denied = toLowerCase(denied);
+  }
+
+  /**
+   * Determines whether a header is selected by this projection.
+   *
+   * @param name
+   *    Header name.
+   *
+   * @return
+   *    {@code true} if the header is selected.
+   */
+  boolean includes(String name) {
+    if (allowed.isEmpty() && denied.isEmpty()) return true;
+    final String key = name.toLowerCase(Locale.ENGLISH);
+    return (allowed.isEmpty() || allowed.contains(key))
+        && !denied.contains(key);
+  }
+
+  private static Set<String> toLowerCase(List<String> names) {
+    if (names == null || names.isEmpty()) return Collections.emptySet();
+    final Set<String> set = new HashSet<>();
+    for (final String name : names) {
+      set.add(name.toLowerCase(Locale.ENGLISH));
+    }
+    return set;
+  }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * An immutable map of request header names to values, captured from an HTTP
+ * request.
+ * <p>
+ * All values are held in a single array, in which the values of each header
+ * are contiguous; the value list of a header is a view of its range in the
+ * array. A snapshot requires no locking and remains valid after the request
+ * that it was captured from has completed. Header names are matched without
+ * regard to case when a header is looked up by name.
+ */
+final class HeaderSnapshot extends AbstractMap<String, List<String>> {
+
+  /** A snapshot that contains no headers. */
+  static final HeaderSnapshot EMPTY =
+      new HeaderSnapshot(new String[0], new int[1], new String[0]);
+
+  /** Header names, in request order. */
+  private final String[] names;
+
+  /**
+   * Offsets into {@link #values}; the values of the header at index {@code i}
+   * are at {@code offsets[i]} inclusive to {@code offsets[i + 1]} exclusive.
+   */
+  private final int[] offsets;
+
+  /** Header values. */
+  private final String[] values;
+
+  private HeaderSnapshot(String[] names, int[] offsets, String[] values) {
+    this.names = names;
+    this.offsets = offsets;
+    this.values = values;
+  }
+
+  /**
+   * Captures the selected headers of a request.
+   *
+   * @param request
+   *    The request.
+   *
+   * @param projection
+   *    Projection that selects the headers to capture.
+   *
+   * @return
+   *    Snapshot of the selected headers.
+   */
+  static HeaderSnapshot capture(HttpServletRequest request,
+      HeaderProjection projection) {
+    final Enumeration<?> headerNames = request.getHeaderNames();
+    if (headerNames == null) return EMPTY;
+
+    final List<String> names = new ArrayList<>();
+    final List<String> values = new ArrayList<>();
+    int[] offsets = new int[8];
+    while (headerNames.hasMoreElements()) {
+      final String name = (String) headerNames.nextElement();
+      if (!projection.includes(name)) continue;
+      final Enumeration<?> headerValues = request.getHeaders(name);
+      if (headerValues == null) continue;
+      final int start = values.size();
+      while (headerValues.hasMoreElements()) {
+        values.add((String) headerValues.nextElement());
+      }
+      if (values.size() == start) continue;
+      if (names.size() + 1 == offsets.length) {
+        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+      }
+      names.add(name);
+      offsets[names.size()] = values.size();
+    }
+
+    if (names.isEmpty()) return EMPTY;
+    return new HeaderSnapshot(names.toArray(new String[0]),
+        Arrays.copyOf(offsets, names.size() + 1),
+        values.toArray(new String[0]));
+  }
+
+  @Override
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public List<String> get(Object key) {
+    final int index = indexOf(key);
+    return index >= 0 ? new Values(index) : null;
+  }
+
+  @Override
+  public Set<Entry<String, List<String>>> entrySet() {
+    return new AbstractSet<Entry<String, List<String>>>() {
+      @Override
+      public int size() {
+        return names.length;
+      }
+
+      @Override
+      public Iterator<Entry<String, List<String>>> iterator() {
+        return new Iterator<Entry<String, List<String>>>() {
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < names.length;
+          }
+
+          @Override
+          public Entry<String, List<String>> next() {
+            if (index >= names.length) throw new NoSuchElementException();
+            final int i = index++;
+            return new SimpleImmutableEntry<String, List<String>>(
+                names[i], new Values(i));
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Finds the index of a header, matching its name without regard to case.
+   *
+   * @param key
+   *    Header name.
+   *
+   * @return
+   *    Index of the header or -1 if there is no such header.
+   */
+  private int indexOf(Object key) {
+    if (!(key instanceof String)) return -1;
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equalsIgnoreCase((String) key)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * An unmodifiable view of the values of a header.
+   */
+  private class Values extends AbstractList<String> {
+
+    private final int start;
+    private final int end;
+
+    Values(int index) {
+      this.start = offsets[index];
+      this.end = offsets[index + 1];
+    }
+
+    @Override
+    public String get(int index) {
+      if (index < 0 || index >= end - start) {
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+      }
+      return values[start + index];
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+
+  }
+
+}
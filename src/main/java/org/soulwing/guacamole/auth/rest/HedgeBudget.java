@@ -0,0 +1,81 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that limits hedged requests to a percentage of all
+ * requests.
+ * <p>
+ * Each request deposits a fraction of a token, and each hedged request
+ * withdraws a whole token. The balance is capped, so that a long quiet
+ * period cannot be followed by an unbounded burst of hedged requests.
+ */
+class HedgeBudget {
+
+  /** Value of one token, in the units of the balance. */
+  private static final long TOKEN = 1000;
+
+  /** Maximum balance, in tokens. */
+  private static final long MAX_TOKENS = 10;
+
+  private final long deposit;
+  private final AtomicLong balance = new AtomicLong();
+
+  /**
+   * Constructs a new budget.
+   *
+   * @param percent
+   *    Maximum number of hedged requests, as a percentage of all requests.
+   */
+  HedgeBudget(int percent) {
+    this.deposit = Math.max(0, percent) * TOKEN / 100;
+  }
+
+  /**
+   * Records a request, adding to the balance.
+   */
+  void deposit() {
+    final long max = MAX_TOKENS * TOKEN;
+    long current;
+    do {
+      current = balance.get();
+      if (current >= max) return;
+    }
+    while (!balance.compareAndSet(current, Math.min(current + deposit, max)));
+  }
+
+  /**
+   * Attempts to withdraw a token for a hedged request.
+   *
+   * @return
+   *    {@code true} if a token was withdrawn and the request may be hedged.
+   */
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < TOKEN) return false;
+    }
+    while (!balance.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+
+}
@@ -0,0 +1,673 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+
+/**
+ * An {@link AuthService} implemented using the non-blocking
+ * {@link HttpClient} of the Java platform.
+ * <p>
+ * No thread waits while a request is outstanding; the client's selector
+ * thread completes each request, and dependent stages run on an executor
+ * that uses virtual threads where the runtime supports them. Hedged requests
+ * are scheduled with a delayed executor rather than by a waiting thread.
+ * <p>
+ * Basic authentication is sent preemptively; Digest and OAuth2
+ * authentication are not supported by this transport.
+ */
+class HttpClientAuthService implements AuthService {
+
+  /** Latency percentile used as the hedge delay when none is configured. */
+  private static final double HEDGE_PERCENTILE = 0.95;
+
+  /** Number of recent latencies from which the percentile is computed. */
+  private static final int HEDGE_LATENCY_SAMPLES = 1024;
+
+  /** Number of latencies required before requests are hedged. */
+  private static final int HEDGE_MIN_SAMPLES = 20;
+
+  /** JSON marshaller to use in making requests and handling responses. */
+  private final JsonMarshaller marshaller;
+
+  /** Time source for deadlines and latencies. */
+  private final Ticker ticker;
+
+  /** Metrics in which the stages of each request are recorded. */
+  private final AuthMetrics metrics;
+
+  /** The client used in servicing all authorization requests. */
+  private HttpClient client;
+
+  /** Executor for the client and for dependent stages. */
+  private ExecutorService executor;
+
+  /** Authorization resource URI of each service endpoint, keyed by URL. */
+  private Map<String, URI> resources;
+
+  /**
+   * Connection parameters resource URI of each service endpoint, keyed by
+   * URL; empty if no connection parameters resource is configured.
+   */
+  private Map<String, URI> parameterResources;
+
+  /** Value for the {@code Authorization} header, or {@code null}. */
+  private String authorization;
+
+  /** Deadline budget in milliseconds; zero if requests have no deadline. */
+  private int deadline;
+
+  /** Read timeout in milliseconds. */
+  private int readTimeout;
+
+  /** Balancer that chooses the service endpoint for each request. */
+  private EndpointBalancer balancer;
+
+  /** Flag indicating whether slow requests are hedged. */
+  private boolean hedgeEnabled;
+
+  /** Fixed hedge delay in milliseconds; zero to use tracked latencies. */
+  private int hedgeDelay;
+
+  /** Budget that limits the number of hedged requests. */
+  private HedgeBudget hedgeBudget;
+
+  /** Tracker for the latency percentile used as the hedge delay. */
+  private LatencyTracker latencies;
+
+  /** Content codings for compressed entities, or {@code null} if disabled. */
+  private ContentCoding contentCoding;
+
+  /** Negotiator for the wire format of request and response entities. */
+  private WireFormatNegotiator wireFormat;
+
+  /**
+   * Constructs a new instance that uses a {@link JacksonJsonMarshaller}.
+   */
+  HttpClientAuthService() {
+    this(new JacksonJsonMarshaller(), Ticker.SYSTEM, AuthMetrics.SHARED);
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param marshaller
+   *    The JSON marshaller to be used when sending authorization requests
+   *    and processing results.
+   *
+   * @param ticker
+   *    Time source for deadlines and latencies.
+   *
+   * @param metrics
+   *    Metrics in which the stages of each request are recorded.
+   */
+  HttpClientAuthService(JsonMarshaller marshaller, Ticker ticker,
+      AuthMetrics metrics) {
+    this.marshaller = marshaller;
+    this.ticker = ticker;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Initializes the client using the specified configuration.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If Digest or OAuth2 authentication is configured, or if an error
+   *   occurs in retrieving the configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    if (config.isDigestConfigured()) {
+      throw new GuacamoleServerException(
+          "Digest authentication is not supported by the jdk transport");
+    }
+    if (config.getOAuth2ServiceUrl() != null) {
+      throw new GuacamoleServerException(
+          "OAuth2 authentication is not supported by the jdk transport");
+    }
+    final String authorizationUri = config.getAuthorizationUri();
+    final String parametersUri = config.getParametersUri();
+    final Map<String, URI> resources = new HashMap<>();
+    final Map<String, URI> parameterResources = new HashMap<>();
+    for (final String url : config.getServiceUrls()) {
+      resources.put(url, resolve(url, authorizationUri));
+      if (parametersUri != null) {
+        parameterResources.put(url, resolve(url, parametersUri));
+      }
+    }
+    this.resources = resources;
+    this.parameterResources = parameterResources;
+    this.wireFormat = WireFormatNegotiator.newInstance(
+        config.getWireFormat(), marshaller);
+    this.deadline = config.getDeadline();
+    this.readTimeout = config.getReadTimeout();
+    if (config.isBasicConfigured()) {
+      final String credentials = config.getBasicUsername() + ":"
+          + config.getBasicPassword();
+      this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+          credentials.getBytes(StandardCharsets.UTF_8));
+    }
+    this.balancer = new EndpointBalancer(config.getServiceUrls(),
+        config.getEjectFailures(),
+        TimeUnit.SECONDS.toNanos(config.getEjectDuration()),
+        TimeUnit.SECONDS.toNanos(config.getSlowStart()),
+        ticker, new Random());
+    this.hedgeEnabled = config.isHedgeEnabled();
+    if (hedgeEnabled) {
+      this.hedgeDelay = config.getHedgeDelay();
+      this.hedgeBudget = new HedgeBudget(config.getHedgeBudget());
+      this.latencies = new LatencyTracker(HEDGE_PERCENTILE,
+          HEDGE_LATENCY_SAMPLES, HEDGE_MIN_SAMPLES);
+    }
+    if (config.isCompressionEnabled()) {
+      this.contentCoding =
+          new ContentCoding(config.getCompressionRequestThreshold());
+      JmxSupport.register(ContentCoding.MBEAN_TYPE, contentCoding);
+    }
+    this.executor = AsyncExecutors.newExecutor("auth-rest-request",
+        config.isVirtualThreadsEnabled());
+    final HttpClient.Builder builder = HttpClient.newBuilder()
+        .executor(executor)
+        .followRedirects(HttpClient.Redirect.NEVER);
+    final int connectTimeout = config.getConnectTimeout();
+    if (connectTimeout > 0) {
+      builder.connectTimeout(Duration.ofMillis(connectTimeout));
+    }
+    this.client = builder.build();
+  }
+
+  /**
+   * Requests authorization for a subject with the given credentials.
+   * <p>
+   * The request is sent to the service endpoint chosen by the
+   * {@link EndpointBalancer}. If a deadline is configured, the request times
+   * out when it passes, and the time remaining is sent to the REST service
+   * in the {@value JerseyAuthService#DEADLINE_HEADER} header. The deadline of
+   * a subject that carries one is used as given; otherwise, the deadline is
+   * started when the request is made. If hedging is
+   * enabled, a slow request is duplicated to another endpoint, and the
+   * first successful response is used. If compression is enabled, a request
+   * entity that reaches the threshold size is compressed. A subject that
+   * names a connection is sent to the connection parameters resource.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *    A future that completes with the authorization result, or
+   *    exceptionally if the request failed due an error reported by the
+   *    REST service; with a {@link GuacamoleUpstreamTimeoutException} if the
+   *    request timed out.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    if (subject.getConnectionName() != null && parameterResources.isEmpty()) {
+      return CompletableFuture.failedFuture(new GuacamoleServerException(
+          "connection parameters resource is not configured"));
+    }
+    final Entity entity;
+    try {
+      entity = encode(subject, wireFormat.getRequestType());
+    }
+    catch (GuacamoleException ex) {
+      return CompletableFuture.failedFuture(ex);
+    }
+    final long expiry = subject.getDeadline() != 0 ? subject.getDeadline() :
+        deadline > 0 ?
+            ticker.read() + TimeUnit.MILLISECONDS.toNanos(deadline) : 0;
+    final Race race = new Race(subject, entity, expiry);
+    final Attempt primary = race.start(balancer.select());
+    if (hedgeEnabled) {
+      hedgeBudget.deposit();
+      final long delay = hedgeDelay();
+      if (delay >= 0) {
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS,
+            executor).execute(() -> {
+              if (!race.result.isDone() && hedgeBudget.tryWithdraw()) {
+                race.start(balancer.select(primary.endpoint));
+              }
+            });
+      }
+    }
+    return race.result;
+  }
+
+  /**
+   * Encodes a subject as a request entity, compressing it if compression is
+   * enabled and the entity is large enough.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param type
+   *   Media type in which the subject is to be encoded.
+   *
+   * @return
+   *    Request entity.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in encoding the subject.
+   */
+  private Entity encode(AuthSubject subject, String type)
+      throws GuacamoleException {
+    final long start = ticker.read();
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try {
+      wireFormat.getMarshaller(type).write(subject, bos);
+    }
+    catch (IOException ex) {
+      throw new GuacamoleServerException("cannot encode subject", ex);
+    }
+    final byte[] encoded = bos.toByteArray();
+    final byte[] body = contentCoding != null ?
+        contentCoding.encode(encoded) : encoded;
+    metrics.recordStage(AuthMetrics.Stage.SERIALIZE, ticker.read() - start);
+    metrics.recordRequestSize(body.length);
+    return new Entity(type, body, body != encoded);
+  }
+
+  /**
+   * Gets the time to wait for a response before sending a hedged request.
+   *
+   * @return
+   *    Delay in nanoseconds, or -1 if a request should not be hedged because
+   *    too few latencies have been observed.
+   */
+  private long hedgeDelay() {
+    return hedgeDelay > 0 ?
+        TimeUnit.MILLISECONDS.toNanos(hedgeDelay) : latencies.getPercentile();
+  }
+
+  /**
+   * Resolves the authorization resource path against a service URL.
+   *
+   * @param url
+   *    Service URL.
+   *
+   * @param path
+   *    Resource path.
+   *
+   * @return
+   *    Resource URI.
+   */
+  static URI resolve(String url, String path) {
+    final StringBuilder sb = new StringBuilder(url);
+    if (sb.length() > 0 && sb.charAt(sb.length() - 1) == '/') {
+      sb.setLength(sb.length() - 1);
+    }
+    if (!path.startsWith("/")) {
+      sb.append('/');
+    }
+    return URI.create(sb.append(path).toString());
+  }
+
+  /**
+   * Shuts down the executor used by the client.
+   */
+  @Override
+  public void destroy() {
+    if (contentCoding != null) {
+      JmxSupport.unregister(ContentCoding.MBEAN_TYPE, contentCoding);
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The attempts made to obtain a single authorization result, of which the
+   * first to succeed provides the result.
+   */
+  private class Race {
+
+    final CompletableFuture<AuthResult> result = new CompletableFuture<>();
+
+    private final AuthSubject subject;
+    private final Entity entity;
+    private final long expiry;
+    private final List<Attempt> attempts = new ArrayList<>(2);
+    private int pending;
+
+    /**
+     * Constructs a new race.
+     *
+     * @param subject
+     *    The subject to be authorized.
+     *
+     * @param entity
+     *    Request entity.
+     *
+     * @param expiry
+     *    Ticker time at which the deadline passes, or zero if unbounded.
+     */
+    Race(AuthSubject subject, Entity entity, long expiry) {
+      this.subject = subject;
+      this.entity = entity;
+      this.expiry = expiry;
+    }
+
+    /**
+     * Starts an attempt, unless the race has already been decided.
+     *
+     * @param endpoint
+     *    The endpoint to which the request will be sent.
+     *
+     * @return
+     *    The attempt.
+     */
+    Attempt start(EndpointBalancer.Endpoint endpoint) {
+      final Attempt attempt = new Attempt(endpoint);
+      synchronized (this) {
+        if (result.isDone()) {
+          attempt.cancel();
+          return attempt;
+        }
+        attempts.add(attempt);
+        pending++;
+      }
+      attempt.send(subject, entity, expiry).whenComplete(this::settle);
+      return attempt;
+    }
+
+    /**
+     * Settles the race when an attempt completes, cancelling any other
+     * attempts once the result is known.
+     */
+    private void settle(AuthResult r, Throwable ex) {
+      final boolean last;
+      synchronized (this) {
+        last = --pending == 0;
+      }
+      if (ex == null) {
+        result.complete(r);
+      }
+      else if (last) {
+        result.completeExceptionally(Futures.unwrap(ex));
+      }
+      if (result.isDone()) {
+        final List<Attempt> attempts;
+        synchronized (this) {
+          attempts = new ArrayList<>(this.attempts);
+        }
+        attempts.forEach(Attempt::cancel);
+      }
+    }
+
+  }
+
+  /**
+   * An attempt to obtain an authorization result from an endpoint.
+   */
+  private class Attempt {
+
+    final EndpointBalancer.Endpoint endpoint;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile CompletableFuture<?> exchange;
+
+    /**
+     * Constructs a new attempt.
+     *
+     * @param endpoint
+     *    The endpoint to which the request will be sent.
+     */
+    Attempt(EndpointBalancer.Endpoint endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * Sends the request for this attempt, sending it again as JSON if the
+     * REST service rejects the wire format of the entity.
+     *
+     * @param subject
+     *    The subject to be authorized.
+     *
+     * @param entity
+     *    Request entity.
+     *
+     * @param expiry
+     *    Ticker time at which the deadline passes, or zero if unbounded.
+     *
+     * @return
+     *    A future that completes with the authorization result.
+     */
+    CompletableFuture<AuthResult> send(AuthSubject subject, Entity entity,
+        long expiry) {
+      final AuthEvents.Request event = new AuthEvents.Request();
+      event.begin();
+      final long start = ticker.read();
+      final Map<String, URI> targets = subject.getConnectionName() != null ?
+          parameterResources : resources;
+      final HttpRequest.Builder builder = HttpRequest.newBuilder(
+          targets.get(endpoint.getUrl()))
+          .header("Content-Type", entity.type)
+          .header("Accept", wireFormat.getAcceptHeader())
+          .POST(HttpRequest.BodyPublishers.ofByteArray(entity.body));
+      if (authorization != null) {
+        builder.header("Authorization", authorization);
+      }
+      if (contentCoding != null) {
+        builder.header(ContentCoding.ACCEPT_ENCODING_HEADER,
+            ContentCoding.ACCEPT_ENCODING);
+      }
+      if (entity.compressed) {
+        builder.header(ContentCoding.CONTENT_ENCODING_HEADER,
+            ContentCoding.GZIP);
+      }
+      long timeout = readTimeout > 0 ? readTimeout : Long.MAX_VALUE;
+      if (expiry != 0) {
+        final long remaining = TimeUnit.NANOSECONDS.toMillis(expiry - start);
+        if (remaining <= 0) {
+          complete(start, true);
+          commit(event, null, AuthEvents.TIMEOUT);
+          return CompletableFuture.failedFuture(
+              new GuacamoleUpstreamTimeoutException(
+                  "REST service request deadline exceeded"));
+        }
+        builder.header(JerseyAuthService.DEADLINE_HEADER,
+            String.valueOf(remaining));
+        timeout = Math.min(timeout, remaining);
+      }
+      if (timeout != Long.MAX_VALUE) {
+        builder.timeout(Duration.ofMillis(timeout));
+      }
+
+      final CompletableFuture<HttpResponse<byte[]>> exchange =
+          client.sendAsync(builder.build(),
+              HttpResponse.BodyHandlers.ofByteArray());
+      this.exchange = exchange;
+      return exchange.handle((response, ex) -> {
+        if (response != null) {
+          metrics.recordStage(AuthMetrics.Stage.ROUND_TRIP,
+              ticker.read() - start);
+        }
+        if (response != null && !done.get() && wireFormat.isRejected(
+            response.statusCode(), entity.type)) {
+          try {
+            return send(subject,
+                encode(subject, wireFormat.getRequestType()), expiry);
+          }
+          catch (GuacamoleException e) {
+            complete(start, true);
+            return CompletableFuture.<AuthResult>failedFuture(e);
+          }
+        }
+        try {
+          final AuthResult result = readResult(response, ex);
+          complete(start, false);
+          commit(event, response, AuthEvents.SUCCESS);
+          return CompletableFuture.completedFuture(result);
+        }
+        catch (GuacamoleException e) {
+          complete(start, true);
+          commit(event, response, AuthEvents.outcomeOf(e));
+          return CompletableFuture.<AuthResult>failedFuture(e);
+        }
+      }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Commits the flight recorder event for a request of this attempt.
+     *
+     * @param event
+     *    The event, begun when the request was sent.
+     *
+     * @param response
+     *    The response, or {@code null} if the request failed.
+     *
+     * @param outcome
+     *    Outcome of the request.
+     */
+    private void commit(AuthEvents.Request event,
+        HttpResponse<byte[]> response, String outcome) {
+      if (!event.shouldCommit()) return;
+      event.transport = "jdk";
+      event.endpoint = endpoint.getUrl();
+      if (response != null) {
+        event.status = response.statusCode();
+        event.responseBytes = response.body().length;
+      }
+      event.outcome = outcome;
+      event.commit();
+    }
+
+    /**
+     * Records the outcome of this attempt, unless it was cancelled.
+     */
+    private void complete(long start, boolean failed) {
+      if (done.compareAndSet(false, true)) {
+        final long latency = ticker.read() - start;
+        balancer.complete(endpoint, latency, failed);
+        if (!failed && latencies != null) {
+          latencies.record(latency);
+        }
+      }
+    }
+
+    /**
+     * Cancels this attempt if it has not yet completed, without recording an
+     * outcome for its endpoint.
+     */
+    void cancel() {
+      if (done.compareAndSet(false, true)) {
+        balancer.cancel(endpoint);
+        final CompletableFuture<?> exchange = this.exchange;
+        if (exchange != null) {
+          exchange.cancel(true);
+        }
+      }
+    }
+
+  }
+
+  /**
+   * Reads the authorization result from the response to a request.
+   *
+   * @param response
+   *    The response, or {@code null} if the request failed.
+   *
+   * @param ex
+   *    The exception that caused the request to fail, or {@code null}.
+   *
+   * @return
+   *    The authorization result.
+   *
+   * @throws GuacamoleException
+   *    If the request failed due an error reported by the REST service; a
+   *    {@link GuacamoleUpstreamTimeoutException} if the request timed out.
+   */
+  private AuthResult readResult(HttpResponse<byte[]> response, Throwable ex)
+      throws GuacamoleException {
+    if (ex != null) {
+      final Throwable cause = Futures.unwrap(ex);
+      if (cause instanceof HttpTimeoutException) {
+        throw new GuacamoleUpstreamTimeoutException(
+            "REST service request timed out", cause);
+      }
+      throw new GuacamoleServerException("REST service request failed",
+          cause);
+    }
+    if (response.statusCode() / 100 != 2) {
+      throw new GuacamoleServerException("REST service error: HTTP status "
+          + response.statusCode());
+    }
+    try {
+      final long start = ticker.read();
+      InputStream entity = new ByteArrayInputStream(response.body());
+      if (contentCoding != null) {
+        entity = contentCoding.decode(response.headers().firstValue(
+            ContentCoding.CONTENT_ENCODING_HEADER).orElse(null), entity);
+      }
+      final AuthResult result = wireFormat.getMarshaller(response.headers()
+          .firstValue("Content-Type").orElse(null)).readResult(entity);
+      metrics.recordStage(AuthMetrics.Stage.PARSE, ticker.read() - start);
+      metrics.recordResponseSize(response.body().length);
+      return result;
+    }
+    catch (IOException e) {
+      throw new GuacamoleServerException("REST service response error", e);
+    }
+  }
+
+  /**
+   * An encoded request entity.
+   */
+  private static class Entity {
+
+    final String type;
+    final byte[] body;
+    final boolean compressed;
+
+    Entity(String type, byte[] body, boolean compressed) {
+      this.type = type;
+      this.body = body;
+      this.compressed = compressed;
+    }
+
+  }
+
+}
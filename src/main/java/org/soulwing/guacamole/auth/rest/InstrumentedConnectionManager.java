@@ -0,0 +1,191 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * An {@link HttpClientConnectionManager} that delegates to a
+ * {@link PoolingHttpClientConnectionManager} and records pool occupancy and
+ * the time spent waiting to lease a connection.
+ */
+class InstrumentedConnectionManager
+    implements HttpClientConnectionManager, ConnectionPoolMXBean {
+
+  /** The delegate pool. */
+  private final PoolingHttpClientConnectionManager delegate;
+
+  private final AtomicLong leaseCount = new AtomicLong();
+  private final AtomicLong totalLeaseWaitTime = new AtomicLong();
+  private final AtomicLong maxLeaseWaitTime = new AtomicLong();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The delegate pool.
+   */
+  InstrumentedConnectionManager(PoolingHttpClientConnectionManager delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+    final ConnectionRequest request = delegate.requestConnection(route, state);
+    return new ConnectionRequest() {
+      @Override
+      public HttpClientConnection get(long timeout, TimeUnit tunit)
+          throws InterruptedException, ExecutionException,
+          ConnectionPoolTimeoutException {
+        final long start = System.nanoTime();
+        try {
+          return request.get(timeout, tunit);
+        }
+        finally {
+          recordLeaseWait(System.nanoTime() - start);
+        }
+      }
+
+      @Override
+      public boolean cancel() {
+        return request.cancel();
+      }
+    };
+  }
+
+  @Override
+  public void releaseConnection(HttpClientConnection conn, Object newState,
+      long validDuration, TimeUnit timeUnit) {
+    delegate.releaseConnection(conn, newState, validDuration, timeUnit);
+  }
+
+  @Override
+  public void connect(HttpClientConnection conn, HttpRoute route,
+      int connectTimeout, HttpContext context) throws IOException {
+    delegate.connect(conn, route, connectTimeout, context);
+  }
+
+  @Override
+  public void upgrade(HttpClientConnection conn, HttpRoute route,
+      HttpContext context) throws IOException {
+    delegate.upgrade(conn, route, context);
+  }
+
+  @Override
+  public void routeComplete(HttpClientConnection conn, HttpRoute route,
+      HttpContext context) throws IOException {
+    delegate.routeComplete(conn, route, context);
+  }
+
+  @Override
+  public void closeIdleConnections(long idletime, TimeUnit tunit) {
+    delegate.closeIdleConnections(idletime, tunit);
+  }
+
+  @Override
+  public void closeExpiredConnections() {
+    delegate.closeExpiredConnections();
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public int getLeased() {
+    return delegate.getTotalStats().getLeased();
+  }
+
+  @Override
+  public int getAvailable() {
+    return delegate.getTotalStats().getAvailable();
+  }
+
+  @Override
+  public int getPending() {
+    return delegate.getTotalStats().getPending();
+  }
+
+  @Override
+  public int getMaxTotal() {
+    return delegate.getMaxTotal();
+  }
+
+  @Override
+  public long getLeaseCount() {
+    return leaseCount.get();
+  }
+
+  @Override
+  public long getTotalLeaseWaitTime() {
+    return TimeUnit.NANOSECONDS.toMillis(totalLeaseWaitTime.get());
+  }
+
+  @Override
+  public double getAverageLeaseWaitTime() {
+    final long count = leaseCount.get();
+    return count > 0 ?
+        (double) totalLeaseWaitTime.get() / count
+            / TimeUnit.MILLISECONDS.toNanos(1) : 0.0;
+  }
+
+  @Override
+  public long getMaxLeaseWaitTime() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitTime.get());
+  }
+
+  /**
+   * Gets a snapshot of the pool statistics.
+   *
+   * @return
+   *    Pool statistics.
+   */
+  PoolStats getTotalStats() {
+    return delegate.getTotalStats();
+  }
+
+  /**
+   * Records the time spent waiting to lease a connection.
+   *
+   * @param nanos
+   *    Wait time in nanoseconds.
+   */
+  private void recordLeaseWait(long nanos) {
+    leaseCount.incrementAndGet();
+    totalLeaseWaitTime.addAndGet(nanos);
+    long max = maxLeaseWaitTime.get();
+    while (nanos > max && !maxLeaseWaitTime.compareAndSet(max, nanos)) {
+      max = maxLeaseWaitTime.get();
+    }
+  }
+
+}
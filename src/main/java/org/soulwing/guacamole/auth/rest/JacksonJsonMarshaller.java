@@ -19,39 +19,376 @@
 package org.soulwing.guacamole.auth.rest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.io.SerializedString;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 
 /**
- * A {@link JsonMarshaller} implemented using a Jackson
- * {@link org.codehaus.jackson.map.ObjectMapper}.
+ * A {@link JsonMarshaller} implemented using the Jackson streaming API.
+ * <p>
+ * A subject is written token by token using a {@link JsonGenerator} obtained
+ * from a shared {@link JsonFactory}, with field names that are encoded once
+ * when this class is loaded. An authorization result is read token by token
+ * using a {@link JsonParser}, without constructing an intermediate tree.
+ * A single {@link ObjectMapper} is shared for reading arbitrary JSON objects.
+ * Both the factory and the mapper are thread safe once configured.
+ * <p>
+ * Given a factory for a binary encoding of JSON, such as a
+ * {@code SmileFactory}, subjects are written and results are read in that
+ * encoding; {@link #toJson(AuthSubject)} supports only factories for JSON
+ * text.
  */
 class JacksonJsonMarshaller implements JsonMarshaller {
 
+  private static final SerializedString USERNAME =
+      new SerializedString("username");
+
+  private static final SerializedString PASSWORD =
+      new SerializedString("password");
+
+  private static final SerializedString REMOTE_ADDRESS =
+      new SerializedString("remoteAddress");
+
+  private static final SerializedString REMOTE_HOSTNAME =
+      new SerializedString("remoteHostname");
+
+  private static final SerializedString HEADERS =
+      new SerializedString("headers");
+
+  private static final SerializedString CONNECTION =
+      new SerializedString("connection");
+
+  /** Type reference for the result of {@link #toMap(String)}. */
+  private static final TypeReference<Map<String, Object>> MAP_TYPE =
+      new TypeReference<Map<String, Object>>() {};
+
+  /** Shared mapper used to read arbitrary JSON objects. */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** Shared factory used to create generators and parsers. */
+  private final JsonFactory factory;
+
+  /**
+   * Constructs a new instance that uses the shared Jackson JSON factory.
+   */
+  JacksonJsonMarshaller() {
+    this(MAPPER.getJsonFactory());
+  }
+
+  /**
+   * Constructs a new instance that uses the given factory.
+   *
+   * @param factory
+   *    Factory that will be used to create generators and parsers.
+   */
+  JacksonJsonMarshaller(JsonFactory factory) {
+    this.factory = factory;
+  }
+
   @Override
   public String toJson(AuthSubject subject) throws GuacamoleException {
-    final ObjectMapper mapper = new ObjectMapper();
     try {
-      return mapper.writeValueAsString(subject);
+      final StringWriter writer = new StringWriter();
+      final JsonGenerator generator = factory.createJsonGenerator(writer);
+      writeSubject(subject, generator);
+      generator.close();
+      return writer.toString();
     }
     catch (IOException ex) {
       throw new GuacamoleException(ex);
     }
   }
 
+  @Override
+  public void write(AuthSubject subject, OutputStream out)
+      throws IOException {
+    final AuthEvents.Serialize event = new AuthEvents.Serialize();
+    event.begin();
+    final AtomicLong written = event.isEnabled() ? new AtomicLong() : null;
+    final JsonGenerator generator = factory.createJsonGenerator(
+        written != null ? new CountingOutputStream(out, written) : out,
+        JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    writeSubject(subject, generator);
+    generator.close();
+    if (written != null && event.shouldCommit()) {
+      event.format = factory.getFormatName();
+      event.bytes = written.get();
+      event.commit();
+    }
+  }
+
   @Override
   public Map toMap(String json) throws GuacamoleException {
-    final ObjectMapper mapper = new ObjectMapper();
     try {
-      return mapper.readValue(json,
-          new TypeReference<Map<String, Object>>(){});
+      return MAPPER.readValue(json, MAP_TYPE);
     }
     catch (IOException ex) {
       throw new GuacamoleException(ex);
     }
   }
 
+  @Override
+  public AuthResult readResult(InputStream in) throws IOException {
+    final AuthEvents.Parse event = new AuthEvents.Parse();
+    event.begin();
+    final AtomicLong read = event.isEnabled() ? new AtomicLong() : null;
+    final AuthResult result = readResult(factory.createJsonParser(
+        read != null ? new CountingInputStream(in, read) : in));
+    if (read != null && event.shouldCommit()) {
+      final Map<String, GuacamoleConfiguration> configurations =
+          result.getConfigurations();
+      event.format = factory.getFormatName();
+      event.bytes = read.get();
+      event.authorized = result.isAuthorized();
+      event.configurationCount =
+          configurations != null ? configurations.size() : 0;
+      event.commit();
+    }
+    return result;
+  }
+
+  /**
+   * Reads an authorization result using a parser, closing the parser when
+   * the result has been read.
+   *
+   * @param parser
+   *    The result parser.
+   *
+   * @return
+   *    The authorization result.
+   *
+   * @throws IOException
+   *    If an error occurs in reading the result.
+   */
+  private static AuthResult readResult(JsonParser parser) throws IOException {
+    try {
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      boolean authorized = false;
+      Map<String, GuacamoleConfiguration> configurations = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        if (ProtocolConstants.AUTH_KEY.equals(name)) {
+          authorized = token == JsonToken.VALUE_TRUE;
+          if (!authorized) return AuthResult.DENIED;
+        }
+        else if (ProtocolConstants.CONFIGS_KEY.equals(name)
+            && token != JsonToken.VALUE_NULL) {
+          expect(parser, token, JsonToken.START_OBJECT);
+          configurations = readConfigurations(parser);
+        }
+        else {
+          parser.skipChildren();
+        }
+      }
+      return authorized ?
+          AuthResult.authorized(configurations) : AuthResult.DENIED;
+    }
+    finally {
+      parser.close();
+    }
+  }
+
+  /**
+   * Reads the configurations object of an authorization result. On entry,
+   * the current token is the start of the object; on return, the current
+   * token is the end of the object.
+   *
+   * @param parser
+   *    The subject parser.
+   *
+   * @return
+   *    Map of configurations keyed by connection name, in the order in which
+   *    they were read.
+   *
+   * @throws IOException
+   *    If an error occurs in reading the configurations.
+   */
+  private static Map<String, GuacamoleConfiguration> readConfigurations(
+      JsonParser parser) throws IOException {
+    final Map<String, GuacamoleConfiguration> configurations =
+        new LinkedHashMap<String, GuacamoleConfiguration>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      configurations.put(name, readConfiguration(parser));
+    }
+    return configurations;
+  }
+
+  /**
+   * Reads a connection resource object. On entry, the current token is the
+   * start of the object; on return, the current token is the end of the
+   * object.
+   *
+   * @param parser
+   *    The subject parser.
+   *
+   * @return
+   *    Guacamole configuration described by the object.
+   *
+   * @throws IOException
+   *    If an error occurs in reading the object.
+   */
+  private static GuacamoleConfiguration readConfiguration(JsonParser parser)
+      throws IOException {
+    final GuacamoleConfiguration configuration = new GuacamoleConfiguration();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (ProtocolConstants.PROTOCOL_KEY.equals(name)
+          && token == JsonToken.VALUE_STRING) {
+        configuration.setProtocol(parser.getText());
+      }
+      else if (ProtocolConstants.PARAMS_KEY.equals(name)
+          && token == JsonToken.START_OBJECT) {
+        readParameters(parser, configuration);
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+    return configuration;
+  }
+
+  /**
+   * Reads the parameters object of a connection resource. On entry, the
+   * current token is the start of the object; on return, the current token
+   * is the end of the object.
+   * <p>
+   * Parameter values that are strings, numbers, or booleans are stored
+   * in their textual form; null and structured values are ignored.
+   *
+   * @param parser
+   *    The subject parser.
+   *
+   * @param configuration
+   *    The configuration to which parameters will be added.
+   *
+   * @throws IOException
+   *    If an error occurs in reading the object.
+   */
+  private static void readParameters(JsonParser parser,
+      GuacamoleConfiguration configuration) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+        configuration.setParameter(name, parser.getText());
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Asserts that a token is of the expected type.
+   *
+   * @param parser
+   *    The subject parser.
+   *
+   * @param token
+   *    The token to examine.
+   *
+   * @param expected
+   *    The expected token type.
+   *
+   * @throws JsonParseException
+   *    If {@code token} is not of the expected type.
+   */
+  private static void expect(JsonParser parser, JsonToken token,
+      JsonToken expected) throws JsonParseException {
+    if (token != expected) {
+      throw new JsonParseException("expected " + expected + " but found "
+          + token, parser.getCurrentLocation());
+    }
+  }
+
+  /**
+   * Writes the JSON representation of a subject using a generator.
+   *
+   * @param subject
+   *    The subject to marshal.
+   *
+   * @param generator
+   *    The generator to which the representation will be written.
+   *
+   * @throws IOException
+   *    If an error occurs in writing the representation.
+   */
+  private static void writeSubject(AuthSubject subject,
+      JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    writeStringField(generator, USERNAME, subject.getUsername());
+    writeStringField(generator, PASSWORD, subject.getPassword());
+    writeStringField(generator, REMOTE_ADDRESS, subject.getRemoteAddress());
+    writeStringField(generator, REMOTE_HOSTNAME, subject.getRemoteHostname());
+    generator.writeFieldName(HEADERS);
+    final Map<String, List<String>> headers = subject.getHeaders();
+    if (headers == null) {
+      generator.writeNull();
+    }
+    else {
+      generator.writeStartObject();
+      for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+        generator.writeFieldName(header.getKey());
+        generator.writeStartArray();
+        for (final String value : header.getValue()) {
+          generator.writeString(value);
+        }
+        generator.writeEndArray();
+      }
+      generator.writeEndObject();
+    }
+    final String connectionName = subject.getConnectionName();
+    if (connectionName != null) {
+      writeStringField(generator, CONNECTION, connectionName);
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Writes a field whose value is a string or null.
+   *
+   * @param generator
+   *    The generator to which the field will be written.
+   *
+   * @param name
+   *    Pre-encoded field name.
+   *
+   * @param value
+   *    Field value; may be {@code null}.
+   *
+   * @throws IOException
+   *    If an error occurs in writing the field.
+   */
+  private static void writeStringField(JsonGenerator generator,
+      SerializedString name, String value) throws IOException {
+    generator.writeFieldName(name);
+    if (value != null) {
+      generator.writeString(value);
+    }
+    else {
+      generator.writeNull();
+    }
+  }
+
 }
@@ -18,27 +18,79 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.Map;
-import javax.ws.rs.core.MediaType;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.guacamole.GuacamoleException;
 import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
 import com.sun.jersey.api.client.Client;
-import com.sun.jersey.api.client.UniformInterfaceException;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.filter.ClientFilter;
 
 /**
  * An {@link AuthService} implemented using the Jersey REST client API.
+ * <p>
+ * The Jersey client API is blocking; an asynchronous request runs on an
+ * executor that uses virtual threads where the runtime supports them, so
+ * that a request waiting on the REST service does not hold a platform
+ * thread. A request whose caller waits for the result runs on the calling
+ * thread instead.
  */
 class JerseyAuthService implements AuthService {
 
+  /**
+   * Name of the request header that conveys the time remaining in the
+   * deadline budget, so that the REST service can shed expired work.
+   */
+  static final String DEADLINE_HEADER = "X-Request-Deadline-Ms";
+
+  /** Latency percentile used as the hedge delay when none is configured. */
+  private static final double HEDGE_PERCENTILE = 0.95;
+
+  /** Number of recent latencies from which the percentile is computed. */
+  private static final int HEDGE_LATENCY_SAMPLES = 1024;
+
+  /** Number of latencies required before requests are hedged. */
+  private static final int HEDGE_MIN_SAMPLES = 20;
+
   /** Factory that will be used to create a Jersey client.*/
   private final JerseyClientFactory clientFactory;
 
   /** JSON marshaller to use in making requests and handling responses. */
   private final JsonMarshaller marshaller;
 
-  /** Configuration received at init time. */
-  private AuthServiceConfig config;
+  /** Metrics in which the stages of each request are recorded. */
+  private final AuthMetrics metrics;
+
+  /** Authorization resource of each service endpoint, keyed by URL. */
+  private Map<String, WebResource> resources;
+
+  /**
+   * Connection parameters resource of each service endpoint, keyed by URL;
+   * empty if no connection parameters resource is configured.
+   */
+  private Map<String, WebResource> parameterResources;
 
   /**
    * Constructs a new instance that will create a Jersey client using
@@ -61,8 +113,28 @@ class JerseyAuthService implements AuthService {
    */
   JerseyAuthService(JerseyClientFactory clientFactory,
       JsonMarshaller marshaller) {
+    this(clientFactory, marshaller, AuthMetrics.SHARED);
+  }
+
+  /**
+   * Constructs a new instance that will create a Jersey client using the
+   * given factory, and record metrics in the given instance.
+   *
+   * @param clientFactory
+   *    The factory to be used in creating the Jersey client.
+   *
+   * @param marshaller
+   *    The JSON marshaller to be used when sending authorization requests
+   *    and processing results.
+   *
+   * @param metrics
+   *    Metrics in which the stages of each request are recorded.
+   */
+  JerseyAuthService(JerseyClientFactory clientFactory,
+      JsonMarshaller marshaller, AuthMetrics metrics) {
     this.clientFactory = clientFactory;
     this.marshaller = marshaller;
+    this.metrics = metrics;
   }
 
   /**
@@ -70,6 +142,45 @@ class JerseyAuthService implements AuthService {
    */
   private Client client;
 
+  /** Deadline budget in milliseconds; zero if requests have no deadline. */
+  private int deadline;
+
+  /** Connect timeout in milliseconds. */
+  private int connectTimeout;
+
+  /** TLS handshake timeout in milliseconds. */
+  private int tlsTimeout;
+
+  /** Read timeout in milliseconds. */
+  private int readTimeout;
+
+  /** Watchdog that aborts requests whose deadline has passed. */
+  private DeadlineWatchdog watchdog;
+
+  /** Balancer that chooses the service endpoint for each request. */
+  private EndpointBalancer balancer;
+
+  /** Executor for asynchronous and hedged requests. */
+  private ExecutorService executor;
+
+  /** Flag indicating whether slow requests are hedged. */
+  private boolean hedgeEnabled;
+
+  /** Fixed hedge delay in milliseconds; zero to use tracked latencies. */
+  private int hedgeDelay;
+
+  /** Budget that limits the number of hedged requests. */
+  private HedgeBudget hedgeBudget;
+
+  /** Tracker for the latency percentile used as the hedge delay. */
+  private LatencyTracker latencies;
+
+  /** Content codings for compressed entities, or {@code null} if disabled. */
+  private ContentCoding contentCoding;
+
+  /** Negotiator for the wire format of request and response entities. */
+  private WireFormatNegotiator wireFormat;
+
   /**
    * Initializes the Jersey client instance using the specified configuration.
    *
@@ -82,33 +193,621 @@ class JerseyAuthService implements AuthService {
   @Override
   public void init(AuthServiceConfig config) throws GuacamoleException {
     this.client = clientFactory.newClient(config);
-    this.config = config;
+    final String authorizationUri = config.getAuthorizationUri();
+    final String parametersUri = config.getParametersUri();
+    final Map<String, WebResource> resources = new HashMap<>();
+    final Map<String, WebResource> parameterResources = new HashMap<>();
+    for (final String url : config.getServiceUrls()) {
+      resources.put(url, client.resource(url).path(authorizationUri));
+      if (parametersUri != null) {
+        parameterResources.put(url, client.resource(url).path(parametersUri));
+      }
+    }
+    this.resources = resources;
+    this.parameterResources = parameterResources;
+    this.wireFormat = WireFormatNegotiator.newInstance(
+        config.getWireFormat(), marshaller);
+    this.deadline = config.getDeadline();
+    this.connectTimeout = config.getConnectTimeout();
+    this.tlsTimeout = config.getTlsTimeout();
+    this.readTimeout = config.getReadTimeout();
+    if (deadline > 0) {
+      this.watchdog = new DeadlineWatchdog();
+    }
+    this.balancer = new EndpointBalancer(config.getServiceUrls(),
+        config.getEjectFailures(),
+        TimeUnit.SECONDS.toNanos(config.getEjectDuration()),
+        TimeUnit.SECONDS.toNanos(config.getSlowStart()),
+        Ticker.SYSTEM, new Random());
+    this.executor = AsyncExecutors.newExecutor("auth-rest-request",
+        config.isVirtualThreadsEnabled());
+    this.hedgeEnabled = config.isHedgeEnabled();
+    if (hedgeEnabled) {
+      this.hedgeDelay = config.getHedgeDelay();
+      this.hedgeBudget = new HedgeBudget(config.getHedgeBudget());
+      this.latencies = new LatencyTracker(HEDGE_PERCENTILE,
+          HEDGE_LATENCY_SAMPLES, HEDGE_MIN_SAMPLES);
+    }
+    if (config.isCompressionEnabled()) {
+      this.contentCoding =
+          new ContentCoding(config.getCompressionRequestThreshold());
+      JmxSupport.register(ContentCoding.MBEAN_TYPE, contentCoding);
+    }
+  }
+
+  /**
+   * Requests authorization for a subject on a thread of the request
+   * executor, or on the calling thread if it waits for the result.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *    A future that completes with the authorization result.
+   *
+   * @see #authorize(AuthSubject)
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    return Futures.supplyAsync(() -> authorize(subject), executor);
   }
 
   /**
    * Requests authorization for a subject with the given credentials.
+   * <p>
+   * The request is sent to the service endpoint chosen by the
+   * {@link EndpointBalancer}, and the authorization result is parsed directly
+   * from the response entity stream. If a deadline is configured, the
+   * request is aborted when it passes, and the time remaining is sent to the
+   * REST service in the {@value #DEADLINE_HEADER} header. The deadline of a
+   * subject that carries one is used as given; otherwise, the deadline is
+   * started when the request is made. If hedging is
+   * enabled, a slow request is duplicated to another endpoint, and the
+   * first response is used. If compression is enabled, a compressed
+   * response is decompressed as it is parsed. A subject that names a
+   * connection is sent to the connection parameters resource.
    *
    * @param subject
    *   The subject to be authorized.
    *
    * @return
-   *    A map representation of the JSON structure of the auth response.
+   *    The authorization result.
    *
    * @throws GuacamoleException
-   *    If the request failed due an error reported by the REST service.
+   *    If the request failed due an error reported by the REST service; a
+   *    {@link GuacamoleUpstreamTimeoutException} if the request timed out.
    */
   @Override
-  public Map authorize(AuthSubject subject) throws GuacamoleException {
+  public AuthResult authorize(AuthSubject subject) throws GuacamoleException {
+    final CallContext call = subject.getDeadline() != 0 ?
+        CallContext.until(subject.getDeadline(), connectTimeout, tlsTimeout,
+            readTimeout) :
+        CallContext.create(deadline, connectTimeout, tlsTimeout, readTimeout);
+    if (hedgeEnabled) {
+      return authorizeHedged(subject, call);
+    }
+    final Attempt attempt =
+        new Attempt(subject, call, balancer.select(), null);
+    attempt.run();
+    return attempt.getResult();
+  }
+
+  /**
+   * Requests authorization for a subject, sending a hedged request if the
+   * first request does not complete within the hedge delay.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param call
+   *   Context for the first request.
+   *
+   * @return
+   *    The result of the first request to complete successfully, or of the
+   *    last request to complete if none succeeds.
+   *
+   * @throws GuacamoleException
+   *    If the request failed due an error reported by the REST service; a
+   *    {@link GuacamoleUpstreamTimeoutException} if the request timed out.
+   */
+  private AuthResult authorizeHedged(AuthSubject subject, CallContext call)
+      throws GuacamoleException {
+    final BlockingQueue<Attempt> completions =
+        new LinkedBlockingQueue<Attempt>();
+    final Attempt primary =
+        new Attempt(subject, call, balancer.select(), completions);
+    Attempt hedge = null;
+    hedgeBudget.deposit();
+    executor.execute(primary);
+    try {
+      Attempt first = null;
+      final long delay = hedgeDelay();
+      if (delay >= 0) {
+        first = completions.poll(delay, TimeUnit.NANOSECONDS);
+        if (first == null && hedgeBudget.tryWithdraw()) {
+          hedge = new Attempt(subject, call.newAttempt(),
+              balancer.select(primary.endpoint), completions);
+          executor.execute(hedge);
+        }
+      }
+      if (first == null) {
+        first = completions.take();
+      }
+      if (first.failure != null && hedge != null) {
+        final Attempt second = completions.take();
+        if (second.failure == null) {
+          first = second;
+        }
+      }
+      return first.getResult();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new GuacamoleServerException("REST service request interrupted",
+          ex);
+    }
+    finally {
+      primary.cancel();
+      if (hedge != null) {
+        hedge.cancel();
+      }
+    }
+  }
+
+  /**
+   * Gets the time to wait for a response before sending a hedged request.
+   *
+   * @return
+   *    Delay in nanoseconds, or -1 if a request should not be hedged because
+   *    too few latencies have been observed.
+   */
+  private long hedgeDelay() {
+    return hedgeDelay > 0 ?
+        TimeUnit.MILLISECONDS.toNanos(hedgeDelay) : latencies.getPercentile();
+  }
+
+  /**
+   * Requests authorization for a subject within the bounds of a call,
+   * recording the request as a flight recorder event.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param call
+   *   Context for the call, bound to the calling thread.
+   *
+   * @param endpoint
+   *   The service endpoint to which the request will be sent.
+   *
+   * @return
+   *    The authorization result.
+   *
+   * @throws GuacamoleException
+   *    If the request failed due an error reported by the REST service, or
+   *    if the deadline for the call passed.
+   */
+  private AuthResult authorize(AuthSubject subject, CallContext call,
+      EndpointBalancer.Endpoint endpoint) throws GuacamoleException {
+    final AuthEvents.Request event = new AuthEvents.Request();
+    event.begin();
+    String outcome = AuthEvents.SUCCESS;
+    try {
+      return exchange(subject, call, endpoint, event);
+    }
+    catch (GuacamoleException | RuntimeException ex) {
+      outcome = AuthEvents.outcomeOf(ex);
+      throw ex;
+    }
+    finally {
+      if (event.shouldCommit()) {
+        event.transport = "jersey";
+        event.endpoint = endpoint.getUrl();
+        event.outcome = outcome;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Sends a request to authorize a subject and reads its result.
+   * <p>
+   * If the REST service rejects the wire format of the request entity, the
+   * request is sent again as JSON.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param call
+   *   Context for the call, bound to the calling thread.
+   *
+   * @param endpoint
+   *   The service endpoint to which the request will be sent.
+   *
+   * @param event
+   *   Event to which the response status and size are added.
+   *
+   * @return
+   *    The authorization result.
+   *
+   * @throws GuacamoleException
+   *    If the request failed due an error reported by the REST service, or
+   *    if the deadline for the call passed.
+   */
+  private AuthResult exchange(AuthSubject subject, CallContext call,
+      EndpointBalancer.Endpoint endpoint, AuthEvents.Request event)
+      throws GuacamoleException {
+    final String requestType = wireFormat.getRequestType();
+    final long sent = Ticker.SYSTEM.read();
+    ClientResponse response = post(subject, call, endpoint, requestType);
+    if (wireFormat.isRejected(response.getStatus(), requestType)) {
+      response.close();
+      response = post(subject, call, endpoint, wireFormat.getRequestType());
+    }
+    metrics.recordStage(AuthMetrics.Stage.ROUND_TRIP,
+        Ticker.SYSTEM.read() - sent);
+    event.status = response.getStatus();
+
+    try {
+      if (response.getStatusInfo().getFamily()
+          != Response.Status.Family.SUCCESSFUL) {
+        throw new GuacamoleServerException("REST service error: HTTP status "
+            + response.getStatus());
+      }
+      final long parseStart = Ticker.SYSTEM.read();
+      final AtomicLong received = new AtomicLong();
+      InputStream entity = new CountingInputStream(
+          response.getEntityInputStream(), received);
+      if (contentCoding != null) {
+        entity = contentCoding.decode(response.getHeaders().getFirst(
+            ContentCoding.CONTENT_ENCODING_HEADER), entity);
+      }
+      final AuthResult result = wireFormat.getMarshaller(response.getHeaders()
+          .getFirst(HttpHeaders.CONTENT_TYPE)).readResult(entity);
+      metrics.recordStage(AuthMetrics.Stage.PARSE,
+          Ticker.SYSTEM.read() - parseStart);
+      metrics.recordResponseSize(received.get());
+      event.responseBytes = received.get();
+      return result;
+    }
+    catch (IOException ex) {
+      if (isTimeout(call, ex)) {
+        throw new GuacamoleUpstreamTimeoutException(
+            "REST service response timed out", ex);
+      }
+      throw new GuacamoleServerException("REST service response error", ex);
+    }
+    finally {
+      response.close();
+    }
+  }
+
+  /**
+   * Gets the resource of a service endpoint to which a request for a subject
+   * is sent.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param endpoint
+   *   The service endpoint to which the request will be sent.
+   *
+   * @return
+   *    The connection parameters resource if the subject names a
+   *    connection, otherwise the authorization resource.
+   *
+   * @throws GuacamoleException
+   *    If the subject names a connection and no connection parameters
+   *    resource is configured.
+   */
+  private WebResource resource(AuthSubject subject,
+      EndpointBalancer.Endpoint endpoint) throws GuacamoleException {
+    if (subject.getConnectionName() == null) {
+      return resources.get(endpoint.getUrl());
+    }
+    final WebResource resource = parameterResources.get(endpoint.getUrl());
+    if (resource == null) {
+      throw new GuacamoleServerException(
+          "connection parameters resource is not configured");
+    }
+    return resource;
+  }
+
+  /**
+   * Sends a request to authorize a subject.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @param call
+   *   Context for the call, bound to the calling thread.
+   *
+   * @param endpoint
+   *   The service endpoint to which the request will be sent.
+   *
+   * @param requestType
+   *   Media type in which the subject is to be sent.
+   *
+   * @return
+   *    The response.
+   *
+   * @throws GuacamoleException
+   *    If the request could not be sent, or if the deadline for the call
+   *    passed.
+   */
+  private ClientResponse post(AuthSubject subject, CallContext call,
+      EndpointBalancer.Endpoint endpoint, String requestType)
+      throws GuacamoleException {
+    final WebResource.Builder builder = resource(subject, endpoint)
+        .type(requestType)
+        .accept(wireFormat.getAcceptHeader());
+
+    if (call.isBounded()) {
+      final long remaining = call.getRemaining();
+      if (remaining <= 0) {
+        throw new GuacamoleUpstreamTimeoutException(
+            "REST service request deadline exceeded");
+      }
+      builder.header(DEADLINE_HEADER, remaining);
+    }
+
+    try {
+      return builder.post(ClientResponse.class, newEntity(subject,
+          wireFormat.getMarshaller(requestType), builder));
+    }
+    catch (ClientHandlerException ex) {
+      if (isTimeout(call, ex)) {
+        throw new GuacamoleUpstreamTimeoutException(
+            "REST service request timed out", ex);
+      }
+      throw new GuacamoleServerException("REST service request failed", ex);
+    }
+  }
+
+  /**
+   * Creates the request entity for a subject.
+   * <p>
+   * The subject is streamed to the request unless request entities may be
+   * compressed, in which case it is encoded in advance so that its size is
+   * known.
+   *
+   * @param subject
+   *    The subject to be authorized.
+   *
+   * @param marshaller
+   *    Marshaller for the wire format of the entity.
+   *
+   * @param builder
+   *    Builder for the request, to which content coding headers are added.
+   *
+   * @return
+   *    Request entity.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in encoding the subject.
+   */
+  private Object newEntity(AuthSubject subject, JsonMarshaller marshaller,
+      WebResource.Builder builder) throws GuacamoleException {
+    if (contentCoding == null) {
+      return new SubjectEntity(subject, marshaller, metrics);
+    }
+    builder.header(ContentCoding.ACCEPT_ENCODING_HEADER,
+        ContentCoding.ACCEPT_ENCODING);
+    if (!contentCoding.isRequestCompressionEnabled()) {
+      return new SubjectEntity(subject, marshaller, metrics);
+    }
+    final long start = Ticker.SYSTEM.read();
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
     try {
-      return marshaller.toMap(client.resource(config.getServiceUrl())
-          .path(config.getAuthorizationUri())
-          .type(MediaType.APPLICATION_JSON)
-          .accept(MediaType.APPLICATION_JSON)
-          .post(String.class, marshaller.toJson(subject)));
+      marshaller.write(subject, bos);
+    }
+    catch (IOException ex) {
+      throw new GuacamoleServerException("cannot encode subject", ex);
+    }
+    final byte[] encoded = bos.toByteArray();
+    final byte[] entity = contentCoding.encode(encoded);
+    if (entity != encoded) {
+      builder.header(ContentCoding.CONTENT_ENCODING_HEADER,
+          ContentCoding.GZIP);
+    }
+    metrics.recordStage(AuthMetrics.Stage.SERIALIZE,
+        Ticker.SYSTEM.read() - start);
+    metrics.recordRequestSize(entity.length);
+    return entity;
+  }
+
+  /**
+   * Determines whether a request failed because a timeout elapsed or the
+   * deadline for the call passed.
+   *
+   * @param call
+   *    Context for the call.
+   *
+   * @param ex
+   *    The exception that caused the request to fail.
+   *
+   * @return
+   *    {@code true} if the failure was due to a timeout.
+   */
+  private static boolean isTimeout(CallContext call, Throwable ex) {
+    if (call.isExpired()) return true;
+    for (Throwable t = ex; t != null; t = t.getCause()) {
+      if (t instanceof InterruptedIOException) return true;
     }
-    catch (UniformInterfaceException ex) {
-      throw new GuacamoleServerException("REST service error", ex);
+    return false;
+  }
+
+  /**
+   * Destroys the Jersey client instance.
+   */
+  @Override
+  public void destroy() {
+    if (contentCoding != null) {
+      JmxSupport.unregister(ContentCoding.MBEAN_TYPE, contentCoding);
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    if (watchdog != null) {
+      watchdog.shutdown();
+    }
+    if (client != null) {
+      destroyFilters(client);
+      client.destroy();
+    }
+  }
+
+  /**
+   * Releases the resources held by filters of a client, which the client
+   * itself does not destroy.
+   *
+   * @param client
+   *    The client whose filters are to be released.
+   */
+  private static void destroyFilters(Client client) {
+    ClientHandler handler = client.getHeadHandler();
+    while (handler instanceof ClientFilter) {
+      if (handler instanceof OAuth2AuthFilter) {
+        ((OAuth2AuthFilter) handler).destroy();
+      }
+      handler = ((ClientFilter) handler).getNext();
     }
   }
 
+  /**
+   * An attempt to obtain an authorization result from an endpoint.
+   * <p>
+   * An attempt runs either on the calling thread or, when hedging, on a
+   * thread of the request executor, and binds its call context to the thread
+   * on which it runs.
+   */
+  private class Attempt implements Runnable {
+
+    final AuthSubject subject;
+    final CallContext call;
+    final EndpointBalancer.Endpoint endpoint;
+    final BlockingQueue<Attempt> completions;
+
+    volatile AuthResult result;
+    volatile Throwable failure;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    /**
+     * Constructs a new attempt.
+     *
+     * @param subject
+     *    The subject to be authorized.
+     *
+     * @param call
+     *    Context for the call.
+     *
+     * @param endpoint
+     *    The endpoint to which the request will be sent.
+     *
+     * @param completions
+     *    Queue to which the attempt is added when it completes; may be
+     *    {@code null}.
+     */
+    Attempt(AuthSubject subject, CallContext call,
+        EndpointBalancer.Endpoint endpoint,
+        BlockingQueue<Attempt> completions) {
+      this.subject = subject;
+      this.call = call;
+      this.endpoint = endpoint;
+      this.completions = completions;
+    }
+
+    @Override
+    public void run() {
+      call.bind();
+      final Future<?> watch = watchdog != null ? watchdog.watch(call) : null;
+      final long start = Ticker.SYSTEM.read();
+      try {
+        result = authorize(subject, call, endpoint);
+      }
+      catch (GuacamoleException ex) {
+        failure = ex;
+      }
+      catch (RuntimeException ex) {
+        failure = ex;
+      }
+      finally {
+        if (watch != null) {
+          watch.cancel(false);
+        }
+        call.end();
+        final long latency = Ticker.SYSTEM.read() - start;
+        if (done.compareAndSet(false, true)) {
+          balancer.complete(endpoint, latency, failure != null);
+          if (failure == null && latencies != null) {
+            latencies.record(latency);
+          }
+        }
+        if (completions != null) {
+          completions.add(this);
+        }
+      }
+    }
+
+    /**
+     * Cancels this attempt if it has not yet completed, aborting its
+     * request without recording an outcome for its endpoint.
+     */
+    void cancel() {
+      if (done.compareAndSet(false, true)) {
+        balancer.cancel(endpoint);
+        call.abort();
+      }
+    }
+
+    /**
+     * Gets the result of this completed attempt.
+     *
+     * @return
+     *    Authorization result.
+     *
+     * @throws GuacamoleException
+     *    If the attempt failed.
+     */
+    AuthResult getResult() throws GuacamoleException {
+      if (failure instanceof GuacamoleException) {
+        throw (GuacamoleException) failure;
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      return result;
+    }
+
+  }
+
+  /**
+   * A request entity that streams the JSON representation of a subject
+   * directly to the request entity stream.
+   */
+  private static class SubjectEntity implements StreamingOutput {
+
+    private final AuthSubject subject;
+    private final JsonMarshaller marshaller;
+    private final AuthMetrics metrics;
+
+    SubjectEntity(AuthSubject subject, JsonMarshaller marshaller,
+        AuthMetrics metrics) {
+      this.subject = subject;
+      this.marshaller = marshaller;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public void write(OutputStream out) throws IOException {
+      final long start = Ticker.SYSTEM.read();
+      final AtomicLong sent = new AtomicLong();
+      marshaller.write(subject, new CountingOutputStream(out, sent));
+      metrics.recordStage(AuthMetrics.Stage.SERIALIZE,
+          Ticker.SYSTEM.read() - start);
+      metrics.recordRequestSize(sent.get());
+    }
+
+  }
+
 }
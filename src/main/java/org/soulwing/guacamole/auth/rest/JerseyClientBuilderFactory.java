@@ -18,11 +18,27 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.guacamole.GuacamoleException;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
 import com.sun.jersey.api.client.filter.HTTPBasicAuthFilter;
-import com.sun.jersey.api.client.filter.HTTPDigestAuthFilter;
+import com.sun.jersey.client.apache4.config.ApacheHttpClient4Config;
+import com.sun.jersey.client.urlconnection.URLConnectionClientHandler;
 
 /**
  * A {@link JerseyClientFactory} that constructs new Jersey {@link Client}
@@ -44,11 +60,150 @@ class JerseyClientBuilderFactory implements JerseyClientFactory {
    */
   @Override
   public Client newClient(AuthServiceConfig config) throws GuacamoleException {
-    final Client client = Client.create();
+    final Client client = config.isPoolEnabled() ?
+        newPooledClient(config) : newDefaultClient(config);
+    // Filters added later run earlier, so the OAuth2 filter is added first
+    // to let its bearer token take the place of other credentials.
+    if (config.getOAuth2ServiceUrl() != null) {
+      client.addFilter(new OAuth2AuthFilter(newTokenSource(config)));
+    }
     addAuthFilters(client, config);
     return client;
   }
 
+  /**
+   * Creates a new client that uses the default {@code HttpURLConnection}
+   * transport, with a connection factory that applies the timeouts of each
+   * call.
+   *
+   * @param config
+   *    Configuration to be used in creating the client.
+   *
+   * @return
+   *    The newly constructed client instance.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in obtaining configuration properties.
+   */
+  private Client newDefaultClient(AuthServiceConfig config)
+      throws GuacamoleException {
+    final Client client = new Client(
+        new URLConnectionClientHandler(new DeadlineConnectionFactory()),
+        new DefaultClientConfig());
+    if (config.isRequestChunkingEnabled()) {
+      client.getProperties().put(ClientConfig.PROPERTY_CHUNKED_ENCODING_SIZE,
+          0);
+    }
+    return client;
+  }
+
+  /**
+   * Creates a new client that sends requests over a pool of persistent
+   * connections managed by Apache HttpClient.
+   *
+   * @param config
+   *    Configuration to be used in creating the client.
+   *
+   * @return
+   *    The newly constructed client instance.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in obtaining configuration properties.
+   */
+  private Client newPooledClient(AuthServiceConfig config)
+      throws GuacamoleException {
+    final Registry<ConnectionSocketFactory> socketFactories =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", new DeadlineSSLSocketFactory(
+                SSLContexts.createDefault(),
+                SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+            .build();
+
+    final PoolingHttpClientConnectionManager pool =
+        new PoolingHttpClientConnectionManager(socketFactories);
+    pool.setMaxTotal(config.getPoolMaxTotal());
+    pool.setDefaultMaxPerRoute(config.getPoolMaxPerRoute());
+    pool.setValidateAfterInactivity(config.getPoolValidateAfterInactivity());
+
+    final InstrumentedConnectionManager connectionManager =
+        new InstrumentedConnectionManager(pool);
+
+    final HttpClientBuilder builder = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .addInterceptorFirst(new DeadlineRequestInterceptor())
+        .evictExpiredConnections()
+        .disableCookieManagement()
+        .disableAuthCaching()
+        .useSystemProperties();
+
+    // Compressed responses are decoded by the auth service, which counts
+    // the bytes received, rather than transparently by HttpClient.
+    if (config.isCompressionEnabled()) {
+      builder.disableContentCompression();
+    }
+
+    final int idleTimeout = config.getPoolIdleTimeout();
+    if (idleTimeout > 0) {
+      builder.evictIdleConnections(idleTimeout, TimeUnit.SECONDS);
+    }
+
+    final CloseableHttpClient httpClient = builder.build();
+
+    // The Apache connector streams request entities with chunked encoding
+    // by default; buffering is needed only to send a Content-Length.
+    final ClientConfig clientConfig = new DefaultClientConfig();
+    if (!config.isRequestChunkingEnabled()) {
+      clientConfig.getProperties().put(
+          ApacheHttpClient4Config.PROPERTY_ENABLE_BUFFERING, true);
+    }
+
+    return new PooledJerseyClient(httpClient, connectionManager, clientConfig);
+  }
+
+  /**
+   * Creates and starts a source of OAuth2 access tokens, which uses a client
+   * and a refresh thread of its own to make requests to the token service.
+   *
+   * @param config
+   *    Configuration to be used in creating the token source.
+   *
+   * @return
+   *    The newly constructed token source.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in obtaining configuration properties.
+   */
+  private OAuth2TokenSource newTokenSource(AuthServiceConfig config)
+      throws GuacamoleException {
+    final Client client = new Client();
+    final int deadline = config.getDeadline();
+    final int connectTimeout = config.getConnectTimeout();
+    final int readTimeout = config.getReadTimeout();
+    client.setConnectTimeout(connectTimeout > 0 ? connectTimeout : deadline);
+    client.setReadTimeout(readTimeout > 0 ? readTimeout : deadline);
+    addAuthFilters(client, config);
+
+    final ScheduledThreadPoolExecutor scheduler =
+        new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, "auth-rest-oauth2-refresh");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    scheduler.setRemoveOnCancelPolicy(true);
+
+    final OAuth2TokenSource tokenSource = new OAuth2TokenSource(client,
+        new JacksonJsonMarshaller(), config.getOAuth2ServiceUrl(),
+        config.getOAuth2Scope(),
+        TimeUnit.SECONDS.toNanos(config.getOAuth2RefreshAhead()),
+        scheduler, Ticker.SYSTEM);
+    tokenSource.start();
+    return tokenSource;
+  }
+
   /**
    * Adds authentication filters supporting HTTP Basic and Digest
    * authentication using credentials supplied in the given configuration.
@@ -70,7 +225,7 @@ class JerseyClientBuilderFactory implements JerseyClientFactory {
           config.getBasicPassword()));
     }
     if (config.isDigestConfigured()) {
-      client.addFilter(new HTTPDigestAuthFilter(config.getDigestUsername(),
+      client.addFilter(new DigestAuthFilter(config.getDigestUsername(),
           config.getDigestPassword()));
     }
   }
@@ -0,0 +1,121 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Static utility methods for registering the management beans exposed by
+ * this extension with the platform MBean server.
+ */
+class JmxSupport {
+
+  private static final Logger logger = LoggerFactory.getLogger(JmxSupport.class);
+
+  /** Domain for the object names of all beans registered by this extension. */
+  static final String DOMAIN = "org.soulwing.guacamole.auth.rest";
+
+  /** Beans currently registered by this extension, keyed by type. */
+  private static final Map<String, Object> beans = new HashMap<>();
+
+  private JmxSupport() {
+  }
+
+  /**
+   * Registers a management bean, replacing any bean previously registered
+   * with the same type.
+   * <p>
+   * Registration failures are logged, but are otherwise ignored; failure to
+   * expose statistics should not prevent users from logging in.
+   *
+   * @param type
+   *    Value for the {@code type} property of the bean's object name.
+   *
+   * @param bean
+   *    The bean to register.
+   */
+  static synchronized void register(String type, Object bean) {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = objectName(type);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      beans.remove(type);
+      server.registerMBean(bean, name);
+      beans.put(type, bean);
+    }
+    catch (JMException ex) {
+      logger.warn("could not register management bean {}: {}", type, ex);
+    }
+  }
+
+  /**
+   * Unregisters a management bean, if it is the bean that is registered
+   * with the given type.
+   * <p>
+   * A bean that has since been replaced by another bean of the same type is
+   * left registered, so that a service that is retired after a replacement
+   * has been initialized does not remove the replacement's beans.
+   *
+   * @param type
+   *    Value for the {@code type} property of the bean's object name.
+   *
+   * @param bean
+   *    The bean to unregister.
+   */
+  static synchronized void unregister(String type, Object bean) {
+    if (!beans.remove(type, bean)) return;
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = objectName(type);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    }
+    catch (JMException ex) {
+      logger.warn("could not unregister management bean {}: {}", type, ex);
+    }
+  }
+
+  /**
+   * Creates the object name for a bean of the given type.
+   *
+   * @param type
+   *    Value for the {@code type} property.
+   *
+   * @return
+   *    Object name.
+   *
+   * @throws JMException
+   *    If {@code type} is not a valid property value.
+   */
+  static ObjectName objectName(String type) throws JMException {
+    return new ObjectName(DOMAIN + ":type=" + type);
+  }
+
+}
@@ -18,6 +18,9 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import org.apache.guacamole.GuacamoleException;
@@ -47,6 +50,24 @@ interface JsonMarshaller {
    */
   String toJson(AuthSubject subject) throws GuacamoleException;
 
+  /**
+   * Writes a JSON representation of an {@link AuthSubject} to a stream.
+   * <p>
+   * The representation is written incrementally, as the properties of the
+   * subject are visited, without constructing an intermediate representation.
+   *
+   * @param subject
+   *    The subject to marshal.
+   *
+   * @param out
+   *    The stream to which the UTF-8 encoded representation will be written;
+   *    this stream is flushed but not closed.
+   *
+   * @throws IOException
+   *    If an error occurs in writing to the stream.
+   */
+  void write(AuthSubject subject, OutputStream out) throws IOException;
+
   /**
    * Creates a Map representation that corresponds to an arbitrary JSON object.
    * <p>
@@ -67,4 +88,27 @@ interface JsonMarshaller {
    */
   Map toMap(String json) throws GuacamoleException;
 
+  /**
+   * Reads an authorization result from a stream.
+   * <p>
+   * The result is constructed incrementally as the stream is parsed; each
+   * {@link org.apache.guacamole.protocol.GuacamoleConfiguration} is created
+   * directly from the tokens that describe it. If the {@code authorized} flag
+   * is encountered and its value is {@code false}, a result that denies
+   * authorization is returned without reading the remainder of the stream.
+   * A missing {@code authorized} flag is treated as {@code false}.
+   *
+   * @param in
+   *    The stream from which a UTF-8 encoded representation of an
+   *    authorization result will be read.
+   *
+   * @return
+   *    Authorization result.
+   *
+   * @throws IOException
+   *    If an error occurs in reading the stream, or if the stream does not
+   *    contain a well-formed authorization result.
+   */
+  AuthResult readResult(InputStream in) throws IOException;
+
 }
@@ -0,0 +1,98 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Arrays;
+
+/**
+ * Tracks a percentile of recently observed request latencies.
+ * <p>
+ * The most recent observations are retained in a ring buffer, and the
+ * percentile is recomputed after every few observations rather than on each
+ * read, so that reading it is cheap.
+ */
+class LatencyTracker {
+
+  /** Number of observations between recomputations of the percentile. */
+  private static final int RECOMPUTE_INTERVAL = 32;
+
+  private final double percentile;
+  private final int minSamples;
+  private final long[] samples;
+
+  private int count;
+  private int next;
+  private int sinceRecompute;
+  private long value = -1;
+
+  /**
+   * Constructs a new tracker.
+   *
+   * @param percentile
+   *    The percentile to track, as a fraction between 0 and 1.
+   *
+   * @param samples
+   *    Number of recent observations retained.
+   *
+   * @param minSamples
+   *    Number of observations required before the percentile is available.
+   */
+  LatencyTracker(double percentile, int samples, int minSamples) {
+    this.percentile = percentile;
+    this.samples = new long[samples];
+    this.minSamples = Math.min(minSamples, samples);
+  }
+
+  /**
+   * Records an observed latency.
+   *
+   * @param latency
+   *    Latency in nanoseconds.
+   */
+  synchronized void record(long latency) {
+    samples[next] = latency;
+    next = (next + 1) % samples.length;
+    if (count < samples.length) {
+      count++;
+    }
+    if (++sinceRecompute >= RECOMPUTE_INTERVAL || value < 0) {
+      recompute();
+    }
+  }
+
+  /**
+   * Gets the tracked percentile of the retained observations.
+   *
+   * @return
+   *    Latency in nanoseconds, or -1 if too few latencies have been observed.
+   */
+  synchronized long getPercentile() {
+    return value;
+  }
+
+  private void recompute() {
+    sinceRecompute = 0;
+    if (count < minSamples) return;
+    final long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile * count) - 1;
+    value = sorted[Math.max(0, Math.min(index, count - 1))];
+  }
+
+}
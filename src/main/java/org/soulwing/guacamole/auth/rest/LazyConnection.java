@@ -0,0 +1,119 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Map;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.net.GuacamoleTunnel;
+import org.apache.guacamole.net.auth.simple.SimpleConnection;
+import org.apache.guacamole.protocol.GuacamoleClientInformation;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * A connection whose parameters are requested when it is opened.
+ * <p>
+ * The configuration given at construction names only the protocol of the
+ * connection, as it appeared in the authorization result at login. When
+ * the connection is opened, the full configuration is obtained from a
+ * {@link ConnectionParameterCache} for the subject that was authorized, and
+ * is used (after tokens are interpreted) only for the duration of the call.
+ */
+class LazyConnection extends SimpleConnection {
+
+  /** Full configuration for a call to connect on the current thread. */
+  private final ThreadLocal<GuacamoleConfiguration> fullConfiguration =
+      new ThreadLocal<>();
+
+  /** The subject that was authorized at login. */
+  private final AuthSubject subject;
+
+  /** Source of the connection parameters. */
+  private final ConnectionParameterCache parameters;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param name
+   *    Name of the connection, which also serves as its identifier.
+   *
+   * @param configuration
+   *    Configuration from the authorization result, which need not include
+   *    any parameters.
+   *
+   * @param subject
+   *    The subject that was authorized at login.
+   *
+   * @param parameters
+   *    Source of the connection parameters.
+   */
+  LazyConnection(String name, GuacamoleConfiguration configuration,
+      AuthSubject subject, ConnectionParameterCache parameters) {
+    super(name, name, configuration, true);
+    this.subject = subject;
+    this.parameters = parameters;
+  }
+
+  /**
+   * Opens the connection using its full configuration, requesting the
+   * connection parameters if necessary.
+   *
+   * @param info
+   *    Information about the client that is connecting.
+   *
+   * @param tokens
+   *    Parameter tokens applied to the configuration.
+   *
+   * @return
+   *    A tunnel connected to the remote desktop.
+   *
+   * @throws GuacamoleException
+   *    If the subject is not authorized to use the connection, if an error
+   *    occurs in requesting its parameters, or if an error occurs in
+   *    connecting.
+   */
+  @Override
+  public GuacamoleTunnel connect(GuacamoleClientInformation info,
+      Map<String, String> tokens) throws GuacamoleException {
+    fullConfiguration.set(parameters.getConfiguration(subject,
+        getIdentifier()));
+    try {
+      return super.connect(info, tokens);
+    }
+    finally {
+      fullConfiguration.remove();
+    }
+  }
+
+  /**
+   * Gets the full configuration of the connection.
+   *
+   * @return
+   *    The configuration obtained for a call to connect on the current
+   *    thread, or the configuration from the authorization result if there
+   *    is no such call.
+   */
+  @Override
+  protected GuacamoleConfiguration getFullConfiguration() {
+    final GuacamoleConfiguration configuration = fullConfiguration.get();
+    return configuration != null ?
+        configuration : super.getFullConfiguration();
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Locale;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+/**
+ * A JAX-RS resource that exposes {@link AuthMetrics} in the Prometheus text
+ * exposition format.
+ * <p>
+ * Guacamole exposes the resource of an authentication provider beneath
+ * {@code api/ext/<identifier>}, so the metrics are available at
+ * {@code api/ext/RestAuthProvider/metrics}. Latencies are given in seconds
+ * and sizes in bytes; distributions are exposed as summaries.
+ */
+public class MetricsResource {
+
+  /** Media type of the Prometheus text exposition format. */
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  /** Quantiles of each summary, as named by Prometheus. */
+  private static final String[] QUANTILES = { "0.5", "0.9", "0.99", "0.999" };
+
+  /** Scale that converts a latency in milliseconds to seconds. */
+  private static final double SECONDS_PER_MILLI = 0.001;
+
+  private final AuthMetrics metrics;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param metrics
+   *    The metrics to expose.
+   */
+  MetricsResource(AuthMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Gets the metrics in the Prometheus text exposition format.
+   *
+   * @return
+   *    Metrics text.
+   */
+  @GET
+  @Path("metrics")
+  @Produces(CONTENT_TYPE)
+  public String getMetrics() {
+    final StringBuilder sb = new StringBuilder(4096);
+    header(sb, "auth_rest_calls_total", "counter",
+        "Calls to the provider by outcome.");
+    for (final AuthMetrics.Outcome outcome : AuthMetrics.Outcome.values()) {
+      sb.append("auth_rest_calls_total{outcome=\"")
+          .append(outcome.name().toLowerCase(Locale.ENGLISH))
+          .append("\"} ").append(metrics.getCount(outcome)).append('\n');
+    }
+
+    header(sb, "auth_rest_stale_results_total", "counter",
+        "Expired cached results served, by reason.");
+    for (final AuthMetrics.StaleReason reason
+        : AuthMetrics.StaleReason.values()) {
+      sb.append("auth_rest_stale_results_total{reason=\"")
+          .append(reason.name().toLowerCase(Locale.ENGLISH))
+          .append("\"} ").append(metrics.getStaleCount(reason)).append('\n');
+    }
+
+    header(sb, "auth_rest_call_latency_seconds", "summary",
+        "Latency of calls to the provider.");
+    summary(sb, "auth_rest_call_latency_seconds", null,
+        metrics.getCallLatency(), SECONDS_PER_MILLI);
+
+    header(sb, "auth_rest_stage_latency_seconds", "summary",
+        "Latency of each stage of a request to the REST service.");
+    for (final AuthMetrics.Stage stage : AuthMetrics.Stage.values()) {
+      summary(sb, "auth_rest_stage_latency_seconds", "stage=\""
+          + stage.name().toLowerCase(Locale.ENGLISH) + "\"",
+          metrics.getStageLatency(stage), SECONDS_PER_MILLI);
+    }
+
+    header(sb, "auth_rest_request_size_bytes", "summary",
+        "Size of request entities sent to the REST service.");
+    summary(sb, "auth_rest_request_size_bytes", null,
+        metrics.getRequestSize(), 1);
+
+    header(sb, "auth_rest_response_size_bytes", "summary",
+        "Size of response entities received from the REST service.");
+    summary(sb, "auth_rest_response_size_bytes", null,
+        metrics.getResponseSize(), 1);
+    return sb.toString();
+  }
+
+  private static void header(StringBuilder sb, String name, String type,
+      String help) {
+    sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void summary(StringBuilder sb, String name, String labels,
+      DistributionSummary summary, double scale) {
+    final double[] values = { summary.getP50(), summary.getP90(),
+        summary.getP99(), summary.getP999() };
+    for (int i = 0; i < QUANTILES.length; i++) {
+      sb.append(name).append('{');
+      if (labels != null) {
+        sb.append(labels).append(',');
+      }
+      sb.append("quantile=\"").append(QUANTILES[i]).append("\"} ")
+          .append(values[i] * scale).append('\n');
+    }
+    final String suffix = labels != null ? "{" + labels + "} " : " ";
+    sb.append(name).append("_sum").append(suffix)
+        .append(summary.getSum() * scale).append('\n');
+    sb.append(name).append("_count").append(suffix)
+        .append(summary.getCount()).append('\n');
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.apache.guacamole.GuacamoleException;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Jersey client filter that authenticates requests using an OAuth2
+ * bearer token from an {@link OAuth2TokenSource}.
+ * <p>
+ * Once a token has been obtained, it is sent with every request. When the
+ * REST service responds with a {@code Bearer} challenge, the filter obtains
+ * a replacement token and retries the request once.
+ */
+class OAuth2AuthFilter extends ClientFilter {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(OAuth2AuthFilter.class);
+
+  /** Name of the authentication scheme. */
+  private static final String SCHEME = "Bearer";
+
+  private final OAuth2TokenSource tokenSource;
+
+  /**
+   * Constructs a new filter.
+   *
+   * @param tokenSource
+   *    Source of access tokens.
+   */
+  OAuth2AuthFilter(OAuth2TokenSource tokenSource) {
+    this.tokenSource = tokenSource;
+  }
+
+  /**
+   * Releases the token source of this filter.
+   */
+  void destroy() {
+    tokenSource.destroy();
+  }
+
+  @Override
+  public ClientResponse handle(ClientRequest request)
+      throws ClientHandlerException {
+    final OAuth2TokenSource.Token token = tokenSource.getToken();
+    if (token != null) {
+      request.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+          SCHEME + " " + token.value);
+    }
+
+    final ClientResponse response = getNext().handle(request);
+    if (response.getStatus() != ClientResponse.Status.UNAUTHORIZED
+        .getStatusCode()) {
+      return response;
+    }
+    final Map<String, String> challenge = bearerChallenge(
+        response.getHeaders().get(HttpHeaders.WWW_AUTHENTICATE));
+    if (challenge == null) return response;
+
+    final OAuth2TokenSource.Token replacement;
+    try {
+      replacement = tokenSource.refresh(challenge.get("realm"), token);
+    }
+    catch (GuacamoleException ex) {
+      logger.warn("cannot obtain OAuth2 access token: {}", ex.getMessage());
+      return response;
+    }
+
+    response.close();
+    request.getHeaders().putSingle(HttpHeaders.AUTHORIZATION,
+        SCHEME + " " + replacement.value);
+    return getNext().handle(request);
+  }
+
+  /**
+   * Finds a {@code Bearer} challenge.
+   *
+   * @param headers
+   *    Values of the {@code WWW-Authenticate} headers of a response; may be
+   *    {@code null}.
+   *
+   * @return
+   *    Parameters of the challenge, or {@code null} if there is none.
+   */
+  private static Map<String, String> bearerChallenge(List<String> headers) {
+    if (headers == null) return null;
+    for (final String header : headers) {
+      final String value = header.trim();
+      if (value.equalsIgnoreCase(SCHEME)) {
+        return DigestAuthenticator.parseParams("");
+      }
+      if (value.regionMatches(true, 0, SCHEME + " ", 0,
+          SCHEME.length() + 1)) {
+        return DigestAuthenticator.parseParams(
+            value.substring(SCHEME.length() + 1));
+      }
+    }
+    return null;
+  }
+
+}
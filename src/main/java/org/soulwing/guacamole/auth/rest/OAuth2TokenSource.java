@@ -0,0 +1,423 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.config.ClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A source of OAuth2 access tokens obtained using the client credentials
+ * grant, shared by all requests to the REST service.
+ * <p>
+ * A single token is held at a time. The first token is fetched in the
+ * background when the source is started, and each token is replaced in the
+ * background at the start of the refresh-ahead interval before it expires,
+ * so that a request does not wait on the token service. A token that is
+ * used after its refresh is due, because a scheduled refresh failed,
+ * prompts another background fetch. When the REST service rejects a token,
+ * callers that used the rejected token share a single fetch of its
+ * replacement.
+ */
+class OAuth2TokenSource {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(OAuth2TokenSource.class);
+
+  /**
+   * An access token.
+   */
+  static class Token {
+
+    final String value;
+    private final boolean bounded;
+    private final long expiresAt;
+    private final long refreshAt;
+
+    Token(String value, boolean bounded, long expiresAt, long refreshAt) {
+      this.value = value;
+      this.bounded = bounded;
+      this.expiresAt = expiresAt;
+      this.refreshAt = refreshAt;
+    }
+
+    boolean isExpired(long now) {
+      return bounded && now - expiresAt >= 0;
+    }
+
+    boolean isRefreshDue(long now) {
+      return bounded && now - refreshAt >= 0;
+    }
+
+  }
+
+  private final Client client;
+  private final JsonMarshaller marshaller;
+  private final String serviceUrl;
+  private final String scope;
+  private final long refreshAhead;
+  private final ScheduledExecutorService scheduler;
+  private final Ticker ticker;
+
+  private final Object lock = new Object();
+
+  private volatile Token token;
+
+  /** URL of the token service; guarded by {@link #lock}. */
+  private String tokenUrl;
+
+  /** Fetch in progress, or {@code null}; guarded by {@link #lock}. */
+  private CompletableFuture<Token> fetching;
+
+  /** Scheduled refresh, or {@code null}; guarded by {@link #lock}. */
+  private Future<?> scheduled;
+
+  /**
+   * Constructs a new token source.
+   *
+   * @param client
+   *    Client used to make requests to the token service.
+   *
+   * @param marshaller
+   *    Marshaller used to read token responses.
+   *
+   * @param serviceUrl
+   *    URL of the token service to be used when the realm of a challenge is
+   *    not a URL; may be {@code null}.
+   *
+   * @param scope
+   *    Scope to request; may be {@code null}.
+   *
+   * @param refreshAhead
+   *    Time in nanoseconds before a token expires at which its replacement
+   *    is fetched; limited to half of the lifetime of the token.
+   *
+   * @param scheduler
+   *    Executor on which tokens are fetched in the background; it is shut
+   *    down when the token source is destroyed.
+   *
+   * @param ticker
+   *    Time source for token expiration.
+   */
+  OAuth2TokenSource(Client client, JsonMarshaller marshaller,
+      String serviceUrl, String scope, long refreshAhead,
+      ScheduledExecutorService scheduler, Ticker ticker) {
+    this.client = client;
+    this.marshaller = marshaller;
+    this.serviceUrl = serviceUrl;
+    this.scope = scope;
+    this.refreshAhead = refreshAhead;
+    this.scheduler = scheduler;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Starts a background fetch of the first token.
+   */
+  void start() {
+    fetch(null, null, true);
+  }
+
+  /**
+   * Cancels any scheduled refresh and releases the resources of this token
+   * source.
+   */
+  void destroy() {
+    synchronized (lock) {
+      if (scheduled != null) {
+        scheduled.cancel(false);
+        scheduled = null;
+      }
+    }
+    scheduler.shutdownNow();
+    client.destroy();
+  }
+
+  /**
+   * Gets the current token, starting a background fetch of its replacement
+   * if it is due to be refreshed.
+   *
+   * @return
+   *    Token, or {@code null} if there is no unexpired token.
+   */
+  Token getToken() {
+    final Token token = this.token;
+    if (token == null) return null;
+    final long now = ticker.read();
+    if (token.isExpired(now)) return null;
+    if (token.isRefreshDue(now)) {
+      fetch(null, token, true);
+    }
+    return token;
+  }
+
+  /**
+   * Gets a token to replace one that was rejected, waiting for it to be
+   * fetched if necessary.
+   *
+   * @param realm
+   *    Realm of the challenge that rejected the token; may be {@code null}.
+   *
+   * @param rejected
+   *    The token that was rejected, or {@code null} if none was sent.
+   *
+   * @return
+   *    Replacement token.
+   *
+   * @throws GuacamoleException
+   *    If a token cannot be obtained from the token service.
+   */
+  Token refresh(String realm, Token rejected) throws GuacamoleException {
+    return Futures.await(fetch(realm, rejected, false));
+  }
+
+  /**
+   * Fetches a token to replace the given token, unless it has already been
+   * replaced or a fetch is already in progress.
+   *
+   * @param realm
+   *    Realm of a challenge; may be {@code null}.
+   *
+   * @param stale
+   *    The token to be replaced; may be {@code null}.
+   *
+   * @param async
+   *    Flag indicating whether the fetch should run on the refresh executor
+   *    rather than the calling thread.
+   *
+   * @return
+   *    A future that completes with the replacement token.
+   */
+  private CompletableFuture<Token> fetch(String realm, Token stale,
+      boolean async) {
+    final CompletableFuture<Token> future;
+    final String url;
+    synchronized (lock) {
+      final Token current = token;
+      if (current != null && current != stale
+          && !current.isExpired(ticker.read())) {
+        return CompletableFuture.completedFuture(current);
+      }
+      if (fetching != null) return fetching;
+      if (realm != null) {
+        tokenUrl = realm.startsWith("http:") || realm.startsWith("https:") ?
+            realm : serviceUrl;
+      }
+      url = tokenUrl != null ? tokenUrl : serviceUrl;
+      if (url == null) {
+        return CompletableFuture.failedFuture(new GuacamoleServerException(
+            "no URL for the OAuth2 token service"));
+      }
+      future = new CompletableFuture<>();
+      fetching = future;
+    }
+
+    final Runnable task = () -> {
+      try {
+        final Token token = requestToken(url);
+        synchronized (lock) {
+          this.token = token;
+          fetching = null;
+          scheduleRefresh(token);
+        }
+        future.complete(token);
+      }
+      catch (GuacamoleException | RuntimeException ex) {
+        synchronized (lock) {
+          fetching = null;
+        }
+        if (async) {
+          logger.warn("OAuth2 token refresh failed: {}", ex.toString());
+        }
+        future.completeExceptionally(ex);
+      }
+    };
+    if (async) {
+      try {
+        scheduler.execute(task);
+      }
+      catch (RejectedExecutionException ex) {
+        synchronized (lock) {
+          fetching = null;
+        }
+        future.completeExceptionally(ex);
+      }
+    }
+    else {
+      task.run();
+    }
+    return future;
+  }
+
+  /**
+   * Schedules a background fetch of the replacement of a token when its
+   * refresh is due, cancelling any refresh scheduled for its predecessor.
+   * The caller must hold {@link #lock}.
+   *
+   * @param token
+   *    The token to be replaced.
+   */
+  private void scheduleRefresh(Token token) {
+    if (scheduled != null) {
+      scheduled.cancel(false);
+      scheduled = null;
+    }
+    if (!token.bounded) return;
+    try {
+      final Runnable refresh = () -> fetch(null, token, true);
+      scheduled = scheduler.schedule(refresh,
+          Math.max(0, token.refreshAt - ticker.read()),
+          TimeUnit.NANOSECONDS);
+    }
+    catch (RejectedExecutionException ex) {
+      logger.debug("OAuth2 token refresh not scheduled; source destroyed");
+    }
+  }
+
+  /**
+   * Requests a token from the token service using the client credentials
+   * grant. A request made during an authorization call is limited by the
+   * time remaining before the deadline of the call.
+   *
+   * @param url
+   *    URL of the token service.
+   *
+   * @return
+   *    Token.
+   *
+   * @throws GuacamoleException
+   *    If the request fails or the response does not contain a bearer
+   *    token.
+   */
+  private Token requestToken(String url) throws GuacamoleException {
+    final StringBuilder form = new StringBuilder(
+        "grant_type=client_credentials");
+    if (scope != null) {
+      form.append("&scope=").append(
+          URLEncoder.encode(scope, StandardCharsets.UTF_8));
+    }
+
+    final WebResource resource = client.resource(url);
+    final CallContext call = CallContext.current();
+    if (call != null && call.isBounded()) {
+      // a token fetched on behalf of a call must not outlast its deadline
+      resource.setProperty(ClientConfig.PROPERTY_CONNECT_TIMEOUT,
+          call.getConnectTimeout());
+      resource.setProperty(ClientConfig.PROPERTY_READ_TIMEOUT,
+          call.getReadTimeout());
+    }
+
+    final ClientResponse response;
+    try {
+      response = resource
+          .type(MediaType.APPLICATION_FORM_URLENCODED_TYPE)
+          .accept(MediaType.APPLICATION_JSON_TYPE)
+          .post(ClientResponse.class, form.toString());
+    }
+    catch (ClientHandlerException ex) {
+      throw new GuacamoleServerException("OAuth2 token request failed", ex);
+    }
+
+    try {
+      if (response.getStatus() != ClientResponse.Status.OK.getStatusCode()) {
+        throw new GuacamoleServerException(
+            "OAuth2 token service error: HTTP status " + response.getStatus());
+      }
+      final Map<?, ?> body = marshaller.toMap(response.getEntity(String.class));
+      final Object value = body.get("access_token");
+      if (!(value instanceof String)) {
+        throw new GuacamoleServerException(
+            "OAuth2 token response contains no access token");
+      }
+      final Object type = body.get("token_type");
+      if (type != null && !"bearer".equalsIgnoreCase(type.toString())) {
+        throw new GuacamoleServerException(
+            "unsupported OAuth2 token type: " + type);
+      }
+      return newToken((String) value, lifetime(body.get("expires_in")));
+    }
+    catch (ClientHandlerException ex) {
+      throw new GuacamoleServerException("OAuth2 token response error", ex);
+    }
+    finally {
+      response.close();
+    }
+  }
+
+  /**
+   * Creates a token.
+   *
+   * @param value
+   *    Token value.
+   *
+   * @param lifetime
+   *    Lifetime of the token in seconds, or zero if not known.
+   *
+   * @return
+   *    Token.
+   */
+  private Token newToken(String value, long lifetime) {
+    if (lifetime <= 0) return new Token(value, false, 0, 0);
+    final long now = ticker.read();
+    final long nanos = TimeUnit.SECONDS.toNanos(lifetime);
+    return new Token(value, true, now + nanos,
+        now + nanos - Math.min(refreshAhead, nanos / 2));
+  }
+
+  /**
+   * Interprets the {@code expires_in} value of a token response.
+   *
+   * @param expiresIn
+   *    The value; may be {@code null}.
+   *
+   * @return
+   *    Lifetime in seconds, or zero if not known.
+   */
+  private static long lifetime(Object expiresIn) {
+    if (expiresIn instanceof Number) {
+      return ((Number) expiresIn).longValue();
+    }
+    if (expiresIn != null) {
+      try {
+        return Long.parseLong(expiresIn.toString().trim());
+      }
+      catch (NumberFormatException ex) {
+        return 0;
+      }
+    }
+    return 0;
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.client.apache4.ApacheHttpClient4;
+import com.sun.jersey.client.apache4.ApacheHttpClient4Handler;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Jersey {@link ApacheHttpClient4} that owns a pooled Apache HTTP client,
+ * and releases the pool when it is destroyed.
+ */
+class PooledJerseyClient extends ApacheHttpClient4 {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(PooledJerseyClient.class);
+
+  /** Type name under which the pool management bean is registered. */
+  static final String MBEAN_TYPE = "ConnectionPool";
+
+  /** The underlying Apache HTTP client. */
+  private final CloseableHttpClient httpClient;
+
+  /** The connection pool, registered as a management bean. */
+  private final InstrumentedConnectionManager connectionManager;
+
+  /** Flag indicating whether this client has been destroyed. */
+  private final AtomicBoolean destroyed = new AtomicBoolean();
+
+  /**
+   * Constructs a new instance and registers the pool management bean.
+   *
+   * @param httpClient
+   *    The Apache HTTP client that will execute requests.
+   *
+   * @param connectionManager
+   *    The connection pool used by {@code httpClient}.
+   *
+   * @param config
+   *    Jersey client configuration.
+   */
+  PooledJerseyClient(CloseableHttpClient httpClient,
+      InstrumentedConnectionManager connectionManager, ClientConfig config) {
+    super(new ApacheHttpClient4Handler(httpClient, null, false), config);
+    this.httpClient = httpClient;
+    this.connectionManager = connectionManager;
+    JmxSupport.register(MBEAN_TYPE, connectionManager);
+  }
+
+  /**
+   * Destroys this client, closing all pooled connections.
+   * <p>
+   * Jersey also invokes this method when the client is finalized, so only
+   * the first invocation has any effect; otherwise a finalized client could
+   * unregister the management bean of its successor.
+   */
+  @Override
+  public void destroy() {
+    if (!destroyed.compareAndSet(false, true)) return;
+    try {
+      super.destroy();
+    }
+    finally {
+      JmxSupport.unregister(MBEAN_TYPE, connectionManager);
+      try {
+        httpClient.close();
+      }
+      catch (IOException ex) {
+        logger.warn("error closing HTTP client: {}", ex);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the limits on the rate of requests to the
+ * REST service by username and by remote address.
+ */
+public interface RateLimitMXBean {
+
+  /**
+   * Gets the number of requests rejected because of the rate of requests
+   * for the same username.
+   *
+   * @return
+   *    Request count.
+   */
+  long getUserRejectedCount();
+
+  /**
+   * Gets the number of requests rejected because of the rate of requests
+   * from the same remote address.
+   *
+   * @return
+   *    Request count.
+   */
+  long getAddressRejectedCount();
+
+  /**
+   * Gets the number of usernames whose recent requests are tracked.
+   *
+   * @return
+   *    Username count.
+   */
+  int getUserCount();
+
+  /**
+   * Gets the number of remote addresses whose recent requests are tracked.
+   *
+   * @return
+   *    Address count.
+   */
+  int getAddressCount();
+
+  /**
+   * Gets the number of requests allowed without tracking their username,
+   * because the maximum number of usernames were tracked and all of them
+   * were throttled.
+   *
+   * @return
+   *    Request count.
+   */
+  long getUserUntrackedCount();
+
+  /**
+   * Gets the number of requests allowed without tracking their remote
+   * address, because the maximum number of addresses were tracked and all
+   * of them were throttled.
+   *
+   * @return
+   *    Request count.
+   */
+  long getAddressUntrackedCount();
+
+}
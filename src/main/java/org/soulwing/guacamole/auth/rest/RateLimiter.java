@@ -0,0 +1,240 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A rate limiter that keeps a token bucket for each of a bounded number of
+ * keys, such as usernames or remote addresses.
+ * <p>
+ * Each bucket holds up to a burst of tokens and is refilled at a steady
+ * rate; a request is allowed if it can take a token from the bucket for
+ * its key. A bucket that has been idle long enough to refill is no
+ * different from a new one, so idle buckets are discarded. Buckets are
+ * divided among stripes, each with its own lock and a bounded number of
+ * buckets kept in least recently used order, so that contention is low and
+ * memory is bounded. When a stripe is full, its least recently used
+ * bucket that still has a token is discarded, which gives the key at most
+ * its burst again; a throttled bucket is never discarded, so that a
+ * throttled key stays throttled however many other keys are seen. If every
+ * bucket of a full stripe is throttled, a request for a new key is allowed
+ * without being tracked, and counted.
+ */
+class RateLimiter {
+
+  /** Number of stripes; a power of two. */
+  private static final int STRIPES = 16;
+
+  /**
+   * A token bucket.
+   */
+  private static class Bucket {
+
+    double tokens;
+    long updated;
+
+    Bucket(double tokens, long updated) {
+      this.tokens = tokens;
+      this.updated = updated;
+    }
+
+  }
+
+  /**
+   * The buckets for the keys that hash to a stripe, in access order.
+   */
+  private static class Stripe {
+
+    final ReentrantLock lock = new ReentrantLock();
+    final LinkedHashMap<String, Bucket> buckets =
+        new LinkedHashMap<>(16, 0.75f, true);
+    final int maxBuckets;
+
+    Stripe(int maxBuckets) {
+      this.maxBuckets = maxBuckets;
+    }
+
+  }
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  /** Maximum number of tokens in a bucket. */
+  private final double burst;
+
+  /** Tokens added to a bucket per nanosecond. */
+  private final double rate;
+
+  /** Time in nanoseconds for an empty bucket to refill. */
+  private final long refillTime;
+
+  /** Time source for refills. */
+  private final Ticker ticker;
+
+  /** Number of requests allowed without tracking their keys. */
+  private final AtomicLong untrackedCount = new AtomicLong();
+
+  /**
+   * Constructs a new limiter.
+   *
+   * @param permitsPerMinute
+   *    Sustained rate of requests allowed for each key; must be positive.
+   *
+   * @param burst
+   *    Number of requests allowed at once for a key that has no recent
+   *    requests; must be positive.
+   *
+   * @param maxKeys
+   *    Maximum number of keys for which buckets are kept.
+   *
+   * @param ticker
+   *    Time source for refills.
+   */
+  RateLimiter(int permitsPerMinute, int burst, int maxKeys, Ticker ticker) {
+    this.burst = burst;
+    this.rate = (double) permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+    this.refillTime = (long) Math.ceil(burst / rate);
+    this.ticker = ticker;
+    final int maxBuckets = Math.max(1, (maxKeys + STRIPES - 1) / STRIPES);
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(maxBuckets);
+    }
+  }
+
+  /**
+   * Takes a token from the bucket for a key, if one is available.
+   *
+   * @param key
+   *    The key.
+   *
+   * @return
+   *    {@code true} if the request is allowed.
+   */
+  boolean tryAcquire(String key) {
+    final Stripe stripe = stripeFor(key);
+    stripe.lock.lock();
+    try {
+      final long now = ticker.read();
+      discardIdle(stripe, now);
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket == null) {
+        if (stripe.buckets.size() >= stripe.maxBuckets
+            && !discardUnthrottled(stripe, now)) {
+          untrackedCount.incrementAndGet();
+          return true;
+        }
+        bucket = new Bucket(burst, now);
+        stripe.buckets.put(key, bucket);
+      }
+      else {
+        refill(bucket, now);
+      }
+      if (bucket.tokens < 1) return false;
+      bucket.tokens -= 1;
+      return true;
+    }
+    finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of buckets currently kept.
+   *
+   * @return
+   *    Bucket count.
+   */
+  int size() {
+    int size = 0;
+    for (final Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        size += stripe.buckets.size();
+      }
+      finally {
+        stripe.lock.unlock();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Gets the number of requests that were allowed without tracking their
+   * keys, because every bucket of a full stripe was throttled.
+   *
+   * @return
+   *    Request count.
+   */
+  long untrackedCount() {
+    return untrackedCount.get();
+  }
+
+  /**
+   * Adds the tokens that a bucket has earned since it was last updated.
+   */
+  private Bucket refill(Bucket bucket, long now) {
+    bucket.tokens = Math.min(burst,
+        bucket.tokens + (now - bucket.updated) * rate);
+    bucket.updated = now;
+    return bucket;
+  }
+
+  /**
+   * Discards the buckets of a stripe that have been idle long enough to
+   * refill. Buckets are in access order, so the scan stops at the first
+   * bucket that has been used recently.
+   */
+  private void discardIdle(Stripe stripe, long now) {
+    final Iterator<Bucket> i = stripe.buckets.values().iterator();
+    while (i.hasNext()) {
+      if (now - i.next().updated < refillTime) return;
+      i.remove();
+    }
+  }
+
+  /**
+   * Discards the least recently used bucket of a stripe that has a token
+   * available.
+   *
+   * @return
+   *    {@code true} if a bucket was discarded; {@code false} if every
+   *    bucket is throttled.
+   */
+  private boolean discardUnthrottled(Stripe stripe, long now) {
+    final Iterator<Bucket> i = stripe.buckets.values().iterator();
+    while (i.hasNext()) {
+      final Bucket bucket = i.next();
+      if (bucket.tokens + (now - bucket.updated) * rate >= 1) {
+        i.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Stripe stripeFor(String key) {
+    final int h = key.hashCode();
+    return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+  }
+
+}
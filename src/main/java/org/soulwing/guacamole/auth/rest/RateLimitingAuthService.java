@@ -0,0 +1,195 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.guacamole.GuacamoleClientTooManyException;
+import org.apache.guacamole.GuacamoleException;
+
+/**
+ * An {@link AuthService} that limits the rate of requests to a delegate
+ * service for each username and for each remote address.
+ * <p>
+ * Each limit is enforced by a {@link RateLimiter}. A request is charged to
+ * the limiter for its remote address and then to the limiter for its
+ * username, and is rejected with a {@link GuacamoleClientTooManyException},
+ * without a request to the delegate, if either has no capacity left; a
+ * request rejected for its address is not charged for its username.
+ * Usernames are compared without regard to case. When neither limit is
+ * configured, this service simply delegates every request.
+ */
+class RateLimitingAuthService implements AuthService, RateLimitMXBean {
+
+  /** Type name under which the rate limit management bean is registered. */
+  static final String MBEAN_TYPE = "RateLimit";
+
+  /** The delegate service. */
+  private final AuthService delegate;
+
+  /** Time source for the limiters. */
+  private final Ticker ticker;
+
+  private final AtomicLong userRejectedCount = new AtomicLong();
+  private final AtomicLong addressRejectedCount = new AtomicLong();
+
+  /** Limiter for usernames, or {@code null} if not limited. */
+  private volatile RateLimiter userLimiter;
+
+  /** Limiter for remote addresses, or {@code null} if not limited. */
+  private volatile RateLimiter addressLimiter;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   */
+  RateLimitingAuthService(AuthService delegate) {
+    this(delegate, Ticker.SYSTEM);
+  }
+
+  /**
+   * Constructs a new instance using the given time source.
+   *
+   * @param delegate
+   *    The service to be guarded.
+   *
+   * @param ticker
+   *    Time source for the limiters.
+   */
+  RateLimitingAuthService(AuthService delegate, Ticker ticker) {
+    this.delegate = delegate;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Initializes the delegate service and creates the limiters.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in initializing the delegate or in retrieving the
+   *   rate limit configuration.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    delegate.init(config);
+    final int maxKeys = config.getRateLimitMaxKeys();
+    this.userLimiter = newLimiter(config.getRateLimitUser(),
+        config.getRateLimitUserBurst(), maxKeys);
+    this.addressLimiter = newLimiter(config.getRateLimitAddress(),
+        config.getRateLimitAddressBurst(), maxKeys);
+    if (userLimiter != null || addressLimiter != null) {
+      JmxSupport.register(MBEAN_TYPE, this);
+    }
+  }
+
+  private RateLimiter newLimiter(int permitsPerMinute, int burst,
+      int maxKeys) {
+    if (permitsPerMinute <= 0) return null;
+    return new RateLimiter(permitsPerMinute,
+        burst > 0 ? burst : permitsPerMinute, maxKeys, ticker);
+  }
+
+  /**
+   * Requests authorization for a subject from the delegate service, if
+   * allowed by the rate limits for its remote address and username. A
+   * request for connection parameters is not a login attempt, and is not
+   * limited.
+   *
+   * @param subject
+   *   The subject to be authorized.
+   *
+   * @return
+   *   A future that completes with the authorization result, or
+   *   exceptionally if the delegate service fails; with a
+   *   {@link GuacamoleClientTooManyException} if the request exceeds a rate
+   *   limit.
+   */
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    if (subject.getConnectionName() != null) {
+      return delegate.authorizeAsync(subject);
+    }
+    final RateLimiter addressLimiter = this.addressLimiter;
+    final String address = subject.getRemoteAddress();
+    if (addressLimiter != null && address != null
+        && !addressLimiter.tryAcquire(address)) {
+      addressRejectedCount.incrementAndGet();
+      return CompletableFuture.failedFuture(
+          new GuacamoleClientTooManyException(
+              "too many login attempts from " + address));
+    }
+    final RateLimiter userLimiter = this.userLimiter;
+    final String username = subject.getUsername();
+    if (userLimiter != null && username != null
+        && !userLimiter.tryAcquire(username.toLowerCase(Locale.ENGLISH))) {
+      userRejectedCount.incrementAndGet();
+      return CompletableFuture.failedFuture(
+          new GuacamoleClientTooManyException(
+              "too many login attempts for user"));
+    }
+    return delegate.authorizeAsync(subject);
+  }
+
+  @Override
+  public void destroy() {
+    JmxSupport.unregister(MBEAN_TYPE, this);
+    delegate.destroy();
+  }
+
+  @Override
+  public long getUserRejectedCount() {
+    return userRejectedCount.get();
+  }
+
+  @Override
+  public long getAddressRejectedCount() {
+    return addressRejectedCount.get();
+  }
+
+  @Override
+  public int getUserCount() {
+    final RateLimiter userLimiter = this.userLimiter;
+    return userLimiter != null ? userLimiter.size() : 0;
+  }
+
+  @Override
+  public int getAddressCount() {
+    final RateLimiter addressLimiter = this.addressLimiter;
+    return addressLimiter != null ? addressLimiter.size() : 0;
+  }
+
+  @Override
+  public long getUserUntrackedCount() {
+    final RateLimiter userLimiter = this.userLimiter;
+    return userLimiter != null ? userLimiter.untrackedCount() : 0;
+  }
+
+  @Override
+  public long getAddressUntrackedCount() {
+    final RateLimiter addressLimiter = this.addressLimiter;
+    return addressLimiter != null ? addressLimiter.untrackedCount() : 0;
+  }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AuthService} that initializes a delegate service from an
+ * immutable {@link ConfigSnapshot}, and replaces the delegate when the
+ * configuration changes.
+ * <p>
+ * The delegate and its snapshot are published through a single volatile
+ * reference, so a request reads no configuration properties at all. When
+ * reloading is enabled, a {@link ConfigWatcher} reports changes to
+ * {@code guacamole.properties}; a new snapshot that differs from the one
+ * in use is used to initialize a new delegate, which then replaces the
+ * current one. The replaced delegate is destroyed after a grace period, so
+ * that requests already in flight can complete. If the new configuration
+ * cannot be loaded, or the new delegate cannot be initialized, the current
+ * delegate remains in use.
+ */
+class ReloadingAuthService implements AuthService {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(ReloadingAuthService.class);
+
+  /** Grace period in milliseconds before a replaced delegate is destroyed. */
+  static final long DEFAULT_RETIRE_DELAY = TimeUnit.SECONDS.toMillis(60);
+
+  /**
+   * A source of configuration for the service.
+   */
+  interface ConfigSource {
+
+    /**
+     * Gets the directory that contains {@code guacamole.properties}.
+     *
+     * @return
+     *    Directory to watch for changes.
+     *
+     * @throws GuacamoleException
+     *    If an error occurs in locating the directory.
+     */
+    File getDirectory() throws GuacamoleException;
+
+    /**
+     * Loads the current configuration.
+     *
+     * @return
+     *    Configuration read from {@code guacamole.properties}.
+     *
+     * @throws GuacamoleException
+     *    If an error occurs in loading the configuration.
+     */
+    AuthServiceConfig load() throws GuacamoleException;
+
+  }
+
+  /**
+   * A delegate service and the snapshot from which it was initialized.
+   */
+  private static class Generation {
+
+    final AuthService service;
+    final ConfigSnapshot config;
+
+    Generation(AuthService service, ConfigSnapshot config) {
+      this.service = service;
+      this.config = config;
+    }
+
+  }
+
+  /** Factory for delegate services. */
+  private final Supplier<AuthService> factory;
+
+  /** Source of reloaded configuration. */
+  private final ConfigSource source;
+
+  /** Quiet interval in milliseconds that ends a burst of changes. */
+  private final long quietInterval;
+
+  /** Grace period in milliseconds before a replaced delegate is destroyed. */
+  private final long retireDelay;
+
+  /** Replaced delegates that have not yet been destroyed. */
+  private final Set<AuthService> retiring = ConcurrentHashMap.newKeySet();
+
+  /** The delegate in use, or {@code null} before init or after destroy. */
+  private volatile Generation current;
+
+  /** Watcher for configuration changes, or {@code null} if disabled. */
+  private ConfigWatcher watcher;
+
+  /**
+   * Constructs a new instance that reloads configuration from the Guacamole
+   * environment.
+   *
+   * @param factory
+   *    Factory that creates an uninitialized delegate service.
+   */
+  ReloadingAuthService(Supplier<AuthService> factory) {
+    this(factory, new EnvironmentConfigSource(),
+        ConfigWatcher.DEFAULT_QUIET_INTERVAL, DEFAULT_RETIRE_DELAY);
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param factory
+   *    Factory that creates an uninitialized delegate service.
+   *
+   * @param source
+   *    Source of reloaded configuration.
+   *
+   * @param quietInterval
+   *    Interval in milliseconds without further changes after which a
+   *    change to the configuration is applied.
+   *
+   * @param retireDelay
+   *    Grace period in milliseconds before a replaced delegate is destroyed.
+   */
+  ReloadingAuthService(Supplier<AuthService> factory, ConfigSource source,
+      long quietInterval, long retireDelay) {
+    this.factory = factory;
+    this.source = source;
+    this.quietInterval = quietInterval;
+    this.retireDelay = retireDelay;
+  }
+
+  /**
+   * Initializes a delegate service from a snapshot of the given
+   * configuration, and starts watching for changes if reloading is enabled.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in resolving the configuration or in initializing
+   *   the delegate, or if the configuration directory cannot be watched.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    final ConfigSnapshot snapshot = ConfigSnapshot.of(config);
+    final AuthService service = factory.get();
+    service.init(snapshot);
+    this.current = new Generation(service, snapshot);
+    if (!snapshot.isConfigReloadEnabled()) return;
+
+    final File directory = source.getDirectory();
+    final ConfigWatcher watcher =
+        new ConfigWatcher(directory, quietInterval, this::reload);
+    try {
+      watcher.start();
+    }
+    catch (IOException ex) {
+      throw new GuacamoleServerException(
+          "cannot watch " + directory + " for configuration changes", ex);
+    }
+    this.watcher = watcher;
+    logger.info("watching {} for configuration changes", directory);
+  }
+
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    return current.service.authorizeAsync(subject);
+  }
+
+  /**
+   * Gets the snapshot from which the delegate in use was initialized.
+   *
+   * @return
+   *    Configuration snapshot, or {@code null} before init or after destroy.
+   */
+  ConfigSnapshot getConfig() {
+    final Generation current = this.current;
+    return current != null ? current.config : null;
+  }
+
+  /**
+   * Replaces the delegate service if the configuration has changed.
+   */
+  synchronized void reload() {
+    final Generation previous = this.current;
+    if (previous == null) return;
+
+    final ConfigSnapshot snapshot;
+    try {
+      snapshot = ConfigSnapshot.of(source.load());
+    }
+    catch (GuacamoleException ex) {
+      logger.error("cannot reload configuration: {}", ex.getMessage());
+      return;
+    }
+    if (snapshot.equals(previous.config)) {
+      logger.debug("configuration is unchanged");
+      return;
+    }
+
+    final AuthService service = factory.get();
+    try {
+      service.init(snapshot);
+    }
+    catch (GuacamoleException ex) {
+      logger.error("reloaded configuration rejected: {}", ex.getMessage());
+      destroyQuietly(service);
+      return;
+    }
+    this.current = new Generation(service, snapshot);
+    logger.info("configuration reloaded");
+    retire(previous.service);
+  }
+
+  /**
+   * Destroys a replaced delegate after the grace period, unless it has
+   * already been destroyed along with this service.
+   *
+   * @param service
+   *    The replaced delegate.
+   */
+  private void retire(AuthService service) {
+    retiring.add(service);
+    CompletableFuture.runAsync(() -> {
+      if (retiring.remove(service)) {
+        destroyQuietly(service);
+      }
+    }, CompletableFuture.delayedExecutor(retireDelay,
+        TimeUnit.MILLISECONDS));
+  }
+
+  @Override
+  public synchronized void destroy() {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+    final Generation current = this.current;
+    this.current = null;
+    for (final AuthService service : retiring) {
+      if (retiring.remove(service)) {
+        destroyQuietly(service);
+      }
+    }
+    if (current != null) {
+      current.service.destroy();
+    }
+  }
+
+  /**
+   * Destroys a delegate that is no longer in use, logging any failure.
+   *
+   * @param service
+   *    The delegate to destroy.
+   */
+  private static void destroyQuietly(AuthService service) {
+    try {
+      service.destroy();
+    }
+    catch (RuntimeException ex) {
+      logger.warn("error destroying auth service: {}", ex, ex);
+    }
+  }
+
+  /**
+   * A {@link ConfigSource} that reads a new {@link RestEnvironment} for
+   * each load.
+   */
+  private static class EnvironmentConfigSource implements ConfigSource {
+
+    @Override
+    public File getDirectory() throws GuacamoleException {
+      return new RestEnvironment().getGuacamoleHome();
+    }
+
+    @Override
+    public AuthServiceConfig load() throws GuacamoleException {
+      return new RestEnvironment();
+    }
+
+  }
+
+}
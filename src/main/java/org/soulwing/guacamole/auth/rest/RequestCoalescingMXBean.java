@@ -0,0 +1,53 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+/**
+ * A management interface for the coalescing of concurrent identical
+ * authorization requests.
+ */
+public interface RequestCoalescingMXBean {
+
+  /**
+   * Gets the number of requests sent to the REST service on behalf of one or
+   * more callers.
+   *
+   * @return
+   *    Request count.
+   */
+  long getRequestCount();
+
+  /**
+   * Gets the number of callers that received the result of a request
+   * already in flight for the same subject, rather than sending their own.
+   *
+   * @return
+   *    Collapsed request count.
+   */
+  long getCollapsedCount();
+
+  /**
+   * Gets the number of requests currently in flight.
+   *
+   * @return
+   *    In-flight request count.
+   */
+  int getInFlightCount();
+
+}
@@ -18,13 +18,17 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
-import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.guacamole.GuacamoleException;
 import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import org.apache.guacamole.net.auth.AuthenticatedUser;
 import org.apache.guacamole.net.auth.AuthenticationProvider;
 import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.net.auth.UserContext;
 import org.apache.guacamole.net.auth.simple.SimpleAuthenticationProvider;
 import org.apache.guacamole.protocol.GuacamoleConfiguration;
 import org.slf4j.Logger;
@@ -33,23 +37,82 @@ import org.slf4j.LoggerFactory;
 /**
  * An {@link AuthenticationProvider} that delegates to an {@link AuthService}
  * to authenticate and authorize Guacamole users.
+ * <p>
+ * If a connection parameters resource is configured, each user is given a
+ * {@link RestUserContext}, whose connections request their parameters from
+ * the REST service when they are opened; otherwise, the parameters of every
+ * connection must be included in the authorization result.
+ * <p>
+ * The state of the provider that depends on configuration is derived from
+ * the configuration in use by the auth service, and is rebuilt when a
+ * {@link ReloadingAuthService} reloads its configuration.
  */
 public class RestAuthProvider extends SimpleAuthenticationProvider {
 
   private static final Logger logger = LoggerFactory.getLogger(RestAuthProvider.class);
 
+  /**
+   * Provider state derived from a configuration.
+   */
+  private static class State {
+
+    /** The configuration from which the state was derived. */
+    final AuthServiceConfig config;
+
+    /** Selection of the request headers that are sent to the service. */
+    final HeaderProjection headerProjection;
+
+    /** Deadline budget in milliseconds; zero if requests have no deadline. */
+    final int deadline;
+
+    /** Resource that exposes the metrics, or {@code null} if disabled. */
+    final MetricsResource metricsResource;
+
+    /**
+     * Source of connection parameters requested when connections are
+     * opened, or {@code null} if parameters are included in authorization
+     * results.
+     */
+    final ConnectionParameterCache parameters;
+
+    State(AuthServiceConfig config, HeaderProjection headerProjection,
+        int deadline, MetricsResource metricsResource,
+        ConnectionParameterCache parameters) {
+      this.config = config;
+      this.headerProjection = headerProjection;
+      this.deadline = deadline;
+      this.metricsResource = metricsResource;
+      this.parameters = parameters;
+    }
+
+  }
+
   /** Auth service facade to which we delegate the real work. */
   private final AuthService authService;
 
+  /** Metrics of the authorization pipeline. */
+  private final AuthMetrics metrics;
+
+  /** Supplier of the configuration in use by the auth service. */
+  private final Supplier<AuthServiceConfig> currentConfig;
+
+  /** State derived from the configuration in use. */
+  private volatile State state;
+
   /**
-   * Constructs a new instance that delegates to the default {@link AuthService}
-   * implementation.
+   * Constructs a new instance that delegates to the {@link AuthService} for
+   * the configured transport, guarded by a circuit breaker, a bulkhead, and
+   * rate limits, with concurrent identical requests coalesced and results
+   * cached. The service is rebuilt when its configuration is reloaded.
    *
    * @throws GuacamoleException
    *    If the provider could not be instantiated due to an error.
    */
   public RestAuthProvider() throws GuacamoleException {
-    this(new JerseyAuthService());
+    this(new ReloadingAuthService(() -> new CachingAuthService(
+        new CoalescingAuthService(new RateLimitingAuthService(
+            new BulkheadAuthService(new CircuitBreakerAuthService(
+                new TransportAuthService())))))));
   }
 
   /**
@@ -62,10 +125,61 @@ public class RestAuthProvider extends SimpleAuthenticationProvider {
    *    If the service could not be instantiated due to an error.
    */
   RestAuthProvider(AuthService authService) throws GuacamoleException {
+    this(authService, AuthMetrics.SHARED);
+  }
+
+  /**
+   * Constructs a new instance that delegates to the given {@link AuthService}
+   * and records metrics in the given instance.
+   *
+   * @param authService
+   *    The auth service delegate.
+   *
+   * @param metrics
+   *    Metrics of the authorization pipeline.
+   *
+   * @throws GuacamoleException
+   *    If the service could not be instantiated due to an error.
+   */
+  RestAuthProvider(AuthService authService, AuthMetrics metrics)
+      throws GuacamoleException {
+    this(authService, metrics, new RestEnvironment());
+  }
+
+  /**
+   * Constructs a new instance that delegates to the given {@link AuthService}
+   * and records metrics in the given instance.
+   *
+   * @param authService
+   *    The auth service delegate.
+   *
+   * @param metrics
+   *    Metrics of the authorization pipeline.
+   *
+   * @param environment
+   *    Configuration for the provider and the auth service.
+   *
+   * @throws GuacamoleException
+   *    If the service could not be instantiated due to an error.
+   */
+  RestAuthProvider(AuthService authService, AuthMetrics metrics,
+      AuthServiceConfig environment) throws GuacamoleException {
     try {
-      final RestEnvironment environment = new RestEnvironment();
       this.authService = authService;
+      this.metrics = metrics;
       this.authService.init(environment);
+      if (authService instanceof ReloadingAuthService) {
+        this.currentConfig = ((ReloadingAuthService) authService)::getConfig;
+      }
+      else {
+        this.currentConfig = () -> environment;
+      }
+      this.state = newState(currentConfig.get());
+      JmxSupport.register(AuthMetrics.MBEAN_TYPE, metrics);
+      if (state.parameters != null) {
+        JmxSupport.register(ConnectionParameterCache.MBEAN_TYPE,
+            state.parameters);
+      }
     }
     catch (GuacamoleException ex) {
       logger.error("initialization failed with error: {}", ex);
@@ -87,10 +201,190 @@ public class RestAuthProvider extends SimpleAuthenticationProvider {
     return getClass().getSimpleName();
   }
 
+  /**
+   * Gets the resource that exposes the metrics of this provider.
+   *
+   * @return
+   *    Metrics resource, or {@code null} if the metrics endpoint is not
+   *    enabled.
+   */
+  @Override
+  public Object getResource() {
+    return state().metricsResource;
+  }
+
+  /**
+   * Releases resources held by the auth service.
+   */
+  @Override
+  public void shutdown() {
+    final State state = this.state;
+    if (state.parameters != null) {
+      JmxSupport.unregister(ConnectionParameterCache.MBEAN_TYPE,
+          state.parameters);
+    }
+    JmxSupport.unregister(AuthMetrics.MBEAN_TYPE, metrics);
+    authService.destroy();
+  }
+
+  /**
+   * Authenticates a user by requesting authorization of the subject
+   * identified by the given credentials.
+   *
+   * @param credentials
+   *    The credentials presented by the user.
+   *
+   * @return
+   *    The authenticated user, or {@code null} if the subject is not
+   *    authorized.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in requesting authorization.
+   */
+  @Override
+  public AuthenticatedUser authenticateUser(Credentials credentials)
+      throws GuacamoleException {
+    final State state = state();
+    if (state.parameters == null) return super.authenticateUser(credentials);
+    final AuthSubject subject =
+        new DelegatingAuthSubject(credentials, state.headerProjection);
+    final Map<String, GuacamoleConfiguration> configs =
+        authorize(credentials, subject);
+    return configs != null ?
+        new RestAuthenticatedUser(this, credentials, subject, configs) : null;
+  }
+
+  /**
+   * Gets the context of an authenticated user.
+   * <p>
+   * For a user authenticated by this provider, the configurations authorized
+   * at login are used; for any other user, authorization is requested again
+   * using the user's credentials.
+   *
+   * @param authenticatedUser
+   *    The authenticated user.
+   *
+   * @return
+   *    The user context, or {@code null} if the subject is not authorized.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in requesting authorization.
+   */
+  @Override
+  public UserContext getUserContext(AuthenticatedUser authenticatedUser)
+      throws GuacamoleException {
+    final State state = state();
+    if (state.parameters == null) {
+      return super.getUserContext(authenticatedUser);
+    }
+    if (authenticatedUser instanceof RestAuthenticatedUser
+        && authenticatedUser.getAuthenticationProvider() == this) {
+      final RestAuthenticatedUser user =
+          (RestAuthenticatedUser) authenticatedUser;
+      return new RestUserContext(this, user.getIdentifier(),
+          user.getSubject(), user.getConfigurations(), state.parameters);
+    }
+    final Credentials credentials = authenticatedUser.getCredentials();
+    final AuthSubject subject =
+        new DelegatingAuthSubject(credentials, state.headerProjection);
+    final Map<String, GuacamoleConfiguration> configs =
+        authorize(credentials, subject);
+    return configs != null ? new RestUserContext(this,
+        authenticatedUser.getIdentifier(), subject, configs,
+        state.parameters) : null;
+  }
+
   @Override
-  @SuppressWarnings("unchecked")
   public Map<String, GuacamoleConfiguration> getAuthorizedConfigurations(
       Credentials credentials) throws GuacamoleException {
+    return authorize(credentials,
+        new DelegatingAuthSubject(credentials, state().headerProjection));
+  }
+
+  /**
+   * Gets the state derived from the configuration in use by the auth
+   * service, rebuilding it if the configuration has been reloaded. If the
+   * state cannot be rebuilt, the previous state remains in use.
+   *
+   * @return
+   *    Provider state.
+   */
+  private State state() {
+    final State state = this.state;
+    final AuthServiceConfig config = currentConfig.get();
+    if (config == null || config == state.config) return state;
+    synchronized (this) {
+      final State previous = this.state;
+      if (config == previous.config) return previous;
+      final State next;
+      try {
+        next = newState(config);
+      }
+      catch (GuacamoleException ex) {
+        logger.error("cannot apply reloaded configuration: {}",
+            ex.getMessage());
+        return previous;
+      }
+      if (previous.parameters != null) {
+        JmxSupport.unregister(ConnectionParameterCache.MBEAN_TYPE,
+            previous.parameters);
+      }
+      if (next.parameters != null) {
+        JmxSupport.register(ConnectionParameterCache.MBEAN_TYPE,
+            next.parameters);
+      }
+      this.state = next;
+      return next;
+    }
+  }
+
+  /**
+   * Creates the provider state for a configuration.
+   *
+   * @param config
+   *    The configuration.
+   *
+   * @return
+   *    Provider state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in retrieving the configuration.
+   */
+  private State newState(AuthServiceConfig config) throws GuacamoleException {
+    return new State(config,
+        new HeaderProjection(config.getHeaderAllow(), config.getHeaderDeny()),
+        config.getDeadline(),
+        config.isMetricsEndpointEnabled() ? new MetricsResource(metrics) : null,
+        config.getParametersUri() != null ?
+            new ConnectionParameterCache(authService, config, Ticker.SYSTEM) :
+            null);
+  }
+
+  /**
+   * Requests authorization of a subject. The deadline for the request, if
+   * configured, is started here, so that it bounds the request as a whole.
+   *
+   * @param credentials
+   *    The credentials from which the subject was created.
+   *
+   * @param subject
+   *    The subject to be authorized.
+   *
+   * @return
+   *    Configurations authorized for the subject, keyed by connection name,
+   *    or {@code null} if the subject is not authorized.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in requesting authorization, or if the result
+   *    authorizes the subject but includes no configurations.
+   */
+  private Map<String, GuacamoleConfiguration> authorize(
+      Credentials credentials, AuthSubject subject) throws GuacamoleException {
+    final AuthEvents.Authorization event = new AuthEvents.Authorization();
+    event.begin();
+    final long start = Ticker.SYSTEM.read();
+    AuthMetrics.Outcome outcome = AuthMetrics.Outcome.ERROR;
+    int configurationCount = 0;
     try {
       if (logger.isDebugEnabled()) {
         logger.debug("requesting authorization for user '{}' @ {} [{}]",
@@ -98,66 +392,51 @@ public class RestAuthProvider extends SimpleAuthenticationProvider {
             credentials.getRemoteAddress());
       }
 
-      final Map authResult = authService.authorize(
-          new DelegatingAuthSubject(credentials));
+      final AuthResult authResult = authService.authorize(
+          BoundedAuthSubject.start(subject, state().deadline));
 
-      final Boolean authorized = (Boolean) authResult.get(
-          ProtocolConstants.AUTH_KEY);
+      final boolean authorized = authResult.isAuthorized();
 
       if (logger.isDebugEnabled()) {
         logger.debug("user '{}' {} authorized", credentials.getUsername(),
             authorized ? "is" : "is not");
       }
 
-      if (authorized == null || !authorized) return null;
+      if (!authorized) {
+        outcome = AuthMetrics.Outcome.DENIED;
+        return null;
+      }
+
+      final Map<String, GuacamoleConfiguration> configs =
+          authResult.getConfigurations();
 
-      return createGuacConfigs(
-          (Map) authResult.get(ProtocolConstants.CONFIGS_KEY));
+      if (configs == null) {
+        logger.error("REST service provided no configurations for user");
+        throw new GuacamoleServerException("configurations required");
+      }
+
+      outcome = AuthMetrics.Outcome.AUTHORIZED;
+      configurationCount = configs.size();
+      return configs;
     }
     catch (GuacamoleException ex) {
+      if (ex instanceof GuacamoleUpstreamTimeoutException) {
+        outcome = AuthMetrics.Outcome.TIMEOUT;
+      }
       logger.error("authorized request ended in error {}: ", ex);
       if (logger.isDebugEnabled()) {
         logger.debug("exception trace: {}", ex, ex);
       }
       throw ex;
     }
-  }
-
-
-  private Map<String, GuacamoleConfiguration> createGuacConfigs(
-      Map configs) throws GuacamoleServerException {
-
-    if (configs == null) {
-      logger.error("REST service provided no configurations for user");
-      throw new GuacamoleServerException("configurations required");
-    }
-
-    final Map<String, GuacamoleConfiguration> guacConfigs =
-        new LinkedHashMap<String, GuacamoleConfiguration>();
-
-    for (final Object name : configs.keySet()) {
-      guacConfigs.put(name.toString(),
-          createGuacConfig((Map) configs.get(name)));
-    }
-
-    return guacConfigs;
-  }
-
-  private GuacamoleConfiguration createGuacConfig(Map config) {
-    final GuacamoleConfiguration guacConfig = new GuacamoleConfiguration();
-    guacConfig.setProtocol((String) config.get(ProtocolConstants.PROTOCOL_KEY));
-
-    final Map parameters = (Map) config.get(ProtocolConstants.PARAMS_KEY);
-    if (parameters != null) {
-      for (final Object paramName : parameters.keySet()) {
-        final Object paramValue = parameters.get(paramName);
-        if (paramName != null) {
-          guacConfig.setParameter(paramName.toString(), paramValue.toString());
-        }
+    finally {
+      metrics.recordCall(outcome, Ticker.SYSTEM.read() - start);
+      if (event.shouldCommit()) {
+        event.outcome = outcome.name().toLowerCase(Locale.ENGLISH);
+        event.configurationCount = configurationCount;
+        event.commit();
       }
     }
-
-    return guacConfig;
   }
 
 }
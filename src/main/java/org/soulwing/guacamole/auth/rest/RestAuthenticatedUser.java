@@ -0,0 +1,99 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.guacamole.net.auth.AbstractAuthenticatedUser;
+import org.apache.guacamole.net.auth.AuthenticationProvider;
+import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * A user authenticated by a {@link RestAuthProvider}, which retains the
+ * subject that was authorized and the configurations in its result, so that
+ * connection parameters can later be requested on the user's behalf.
+ */
+class RestAuthenticatedUser extends AbstractAuthenticatedUser {
+
+  private final AuthenticationProvider authProvider;
+  private final Credentials credentials;
+  private final AuthSubject subject;
+  private final Map<String, GuacamoleConfiguration> configurations;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param authProvider
+   *    The provider that authenticated the user.
+   *
+   * @param credentials
+   *    The credentials presented by the user; if they include no username,
+   *    the user is identified by a random identifier.
+   *
+   * @param subject
+   *    The subject that was authorized.
+   *
+   * @param configurations
+   *    Configurations authorized for the subject, keyed by connection name.
+   */
+  RestAuthenticatedUser(AuthenticationProvider authProvider,
+      Credentials credentials, AuthSubject subject,
+      Map<String, GuacamoleConfiguration> configurations) {
+    this.authProvider = authProvider;
+    this.credentials = credentials;
+    this.subject = subject;
+    this.configurations = configurations;
+    final String username = credentials.getUsername();
+    setIdentifier(username != null && !username.isEmpty() ?
+        username : UUID.randomUUID().toString());
+  }
+
+  @Override
+  public AuthenticationProvider getAuthenticationProvider() {
+    return authProvider;
+  }
+
+  @Override
+  public Credentials getCredentials() {
+    return credentials;
+  }
+
+  /**
+   * Gets the subject that was authorized.
+   *
+   * @return
+   *    Authorized subject.
+   */
+  AuthSubject getSubject() {
+    return subject;
+  }
+
+  /**
+   * Gets the configurations authorized for the subject.
+   *
+   * @return
+   *    Configurations keyed by connection name.
+   */
+  Map<String, GuacamoleConfiguration> getConfigurations() {
+    return configurations;
+  }
+
+}
@@ -18,241 +18,2030 @@
  */
 package org.soulwing.guacamole.auth.rest;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
 import org.apache.guacamole.environment.Environment;
 import org.apache.guacamole.environment.LocalEnvironment;
+import org.apache.guacamole.properties.BooleanGuacamoleProperty;
 import org.apache.guacamole.properties.GuacamoleProperty;
+import org.apache.guacamole.properties.IntegerGuacamoleProperty;
+import org.apache.guacamole.properties.LongGuacamoleProperty;
 import org.apache.guacamole.properties.StringGuacamoleProperty;
 
-/**
- * Definitions for all of the configuration properties required and/or
- * supported by this extension.
- */
-class RestEnvironment implements AuthServiceConfig {
+/**
+ * Definitions for all of the configuration properties required and/or
+ * supported by this extension.
+ */
+class RestEnvironment implements AuthServiceConfig {
+
+  /**
+   * Default value for the {@link #AUTHORIZATION_URI} property.
+   */
+  private static final String DEFAULT_AUTHORIZATION_URI = "/authorization";
+
+  /**
+   * Default value for the {@link #TRANSPORT} property.
+   */
+  private static final String DEFAULT_TRANSPORT = "jersey";
+
+  /**
+   * Default value for the {@link #EJECT_FAILURES} property.
+   */
+  private static final int DEFAULT_EJECT_FAILURES = 5;
+
+  /**
+   * Default value for the {@link #EJECT_DURATION} property.
+   */
+  private static final int DEFAULT_EJECT_DURATION = 10;
+
+  /**
+   * Default value for the {@link #SLOW_START} property.
+   */
+  private static final int DEFAULT_SLOW_START = 30;
+
+  /**
+   * Default value for the {@link #HEDGE_BUDGET} property.
+   */
+  private static final int DEFAULT_HEDGE_BUDGET = 10;
+
+  /**
+   * Default value for the {@link #DEADLINE} property.
+   */
+  private static final int DEFAULT_DEADLINE = 10000;
+
+  /**
+   * Default value for the {@link #CACHE_MAX_ENTRIES} property.
+   */
+  private static final int DEFAULT_CACHE_MAX_ENTRIES = 10000;
+
+  /**
+   * Default value for the {@link #POOL_MAX_TOTAL} property.
+   */
+  private static final int DEFAULT_POOL_MAX_TOTAL = 20;
+
+  /**
+   * Default value for the {@link #POOL_MAX_PER_ROUTE} property.
+   */
+  private static final int DEFAULT_POOL_MAX_PER_ROUTE = 10;
+
+  /**
+   * Default value for the {@link #POOL_IDLE_TIMEOUT} property.
+   */
+  private static final int DEFAULT_POOL_IDLE_TIMEOUT = 60;
+
+  /**
+   * Default value for the {@link #POOL_VALIDATE_AFTER_INACTIVITY} property.
+   */
+  private static final int DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY = 2000;
+
+  /**
+   * Default value for the {@link #BREAKER_WINDOW_SIZE} property.
+   */
+  private static final int DEFAULT_BREAKER_WINDOW_SIZE = 20;
+
+  /**
+   * Default value for the {@link #BREAKER_MINIMUM_CALLS} property.
+   */
+  private static final int DEFAULT_BREAKER_MINIMUM_CALLS = 10;
+
+  /**
+   * Default value for the {@link #BREAKER_FAILURE_RATE_THRESHOLD} property.
+   */
+  private static final int DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD = 50;
+
+  /**
+   * Default value for the {@link #BREAKER_SLOW_CALL_RATE_THRESHOLD} property.
+   */
+  private static final int DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD = 100;
+
+  /**
+   * Default value for the {@link #BREAKER_SLOW_CALL_DURATION} property.
+   */
+  private static final int DEFAULT_BREAKER_SLOW_CALL_DURATION = 5000;
+
+  /**
+   * Default value for the {@link #BREAKER_OPEN_DURATION} property.
+   */
+  private static final int DEFAULT_BREAKER_OPEN_DURATION = 30;
+
+  /**
+   * Default value for the {@link #BREAKER_HALF_OPEN_CALLS} property.
+   */
+  private static final int DEFAULT_BREAKER_HALF_OPEN_CALLS = 3;
+
+  /**
+   * Default value for the {@link #BULKHEAD_MAX_CONCURRENT} property.
+   */
+  private static final int DEFAULT_BULKHEAD_MAX_CONCURRENT = 0;
+
+  /**
+   * Default value for the {@link #BULKHEAD_MAX_QUEUE} property.
+   */
+  private static final int DEFAULT_BULKHEAD_MAX_QUEUE = 1000;
+
+  /**
+   * Default value for the {@link #BULKHEAD_MAX_QUEUE_PER_SOURCE} property.
+   */
+  private static final int DEFAULT_BULKHEAD_MAX_QUEUE_PER_SOURCE = 0;
+
+  /**
+   * Default value for the {@link #BULKHEAD_MAX_WAIT} property.
+   */
+  private static final int DEFAULT_BULKHEAD_MAX_WAIT = 3000;
+
+  /**
+   * Default value for the {@link #BULKHEAD_MIN_CONCURRENT} property.
+   */
+  private static final int DEFAULT_BULKHEAD_MIN_CONCURRENT = 4;
+
+  /**
+   * Default value for the {@link #OAUTH2_REFRESH_AHEAD} property.
+   */
+  private static final int DEFAULT_OAUTH2_REFRESH_AHEAD = 60;
+
+  /**
+   * Default value for the {@link #COMPRESSION_ENABLED} property.
+   */
+  private static final boolean DEFAULT_COMPRESSION_ENABLED = false;
+
+  /**
+   * Default value for the {@link #COMPRESSION_REQUEST_THRESHOLD} property.
+   */
+  private static final int DEFAULT_COMPRESSION_REQUEST_THRESHOLD = 0;
+
+  /**
+   * Default value for the {@link #WIRE_FORMAT} property.
+   */
+  private static final String DEFAULT_WIRE_FORMAT = "json";
+
+  /**
+   * Default value for the {@link #CONFIG_RELOAD_ENABLED} property.
+   */
+  private static final boolean DEFAULT_CONFIG_RELOAD_ENABLED = false;
+
+  /**
+   * Default value for the {@link #METRICS_ENDPOINT_ENABLED} property.
+   */
+  private static final boolean DEFAULT_METRICS_ENDPOINT_ENABLED = false;
+
+  /**
+   * Default value for the {@link #RATE_LIMIT_MAX_KEYS} property.
+   */
+  private static final int DEFAULT_RATE_LIMIT_MAX_KEYS = 10000;
+
+  /**
+   * Default value for the {@link #PARAMETERS_CACHE_TTL} property.
+   */
+  private static final int DEFAULT_PARAMETERS_CACHE_TTL = 30;
+
+  /**
+   * Property that specifies the absolute URLs for the endpoints of the REST
+   * service used to authorize subject users, as a comma-separated list.
+   */
+  private static final GuacamoleProperty<String> SERVICE_URL =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-service-url";
+    }
+  };
+
+  /**
+   * Property that specifies the URI path for the authorization resource
+   * exposed by the REST service.
+   */
+  private static final GuacamoleProperty<String> AUTHORIZATION_URI =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-authorization-uri";
+    }
+  };
+
+  /**
+   * Property that specifies the HTTP transport used to send requests to the
+   * REST service.
+   */
+  private static final GuacamoleProperty<String> TRANSPORT =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-transport";
+    }
+  };
+
+  /**
+   * Property that specifies whether requests run on virtual threads, where
+   * the runtime supports them.
+   */
+  private static final GuacamoleProperty<Boolean> VIRTUAL_THREADS =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-virtual-threads";
+    }
+  };
+
+  /**
+   * Property that specifies the number of consecutive failed requests after
+   * which a service endpoint is ejected from load balancing.
+   */
+  private static final GuacamoleProperty<Integer> EJECT_FAILURES =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-eject-failures";
+    }
+  };
+
+  /**
+   * Property that specifies the time in seconds for which a service endpoint
+   * is first ejected from load balancing.
+   */
+  private static final GuacamoleProperty<Integer> EJECT_DURATION =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-eject-duration";
+    }
+  };
+
+  /**
+   * Property that specifies the time in seconds over which the share of
+   * requests sent to a readmitted service endpoint is increased.
+   */
+  private static final GuacamoleProperty<Integer> SLOW_START =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-slow-start";
+    }
+  };
+
+  /**
+   * Property that specifies whether slow requests should be hedged.
+   */
+  private static final GuacamoleProperty<Boolean> HEDGE_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-hedge-enabled";
+    }
+  };
+
+  /**
+   * Property that specifies the time in milliseconds to wait for a response
+   * before sending a hedged request.
+   */
+  private static final GuacamoleProperty<Integer> HEDGE_DELAY =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-hedge-delay";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of hedged requests as a
+   * percentage of all requests.
+   */
+  private static final GuacamoleProperty<Integer> HEDGE_BUDGET =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-hedge-budget";
+    }
+  };
+
+  /**
+   * Property that specifies whether request entities should be sent using
+   * chunked transfer encoding.
+   */
+  private static final GuacamoleProperty<Boolean> REQUEST_CHUNKING =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-request-chunking";
+    }
+  };
+
+  /**
+   * Property that specifies the total time in milliseconds allowed for an
+   * authorization request.
+   */
+  private static final GuacamoleProperty<Integer> DEADLINE =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-deadline";
+    }
+  };
+
+  /**
+   * Property that specifies the time in milliseconds allowed to connect to
+   * the REST service.
+   */
+  private static final GuacamoleProperty<Integer> CONNECT_TIMEOUT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-connect-timeout";
+    }
+  };
+
+  /**
+   * Property that specifies the time in milliseconds allowed for the TLS
+   * handshake with the REST service.
+   */
+  private static final GuacamoleProperty<Integer> TLS_TIMEOUT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-tls-timeout";
+    }
+  };
+
+  /**
+   * Property that specifies the time in milliseconds to wait for data from
+   * the REST service.
+   */
+  private static final GuacamoleProperty<Integer> READ_TIMEOUT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-read-timeout";
+    }
+  };
+
+  /**
+   * Property that specifies the username to be used for Basic authentication.
+   */
+  private static final GuacamoleProperty<String> BASIC_USERNAME =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-basic-username";
+    }
+  };
+
+  /**
+   * Property that specifies the password to be used for Basic authentication.
+   */
+  private static final GuacamoleProperty<String> BASIC_PASSWORD =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-basic-password";
+    }
+  };
+
+  /**
+   * Property that specifies the username to be used for Digest authentication.
+   */
+  private static final GuacamoleProperty<String> DIGEST_USERNAME =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-digest-username";
+    }
+  };
+
+  /**
+   * Property that specifies the password to be used for Digest authentication.
+   */
+  private static final GuacamoleProperty<String> DIGEST_PASSWORD =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-digest-password";
+    }
+  };
+
+  /**
+   * Property that specifies whether concurrent requests to authorize the same
+   * subject should be coalesced.
+   */
+  private static final GuacamoleProperty<Boolean> COALESCING_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-coalescing-enabled";
+    }
+  };
+
+  /**
+   * Property that specifies the time in seconds for which a successful
+   * authorization result may be cached.
+   */
+  private static final GuacamoleProperty<Integer> CACHE_TTL =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-ttl";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of cached authorization
+   * results.
+   */
+  private static final GuacamoleProperty<Integer> CACHE_MAX_ENTRIES =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-max-entries";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum total weight of cached authorization
+   * results.
+   */
+  private static final GuacamoleProperty<Long> CACHE_MAX_WEIGHT =
+      new LongGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-max-weight";
+    }
+  };
+
+  /**
+   * Property that specifies a comma-separated list of the names of request
+   * headers that contribute to the cache key for an authorization result.
+   */
+  private static final GuacamoleProperty<String> CACHE_KEY_HEADERS =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-key-headers";
+    }
+  };
+
+  /**
+   * Property that specifies whether requests should be sent using a pool
+   * of persistent connections.
+   */
+  private static final GuacamoleProperty<Boolean> POOL_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-pool-enabled";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of pooled connections.
+   */
+  private static final GuacamoleProperty<Integer> POOL_MAX_TOTAL =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-pool-max-total";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of pooled connections to
+   * any single route.
+   */
+  private static final GuacamoleProperty<Integer> POOL_MAX_PER_ROUTE =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-pool-max-per-route";
+    }
+  };
+
+  /**
+   * Property that specifies the time in seconds after which an idle pooled
+   * connection is closed.
+   */
+  private static final GuacamoleProperty<Integer> POOL_IDLE_TIMEOUT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-pool-idle-timeout";
+    }
+  };
+
+  /**
+   * Property that specifies the time in milliseconds of inactivity after
+   * which a pooled connection is validated before reuse.
+   */
+  private static final GuacamoleProperty<Integer>
+      POOL_VALIDATE_AFTER_INACTIVITY = new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-pool-validate-after-inactivity";
+    }
+  };
+
+  /**
+   * Property that specifies the number of calls in the circuit breaker sliding
+   * window.
+   */
+  private static final GuacamoleProperty<Integer> BREAKER_WINDOW_SIZE =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-window-size";
+    }
+  };
+
+  /**
+   * Property that specifies the minimum number of calls before the circuit
+   * breaker evaluates failure and slow call rates.
+   */
+  private static final GuacamoleProperty<Integer> BREAKER_MINIMUM_CALLS =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-minimum-calls";
+    }
+  };
+
+  /**
+   * Property that specifies the percentage of failed calls at which the circuit
+   * breaker opens.
+   */
+  private static final GuacamoleProperty<Integer>
+      BREAKER_FAILURE_RATE_THRESHOLD = new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-failure-rate-threshold";
+    }
+  };
+
+  /**
+   * Property that specifies the percentage of slow calls at which the circuit
+   * breaker opens.
+   */
+  private static final GuacamoleProperty<Integer>
+      BREAKER_SLOW_CALL_RATE_THRESHOLD = new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-slow-call-rate-threshold";
+    }
+  };
+
+  /**
+   * Property that specifies the duration in milliseconds at or above which a
+   * call is considered slow.
+   */
+  private static final GuacamoleProperty<Integer> BREAKER_SLOW_CALL_DURATION =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-slow-call-duration";
+    }
+  };
+
+  /**
+   * Property that specifies the time in seconds for which the circuit breaker
+   * remains open before permitting probe calls.
+   */
+  private static final GuacamoleProperty<Integer> BREAKER_OPEN_DURATION =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-open-duration";
+    }
+  };
+
+  /**
+   * Property that specifies the number of probe calls permitted while the
+   * circuit breaker is half open.
+   */
+  private static final GuacamoleProperty<Integer> BREAKER_HALF_OPEN_CALLS =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-breaker-half-open-calls";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of concurrent requests to the
+   * REST service; zero disables the bulkhead.
+   */
+  private static final GuacamoleProperty<Integer> BULKHEAD_MAX_CONCURRENT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-max-concurrent";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of requests that may wait to be
+   * sent to the REST service.
+   */
+  private static final GuacamoleProperty<Integer> BULKHEAD_MAX_QUEUE =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-max-queue";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum number of requests from a single source
+   * network that may wait to be sent to the REST service.
+   */
+  private static final GuacamoleProperty<Integer>
+      BULKHEAD_MAX_QUEUE_PER_SOURCE = new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-max-queue-per-source";
+    }
+  };
+
+  /**
+   * Property that specifies the maximum time in milliseconds that a request may
+   * wait to be sent to the REST service.
+   */
+  private static final GuacamoleProperty<Integer> BULKHEAD_MAX_WAIT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-max-wait";
+    }
+  };
+
+  /**
+   * Property that specifies whether the maximum number of concurrent requests
+   * adapts to the observed latency of the REST service.
+   */
+  private static final GuacamoleProperty<Boolean> BULKHEAD_ADAPTIVE =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-adaptive";
+    }
+  };
+
+  /**
+   * Property that specifies the number of concurrent requests below which an
+   * adaptive limit does not fall.
+   */
+  private static final GuacamoleProperty<Integer> BULKHEAD_MIN_CONCURRENT =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-bulkhead-min-concurrent";
+    }
+  };
+
+  /**
+   * URL of the OAuth2 access token service, used when the realm of a Bearer
+   * challenge is not a URL.
+   */
+  private static final GuacamoleProperty<String> OAUTH2_SERVICE_URL =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-oauth2-service-url";
+    }
+  };
+
+  /**
+   * Scope requested with an OAuth2 access token.
+   */
+  private static final GuacamoleProperty<String> OAUTH2_SCOPE =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-oauth2-scope";
+    }
+  };
+
+  /**
+   * Time in seconds before an OAuth2 access token expires at which a
+   * replacement is requested.
+   */
+  private static final GuacamoleProperty<Integer> OAUTH2_REFRESH_AHEAD =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-oauth2-refresh-ahead";
+    }
+  };
+
+  /**
+   * Comma-separated list of the names of the request headers to send to the
+   * REST service.
+   */
+  private static final GuacamoleProperty<String> HEADER_ALLOW =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-header-allow";
+    }
+  };
+
+  /**
+   * Comma-separated list of the names of the request headers never to send to
+   * the REST service.
+   */
+  private static final GuacamoleProperty<String> HEADER_DENY =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-header-deny";
+    }
+  };
+
+  /**
+   * Flag that enables compression of entities exchanged with the REST service.
+   */
+  private static final GuacamoleProperty<Boolean> COMPRESSION_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-compression";
+    }
+  };
+
+  /**
+   * Preferred encoding of the entities exchanged with the REST service.
+   */
+  private static final GuacamoleProperty<String> WIRE_FORMAT =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-wire-format";
+    }
+  };
+
+  /**
+   * Flag indicating whether changes to guacamole.properties are applied without
+   * a restart.
+   */
+  private static final GuacamoleProperty<Boolean> CONFIG_RELOAD_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-config-reload";
+    }
+  };
+
+  /**
+   * Flag indicating whether metrics are exposed in the Prometheus text format.
+   */
+  private static final GuacamoleProperty<Boolean> METRICS_ENDPOINT_ENABLED =
+      new BooleanGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-metrics-endpoint";
+    }
+  };
+
+  /**
+   * Time in seconds after a cached result expires during which it may be served
+   * while it is refreshed in the background.
+   */
+  private static final GuacamoleProperty<Integer> CACHE_STALE_WHILE_REVALIDATE =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-stale-while-revalidate";
+    }
+  };
+
+  /**
+   * Time in seconds after a cached result expires during which it may be served
+   * if the REST service fails to refresh it.
+   */
+  private static final GuacamoleProperty<Integer> CACHE_STALE_IF_ERROR =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-stale-if-error";
+    }
+  };
+
+  /**
+   * Time in seconds for which a result that denies authorization may be cached.
+   */
+  private static final GuacamoleProperty<Integer> CACHE_NEGATIVE_TTL =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-cache-negative-ttl";
+    }
+  };
+
+  /**
+   * Number of authorization requests per minute allowed for each username.
+   */
+  private static final GuacamoleProperty<Integer> RATE_LIMIT_USER =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-rate-limit-user";
+    }
+  };
+
+  /**
+   * Number of authorization requests that may be made at once for each
+   * username.
+   */
+  private static final GuacamoleProperty<Integer> RATE_LIMIT_USER_BURST =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-rate-limit-user-burst";
+    }
+  };
+
+  /**
+   * Number of authorization requests per minute allowed for each remote
+   * address.
+   */
+  private static final GuacamoleProperty<Integer> RATE_LIMIT_ADDRESS =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-rate-limit-address";
+    }
+  };
+
+  /**
+   * Number of authorization requests that may be made at once for each remote
+   * address.
+   */
+  private static final GuacamoleProperty<Integer> RATE_LIMIT_ADDRESS_BURST =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-rate-limit-address-burst";
+    }
+  };
+
+  /**
+   * Maximum number of usernames, and of remote addresses, whose rate limits are
+   * tracked.
+   */
+  private static final GuacamoleProperty<Integer> RATE_LIMIT_MAX_KEYS =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-rate-limit-max-keys";
+    }
+  };
+
+  /**
+   * Path of the connection parameters resource, relative to each service URL;
+   * when set, the parameters of a connection are requested when the connection
+   * is opened.
+   */
+  private static final GuacamoleProperty<String> PARAMETERS_URI =
+      new StringGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-parameters-uri";
+    }
+  };
+
+  /**
+   * Time in seconds for which the parameters of a connection may be reused.
+   */
+  private static final GuacamoleProperty<Integer> PARAMETERS_CACHE_TTL =
+      new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-parameters-cache-ttl";
+    }
+  };
+
+  /**
+   * Size in bytes of the smallest request entity that is compressed.
+   */
+  private static final GuacamoleProperty<Integer>
+      COMPRESSION_REQUEST_THRESHOLD = new IntegerGuacamoleProperty() {
+    @Override
+    public String getName() {
+      return "auth-rest-compression-request-threshold";
+    }
+  };
+
+  /**
+   * The delegate Guacamole environment.
+   */
+  private final Environment delegate;
+
+  /**
+   * Constructs an instance that delegates to a new {@link LocalEnvironment}
+   * instance.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in constructing the delegate environment.
+   */
+  RestEnvironment() throws GuacamoleException {
+    this(new LocalEnvironment());
+  }
+
+  /**
+   * Constructs an instance that delegates to the specified environment.
+   *
+   * @param delegate
+   *    The delegate environment.
+   */
+  private RestEnvironment(Environment delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Gets the auth service URLs from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    List of service URLs.
+   *
+   * @throws GuacamoleException
+   *    If no service URL is set or if some other error occurs in retrieving
+   *    the property value from the delegate environment.
+   */
+  @Override
+  public List<String> getServiceUrls() throws GuacamoleException {
+    final List<String> urls =
+        splitList(delegate.getRequiredProperty(SERVICE_URL));
+    if (urls.isEmpty()) {
+      throw new GuacamoleServerException("property "
+          + SERVICE_URL.getName() + " contains no URLs");
+    }
+    return urls;
+  }
+
+  /**
+   * Gets the authorization URI from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    The authorization URI or {@link #DEFAULT_AUTHORIZATION_URI} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public String getAuthorizationUri() throws GuacamoleException {
+    return delegate.getProperty(AUTHORIZATION_URI, DEFAULT_AUTHORIZATION_URI);
+  }
+
+  /**
+   * Gets the transport name from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Transport name or {@link #DEFAULT_TRANSPORT} if the property has no
+   *    value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If the property value names an unsupported transport, or if thrown
+   *    by the delegate environment.
+   */
+  @Override
+  public String getTransport() throws GuacamoleException {
+    final String transport =
+        delegate.getProperty(TRANSPORT, DEFAULT_TRANSPORT).trim();
+    if (!transport.equals("jersey") && !transport.equals("jdk")) {
+      throw new GuacamoleServerException("property " + TRANSPORT.getName()
+          + " must be 'jersey' or 'jdk'");
+    }
+    return transport;
+  }
+
+  /**
+   * Gets the virtual threads flag from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Flag state or {@code true} if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isVirtualThreadsEnabled() throws GuacamoleException {
+    return delegate.getProperty(VIRTUAL_THREADS, true);
+  }
+
+  /**
+   * Gets the number of consecutive failures after which an endpoint is
+   * ejected from the corresponding property in the delegate environment.
+   *
+   * @return
+   *    Number of failures or {@link #DEFAULT_EJECT_FAILURES} if the property
+   *    has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getEjectFailures() throws GuacamoleException {
+    return delegate.getProperty(EJECT_FAILURES, DEFAULT_EJECT_FAILURES);
+  }
+
+  /**
+   * Gets the endpoint ejection time from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Ejection time in seconds or {@link #DEFAULT_EJECT_DURATION} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getEjectDuration() throws GuacamoleException {
+    return delegate.getProperty(EJECT_DURATION, DEFAULT_EJECT_DURATION);
+  }
+
+  /**
+   * Gets the endpoint slow start time from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Slow start time in seconds or {@link #DEFAULT_SLOW_START} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getSlowStart() throws GuacamoleException {
+    return delegate.getProperty(SLOW_START, DEFAULT_SLOW_START);
+  }
+
+  /**
+   * Gets the hedging flag from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Flag state, or {@code false} if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isHedgeEnabled() throws GuacamoleException {
+    return delegate.getProperty(HEDGE_ENABLED, false);
+  }
+
+  /**
+   * Gets the hedge delay from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Delay in milliseconds, or zero (use the 95th percentile latency) if
+   *    the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getHedgeDelay() throws GuacamoleException {
+    return delegate.getProperty(HEDGE_DELAY, 0);
+  }
+
+  /**
+   * Gets the hedge budget from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Percentage of requests or {@link #DEFAULT_HEDGE_BUDGET} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getHedgeBudget() throws GuacamoleException {
+    return delegate.getProperty(HEDGE_BUDGET, DEFAULT_HEDGE_BUDGET);
+  }
+
+  /**
+   * Gets the request chunking flag from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Flag state, or {@code true} if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isRequestChunkingEnabled() throws GuacamoleException {
+    return delegate.getProperty(REQUEST_CHUNKING, true);
+  }
+
+  /**
+   * Gets the deadline budget from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Budget in milliseconds or {@link #DEFAULT_DEADLINE} if the property
+   *    has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getDeadline() throws GuacamoleException {
+    return delegate.getProperty(DEADLINE, DEFAULT_DEADLINE);
+  }
+
+  /**
+   * Gets the connect timeout from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Timeout in milliseconds, or zero (bounded only by the deadline) if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getConnectTimeout() throws GuacamoleException {
+    return delegate.getProperty(CONNECT_TIMEOUT, 0);
+  }
+
+  /**
+   * Gets the TLS handshake timeout from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Timeout in milliseconds, or zero (bounded only by the deadline) if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getTlsTimeout() throws GuacamoleException {
+    return delegate.getProperty(TLS_TIMEOUT, 0);
+  }
+
+  /**
+   * Gets the read timeout from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Timeout in milliseconds, or zero (bounded only by the deadline) if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getReadTimeout() throws GuacamoleException {
+    return delegate.getProperty(READ_TIMEOUT, 0);
+  }
+
+  /**
+   * Gets a flag indicating whether Basic authentication is configured.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state from the delegate
+   *    environment.
+   */
+  @Override
+  public boolean isBasicConfigured() throws GuacamoleException {
+    return delegate.getProperty(BASIC_USERNAME) != null;
+  }
+
+  /**
+   * Gets the username to present in response to an authentication challenge
+   * specifying Basic authentication.
+   *
+   * @return
+   *    The username.
+   *
+   * @throws GuacamoleException
+   *    If no username is configured or if an error occurs in retrieving it
+   *    from the delegate environment.
+   */
+  @Override
+  public String getBasicUsername() throws GuacamoleException {
+    return delegate.getRequiredProperty(BASIC_USERNAME);
+  }
+
+  /**
+   * Gets the password to present in response to an authentication challenge
+   * specifying Basic authentication.
+   *
+   * @return
+   *    The password.
+   *
+   * @throws GuacamoleException
+   *    If no password is configured or if an error occurs in retrieving it
+   *    from the delegate environment.
+   */
+  @Override
+  public String getBasicPassword() throws GuacamoleException {
+    return delegate.getRequiredProperty(BASIC_PASSWORD);
+  }
+
+  /**
+   * Gets a flag indicating whether Digest authentication is configured.
+   *
+   * @return
+   *    Flag state.
+   *
+   * @throws GuacamoleException
+   *    If an error occurs in determining the flag state from the delegate
+   *    environment.
+   */
+  @Override
+  public boolean isDigestConfigured() throws GuacamoleException {
+    return delegate.getProperty(DIGEST_USERNAME) != null;
+  }
+
+  /**
+   * Gets the username to present in response to an authentication challenge
+   * specifying Digest authentication.
+   *
+   * @return
+   *    The username.
+   *
+   * @throws GuacamoleException
+   *    If no username is configured or if an error occurs in retrieving it
+   *    from the delegate environment.
+   */
+  @Override
+  public String getDigestUsername() throws GuacamoleException {
+    return delegate.getRequiredProperty(DIGEST_USERNAME);
+  }
+
+  /**
+   * Gets the password to use in generating the response to an authentication
+   * challenge specifying Digest authentication.
+   *
+   * @return
+   *    The password.
+   *
+   * @throws GuacamoleException
+   *    If no password is configured or if an error occurs in retrieving it
+   *    from the delegate environment.
+   */
+  @Override
+  public String getDigestPassword() throws GuacamoleException {
+    return delegate.getRequiredProperty(DIGEST_PASSWORD);
+  }
+
+  /**
+   * Gets the request coalescing flag from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Flag state, or {@code true} if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isCoalescingEnabled() throws GuacamoleException {
+    return delegate.getProperty(COALESCING_ENABLED, true);
+  }
+
+  /**
+   * Gets the cache time to live from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Time to live in seconds, or zero (caching disabled) if the property
+   *    has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getCacheTtl() throws GuacamoleException {
+    return delegate.getProperty(CACHE_TTL, 0);
+  }
+
+  /**
+   * Gets the maximum number of cache entries from the corresponding property
+   * in the delegate environment.
+   *
+   * @return
+   *    Maximum number of entries or {@link #DEFAULT_CACHE_MAX_ENTRIES} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getCacheMaxEntries() throws GuacamoleException {
+    return delegate.getProperty(CACHE_MAX_ENTRIES, DEFAULT_CACHE_MAX_ENTRIES);
+  }
+
+  /**
+   * Gets the maximum total weight of cache entries from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    Maximum weight, or zero (no weight bound) if the property has no value
+   *    in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public long getCacheMaxWeight() throws GuacamoleException {
+    return delegate.getProperty(CACHE_MAX_WEIGHT, 0L);
+  }
+
+  /**
+   * Gets the names of the headers that contribute to a cache key from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    List of header names; empty if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public List<String> getCacheKeyHeaders() throws GuacamoleException {
+    return splitList(delegate.getProperty(CACHE_KEY_HEADERS));
+  }
+
+  /**
+   * Gets the connection pool flag from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Flag state, or {@code false} if the property has no value in the
+   *    delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isPoolEnabled() throws GuacamoleException {
+    return delegate.getProperty(POOL_ENABLED, false);
+  }
+
+  /**
+   * Gets the maximum number of pooled connections from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    Maximum number of connections or {@link #DEFAULT_POOL_MAX_TOTAL} if
+   *    the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getPoolMaxTotal() throws GuacamoleException {
+    return delegate.getProperty(POOL_MAX_TOTAL, DEFAULT_POOL_MAX_TOTAL);
+  }
+
+  /**
+   * Gets the maximum number of pooled connections per route from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    Maximum number of connections or {@link #DEFAULT_POOL_MAX_PER_ROUTE}
+   *    if the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getPoolMaxPerRoute() throws GuacamoleException {
+    return delegate.getProperty(POOL_MAX_PER_ROUTE,
+        DEFAULT_POOL_MAX_PER_ROUTE);
+  }
+
+  /**
+   * Gets the pooled connection idle timeout from the corresponding property
+   * in the delegate environment.
+   *
+   * @return
+   *    Idle timeout in seconds or {@link #DEFAULT_POOL_IDLE_TIMEOUT} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getPoolIdleTimeout() throws GuacamoleException {
+    return delegate.getProperty(POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Gets the pooled connection validation period from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    Inactivity period in milliseconds or
+   *    {@link #DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY} if the property has
+   *    no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getPoolValidateAfterInactivity() throws GuacamoleException {
+    return delegate.getProperty(POOL_VALIDATE_AFTER_INACTIVITY,
+        DEFAULT_POOL_VALIDATE_AFTER_INACTIVITY);
+  }
+
+  /**
+   * Gets the window size for the circuit breaker from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_WINDOW_SIZE} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerWindowSize() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_WINDOW_SIZE,
+        DEFAULT_BREAKER_WINDOW_SIZE);
+  }
+
+  /**
+   * Gets the minimum calls for the circuit breaker from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_MINIMUM_CALLS} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerMinimumCalls() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_MINIMUM_CALLS,
+        DEFAULT_BREAKER_MINIMUM_CALLS);
+  }
+
+  /**
+   * Gets the failure rate threshold for the circuit breaker from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD} if
+   *    the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerFailureRateThreshold() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_FAILURE_RATE_THRESHOLD,
+        DEFAULT_BREAKER_FAILURE_RATE_THRESHOLD);
+  }
+
+  /**
+   * Gets the slow call rate threshold for the circuit breaker from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD}
+   *    if the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerSlowCallRateThreshold() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_SLOW_CALL_RATE_THRESHOLD,
+        DEFAULT_BREAKER_SLOW_CALL_RATE_THRESHOLD);
+  }
+
+  /**
+   * Gets the slow call duration for the circuit breaker from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_SLOW_CALL_DURATION} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerSlowCallDuration() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_SLOW_CALL_DURATION,
+        DEFAULT_BREAKER_SLOW_CALL_DURATION);
+  }
+
+  /**
+   * Gets the open duration for the circuit breaker from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_OPEN_DURATION} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerOpenDuration() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_OPEN_DURATION,
+        DEFAULT_BREAKER_OPEN_DURATION);
+  }
+
+  /**
+   * Gets the half open calls for the circuit breaker from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BREAKER_HALF_OPEN_CALLS} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBreakerHalfOpenCalls() throws GuacamoleException {
+    return delegate.getProperty(BREAKER_HALF_OPEN_CALLS,
+        DEFAULT_BREAKER_HALF_OPEN_CALLS);
+  }
+
+  /**
+   * Gets the maximum number of concurrent requests from the corresponding
+   * property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BULKHEAD_MAX_CONCURRENT} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBulkheadMaxConcurrent() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_MAX_CONCURRENT,
+        DEFAULT_BULKHEAD_MAX_CONCURRENT);
+  }
+
+  /**
+   * Gets the maximum number of waiting requests from the corresponding property
+   * in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BULKHEAD_MAX_QUEUE} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBulkheadMaxQueue() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_MAX_QUEUE, DEFAULT_BULKHEAD_MAX_QUEUE);
+  }
+
+  /**
+   * Gets the maximum number of waiting requests from a source network from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BULKHEAD_MAX_QUEUE_PER_SOURCE} if
+   *    the property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBulkheadMaxQueuePerSource() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_MAX_QUEUE_PER_SOURCE,
+        DEFAULT_BULKHEAD_MAX_QUEUE_PER_SOURCE);
+  }
+
+  /**
+   * Gets the maximum wait for a request from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BULKHEAD_MAX_WAIT} if the property
+   *    has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getBulkheadMaxWait() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_MAX_WAIT, DEFAULT_BULKHEAD_MAX_WAIT);
+  }
 
   /**
-   * Default value for the {@link #AUTHORIZATION_URI} property.
+   * Gets the adaptive bulkhead flag from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Flag state or {@code false} if the property has no value in the delegate
+   *    environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final String DEFAULT_AUTHORIZATION_URI = "/authorization";
+  @Override
+  public boolean isBulkheadAdaptive() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_ADAPTIVE, false);
+  }
 
   /**
-   * Property that specifies the absolute URL for the REST service used to
-   * authorize subject users.
+   * Gets the minimum adaptive limit from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    The property value or {@link #DEFAULT_BULKHEAD_MIN_CONCURRENT} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> SERVICE_URL =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-service-url";
-    }
-  };
+  @Override
+  public int getBulkheadMinConcurrent() throws GuacamoleException {
+    return delegate.getProperty(BULKHEAD_MIN_CONCURRENT,
+        DEFAULT_BULKHEAD_MIN_CONCURRENT);
+  }
 
   /**
-   * Property that specifies the URI path for the authorization resource
-   * exposed by the REST service.
+   * Gets the URL of the OAuth2 access token service.
+   *
+   * @return
+   *    Service URL or {@code null} if not configured.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> AUTHORIZATION_URI =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-authorization-uri";
-    }
-  };
+  @Override
+  public String getOAuth2ServiceUrl() throws GuacamoleException {
+    return delegate.getProperty(OAUTH2_SERVICE_URL);
+  }
 
   /**
-   * Property that specifies the username to be used for Basic authentication.
+   * Gets the scope requested with an OAuth2 access token.
+   *
+   * @return
+   *    Scope or {@code null} if not configured.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> BASIC_USERNAME =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-basic-username";
-    }
-  };
+  @Override
+  public String getOAuth2Scope() throws GuacamoleException {
+    return delegate.getProperty(OAUTH2_SCOPE);
+  }
 
   /**
-   * Property that specifies the password to be used for Basic authentication.
+   * Gets the time before an OAuth2 access token expires at which a replacement
+   * is requested.
+   *
+   * @return
+   *    Time in seconds.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> BASIC_PASSWORD =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-basic-password";
-    }
-  };
+  @Override
+  public int getOAuth2RefreshAhead() throws GuacamoleException {
+    return delegate.getProperty(OAUTH2_REFRESH_AHEAD,
+        DEFAULT_OAUTH2_REFRESH_AHEAD);
+  }
 
   /**
-   * Property that specifies the username to be used for Digest authentication.
+   * Gets the names of the request headers to send to the REST service from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    List of header names; empty if the property has no value in the delegate
+   *    environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> DIGEST_USERNAME =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-digest-username";
-    }
-  };
+  @Override
+  public List<String> getHeaderAllow() throws GuacamoleException {
+    return splitList(delegate.getProperty(HEADER_ALLOW));
+  }
 
   /**
-   * Property that specifies the password to be used for Digest authentication.
+   * Gets the names of the request headers never to send to the REST service
+   * from the corresponding property in the delegate environment.
+   *
+   * @return
+   *    List of header names; empty if the property has no value in the delegate
+   *    environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private static final GuacamoleProperty<String> DIGEST_PASSWORD =
-      new StringGuacamoleProperty() {
-    @Override
-    public String getName() {
-      return "auth-rest-digest-password";
+  @Override
+  public List<String> getHeaderDeny() throws GuacamoleException {
+    return splitList(delegate.getProperty(HEADER_DENY));
+  }
+
+  /**
+   * Gets the compression flag from the corresponding property in the delegate
+   * environment.
+   *
+   * @return
+   *    Flag state, or {@link #DEFAULT_COMPRESSION_ENABLED} if the property has
+   *    no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public boolean isCompressionEnabled() throws GuacamoleException {
+    return delegate.getProperty(COMPRESSION_ENABLED,
+        DEFAULT_COMPRESSION_ENABLED);
+  }
+
+  /**
+   * Gets the size of the smallest request entity that is compressed from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    Size in bytes, or {@link #DEFAULT_COMPRESSION_REQUEST_THRESHOLD} if the
+   *    property has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getCompressionRequestThreshold() throws GuacamoleException {
+    return delegate.getProperty(COMPRESSION_REQUEST_THRESHOLD,
+        DEFAULT_COMPRESSION_REQUEST_THRESHOLD);
+  }
+
+  /**
+   * Gets the preferred wire format from the corresponding property in the
+   * delegate environment.
+   *
+   * @return
+   *    Wire format name or {@link #DEFAULT_WIRE_FORMAT} if the property has no
+   *    value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If the property value names an unsupported format, or if thrown by
+   *    the delegate environment.
+   */
+  @Override
+  public String getWireFormat() throws GuacamoleException {
+    final String format =
+        delegate.getProperty(WIRE_FORMAT, DEFAULT_WIRE_FORMAT).trim();
+    if (!format.equals("json") && !format.equals("smile")) {
+      throw new GuacamoleServerException("property " + WIRE_FORMAT.getName()
+          + " must be 'json' or 'smile'");
     }
-  };
+    return format;
+  }
 
   /**
-   * The delegate Guacamole environment.
+   * Gets the flag indicating whether the configuration is reloaded when it
+   * changes from the corresponding property in the delegate environment.
+   *
+   * @return
+   *    Flag state or {@link #DEFAULT_CONFIG_RELOAD_ENABLED} if the property has
+   *    no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private final Environment delegate;
+  @Override
+  public boolean isConfigReloadEnabled() throws GuacamoleException {
+    return delegate.getProperty(CONFIG_RELOAD_ENABLED,
+        DEFAULT_CONFIG_RELOAD_ENABLED);
+  }
 
   /**
-   * Constructs an instance that delegates to a new {@link LocalEnvironment}
-   * instance.
+   * Gets the Guacamole home directory of the delegate environment.
+   *
+   * @return
+   *    Directory that contains {@code guacamole.properties}.
+   */
+  File getGuacamoleHome() {
+    return delegate.getGuacamoleHome();
+  }
+
+  /**
+   * Gets the flag indicating whether the metrics endpoint is enabled from the
+   * corresponding property in the delegate environment.
+   *
+   * @return
+   *    Flag state or {@link #DEFAULT_METRICS_ENDPOINT_ENABLED} if the property
+   *    has no value in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If an error occurs in constructing the delegate environment.
+   *    If thrown by the delegate environment.
    */
-  RestEnvironment() throws GuacamoleException {
-    this(new LocalEnvironment());
+  @Override
+  public boolean isMetricsEndpointEnabled() throws GuacamoleException {
+    return delegate.getProperty(METRICS_ENDPOINT_ENABLED,
+        DEFAULT_METRICS_ENDPOINT_ENABLED);
   }
 
   /**
-   * Constructs an instance that delegates to the specified environment.
+   * Gets the stale-while-revalidate interval from the corresponding property in
+   * the delegate environment.
    *
-   * @param delegate
-   *    The delegate environment.
+   * @return
+   *    Interval in seconds or 0 if the property has no value in the delegate
+   *    environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
    */
-  private RestEnvironment(Environment delegate) {
-    this.delegate = delegate;
+  @Override
+  public int getCacheStaleWhileRevalidate() throws GuacamoleException {
+    return delegate.getProperty(CACHE_STALE_WHILE_REVALIDATE, 0);
   }
 
   /**
-   * Gets the auth service URL from the corresponding property in the delegate
-   * environment.
+   * Gets the stale-if-error interval from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    The service URL.
+   *    Interval in seconds or 0 if the property has no value in the delegate
+   *    environment.
    *
    * @throws GuacamoleException
-   *    If no service URL is set or if some other error occurs in retrieving
-   *    the property value from the delegate environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public String getServiceUrl() throws GuacamoleException {
-    return delegate.getRequiredProperty(SERVICE_URL);
+  public int getCacheStaleIfError() throws GuacamoleException {
+    return delegate.getProperty(CACHE_STALE_IF_ERROR, 0);
   }
 
   /**
-   * Gets the authorization URI from the corresponding property in the delegate
-   * environment.
+   * Gets the negative cache time to live from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    The authorization URI or {@link #DEFAULT_AUTHORIZATION_URI} if the
+   *    Time to live in seconds, or zero (negative caching disabled) if the
    *    property has no value in the delegate environment.
    *
    * @throws GuacamoleException
    *    If thrown by the delegate environment.
    */
   @Override
-  public String getAuthorizationUri() throws GuacamoleException {
-    return delegate.getProperty(AUTHORIZATION_URI, DEFAULT_AUTHORIZATION_URI);
+  public int getCacheNegativeTtl() throws GuacamoleException {
+    return delegate.getProperty(CACHE_NEGATIVE_TTL, 0);
   }
 
   /**
-   * Gets a flag indicating whether Basic authentication is configured.
+   * Gets the per-user rate limit from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    Flag state.
+   *    Requests per minute, or zero (not limited) if the property has no value
+   *    in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If an error occurs in determining the flag state from the delegate
-   *    environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public boolean isBasicConfigured() throws GuacamoleException {
-    return delegate.getProperty(BASIC_USERNAME) != null;
+  public int getRateLimitUser() throws GuacamoleException {
+    return delegate.getProperty(RATE_LIMIT_USER, 0);
   }
 
   /**
-   * Gets the username to present in response to an authentication challenge
-   * specifying Basic authentication.
+   * Gets the per-user burst size from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    The username.
+   *    Burst size, or zero (the per-minute limit) if the property has no value
+   *    in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If no username is configured or if an error occurs in retrieving it
-   *    from the delegate environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public String getBasicUsername() throws GuacamoleException {
-    return delegate.getRequiredProperty(BASIC_USERNAME);
+  public int getRateLimitUserBurst() throws GuacamoleException {
+    return delegate.getProperty(RATE_LIMIT_USER_BURST, 0);
   }
 
   /**
-   * Gets the password to present in response to an authentication challenge
-   * specifying Basic authentication.
+   * Gets the per-address rate limit from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    The password.
+   *    Requests per minute, or zero (not limited) if the property has no value
+   *    in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If no password is configured or if an error occurs in retrieving it
-   *    from the delegate environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public String getBasicPassword() throws GuacamoleException {
-    return delegate.getRequiredProperty(BASIC_PASSWORD);
+  public int getRateLimitAddress() throws GuacamoleException {
+    return delegate.getProperty(RATE_LIMIT_ADDRESS, 0);
   }
 
   /**
-   * Gets a flag indicating whether Digest authentication is configured.
+   * Gets the per-address burst size from the corresponding property in the
+   * delegate environment.
    *
    * @return
-   *    Flag state.
+   *    Burst size, or zero (the per-minute limit) if the property has no value
+   *    in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If an error occurs in determining the flag state from the delegate
-   *    environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public boolean isDigestConfigured() throws GuacamoleException {
-    return delegate.getProperty(DIGEST_USERNAME) != null;
+  public int getRateLimitAddressBurst() throws GuacamoleException {
+    return delegate.getProperty(RATE_LIMIT_ADDRESS_BURST, 0);
   }
 
   /**
-   * Gets the username to present in response to an authentication challenge
-   * specifying Digest authentication.
+   * Gets the maximum number of rate limited keys from the corresponding
+   * property in the delegate environment.
    *
    * @return
-   *    The username.
+   *    Key count or {@link #DEFAULT_RATE_LIMIT_MAX_KEYS} if the property has no
+   *    value in the delegate environment.
    *
    * @throws GuacamoleException
-   *    If no username is configured or if an error occurs in retrieving it
-   *    from the delegate environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public String getDigestUsername() throws GuacamoleException {
-    return delegate.getRequiredProperty(DIGEST_USERNAME);
+  public int getRateLimitMaxKeys() throws GuacamoleException {
+    return delegate.getProperty(RATE_LIMIT_MAX_KEYS,
+        DEFAULT_RATE_LIMIT_MAX_KEYS);
   }
 
   /**
-   * Gets the password to use in generating the response to an authentication
-   * challenge specifying Digest authentication.
+   * Gets the connection parameters resource path from the corresponding
+   * property in the delegate environment.
    *
    * @return
-   *    The password.
+   *    Resource path or {@code null} if the property has no value in the
+   *    delegate environment.
    *
    * @throws GuacamoleException
-   *    If no password is configured or if an error occurs in retrieving it
-   *    from the delegate environment.
+   *    If thrown by the delegate environment.
    */
   @Override
-  public String getDigestPassword() throws GuacamoleException {
-    return delegate.getRequiredProperty(DIGEST_PASSWORD);
+  public String getParametersUri() throws GuacamoleException {
+    return delegate.getProperty(PARAMETERS_URI);
+  }
+
+  /**
+   * Gets the connection parameters cache TTL from the corresponding property in
+   * the delegate environment.
+   *
+   * @return
+   *    TTL in seconds or {@link #DEFAULT_PARAMETERS_CACHE_TTL} if the property
+   *    has no value in the delegate environment.
+   *
+   * @throws GuacamoleException
+   *    If thrown by the delegate environment.
+   */
+  @Override
+  public int getParametersCacheTtl() throws GuacamoleException {
+    return delegate.getProperty(PARAMETERS_CACHE_TTL,
+        DEFAULT_PARAMETERS_CACHE_TTL);
+  }
+
+  /**
+   * Splits a property value containing a list of comma- and/or
+   * whitespace-separated elements.
+   *
+   * @param value
+   *    The property value to split; may be {@code null}.
+   *
+   * @return
+   *    List of the non-empty elements of {@code value}.
+   */
+  static List<String> splitList(String value) {
+    if (value == null) return Collections.emptyList();
+    final List<String> elements = new ArrayList<String>();
+    for (final String element : value.split("[,\\s]+")) {
+      if (!element.isEmpty()) {
+        elements.add(element);
+      }
+    }
+    return elements;
   }
 
 }
@@ -0,0 +1,125 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.net.auth.AbstractUserContext;
+import org.apache.guacamole.net.auth.AuthenticationProvider;
+import org.apache.guacamole.net.auth.Connection;
+import org.apache.guacamole.net.auth.Directory;
+import org.apache.guacamole.net.auth.User;
+import org.apache.guacamole.net.auth.permission.ObjectPermissionSet;
+import org.apache.guacamole.net.auth.simple.SimpleDirectory;
+import org.apache.guacamole.net.auth.simple.SimpleObjectPermissionSet;
+import org.apache.guacamole.net.auth.simple.SimpleUser;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+
+/**
+ * A user context whose connections request their parameters when they are
+ * opened.
+ * <p>
+ * Like the context of a {@code SimpleAuthenticationProvider}, this context
+ * exposes a read-only directory of the authorized connections, all of them
+ * children of the root connection group. Each connection is a
+ * {@link LazyConnection}, so the authorization result at login need include
+ * only the name and protocol of each connection.
+ */
+class RestUserContext extends AbstractUserContext {
+
+  private final AuthenticationProvider authProvider;
+  private final String username;
+  private final Directory<Connection> connectionDirectory;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param authProvider
+   *    The provider that created the context.
+   *
+   * @param username
+   *    Identifier of the user.
+   *
+   * @param subject
+   *    The subject that was authorized.
+   *
+   * @param configurations
+   *    Configurations authorized for the subject, keyed by connection name.
+   *
+   * @param parameters
+   *    Source of the connection parameters.
+   */
+  RestUserContext(AuthenticationProvider authProvider, String username,
+      AuthSubject subject, Map<String, GuacamoleConfiguration> configurations,
+      ConnectionParameterCache parameters) {
+    final Map<String, Connection> connections =
+        new HashMap<>(configurations.size());
+    for (final Map.Entry<String, GuacamoleConfiguration> entry :
+        configurations.entrySet()) {
+      final Connection connection = new LazyConnection(entry.getKey(),
+          entry.getValue(), subject, parameters);
+      connection.setParentIdentifier(DEFAULT_ROOT_CONNECTION_GROUP);
+      connections.put(entry.getKey(), connection);
+    }
+    this.authProvider = authProvider;
+    this.username = username;
+    this.connectionDirectory = new SimpleDirectory<>(connections);
+  }
+
+  /**
+   * Gets the user of this context, who may read each connection in the
+   * connection directory and the root connection group.
+   *
+   * @return
+   *    The user.
+   */
+  @Override
+  public User self() {
+    return new SimpleUser(username) {
+
+      @Override
+      public ObjectPermissionSet getConnectionPermissions()
+          throws GuacamoleException {
+        return new SimpleObjectPermissionSet(
+            getConnectionDirectory().getIdentifiers());
+      }
+
+      @Override
+      public ObjectPermissionSet getConnectionGroupPermissions()
+          throws GuacamoleException {
+        return new SimpleObjectPermissionSet(
+            getConnectionGroupDirectory().getIdentifiers());
+      }
+
+    };
+  }
+
+  @Override
+  public AuthenticationProvider getAuthenticationProvider() {
+    return authProvider;
+  }
+
+  @Override
+  public Directory<Connection> getConnectionDirectory() {
+    return connectionDirectory;
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * A key that identifies an {@link AuthSubject} by a keyed digest of its
+ * credentials.
+ * <p>
+ * A subject key never contains the subject's password (or any other
+ * credential) in plaintext, so it may safely be retained as a map key.
+ */
+final class SubjectKey {
+
+  /** Digest of the subject's identifying properties. */
+  private final byte[] digest;
+
+  /** Hash code derived from {@link #digest}. */
+  private final int hashCode;
+
+  /**
+   * Constructs a new key.
+   *
+   * @param digest
+   *    Digest of the subject's identifying properties; the caller must not
+   *    subsequently modify the array.
+   */
+  SubjectKey(byte[] digest) {
+    this.digest = digest;
+    this.hashCode = Arrays.hashCode(digest);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * Compares this key to another object. Digests are compared in constant
+   * time.
+   *
+   * @param obj
+   *    The object to compare.
+   *
+   * @return
+   *    {@code true} if {@code obj} is a key with the same digest.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (!(obj instanceof SubjectKey)) return false;
+    return MessageDigest.isEqual(digest, ((SubjectKey) obj).digest);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SubjectKey[%08x]", hashCode);
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleServerException;
+
+/**
+ * A factory that produces {@link SubjectKey} instances.
+ * <p>
+ * A key is an HMAC of the subject's username, password, connection name,
+ * and a selected set of request headers. The HMAC secret is generated
+ * randomly when the factory is constructed and is never disclosed, so a key
+ * cannot be used to recover or to test guesses of the password from which
+ * it was computed.
+ */
+class SubjectKeyFactory {
+
+  /** Name of the MAC algorithm used to compute keys. */
+  private static final String ALGORITHM = "HmacSHA256";
+
+  /** Length of the randomly generated secret in bytes. */
+  private static final int SECRET_LENGTH = 32;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /** Secret used to compute keys. */
+  private final SecretKeySpec secret;
+
+  /** Names of the headers that contribute to a key. */
+  private final List<String> headerNames;
+
+  /**
+   * Constructs a new factory.
+   *
+   * @param headerNames
+   *    Names of the request headers whose values should contribute to
+   *    each key; header names are matched without regard to case.
+   */
+  SubjectKeyFactory(List<String> headerNames) {
+    final byte[] bytes = new byte[SECRET_LENGTH];
+    new SecureRandom().nextBytes(bytes);
+    this.secret = new SecretKeySpec(bytes, ALGORITHM);
+    this.headerNames = headerNames != null ?
+        Collections.unmodifiableList(new ArrayList<String>(headerNames)) :
+        Collections.<String>emptyList();
+  }
+
+  /**
+   * Creates a key for the given subject.
+   *
+   * @param subject
+   *    The subject.
+   *
+   * @return
+   *    Subject key.
+   *
+   * @throws GuacamoleException
+   *    If the MAC algorithm is unavailable.
+   */
+  SubjectKey newKey(AuthSubject subject) throws GuacamoleException {
+    try {
+      final Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(secret);
+      update(mac, subject.getUsername());
+      update(mac, subject.getPassword());
+      update(mac, subject.getConnectionName());
+      if (!headerNames.isEmpty()) {
+        final Map<String, List<String>> headers = subject.getHeaders();
+        for (final String name : headerNames) {
+          final List<String> values = findHeader(headers, name);
+          update(mac, values.size());
+          for (final String value : values) {
+            update(mac, value);
+          }
+        }
+      }
+      return new SubjectKey(mac.doFinal());
+    }
+    catch (GeneralSecurityException ex) {
+      throw new GuacamoleServerException("cannot compute subject key", ex);
+    }
+  }
+
+  /**
+   * Adds a length-prefixed string to the MAC input, so that no two distinct
+   * sequences of strings produce the same input.
+   *
+   * @param mac
+   *    The MAC to update.
+   *
+   * @param s
+   *    The string to add; may be {@code null}.
+   */
+  private static void update(Mac mac, String s) {
+    if (s == null) {
+      mac.update((byte) 0);
+      return;
+    }
+    final byte[] bytes = s.getBytes(UTF_8);
+    mac.update((byte) 1);
+    update(mac, bytes.length);
+    mac.update(bytes);
+  }
+
+  /**
+   * Adds a count or length to the MAC input as four bytes.
+   *
+   * @param mac
+   *    The MAC to update.
+   *
+   * @param n
+   *    The value to add.
+   */
+  private static void update(Mac mac, int n) {
+    mac.update((byte) (n >>> 24));
+    mac.update((byte) (n >>> 16));
+    mac.update((byte) (n >>> 8));
+    mac.update((byte) n);
+  }
+
+  /**
+   * Finds the values of a header, matching its name without regard to case.
+   *
+   * @param headers
+   *    The subject's header map; may be {@code null}.
+   *
+   * @param name
+   *    Name of the header to find.
+   *
+   * @return
+   *    Header values; empty if the header is not present.
+   */
+  private static List<String> findHeader(Map<String, List<String>> headers,
+      String name) {
+    if (headers != null) {
+      for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
+        if (name.equalsIgnoreCase(entry.getKey())) {
+          return entry.getValue();
+        }
+      }
+    }
+    return Collections.emptyList();
+  }
+
+}
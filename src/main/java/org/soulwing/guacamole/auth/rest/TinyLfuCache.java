@@ -0,0 +1,428 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, size-weighted cache with an expiration time and a
+ * W-TinyLFU admission policy.
+ * <p>
+ * New entries are placed in a small LRU <em>window</em>. When the window
+ * overflows, its least recently used entry becomes a candidate for the
+ * <em>main</em> LRU region; the candidate is admitted only if a
+ * {@link FrequencySketch} estimates that it is used more often than the
+ * entry it would displace. This keeps a burst of one-time keys from flushing
+ * popular entries out of the cache.
+ * <p>
+ * The cache is bounded by number of entries and, optionally, by the total
+ * weight of its values. Every entry expires a fixed time after it was
+ * written. All operations are guarded by a single lock; the cache is intended
+ * for workloads (such as user logins) in which the cost of a miss dwarfs the
+ * cost of lock acquisition.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+class TinyLfuCache<K, V> {
+
+  /**
+   * A function that computes the weight of a cached value.
+   *
+   * @param <V> value type
+   */
+  interface Weigher<V> {
+
+    /**
+     * Computes the weight of a value.
+     *
+     * @param value
+     *    The subject value.
+     *
+     * @return
+     *    A non-negative weight.
+     */
+    long weigh(V value);
+
+  }
+
+  /** Lock that guards the cache regions and frequency sketch. */
+  private final Lock lock = new ReentrantLock();
+
+  /** Admission window; LRU by access order. */
+  private final LinkedHashMap<K, Node<V>> window =
+      new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+
+  /** Main region; LRU by access order. */
+  private final LinkedHashMap<K, Node<V>> main =
+      new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+
+  /** Statistics counters; readable without holding {@link #lock}. */
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong evictionWeight = new AtomicLong();
+  private final AtomicLong expirationCount = new AtomicLong();
+
+  private final FrequencySketch sketch;
+  private final int windowMaxEntries;
+  private final int mainMaxEntries;
+  private final long maxWeight;
+  private final long timeToLive;
+  private final Weigher<? super V> weigher;
+  private final Ticker ticker;
+
+  /** Total weight of all entries in both regions. */
+  private long weightedSize;
+
+  /**
+   * Constructs a new cache.
+   *
+   * @param maxEntries
+   *    Maximum number of entries in the cache; must be positive.
+   *
+   * @param maxWeight
+   *    Maximum total weight of the entries in the cache, or zero if the
+   *    cache should be bounded only by number of entries.
+   *
+   * @param timeToLive
+   *    Time in nanoseconds after which an entry expires.
+   *
+   * @param weigher
+   *    Weigher used to compute the weight of each value.
+   *
+   * @param ticker
+   *    Time source used for entry expiration.
+   */
+  TinyLfuCache(int maxEntries, long maxWeight, long timeToLive,
+      Weigher<? super V> weigher, Ticker ticker) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.windowMaxEntries = Math.max(1, maxEntries / 100);
+    this.mainMaxEntries = maxEntries - windowMaxEntries;
+    this.maxWeight = maxWeight;
+    this.timeToLive = timeToLive;
+    this.weigher = weigher;
+    this.ticker = ticker;
+    this.sketch = new FrequencySketch(maxEntries);
+  }
+
+  /**
+   * Gets the value associated with a key.
+   *
+   * @param key
+   *    The subject key.
+   *
+   * @return
+   *    The associated value or {@code null} if there is no unexpired entry
+   *    for the given key.
+   */
+  V get(K key) {
+    final long now = ticker.read();
+    lock.lock();
+    try {
+      sketch.increment(key);
+      Map<K, Node<V>> region = window;
+      Node<V> node = window.get(key);
+      if (node == null) {
+        region = main;
+        node = main.get(key);
+      }
+      if (node == null) {
+        missCount.incrementAndGet();
+        return null;
+      }
+      if (node.isExpired(now)) {
+        region.remove(key);
+        weightedSize -= node.weight;
+        expirationCount.incrementAndGet();
+        missCount.incrementAndGet();
+        return null;
+      }
+      hitCount.incrementAndGet();
+      return node.value;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Associates a value with a key, replacing any existing association.
+   * <p>
+   * A value whose weight exceeds the maximum weight of the cache is
+   * not stored.
+   *
+   * @param key
+   *    The subject key.
+   *
+   * @param value
+   *    The value to associate with {@code key}.
+   */
+  void put(K key, V value) {
+    final long weight = weigher.weigh(value);
+    final long expiresAt = ticker.read() + timeToLive;
+    lock.lock();
+    try {
+      removeNode(key);
+      if (maxWeight > 0 && weight > maxWeight) {
+        recordEviction(weight);
+        return;
+      }
+      window.put(key, new Node<V>(value, weight, expiresAt));
+      weightedSize += weight;
+      evictFromWindow();
+      evictForWeight();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the entry (if any) for a key.
+   *
+   * @param key
+   *    The subject key.
+   */
+  void invalidate(K key) {
+    lock.lock();
+    try {
+      removeNode(key);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  void invalidateAll() {
+    lock.lock();
+    try {
+      window.clear();
+      main.clear();
+      weightedSize = 0;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of entries in the cache, including entries that have
+   * expired but have not yet been removed.
+   *
+   * @return
+   *    Number of entries.
+   */
+  int size() {
+    lock.lock();
+    try {
+      return window.size() + main.size();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the total weight of the entries in the cache.
+   *
+   * @return
+   *    Total weight.
+   */
+  long weightedSize() {
+    lock.lock();
+    try {
+      return weightedSize;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of lookups that found an unexpired entry.
+   *
+   * @return
+   *    Hit count.
+   */
+  long hitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Gets the number of lookups that found no entry or an expired entry.
+   *
+   * @return
+   *    Miss count.
+   */
+  long missCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Gets the number of entries evicted or rejected due to size or weight
+   * constraints.
+   *
+   * @return
+   *    Eviction count.
+   */
+  long evictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * Gets the total weight of the entries counted by {@link #evictionCount()}.
+   *
+   * @return
+   *    Eviction weight.
+   */
+  long evictionWeight() {
+    return evictionWeight.get();
+  }
+
+  /**
+   * Gets the number of entries removed because they had expired.
+   *
+   * @return
+   *    Expiration count.
+   */
+  long expirationCount() {
+    return expirationCount.get();
+  }
+
+  /**
+   * Removes the node (if any) for a key from whichever region contains it.
+   * Caller must hold {@link #lock}.
+   *
+   * @param key
+   *    The subject key.
+   */
+  private void removeNode(K key) {
+    Node<V> node = window.remove(key);
+    if (node == null) {
+      node = main.remove(key);
+    }
+    if (node != null) {
+      weightedSize -= node.weight;
+    }
+  }
+
+  /**
+   * Moves overflow from the window into the main region, applying the
+   * TinyLFU admission policy. Caller must hold {@link #lock}.
+   */
+  private void evictFromWindow() {
+    while (window.size() > windowMaxEntries) {
+      final Map.Entry<K, Node<V>> candidate = removeEldest(window);
+      main.put(candidate.getKey(), candidate.getValue());
+      while (main.size() > mainMaxEntries) {
+        final Iterator<Map.Entry<K, Node<V>>> i = main.entrySet().iterator();
+        final Map.Entry<K, Node<V>> victim = i.next();
+        if (victim.getKey().equals(candidate.getKey())
+            || admit(candidate.getKey(), victim)) {
+          i.remove();
+          weightedSize -= victim.getValue().weight;
+          recordEviction(victim.getValue().weight);
+        }
+        else {
+          main.remove(candidate.getKey());
+          weightedSize -= candidate.getValue().weight;
+          recordEviction(candidate.getValue().weight);
+        }
+      }
+    }
+  }
+
+  /**
+   * Evicts least recently used entries until the total weight is within
+   * bounds. Caller must hold {@link #lock}.
+   */
+  private void evictForWeight() {
+    while (maxWeight > 0 && weightedSize > maxWeight) {
+      final LinkedHashMap<K, Node<V>> region = main.isEmpty() ? window : main;
+      final Node<V> node = removeEldest(region).getValue();
+      weightedSize -= node.weight;
+      recordEviction(node.weight);
+    }
+  }
+
+  /**
+   * Determines whether a candidate should displace a victim, based on their
+   * estimated frequencies. An expired victim is always displaced.
+   *
+   * @param candidate
+   *    Key of the entry leaving the window.
+   *
+   * @param victim
+   *    The least recently used entry in the main region.
+   *
+   * @return
+   *    {@code true} if the victim should be evicted in favor of the candidate.
+   */
+  private boolean admit(K candidate, Map.Entry<K, Node<V>> victim) {
+    if (victim.getValue().isExpired(ticker.read())) return true;
+    return sketch.frequency(candidate) > sketch.frequency(victim.getKey());
+  }
+
+  private void recordEviction(long weight) {
+    evictionCount.incrementAndGet();
+    evictionWeight.addAndGet(weight);
+  }
+
+  private static <K, N> Map.Entry<K, N> removeEldest(Map<K, N> region) {
+    final Iterator<Map.Entry<K, N>> i = region.entrySet().iterator();
+    final Map.Entry<K, N> eldest = i.next();
+    i.remove();
+    return eldest;
+  }
+
+  /**
+   * A cache entry.
+   *
+   * @param <V> value type
+   */
+  private static class Node<V> {
+
+    final V value;
+    final long weight;
+    final long expiresAt;
+
+    Node(V value, long weight, long expiresAt) {
+      this.value = value;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(long now) {
+      return now - expiresAt >= 0;
+    }
+
+  }
+
+}
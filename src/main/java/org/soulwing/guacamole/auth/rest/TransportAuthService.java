@@ -0,0 +1,87 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.guacamole.GuacamoleException;
+
+/**
+ * An {@link AuthService} that delegates to the service for the HTTP
+ * transport named in the configuration.
+ * <p>
+ * The {@code jersey} transport is a {@link JerseyAuthService}, which sends
+ * each request on a blocking connection; the {@code jdk} transport is an
+ * {@link HttpClientAuthService}, which sends requests without blocking a
+ * thread.
+ */
+class TransportAuthService implements AuthService {
+
+  /** The service for the configured transport. */
+  private AuthService delegate;
+
+  /**
+   * Creates and initializes the service for the configured transport.
+   *
+   * @param config
+   *   Configuration for the service.
+   *
+   * @throws GuacamoleException
+   *   If an error occurs in retrieving the transport name or in initializing
+   *   the service.
+   */
+  @Override
+  public void init(AuthServiceConfig config) throws GuacamoleException {
+    final AuthService delegate = newDelegate(config.getTransport());
+    delegate.init(config);
+    this.delegate = delegate;
+  }
+
+  /**
+   * Creates the service for a transport.
+   *
+   * @param transport
+   *    Transport name.
+   *
+   * @return
+   *    Service for the transport.
+   */
+  AuthService newDelegate(String transport) {
+    return "jdk".equals(transport) ?
+        new HttpClientAuthService() : new JerseyAuthService();
+  }
+
+  @Override
+  public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+    return delegate.authorizeAsync(subject);
+  }
+
+  @Override
+  public AuthResult authorize(AuthSubject subject) throws GuacamoleException {
+    return delegate.authorize(subject);
+  }
+
+  @Override
+  public void destroy() {
+    if (delegate != null) {
+      delegate.destroy();
+    }
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.util.Locale;
+
+import org.codehaus.jackson.smile.SmileFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Negotiates the encoding of the entities exchanged with the REST service.
+ * <p>
+ * Every response may be encoded as JSON. When Smile, the binary encoding of
+ * JSON, is preferred, requests are sent in Smile and Smile responses are
+ * accepted in preference to JSON; each response is read according to its
+ * {@code Content-Type}. If the REST service rejects a Smile request with a
+ * 415 (Unsupported Media Type) status, the request is sent again as JSON,
+ * and later requests are sent as JSON as well.
+ */
+class WireFormatNegotiator {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(WireFormatNegotiator.class);
+
+  /** Media type of entities encoded as JSON. */
+  static final String JSON_TYPE = "application/json";
+
+  /** Media type of entities encoded as Smile. */
+  static final String SMILE_TYPE = "application/x-jackson-smile";
+
+  /** Status code of a response that rejects the type of a request entity. */
+  static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+  private final JsonMarshaller json;
+  private final JsonMarshaller smile;
+
+  /** Flag indicating whether the REST service has rejected Smile. */
+  private volatile boolean smileRejected;
+
+  /**
+   * Constructs a new negotiator.
+   *
+   * @param json
+   *    Marshaller for entities encoded as JSON.
+   *
+   * @param smile
+   *    Marshaller for entities encoded as Smile, or {@code null} if only
+   *    JSON is to be used.
+   */
+  WireFormatNegotiator(JsonMarshaller json, JsonMarshaller smile) {
+    this.json = json;
+    this.smile = smile;
+  }
+
+  /**
+   * Creates a negotiator for a configured wire format.
+   *
+   * @param format
+   *    Name of the preferred wire format; either {@code json} or
+   *    {@code smile}.
+   *
+   * @param json
+   *    Marshaller for entities encoded as JSON.
+   *
+   * @return
+   *    Negotiator.
+   */
+  static WireFormatNegotiator newInstance(String format,
+      JsonMarshaller json) {
+    return new WireFormatNegotiator(json, "smile".equals(format) ?
+        new JacksonJsonMarshaller(new SmileFactory()) : null);
+  }
+
+  /**
+   * Gets the media type in which a request entity is to be sent.
+   *
+   * @return
+   *    Media type.
+   */
+  String getRequestType() {
+    return smile != null && !smileRejected ? SMILE_TYPE : JSON_TYPE;
+  }
+
+  /**
+   * Gets the value of the {@code Accept} header of a request.
+   *
+   * @return
+   *    Acceptable media types.
+   */
+  String getAcceptHeader() {
+    return smile != null ? SMILE_TYPE + ", " + JSON_TYPE + ";q=0.9" : JSON_TYPE;
+  }
+
+  /**
+   * Gets the marshaller for an entity of a given type.
+   *
+   * @param contentType
+   *    Value of the {@code Content-Type} header of the entity; may be
+   *    {@code null}.
+   *
+   * @return
+   *    The Smile marshaller if the entity is encoded as Smile, otherwise the
+   *    JSON marshaller.
+   */
+  JsonMarshaller getMarshaller(String contentType) {
+    if (smile != null && contentType != null && contentType.trim()
+        .toLowerCase(Locale.ENGLISH).startsWith(SMILE_TYPE)) {
+      return smile;
+    }
+    return json;
+  }
+
+  /**
+   * Notes the rejection of a request entity by the REST service.
+   *
+   * @param status
+   *    Status code of the response.
+   *
+   * @param requestType
+   *    Media type of the request entity.
+   *
+   * @return
+   *    {@code true} if the request was rejected because it was sent as
+   *    Smile, and should be sent again as JSON.
+   */
+  boolean isRejected(int status, String requestType) {
+    if (status != UNSUPPORTED_MEDIA_TYPE || !SMILE_TYPE.equals(requestType)) {
+      return false;
+    }
+    if (!smileRejected) {
+      smileRejected = true;
+      logger.info("REST service does not accept {}; using {}", SMILE_TYPE,
+          JSON_TYPE);
+    }
+    return true;
+  }
+
+}
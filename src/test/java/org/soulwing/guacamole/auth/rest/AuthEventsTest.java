@@ -0,0 +1,139 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.junit.Test;
+
+/**
+ * Unit tests for the flight recorder events in {@link AuthEvents}.
+ */
+public class AuthEventsTest {
+
+  private static final String RESULT = "{\"authorized\":true,"
+      + "\"configurations\":{\"a\":{\"protocol\":\"rdp\"},"
+      + "\"b\":{\"protocol\":\"ssh\"}}}";
+
+  @Test
+  public void testSerializeEvent() throws Exception {
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.<String>emptyList()));
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Serialize.class);
+    new JacksonJsonMarshaller().write(
+        AuthSubjectUtil.newAuthSubject(request), bos);
+    final List<RecordedEvent> events =
+        recording.stop(AuthEvents.Serialize.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("format")).isEqualTo("JSON");
+    assertThat(events.get(0).getLong("bytes")).isEqualTo(bos.size());
+    assertExcludesSubject(events.get(0));
+  }
+
+  @Test
+  public void testParseEvent() throws Exception {
+    final byte[] entity = RESULT.getBytes("UTF-8");
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Parse.class);
+    new JacksonJsonMarshaller().readResult(new ByteArrayInputStream(entity));
+    final List<RecordedEvent> events = recording.stop(AuthEvents.Parse.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getLong("bytes")).isEqualTo(entity.length);
+    assertThat(events.get(0).getBoolean("authorized")).isTrue();
+    assertThat(events.get(0).getInt("configurationCount")).isEqualTo(2);
+  }
+
+  @Test
+  public void testAuthorizationEvent() throws Exception {
+    final AuthService authService = mock(AuthService.class);
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.authorized(Collections.singletonMap("a",
+            new GuacamoleConfiguration())));
+    final RestAuthProvider provider =
+        new RestAuthProvider(authService, new AuthMetrics());
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Authorization.class);
+    provider.getAuthorizedConfigurations(newCredentials());
+    final List<RecordedEvent> events =
+        recording.stop(AuthEvents.Authorization.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("outcome")).isEqualTo("authorized");
+    assertThat(events.get(0).getInt("configurationCount")).isEqualTo(1);
+    assertExcludesSubject(events.get(0));
+  }
+
+  @Test
+  public void testAuthorizationEventWhenTimeout() throws Exception {
+    final AuthService authService = mock(AuthService.class);
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenThrow(new GuacamoleUpstreamTimeoutException("timeout"));
+    final RestAuthProvider provider =
+        new RestAuthProvider(authService, new AuthMetrics());
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Authorization.class);
+    try {
+      provider.getAuthorizedConfigurations(newCredentials());
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      // expected
+    }
+    final List<RecordedEvent> events =
+        recording.stop(AuthEvents.Authorization.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("outcome")).isEqualTo("timeout");
+  }
+
+  private static Credentials newCredentials() {
+    return new Credentials(AuthSubjectUtil.USERNAME,
+        AuthSubjectUtil.PASSWORD, mock(HttpServletRequest.class));
+  }
+
+  private static void assertExcludesSubject(RecordedEvent event) {
+    for (final ValueDescriptor field : event.getFields()) {
+      final Object value = event.getValue(field.getName());
+      if (value instanceof String) {
+        assertThat((String) value)
+            .doesNotContain(AuthSubjectUtil.USERNAME)
+            .doesNotContain(AuthSubjectUtil.PASSWORD);
+      }
+    }
+  }
+
+}
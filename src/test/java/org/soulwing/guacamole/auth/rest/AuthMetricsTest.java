@@ -0,0 +1,115 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AuthMetrics}.
+ */
+public class AuthMetricsTest {
+
+  private final AuthMetrics metrics = new AuthMetrics();
+
+  @Test
+  public void testRecordCall() throws Exception {
+    metrics.recordCall(AuthMetrics.Outcome.AUTHORIZED,
+        TimeUnit.MILLISECONDS.toNanos(20));
+    metrics.recordCall(AuthMetrics.Outcome.AUTHORIZED,
+        TimeUnit.MILLISECONDS.toNanos(20));
+    metrics.recordCall(AuthMetrics.Outcome.DENIED,
+        TimeUnit.MILLISECONDS.toNanos(20));
+    metrics.recordCall(AuthMetrics.Outcome.ERROR,
+        TimeUnit.MILLISECONDS.toNanos(20));
+    metrics.recordCall(AuthMetrics.Outcome.TIMEOUT,
+        TimeUnit.MILLISECONDS.toNanos(20));
+
+    assertThat(metrics.getAuthorizedCount()).isEqualTo(2);
+    assertThat(metrics.getDeniedCount()).isEqualTo(1);
+    assertThat(metrics.getErrorCount()).isEqualTo(1);
+    assertThat(metrics.getTimeoutCount()).isEqualTo(1);
+    assertThat(metrics.getCallLatency().getCount()).isEqualTo(5);
+    assertThat(metrics.getCallLatency().getMax())
+        .isCloseTo(20.0, withinPercentage(1));
+  }
+
+  @Test
+  public void testRecordStage() throws Exception {
+    metrics.recordStage(AuthMetrics.Stage.ROUND_TRIP,
+        TimeUnit.MILLISECONDS.toNanos(5));
+    assertThat(metrics.getRoundTripLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getRoundTripLatency().getMax())
+        .isCloseTo(5.0, withinPercentage(1));
+    assertThat(metrics.getSerializeLatency().getCount()).isEqualTo(0);
+    assertThat(metrics.getParseLatency().getCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRecordSizes() throws Exception {
+    metrics.recordRequestSize(100);
+    metrics.recordResponseSize(200);
+    assertThat(metrics.getRequestSize().getMax()).isEqualTo(100);
+    assertThat(metrics.getResponseSize().getMax()).isEqualTo(200);
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    metrics.recordCall(AuthMetrics.Outcome.DENIED, 1000);
+    metrics.recordStage(AuthMetrics.Stage.PARSE, 1000);
+    metrics.recordResponseSize(200);
+    metrics.recordStale(AuthMetrics.StaleReason.REVALIDATE);
+    metrics.reset();
+    assertThat(metrics.getDeniedCount()).isEqualTo(0);
+    assertThat(metrics.getStaleWhileRevalidateCount()).isEqualTo(0);
+    assertThat(metrics.getCallLatency().getCount()).isEqualTo(0);
+    assertThat(metrics.getParseLatency().getCount()).isEqualTo(0);
+    assertThat(metrics.getResponseSize().getCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testManagementBean() throws Exception {
+    metrics.recordCall(AuthMetrics.Outcome.AUTHORIZED,
+        TimeUnit.MILLISECONDS.toNanos(20));
+    JmxSupport.register(AuthMetrics.MBEAN_TYPE, metrics);
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = JmxSupport.objectName(AuthMetrics.MBEAN_TYPE);
+      assertThat(server.getAttribute(name, "AuthorizedCount"))
+          .isEqualTo(1L);
+      final CompositeData latency =
+          (CompositeData) server.getAttribute(name, "CallLatency");
+      assertThat(latency.get("count")).isEqualTo(1L);
+      assertThat((Double) latency.get("p99"))
+          .isCloseTo(20.0, withinPercentage(1));
+    }
+    finally {
+      JmxSupport.unregister(AuthMetrics.MBEAN_TYPE, metrics);
+    }
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleServerBusyException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link BulkheadAuthService}.
+ */
+public class BulkheadAuthServiceTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthService delegate;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private AuthSubject subject;
+
+  private final CompletableFuture<AuthResult> pending =
+      new CompletableFuture<>();
+
+  private BulkheadAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getBulkheadMaxConcurrent()).thenReturn(1);
+    when(config.getBulkheadMaxQueue()).thenReturn(0);
+    when(config.getBulkheadMaxQueuePerSource()).thenReturn(0);
+    when(config.getBulkheadMaxWait()).thenReturn(1000);
+    service = new BulkheadAuthService(delegate);
+    service.init(config);
+    verify(delegate).init(config);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.destroy();
+  }
+
+  @Test
+  public void testRejectsWhenFull() throws Exception {
+    when(subject.getRemoteAddress()).thenReturn("10.0.0.1");
+    when(delegate.authorizeAsync(subject)).thenReturn(pending);
+
+    final CompletableFuture<AuthResult> first =
+        service.authorizeAsync(subject);
+    final CompletableFuture<AuthResult> second =
+        service.authorizeAsync(subject);
+
+    assertThat(second.isCompletedExceptionally()).isTrue();
+    try {
+      second.get();
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause())
+          .isInstanceOf(GuacamoleServerBusyException.class);
+    }
+    assertThat(service.getActive()).isEqualTo(1);
+    assertThat(service.getRejectedCount()).isEqualTo(1);
+
+    pending.complete(AuthResult.DENIED);
+    assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(AuthResult.DENIED);
+    assertThat(service.getActive()).isEqualTo(0);
+  }
+
+  @Test
+  public void testWaitBoundedBySubjectDeadline() throws Exception {
+    when(config.getBulkheadMaxQueue()).thenReturn(1);
+    final BulkheadAuthService queueing = new BulkheadAuthService(delegate);
+    queueing.init(config);
+    try {
+      when(subject.getRemoteAddress()).thenReturn("10.0.0.1");
+      when(subject.getDeadline()).thenReturn(
+          System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+      when(delegate.authorizeAsync(subject)).thenReturn(pending);
+
+      queueing.authorizeAsync(subject);
+      final long start = System.nanoTime();
+      final CompletableFuture<AuthResult> second =
+          queueing.authorizeAsync(subject);
+      try {
+        second.get(5, TimeUnit.SECONDS);
+      }
+      catch (ExecutionException ex) {
+        assertThat(ex.getCause())
+            .isInstanceOf(GuacamoleServerBusyException.class);
+      }
+      // the configured maximum wait is 1000 ms
+      assertThat(System.nanoTime() - start)
+          .isLessThan(TimeUnit.MILLISECONDS.toNanos(1000));
+      assertThat(queueing.getTimedOutCount()).isEqualTo(1);
+    }
+    finally {
+      queueing.destroy();
+    }
+  }
+
+  @Test
+  public void testSourceOf() throws Exception {
+    assertThat(BulkheadAuthService.sourceOf("192.168.1.20"))
+        .isEqualTo("192.168.1");
+    assertThat(BulkheadAuthService.sourceOf("2001:db8:1:2:3:4:5:6"))
+        .isEqualTo("2001:db8:1:2");
+    assertThat(BulkheadAuthService.sourceOf("2001:db8::6"))
+        .isEqualTo("2001:db8:0:0");
+    assertThat(BulkheadAuthService.sourceOf("host.example.com"))
+        .isEqualTo("host.example.com");
+    assertThat(BulkheadAuthService.sourceOf("192.168.1.256"))
+        .isEqualTo("192.168.1.256");
+    assertThat(BulkheadAuthService.sourceOf(null)).isEqualTo("");
+  }
+
+  @Test
+  public void testSourceOfLoopback() throws Exception {
+    assertThat(BulkheadAuthService.sourceOf("::1")).isEqualTo("0:0:0:0");
+  }
+
+  @Test
+  public void testSourceOfIPv4MappedAddress() throws Exception {
+    assertThat(BulkheadAuthService.sourceOf("::ffff:10.0.0.1"))
+        .isEqualTo(BulkheadAuthService.sourceOf("10.0.0.1"))
+        .isEqualTo("10.0.0");
+  }
+
+  @Test
+  public void testSourceOfCompressedAndExpandedForms() throws Exception {
+    assertThat(BulkheadAuthService.sourceOf("2001:db8::1"))
+        .isEqualTo(BulkheadAuthService.sourceOf("2001:db8:0:0::5"))
+        .isEqualTo(BulkheadAuthService.sourceOf("2001:0db8:0000:0000:1:2:3:4"));
+  }
+
+}
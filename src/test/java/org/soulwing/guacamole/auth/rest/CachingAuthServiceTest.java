@@ -0,0 +1,358 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link CachingAuthService}.
+ */
+public class CachingAuthServiceTest {
+
+  private static final int TTL = 60;
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthService delegate;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private HttpServletRequest request;
+
+  private final MockTicker ticker = new MockTicker();
+
+  private CachingAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getCacheTtl()).thenReturn(TTL);
+    when(config.getCacheMaxEntries()).thenReturn(100);
+    when(config.getCacheMaxWeight()).thenReturn(0L);
+    when(config.getCacheKeyHeaders()).thenReturn(
+        Collections.<String>emptyList());
+    service = new CachingAuthService(delegate, ticker);
+    service.init(config);
+    verify(delegate).init(config);
+  }
+
+  @Test
+  public void testCachesAuthorizedResult() throws Exception {
+    final AuthResult result = authorizedResult();
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(result));
+
+    assertThat(service.authorize(subject)).isSameAs(result);
+    assertThat(service.authorize(newSubject("password"))).isSameAs(result);
+    verify(delegate, times(1)).authorizeAsync(subject);
+    assertThat(service.getHitCount()).isEqualTo(1);
+    assertThat(service.getLoadCount()).isEqualTo(1);
+    assertThat(service.getWeightedSize()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDoesNotCacheDeniedResult() throws Exception {
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+
+    service.authorize(subject);
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+  }
+
+  @Test
+  public void testDifferentPasswordIsNotHit() throws Exception {
+    final AuthSubject subject = newSubject("password");
+    final AuthSubject otherSubject = newSubject("other password");
+    when(delegate.authorizeAsync(any(AuthSubject.class))).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()));
+
+    service.authorize(subject);
+    service.authorize(otherSubject);
+    verify(delegate).authorizeAsync(subject);
+    verify(delegate).authorizeAsync(otherSubject);
+    assertThat(service.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testDoesNotCacheConnectionResult() throws Exception {
+    final AuthSubject subject =
+        new ConnectionSubject(newSubject("password"), "conn");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()));
+
+    service.authorize(subject);
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+    assertThat(service.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testExpiredResultIsReloaded() throws Exception {
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()));
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL));
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+    assertThat(service.getExpirationCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCachesDeniedResult() throws Exception {
+    newNegativeService(TTL);
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+
+    service.authorize(subject);
+    assertThat(service.authorize(subject).isAuthorized()).isFalse();
+    verify(delegate, times(1)).authorizeAsync(subject);
+    assertThat(service.getNegativeHitCount()).isEqualTo(1);
+    assertThat(service.getNegativeSize()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDeniedResultExpires() throws Exception {
+    newNegativeService(5);
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(5));
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+  }
+
+  @Test
+  public void testDeniedResultIsNotHitForDifferentPassword()
+      throws Exception {
+    newNegativeService(5);
+    final AuthSubject subject = newSubject("wrong password");
+    final AuthSubject otherSubject = newSubject("password");
+    final AuthResult result = authorizedResult();
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+    doReturn(CompletableFuture.completedFuture(result))
+        .when(delegate).authorizeAsync(otherSubject);
+
+    service.authorize(subject);
+    assertThat(service.authorize(otherSubject)).isSameAs(result);
+  }
+
+  @Test
+  public void testCachesOnlyDeniedResults() throws Exception {
+    when(config.getCacheTtl()).thenReturn(0);
+    newNegativeService(5);
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()));
+
+    service.authorize(subject);
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+    assertThat(service.getSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testStaleWhileRevalidate() throws Exception {
+    final AuthMetrics metrics = newStaleService(30, 0);
+    final AuthResult result = authorizedResult();
+    final AuthResult refreshedResult = authorizedResult();
+    final CompletableFuture<AuthResult> refresh = new CompletableFuture<>();
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(result), refresh);
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 10));
+    assertThat(service.authorize(subject)).isSameAs(result);
+    assertThat(service.authorize(subject)).isSameAs(result);
+    verify(delegate, times(2)).authorizeAsync(subject);
+    assertThat(metrics.getStaleCount(AuthMetrics.StaleReason.REVALIDATE))
+        .isEqualTo(2);
+
+    refresh.complete(refreshedResult);
+    assertThat(service.authorize(subject)).isSameAs(refreshedResult);
+    verify(delegate, times(2)).authorizeAsync(subject);
+  }
+
+  @Test
+  public void testStaleWhileRevalidateRetriesFailedRefresh()
+      throws Exception {
+    newStaleService(30, 0);
+    final AuthResult result = authorizedResult();
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(result),
+        CompletableFuture.failedFuture(
+            new GuacamoleUpstreamTimeoutException("timeout")),
+        new CompletableFuture<>());
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 10));
+    assertThat(service.authorize(subject)).isSameAs(result);
+    assertThat(service.authorize(subject)).isSameAs(result);
+    verify(delegate, times(3)).authorizeAsync(subject);
+  }
+
+  @Test
+  public void testStaleIfError() throws Exception {
+    final AuthMetrics metrics = newStaleService(0, 30);
+    final AuthResult result = authorizedResult();
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(result),
+        CompletableFuture.failedFuture(
+            new GuacamoleUpstreamTimeoutException("timeout")));
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 10));
+    assertThat(service.authorize(subject)).isSameAs(result);
+    assertThat(metrics.getStaleCount(AuthMetrics.StaleReason.ERROR))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void testStaleIfErrorLimit() throws Exception {
+    newStaleService(0, 30);
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()),
+        CompletableFuture.failedFuture(
+            new GuacamoleUpstreamTimeoutException("timeout")));
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 30));
+    try {
+      service.authorize(subject);
+      fail("expected GuacamoleUpstreamTimeoutException");
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(ex).hasMessage("timeout");
+    }
+  }
+
+  @Test
+  public void testStaleIfErrorRequiresSameCredentials() throws Exception {
+    newStaleService(0, 30);
+    final AuthSubject subject = newSubject("password");
+    final AuthSubject otherSubject = newSubject("other password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()));
+    doReturn(CompletableFuture.failedFuture(
+        new GuacamoleUpstreamTimeoutException("timeout")))
+        .when(delegate).authorizeAsync(otherSubject);
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 10));
+    try {
+      service.authorize(otherSubject);
+      fail("expected GuacamoleUpstreamTimeoutException");
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(ex).hasMessage("timeout");
+    }
+  }
+
+  @Test
+  public void testDeniedResultEvictsStaleResult() throws Exception {
+    newStaleService(0, 30);
+    final AuthSubject subject = newSubject("password");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(authorizedResult()),
+        CompletableFuture.completedFuture(AuthResult.DENIED),
+        CompletableFuture.failedFuture(
+            new GuacamoleUpstreamTimeoutException("timeout")));
+
+    service.authorize(subject);
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL + 10));
+    assertThat(service.authorize(subject).isAuthorized()).isFalse();
+    try {
+      service.authorize(subject);
+      fail("expected GuacamoleUpstreamTimeoutException");
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(ex).hasMessage("timeout");
+    }
+  }
+
+  private void newNegativeService(int negativeTtl) throws Exception {
+    when(config.getCacheNegativeTtl()).thenReturn(negativeTtl);
+    service.destroy();
+    service = new CachingAuthService(delegate, ticker);
+    service.init(config);
+  }
+
+  private AuthMetrics newStaleService(int staleWhileRevalidate,
+      int staleIfError) throws Exception {
+    when(config.getCacheStaleWhileRevalidate())
+        .thenReturn(staleWhileRevalidate);
+    when(config.getCacheStaleIfError()).thenReturn(staleIfError);
+    final AuthMetrics metrics = new AuthMetrics();
+    service.destroy();
+    service = new CachingAuthService(delegate, ticker, metrics);
+    service.init(config);
+    return metrics;
+  }
+
+  private AuthSubject newSubject(String password) {
+    return new DelegatingAuthSubject(
+        new Credentials("username", password, request));
+  }
+
+  private static AuthResult authorizedResult() {
+    final GuacamoleConfiguration config = new GuacamoleConfiguration();
+    config.setProtocol("vnc");
+    return AuthResult.authorized(
+        Collections.singletonMap("name", config));
+  }
+
+}
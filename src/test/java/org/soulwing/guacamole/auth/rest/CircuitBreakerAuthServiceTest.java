@@ -0,0 +1,125 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamUnavailableException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link CircuitBreakerAuthService}.
+ */
+public class CircuitBreakerAuthServiceTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthService delegate;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private AuthSubject subject;
+
+  private final MockTicker ticker = new MockTicker();
+
+  private CircuitBreakerAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getBreakerWindowSize()).thenReturn(4);
+    when(config.getBreakerMinimumCalls()).thenReturn(2);
+    when(config.getBreakerFailureRateThreshold()).thenReturn(50);
+    when(config.getBreakerSlowCallRateThreshold()).thenReturn(100);
+    when(config.getBreakerSlowCallDuration()).thenReturn(5000);
+    when(config.getBreakerOpenDuration()).thenReturn(30);
+    when(config.getBreakerHalfOpenCalls()).thenReturn(1);
+    service = new CircuitBreakerAuthService(delegate, ticker);
+    service.init(config);
+    verify(delegate).init(config);
+  }
+
+  @Test
+  public void testRejectsWhenOpen() throws Exception {
+    final GuacamoleServerException failure =
+        new GuacamoleServerException("failed");
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.<AuthResult>failedFuture(failure));
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        service.authorize(subject);
+        fail("expected GuacamoleServerException");
+      }
+      catch (GuacamoleServerException ex) {
+        assertThat(ex).isSameAs(failure);
+      }
+    }
+
+    try {
+      service.authorize(subject);
+      fail("expected GuacamoleUpstreamUnavailableException");
+    }
+    catch (GuacamoleUpstreamUnavailableException ex) {
+      verify(delegate, times(2)).authorizeAsync(subject);
+      assertThat(service.getState()).isEqualTo("OPEN");
+      assertThat(service.getRejectedCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testDeniedResultIsNotFailure() throws Exception {
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+    for (int i = 0; i < 4; i++) {
+      service.authorize(subject);
+    }
+    verify(delegate, times(4)).authorizeAsync(subject);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    final CircuitBreakerAuthService service =
+        new CircuitBreakerAuthService(delegate, ticker);
+    when(config.getBreakerWindowSize()).thenReturn(0);
+    service.init(config);
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+    service.authorize(subject);
+    verify(delegate).authorizeAsync(subject);
+  }
+
+}
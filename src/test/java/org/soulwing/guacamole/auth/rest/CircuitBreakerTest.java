@@ -0,0 +1,141 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+  private static final long SLOW_CALL = TimeUnit.SECONDS.toNanos(5);
+  private static final long OPEN_DURATION = TimeUnit.SECONDS.toNanos(30);
+
+  private final MockTicker ticker = new MockTicker();
+
+  private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, 100,
+      SLOW_CALL, OPEN_DURATION, 2, ticker);
+
+  @Test
+  public void testStaysClosedBelowMinimumCalls() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      call(true);
+    }
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.getFailureRate()).isEqualTo(100f);
+  }
+
+  @Test
+  public void testOpensWhenFailureRateReached() throws Exception {
+    call(false);
+    call(false);
+    call(true);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    call(true);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.acquire()).isEqualTo(CircuitBreaker.REJECTED);
+    assertThat(breaker.getRejectedCount()).isEqualTo(1);
+    assertThat(breaker.getOpenedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testOpensWhenAllCallsSlow() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      breaker.release(breaker.acquire(), SLOW_CALL, false);
+    }
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  public void testWindowDiscardsOldestOutcome() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      call(i == 0);
+    }
+    for (int i = 0; i < 7; i++) {
+      call(false);
+    }
+    assertThat(breaker.getBufferedCalls()).isEqualTo(10);
+    assertThat(breaker.getFailureRate()).isEqualTo(0f);
+  }
+
+  @Test
+  public void testClosesWhenProbesSucceed() throws Exception {
+    open();
+    ticker.advance(OPEN_DURATION);
+    final long first = breaker.acquire();
+    final long second = breaker.acquire();
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(breaker.acquire()).isEqualTo(CircuitBreaker.REJECTED);
+    breaker.release(first, 0, false);
+    breaker.release(second, 0, false);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.getClosedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testReopensWhenProbeFails() throws Exception {
+    open();
+    ticker.advance(OPEN_DURATION);
+    final long first = breaker.acquire();
+    final long second = breaker.acquire();
+    breaker.release(first, 0, true);
+    breaker.release(second, 0, false);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.getOpenedCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testIgnoresOutcomeFromEarlierState() throws Exception {
+    final long stale = breaker.acquire();
+    open();
+    ticker.advance(OPEN_DURATION);
+    final long probe = breaker.acquire();
+    breaker.release(stale, 0, true);
+    assertThat(breaker.getBufferedCalls()).isEqualTo(0);
+    breaker.release(probe, 0, false);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    open();
+    breaker.reset();
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.acquire()).isNotEqualTo(CircuitBreaker.REJECTED);
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      call(true);
+    }
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  private void call(boolean failed) {
+    final long permit = breaker.acquire();
+    assertThat(permit).isNotEqualTo(CircuitBreaker.REJECTED);
+    breaker.release(permit, 0, failed);
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleServerException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link CoalescingAuthService}.
+ */
+public class CoalescingAuthServiceTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthService delegate;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private AuthSubject subject;
+
+  private final CompletableFuture<AuthResult> pending =
+      new CompletableFuture<>();
+
+  private CoalescingAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.isCoalescingEnabled()).thenReturn(true);
+    when(config.getCacheKeyHeaders()).thenReturn(
+        Collections.<String>emptyList());
+    when(subject.getUsername()).thenReturn("username");
+    when(subject.getPassword()).thenReturn("password");
+    service = new CoalescingAuthService(delegate);
+    service.init(config);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.destroy();
+  }
+
+  @Test
+  public void testCoalescesConcurrentRequests() throws Exception {
+    when(delegate.authorizeAsync(subject)).thenReturn(pending);
+
+    final Future<AuthResult> first = service.authorizeAsync(subject);
+    final Future<AuthResult> second = service.authorizeAsync(subject);
+    assertThat(service.getCollapsedCount()).isEqualTo(1);
+    assertThat(service.getInFlightCount()).isEqualTo(1);
+    pending.complete(AuthResult.DENIED);
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(AuthResult.DENIED);
+    assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(AuthResult.DENIED);
+    verify(delegate).authorizeAsync(subject);
+    assertThat(service.getRequestCount()).isEqualTo(1);
+    assertThat(service.getInFlightCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testSharesFailure() throws Exception {
+    final GuacamoleServerException failure =
+        new GuacamoleServerException("failed");
+    when(delegate.authorizeAsync(subject)).thenReturn(pending);
+
+    final Future<AuthResult> first = service.authorizeAsync(subject);
+    final Future<AuthResult> second = service.authorizeAsync(subject);
+    assertThat(service.getCollapsedCount()).isEqualTo(1);
+    pending.completeExceptionally(failure);
+
+    assertFailure(first, failure);
+    assertFailure(second, failure);
+  }
+
+  @Test
+  public void testInterruptedWaiterDoesNotAffectOthers() throws Exception {
+    when(delegate.authorizeAsync(subject)).thenReturn(pending);
+    final CompletableFuture<Throwable> interrupted = new CompletableFuture<>();
+    final CountDownLatch started = new CountDownLatch(1);
+    final Thread waiter = new Thread(() -> {
+      started.countDown();
+      try {
+        service.authorize(subject);
+        interrupted.complete(null);
+      }
+      catch (Throwable ex) {
+        interrupted.complete(ex);
+      }
+    });
+    waiter.start();
+    started.await();
+    while (service.getInFlightCount() == 0) {
+      Thread.sleep(1);
+    }
+    final Future<AuthResult> other = service.authorizeAsync(subject);
+    waiter.interrupt();
+
+    assertThat(interrupted.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(GuacamoleServerException.class);
+    assertThat(pending.isCancelled()).isFalse();
+    assertThat(other.isDone()).isFalse();
+    pending.complete(AuthResult.DENIED);
+    assertThat(other.get(5, TimeUnit.SECONDS)).isSameAs(AuthResult.DENIED);
+    assertThat(service.getCollapsedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCancelledCallerDoesNotAffectOthers() throws Exception {
+    when(delegate.authorizeAsync(subject)).thenReturn(pending);
+
+    final Future<AuthResult> first = service.authorizeAsync(subject);
+    final Future<AuthResult> second = service.authorizeAsync(subject);
+    first.cancel(true);
+    pending.complete(AuthResult.DENIED);
+
+    assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(AuthResult.DENIED);
+  }
+
+  @Test
+  public void testSequentialRequestsAreNotCoalesced() throws Exception {
+    when(delegate.authorizeAsync(subject)).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+    service.authorize(subject);
+    service.authorize(subject);
+    verify(delegate, times(2)).authorizeAsync(subject);
+    assertThat(service.getCollapsedCount()).isEqualTo(0);
+  }
+
+  private static void assertFailure(Future<AuthResult> future,
+      Exception failure) throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("expected failure");
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause()).isSameAs(failure);
+    }
+  }
+
+}
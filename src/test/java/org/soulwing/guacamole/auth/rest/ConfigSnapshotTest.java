@@ -0,0 +1,115 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link ConfigSnapshot}.
+ */
+public class ConfigSnapshotTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private AuthServiceConfig other;
+
+  @Test
+  public void testResolvesPropertiesOnce() throws Exception {
+    when(config.getAuthorizationUri()).thenReturn("/authorize");
+    when(config.getDeadline()).thenReturn(1000);
+    final ConfigSnapshot snapshot = ConfigSnapshot.of(config);
+    for (int i = 0; i < 3; i++) {
+      assertThat(snapshot.getAuthorizationUri()).isEqualTo("/authorize");
+      assertThat(snapshot.getDeadline()).isEqualTo(1000);
+    }
+    verify(config, times(1)).getAuthorizationUri();
+    verify(config, times(1)).getDeadline();
+  }
+
+  @Test
+  public void testSkipsCredentialsWhenNotConfigured() throws Exception {
+    final ConfigSnapshot snapshot = ConfigSnapshot.of(config);
+    assertThat(snapshot.isBasicConfigured()).isFalse();
+    assertThat(snapshot.getBasicUsername()).isNull();
+    verify(config, never()).getBasicUsername();
+    verify(config, never()).getBasicPassword();
+    verify(config, never()).getDigestUsername();
+    verify(config, never()).getDigestPassword();
+  }
+
+  @Test
+  public void testResolvesCredentialsWhenConfigured() throws Exception {
+    when(config.isDigestConfigured()).thenReturn(true);
+    when(config.getDigestUsername()).thenReturn("username");
+    when(config.getDigestPassword()).thenReturn("password");
+    final ConfigSnapshot snapshot = ConfigSnapshot.of(config);
+    assertThat(snapshot.getDigestUsername()).isEqualTo("username");
+    assertThat(snapshot.getDigestPassword()).isEqualTo("password");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testListsAreImmutable() throws Exception {
+    when(config.getServiceUrls()).thenReturn(
+        Arrays.asList("http://a", "http://b"));
+    final List<String> urls = ConfigSnapshot.of(config).getServiceUrls();
+    assertThat(urls).containsExactly("http://a", "http://b");
+    urls.add("http://c");
+  }
+
+  @Test
+  public void testEqualWhenValuesEqual() throws Exception {
+    when(config.getServiceUrls()).thenReturn(Arrays.asList("http://a"));
+    when(other.getServiceUrls()).thenReturn(Arrays.asList("http://a"));
+    when(config.getReadTimeout()).thenReturn(5000);
+    when(other.getReadTimeout()).thenReturn(5000);
+    final ConfigSnapshot snapshot = ConfigSnapshot.of(config);
+    final ConfigSnapshot otherSnapshot = ConfigSnapshot.of(other);
+    assertThat(snapshot).isEqualTo(otherSnapshot);
+    assertThat(snapshot.hashCode()).isEqualTo(otherSnapshot.hashCode());
+  }
+
+  @Test
+  public void testNotEqualWhenValueDiffers() throws Exception {
+    when(config.getReadTimeout()).thenReturn(5000);
+    when(other.getReadTimeout()).thenReturn(10000);
+    assertThat(ConfigSnapshot.of(config))
+        .isNotEqualTo(ConfigSnapshot.of(other));
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ConfigWatcher}.
+ */
+public class ConfigWatcherTest {
+
+  private static final long QUIET_INTERVAL = 50;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final Semaphore changes = new Semaphore(0);
+
+  private ConfigWatcher watcher;
+
+  @Before
+  public void setUp() throws Exception {
+    watcher = new ConfigWatcher(folder.getRoot(), QUIET_INTERVAL,
+        changes::release);
+    watcher.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    watcher.close();
+  }
+
+  @Test
+  public void testNotifiesWhenPropertiesCreated() throws Exception {
+    write(ConfigWatcher.PROPERTIES_FILE, "auth-rest-deadline: 1000\n");
+    assertThat(changes.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void testNotifiesOnceForBurstOfChanges() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      write(ConfigWatcher.PROPERTIES_FILE, "auth-rest-deadline: " + i + "\n");
+    }
+    assertThat(changes.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(changes.tryAcquire(QUIET_INTERVAL * 4,
+        TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void testIgnoresOtherFiles() throws Exception {
+    write("user-mapping.xml", "<user-mapping/>\n");
+    assertThat(changes.tryAcquire(QUIET_INTERVAL * 4,
+        TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void testStopsWhenClosed() throws Exception {
+    watcher.close();
+    write(ConfigWatcher.PROPERTIES_FILE, "auth-rest-deadline: 1000\n");
+    assertThat(changes.tryAcquire(QUIET_INTERVAL * 4,
+        TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  private void write(String name, String content) throws Exception {
+    Files.write(new File(folder.getRoot(), name).toPath(),
+        content.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.guacamole.GuacamoleSecurityException;
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link ConnectionParameterCache}.
+ */
+public class ConnectionParameterCacheTest {
+
+  private static final int TTL = 30;
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.LENIENT);
+
+  @Mock
+  private AuthService authService;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private HttpServletRequest request;
+
+  private final MockTicker ticker = new MockTicker();
+
+  private AuthSubject subject;
+
+  private ConnectionParameterCache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getParametersCacheTtl()).thenReturn(TTL);
+    when(config.getCacheMaxEntries()).thenReturn(100);
+    subject = new DelegatingAuthSubject(
+        new Credentials("username", "password", request));
+    cache = new ConnectionParameterCache(authService, config, ticker);
+  }
+
+  @Test
+  public void testGetConfiguration() throws Exception {
+    when(authService.authorize(any(AuthSubject.class))).thenReturn(
+        result("conn", "3389"));
+
+    final GuacamoleConfiguration configuration =
+        cache.getConfiguration(subject, "conn");
+
+    assertThat(configuration.getProtocol()).isEqualTo("rdp");
+    assertThat(configuration.getParameter("port")).isEqualTo("3389");
+    final ArgumentCaptor<AuthSubject> captor =
+        ArgumentCaptor.forClass(AuthSubject.class);
+    verify(authService).authorize(captor.capture());
+    assertThat(captor.getValue().getConnectionName()).isEqualTo("conn");
+    assertThat(captor.getValue().getUsername()).isEqualTo("username");
+    assertThat(captor.getValue().getPassword()).isEqualTo("password");
+  }
+
+  @Test
+  public void testCachesConfiguration() throws Exception {
+    when(authService.authorize(any(AuthSubject.class))).thenReturn(
+        result("conn", "3389"));
+
+    cache.getConfiguration(subject, "conn");
+    cache.getConfiguration(subject, "conn");
+    verify(authService, times(1)).authorize(any(AuthSubject.class));
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getSize()).isEqualTo(1);
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(TTL));
+    cache.getConfiguration(subject, "conn");
+    verify(authService, times(2)).authorize(any(AuthSubject.class));
+  }
+
+  @Test
+  public void testCachesEachConnectionSeparately() throws Exception {
+    when(authService.authorize(any(AuthSubject.class))).thenAnswer(
+        invocation -> result(
+            invocation.<AuthSubject>getArgument(0).getConnectionName(),
+            "3389"));
+
+    cache.getConfiguration(subject, "a");
+    cache.getConfiguration(subject, "b");
+    verify(authService, times(2)).authorize(any(AuthSubject.class));
+    assertThat(cache.getSize()).isEqualTo(2);
+  }
+
+  @Test
+  public void testNotCachedWhenTtlIsZero() throws Exception {
+    when(config.getParametersCacheTtl()).thenReturn(0);
+    cache = new ConnectionParameterCache(authService, config, ticker);
+    when(authService.authorize(any(AuthSubject.class))).thenReturn(
+        result("conn", "3389"));
+
+    cache.getConfiguration(subject, "conn");
+    cache.getConfiguration(subject, "conn");
+    verify(authService, times(2)).authorize(any(AuthSubject.class));
+    assertThat(cache.getSize()).isEqualTo(0);
+  }
+
+  @Test(expected = GuacamoleSecurityException.class)
+  public void testWhenNotAuthorized() throws Exception {
+    when(authService.authorize(any(AuthSubject.class))).thenReturn(
+        AuthResult.DENIED);
+    cache.getConfiguration(subject, "conn");
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testWhenConfigurationMissing() throws Exception {
+    when(authService.authorize(any(AuthSubject.class))).thenReturn(
+        result("other", "3389"));
+    cache.getConfiguration(subject, "conn");
+  }
+
+  static AuthResult result(String name, String port) {
+    final GuacamoleConfiguration configuration = new GuacamoleConfiguration();
+    configuration.setProtocol("rdp");
+    configuration.setParameter("port", port);
+    return AuthResult.authorized(
+        Collections.singletonMap(name, configuration));
+  }
+
+}
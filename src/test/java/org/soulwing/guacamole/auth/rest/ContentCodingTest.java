@@ -0,0 +1,135 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ContentCoding}.
+ */
+public class ContentCodingTest {
+
+  private static final byte[] ENTITY = repeat("{\"authorized\":true}", 100);
+
+  @Test
+  public void testEncodeBelowThreshold() throws Exception {
+    final ContentCoding coding = new ContentCoding(ENTITY.length + 1);
+    assertThat(coding.encode(ENTITY)).isSameAs(ENTITY);
+    assertThat(coding.getRequestEntityBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getRequestWireBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getCompressedRequestCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEncodeWhenRequestCompressionDisabled() throws Exception {
+    final ContentCoding coding = new ContentCoding(0);
+    assertThat(coding.isRequestCompressionEnabled()).isFalse();
+    assertThat(coding.encode(ENTITY)).isSameAs(ENTITY);
+  }
+
+  @Test
+  public void testEncodeAtThreshold() throws Exception {
+    final ContentCoding coding = new ContentCoding(ENTITY.length);
+    final byte[] encoded = coding.encode(ENTITY);
+    assertThat(readFully(new GZIPInputStream(
+        new ByteArrayInputStream(encoded)))).isEqualTo(ENTITY);
+    assertThat(coding.getRequestEntityBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getRequestWireBytes()).isEqualTo(encoded.length);
+    assertThat(encoded.length).isLessThan(ENTITY.length);
+    assertThat(coding.getCompressedRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDecodeGzip() throws Exception {
+    final ContentCoding coding = new ContentCoding(0);
+    final byte[] encoded = compress(true);
+    assertThat(readFully(coding.decode("gzip",
+        new ByteArrayInputStream(encoded)))).isEqualTo(ENTITY);
+    assertThat(coding.getResponseEntityBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getResponseWireBytes()).isEqualTo(encoded.length);
+    assertThat(coding.getCompressedResponseCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDecodeDeflate() throws Exception {
+    final ContentCoding coding = new ContentCoding(0);
+    final byte[] encoded = compress(false);
+    assertThat(readFully(coding.decode("Deflate",
+        new ByteArrayInputStream(encoded)))).isEqualTo(ENTITY);
+    assertThat(coding.getCompressedResponseCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDecodeIdentity() throws Exception {
+    final ContentCoding coding = new ContentCoding(0);
+    assertThat(readFully(coding.decode(null,
+        new ByteArrayInputStream(ENTITY)))).isEqualTo(ENTITY);
+    assertThat(coding.getResponseEntityBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getResponseWireBytes()).isEqualTo(ENTITY.length);
+    assertThat(coding.getCompressedResponseCount()).isEqualTo(0);
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecodeUnsupportedCoding() throws Exception {
+    new ContentCoding(0).decode("br", new ByteArrayInputStream(ENTITY));
+  }
+
+  /**
+   * Compresses {@link #ENTITY} in the {@code gzip} or {@code deflate} coding.
+   */
+  private static byte[] compress(boolean gzip) throws IOException {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (OutputStream out = gzip ?
+        new GZIPOutputStream(bos) : new DeflaterOutputStream(bos)) {
+      out.write(ENTITY);
+    }
+    return bos.toByteArray();
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buf = new byte[256];
+    int count;
+    while ((count = in.read(buf)) != -1) {
+      out.write(buf, 0, count);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] repeat(String s, int count) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(s);
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DigestAuthenticator}.
+ */
+public class DigestAuthenticatorTest {
+
+  private static final String CHALLENGE = "Digest realm=\"testrealm@host.com\","
+      + " qop=\"auth,auth-int\","
+      + " nonce=\"dcd98b7102dd2f0e8b11d0f600bfb0c093\","
+      + " opaque=\"5ccc069c403ebaf9f0171e9517f40e41\"";
+
+  private final DigestAuthenticator authenticator = new DigestAuthenticator(
+      "Mufasa", "Circle Of Life", () -> "0a4f113b");
+
+  @Test
+  public void testAuthorizeBeforeChallenge() throws Exception {
+    assertThat(authenticator.authorize("GET", "/dir/index.html")).isNull();
+  }
+
+  @Test
+  public void testAuthorize() throws Exception {
+    assertThat(authenticator.challenge(
+        Collections.singletonList(CHALLENGE), false)).isTrue();
+
+    final Map<String, String> params = params(
+        authenticator.authorize("GET", "/dir/index.html"));
+    assertThat(params.get("response"))
+        .isEqualTo("6629fae49393a05397450978507c4ef1");
+    assertThat(params.get("nc")).isEqualTo("00000001");
+    assertThat(params.get("qop")).isEqualTo("auth");
+    assertThat(params.get("opaque"))
+        .isEqualTo("5ccc069c403ebaf9f0171e9517f40e41");
+  }
+
+  @Test
+  public void testAuthorizeIncrementsNonceCount() throws Exception {
+    authenticator.challenge(Collections.singletonList(CHALLENGE), false);
+    authenticator.authorize("GET", "/dir/index.html");
+    final Map<String, String> params = params(
+        authenticator.authorize("GET", "/dir/index.html"));
+    assertThat(params.get("nc")).isEqualTo("00000002");
+    assertThat(params.get("response"))
+        .isNotEqualTo("6629fae49393a05397450978507c4ef1");
+  }
+
+  @Test
+  public void testChallengeAfterCredentialsSent() throws Exception {
+    assertThat(authenticator.challenge(
+        Collections.singletonList(CHALLENGE), true)).isFalse();
+    assertThat(authenticator.challenge(
+        Collections.singletonList(CHALLENGE + ", stale=true"), true))
+        .isTrue();
+  }
+
+  @Test
+  public void testChallengeIgnoresOtherSchemes() throws Exception {
+    assertThat(authenticator.challenge(
+        Collections.singletonList("Basic realm=\"x\""), false)).isFalse();
+    assertThat(authenticator.challenge(Collections.singletonList(
+        "Digest realm=\"x\", nonce=\"y\", algorithm=SHA-512"), false))
+        .isFalse();
+    assertThat(authenticator.authorize("GET", "/")).isNull();
+  }
+
+  @Test
+  public void testParseParams() throws Exception {
+    final Map<String, String> params = DigestAuthenticator.parseParams(
+        "realm=\"a, \\\"b\\\"\", Nonce=xyz ,qop=auth");
+    assertThat(params.get("realm")).isEqualTo("a, \"b\"");
+    assertThat(params.get("nonce")).isEqualTo("xyz");
+    assertThat(params.get("qop")).isEqualTo("auth");
+  }
+
+  private static Map<String, String> params(String authorization) {
+    assertThat(authorization).startsWith("Digest ");
+    return DigestAuthenticator.parseParams(
+        authorization.substring("Digest ".length()));
+  }
+
+}
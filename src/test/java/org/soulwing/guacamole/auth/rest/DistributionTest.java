@@ -0,0 +1,96 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Distribution}.
+ */
+public class DistributionTest {
+
+  @Test
+  public void testSummarizeWhenEmpty() throws Exception {
+    final DistributionSummary summary = new Distribution(1).summarize();
+    assertThat(summary.getCount()).isEqualTo(0);
+    assertThat(summary.getMean()).isEqualTo(0);
+    assertThat(summary.getP99()).isEqualTo(0);
+    assertThat(summary.getMax()).isEqualTo(0);
+  }
+
+  @Test
+  public void testSummarize() throws Exception {
+    final Distribution distribution = new Distribution(1);
+    for (int i = 1; i <= 1000; i++) {
+      distribution.record(i);
+    }
+    final DistributionSummary summary = distribution.summarize();
+    assertThat(summary.getCount()).isEqualTo(1000);
+    assertThat(summary.getSum()).isCloseTo(500500, withinPercentage(1));
+    assertThat(summary.getMean()).isCloseTo(500.5, withinPercentage(1));
+    assertThat(summary.getP50()).isCloseTo(500, withinPercentage(1));
+    assertThat(summary.getP90()).isCloseTo(900, withinPercentage(1));
+    assertThat(summary.getP99()).isCloseTo(990, withinPercentage(1));
+    assertThat(summary.getP999()).isCloseTo(999, withinPercentage(1));
+    assertThat(summary.getMax()).isCloseTo(1000, withinPercentage(1));
+  }
+
+  @Test
+  public void testSummarizeIsCumulative() throws Exception {
+    final Distribution distribution = new Distribution(1);
+    distribution.record(10);
+    assertThat(distribution.summarize().getCount()).isEqualTo(1);
+    distribution.record(20);
+    final DistributionSummary summary = distribution.summarize();
+    assertThat(summary.getCount()).isEqualTo(2);
+    assertThat(summary.getMax()).isEqualTo(20);
+  }
+
+  @Test
+  public void testSummarizeAppliesScale() throws Exception {
+    final Distribution distribution = new Distribution(0.001);
+    distribution.record(2000);
+    final DistributionSummary summary = distribution.summarize();
+    assertThat(summary.getMax()).isCloseTo(2.0, withinPercentage(1));
+    assertThat(summary.getSum()).isCloseTo(2.0, withinPercentage(1));
+  }
+
+  @Test
+  public void testRecordNegativeValueAsZero() throws Exception {
+    final Distribution distribution = new Distribution(1);
+    distribution.record(-1);
+    final DistributionSummary summary = distribution.summarize();
+    assertThat(summary.getCount()).isEqualTo(1);
+    assertThat(summary.getMax()).isEqualTo(0);
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    final Distribution distribution = new Distribution(1);
+    distribution.record(10);
+    distribution.summarize();
+    distribution.record(20);
+    distribution.reset();
+    assertThat(distribution.summarize().getCount()).isEqualTo(0);
+  }
+
+}
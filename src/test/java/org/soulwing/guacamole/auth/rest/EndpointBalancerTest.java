@@ -0,0 +1,142 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link EndpointBalancer}.
+ */
+public class EndpointBalancerTest {
+
+  private static final long EJECT_DURATION = TimeUnit.SECONDS.toNanos(10);
+  private static final long SLOW_START = TimeUnit.SECONDS.toNanos(30);
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+  private final MockTicker ticker = new MockTicker();
+
+  private final EndpointBalancer balancer = new EndpointBalancer(
+      Arrays.asList("http://a", "http://b"), 2, EJECT_DURATION, SLOW_START,
+      ticker, new Random(1));
+
+  private final EndpointBalancer.Endpoint a = balancer.getEndpoints().get(0);
+  private final EndpointBalancer.Endpoint b = balancer.getEndpoints().get(1);
+
+  @Test
+  public void testPrefersLowerLatency() throws Exception {
+    balancer.complete(select(a), SLOW, false);
+    balancer.complete(select(b), FAST, false);
+    for (int i = 0; i < 10; i++) {
+      final EndpointBalancer.Endpoint endpoint = balancer.select();
+      assertThat(endpoint).isSameAs(b);
+      balancer.complete(endpoint, FAST, false);
+    }
+  }
+
+  @Test
+  public void testPrefersFewerOutstanding() throws Exception {
+    balancer.complete(select(a), FAST, false);
+    balancer.complete(select(b), FAST, false);
+    final EndpointBalancer.Endpoint first = balancer.select();
+    final EndpointBalancer.Endpoint second = balancer.select();
+    assertThat(second).isNotSameAs(first);
+    assertThat(a.getOutstanding()).isEqualTo(1);
+    assertThat(b.getOutstanding()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLatencyDecays() throws Exception {
+    balancer.complete(select(a), SLOW, false);
+    ticker.advance(EndpointBalancer.DECAY_TIME * 10);
+    balancer.complete(select(a), FAST, false);
+    assertThat(a.getLatency()).isLessThan(2.0 * FAST);
+  }
+
+  @Test
+  public void testEjectsAfterConsecutiveFailures() throws Exception {
+    balancer.complete(select(a), FAST, true);
+    assertThat(a.isEjected()).isFalse();
+    balancer.complete(select(a), FAST, true);
+    assertThat(a.isEjected()).isTrue();
+    for (int i = 0; i < 10; i++) {
+      final EndpointBalancer.Endpoint endpoint = balancer.select();
+      assertThat(endpoint).isSameAs(b);
+      balancer.complete(endpoint, SLOW, false);
+    }
+  }
+
+  @Test
+  public void testReadmitsWithSlowStart() throws Exception {
+    balancer.complete(select(b), FAST, false);
+    balancer.complete(select(a), FAST, true);
+    balancer.complete(select(a), FAST, true);
+
+    ticker.advance(EJECT_DURATION);
+    final EndpointBalancer.Endpoint endpoint = balancer.select();
+    assertThat(a.isEjected()).isFalse();
+    assertThat(endpoint).isSameAs(b);
+    balancer.complete(endpoint, FAST, false);
+
+    ticker.advance(SLOW_START);
+    balancer.complete(select(a), FAST, false);
+    assertThat(a.isEjected()).isFalse();
+  }
+
+  @Test
+  public void testFailureDuringSlowStartEjectsWithBackoff() throws Exception {
+    balancer.complete(select(a), FAST, true);
+    balancer.complete(select(a), FAST, true);
+    ticker.advance(EJECT_DURATION);
+    balancer.complete(balancer.select(), FAST, false);
+
+    balancer.complete(select(a), FAST, true);
+    assertThat(a.isEjected()).isTrue();
+
+    ticker.advance(EJECT_DURATION);
+    balancer.complete(balancer.select(), FAST, false);
+    assertThat(a.isEjected()).isTrue();
+
+    ticker.advance(EJECT_DURATION);
+    balancer.complete(balancer.select(), FAST, false);
+    assertThat(a.isEjected()).isFalse();
+  }
+
+  @Test
+  public void testSelectsSoonestWhenAllEjected() throws Exception {
+    balancer.complete(select(a), FAST, true);
+    balancer.complete(select(a), FAST, true);
+    ticker.advance(1);
+    balancer.complete(select(b), FAST, true);
+    balancer.complete(select(b), FAST, true);
+    assertThat(balancer.select()).isSameAs(a);
+  }
+
+  private EndpointBalancer.Endpoint select(EndpointBalancer.Endpoint endpoint) {
+    balancer.acquire(endpoint);
+    return endpoint;
+  }
+
+}
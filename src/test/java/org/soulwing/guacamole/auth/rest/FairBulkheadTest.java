@@ -0,0 +1,170 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.guacamole.GuacamoleServerBusyException;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link FairBulkhead}.
+ */
+public class FairBulkheadTest {
+
+  private static final long LONG_WAIT = TimeUnit.SECONDS.toNanos(60);
+
+  private final MockTicker ticker = new MockTicker();
+
+  @Test
+  public void testAdmitsUpToLimit() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(2, 10, 0, LONG_WAIT);
+    assertThat(bulkhead.acquire("a").isDone()).isTrue();
+    assertThat(bulkhead.acquire("a").isDone()).isTrue();
+    final CompletableFuture<Void> third = bulkhead.acquire("a");
+    assertThat(third.isDone()).isFalse();
+    assertThat(bulkhead.getActive()).isEqualTo(2);
+    assertThat(bulkhead.getQueued()).isEqualTo(1);
+
+    ticker.advance(TimeUnit.MILLISECONDS.toNanos(5));
+    bulkhead.release();
+    assertThat(third.isDone()).isTrue();
+    assertThat(bulkhead.getActive()).isEqualTo(2);
+    assertThat(bulkhead.getQueued()).isEqualTo(0);
+    assertThat(bulkhead.getMaxWaitTime())
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+
+    bulkhead.release();
+    bulkhead.release();
+    assertThat(bulkhead.getActive()).isEqualTo(0);
+    assertThat(bulkhead.getAdmittedCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testChangesMaxConcurrent() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(1, 10, 0, LONG_WAIT);
+    bulkhead.acquire("a");
+    final CompletableFuture<Void> second = bulkhead.acquire("a");
+    final CompletableFuture<Void> third = bulkhead.acquire("b");
+
+    bulkhead.setMaxConcurrent(3);
+    assertThat(second.isDone()).isTrue();
+    assertThat(third.isDone()).isTrue();
+    assertThat(bulkhead.getActive()).isEqualTo(3);
+
+    bulkhead.setMaxConcurrent(1);
+    final CompletableFuture<Void> fourth = bulkhead.acquire("a");
+    bulkhead.release();
+    bulkhead.release();
+    assertThat(fourth.isDone()).isFalse();
+    bulkhead.release();
+    assertThat(fourth.isDone()).isTrue();
+    assertThat(bulkhead.getActive()).isEqualTo(1);
+  }
+
+  @Test
+  public void testServesSourcesInRotation() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(1, 10, 0, LONG_WAIT);
+    bulkhead.acquire("busy");
+    final List<String> order = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      bulkhead.acquire("busy").thenRun(() -> order.add("busy"));
+    }
+    bulkhead.acquire("quiet").thenRun(() -> order.add("quiet"));
+    assertThat(bulkhead.getQueuedSources()).isEqualTo(2);
+
+    for (int i = 0; i < 4; i++) {
+      bulkhead.release();
+    }
+    assertThat(order).containsExactly("busy", "quiet", "busy", "busy");
+  }
+
+  @Test
+  public void testRejectsWhenQueueFull() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(1, 1, 0, LONG_WAIT);
+    bulkhead.acquire("a");
+    bulkhead.acquire("b");
+    assertRejected(bulkhead.acquire("c"));
+    assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRejectsWhenSourceQueueFull() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(1, 10, 1, LONG_WAIT);
+    bulkhead.acquire("a");
+    bulkhead.acquire("a");
+    assertRejected(bulkhead.acquire("a"));
+    assertThat(bulkhead.acquire("b").isDone()).isFalse();
+  }
+
+  @Test
+  public void testRejectsAfterMaxWait() throws Exception {
+    final FairBulkhead bulkhead =
+        newBulkhead(1, 10, 0, TimeUnit.MILLISECONDS.toNanos(50));
+    bulkhead.acquire("a");
+    final CompletableFuture<Void> waiter = bulkhead.acquire("a");
+    assertRejected(waiter);
+    assertThat(bulkhead.getTimedOutCount()).isEqualTo(1);
+    assertThat(bulkhead.getQueued()).isEqualTo(0);
+    assertThat(bulkhead.getQueuedSources()).isEqualTo(0);
+
+    bulkhead.release();
+    assertThat(bulkhead.getActive()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRejectsWhenRemainingTimeSpent() throws Exception {
+    final FairBulkhead bulkhead = newBulkhead(1, 10, 0, LONG_WAIT);
+    bulkhead.acquire("a");
+    final long start = System.nanoTime();
+    final CompletableFuture<Void> waiter =
+        bulkhead.acquire("a", TimeUnit.MILLISECONDS.toNanos(50));
+    assertRejected(waiter);
+    assertThat(System.nanoTime() - start)
+        .isLessThan(TimeUnit.SECONDS.toNanos(5));
+    assertThat(bulkhead.getTimedOutCount()).isEqualTo(1);
+    assertThat(bulkhead.getQueued()).isEqualTo(0);
+  }
+
+  private FairBulkhead newBulkhead(int maxConcurrent, int maxQueue,
+      int maxQueuePerSource, long maxWait) {
+    return new FairBulkhead(maxConcurrent, maxQueue, maxQueuePerSource,
+        maxWait, Runnable::run, ticker);
+  }
+
+  private static void assertRejected(CompletableFuture<Void> future)
+      throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("expected GuacamoleServerBusyException");
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause())
+          .isInstanceOf(GuacamoleServerBusyException.class);
+    }
+  }
+
+}
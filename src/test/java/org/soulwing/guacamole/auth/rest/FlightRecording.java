@@ -0,0 +1,85 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * A flight recording of selected event types, for use in tests.
+ */
+class FlightRecording {
+
+  private final Recording recording = new Recording();
+
+  /**
+   * Starts a recording of the given event types.
+   *
+   * @param types
+   *    Event types to record.
+   */
+  @SafeVarargs
+  FlightRecording(Class<? extends Event>... types) {
+    for (final Class<? extends Event> type : types) {
+      recording.enable(type);
+    }
+    recording.start();
+  }
+
+  /**
+   * Stops the recording and reads the recorded events.
+   *
+   * @param type
+   *    Type of the events to return.
+   *
+   * @return
+   *    Recorded events of the given type.
+   *
+   * @throws IOException
+   *    If the recording cannot be read.
+   */
+  List<RecordedEvent> stop(Class<? extends Event> type) throws IOException {
+    recording.stop();
+    final Path file = Files.createTempFile("auth-rest", ".jfr");
+    try {
+      recording.dump(file);
+      final List<RecordedEvent> events = new ArrayList<>();
+      for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        if (event.getEventType().getName().equals(type.getAnnotation(
+            jdk.jfr.Name.class).value())) {
+          events.add(event);
+        }
+      }
+      return events;
+    }
+    finally {
+      Files.delete(file);
+      recording.close();
+    }
+  }
+
+}
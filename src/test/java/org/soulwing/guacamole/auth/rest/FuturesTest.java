@@ -0,0 +1,88 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.apache.guacamole.GuacamoleServerException;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Futures}.
+ */
+public class FuturesTest {
+
+  private final List<Runnable> tasks = new ArrayList<>();
+
+  private final Executor executor = tasks::add;
+
+  @Test
+  public void testSupplyAsyncRunsOnExecutor() throws Exception {
+    final CompletableFuture<Thread> future =
+        Futures.supplyAsync(Thread::currentThread, executor);
+    assertThat(future.isDone()).isFalse();
+    assertThat(tasks).hasSize(1);
+  }
+
+  @Test
+  public void testSupplyAsyncRunsOnWaitingCaller() throws Exception {
+    assertThat(Futures.call(() ->
+        Futures.supplyAsync(Thread::currentThread, executor)))
+        .isSameAs(Thread.currentThread());
+    assertThat(tasks).isEmpty();
+  }
+
+  @Test
+  public void testOnlyFirstSupplierRunsOnWaitingCaller() throws Exception {
+    assertThat(Futures.call(() -> {
+      final CompletableFuture<Thread> first =
+          Futures.supplyAsync(Thread::currentThread, executor);
+      Futures.supplyAsync(Thread::currentThread, executor);
+      return first;
+    })).isSameAs(Thread.currentThread());
+    assertThat(tasks).hasSize(1);
+
+    // the marker does not outlive the call
+    Futures.supplyAsync(Thread::currentThread, executor);
+    assertThat(tasks).hasSize(2);
+  }
+
+  @Test
+  public void testDetachedSupplierRunsOnExecutor() throws Exception {
+    assertThat(Futures.call(() -> {
+      Futures.detach(() ->
+          Futures.supplyAsync(Thread::currentThread, executor));
+      return Futures.supplyAsync(Thread::currentThread, executor);
+    })).isSameAs(Thread.currentThread());
+    assertThat(tasks).hasSize(1);
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testCallRethrowsSupplierException() throws Exception {
+    Futures.call(() -> Futures.supplyAsync(() -> {
+      throw new GuacamoleServerException("failed");
+    }, executor));
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GradientLimit}.
+ */
+public class GradientLimitTest {
+
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  public void testGrowsWhileLatencyIsStable() throws Exception {
+    final GradientLimit limit = new GradientLimit(10, 2, 100);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(RTT, limit.getLimit(), false);
+    }
+    assertThat(limit.getLimit()).isGreaterThan(20);
+    assertThat(limit.getRtt()).isEqualTo((double) RTT);
+    assertThat(limit.getRttNoLoad()).isEqualTo((double) RTT);
+  }
+
+  @Test
+  public void testShrinksWhenLatencyInflates() throws Exception {
+    final GradientLimit limit = new GradientLimit(50, 2, 100);
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(RTT, 25, false);
+    }
+    final int stable = limit.getLimit();
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(5 * RTT, limit.getLimit(), false);
+    }
+    assertThat(limit.getLimit()).isLessThan(stable / 2);
+    assertThat(limit.getRtt()).isGreaterThan(limit.getRttNoLoad());
+  }
+
+  @Test
+  public void testDoesNotGrowWhenUnderused() throws Exception {
+    final GradientLimit limit = new GradientLimit(20, 2, 100);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(RTT, 1, false);
+    }
+    assertThat(limit.getLimit()).isEqualTo(20);
+  }
+
+  @Test
+  public void testBacksOffWhenDropped() throws Exception {
+    final GradientLimit limit = new GradientLimit(20, 2, 100);
+    assertThat(limit.onSample(0, 20, true)).isEqualTo(18);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(0, 20, true);
+    }
+    assertThat(limit.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  public void testRespectsMaximum() throws Exception {
+    final GradientLimit limit = new GradientLimit(200, 2, 30);
+    assertThat(limit.getLimit()).isEqualTo(30);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(RTT, 30, false);
+    }
+    assertThat(limit.getLimit()).isEqualTo(30);
+  }
+
+}
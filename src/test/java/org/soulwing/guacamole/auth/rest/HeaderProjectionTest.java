@@ -0,0 +1,65 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HeaderProjection}.
+ */
+public class HeaderProjectionTest {
+
+  @Test
+  public void testAllIncludesEveryHeader() throws Exception {
+    assertThat(HeaderProjection.ALL.includes("Cookie")).isTrue();
+    assertThat(HeaderProjection.ALL.includes("User-Agent")).isTrue();
+  }
+
+  @Test
+  public void testAllowList() throws Exception {
+    final HeaderProjection projection = new HeaderProjection(
+        Arrays.asList("User-Agent", "X-Forwarded-For"),
+        Collections.<String>emptyList());
+    assertThat(projection.includes("user-agent")).isTrue();
+    assertThat(projection.includes("X-FORWARDED-FOR")).isTrue();
+    assertThat(projection.includes("Cookie")).isFalse();
+  }
+
+  @Test
+  public void testDenyList() throws Exception {
+    final HeaderProjection projection = new HeaderProjection(
+        Collections.<String>emptyList(), Arrays.asList("Cookie"));
+    assertThat(projection.includes("cookie")).isFalse();
+    assertThat(projection.includes("User-Agent")).isTrue();
+  }
+
+  @Test
+  public void testDenyListOverridesAllowList() throws Exception {
+    final HeaderProjection projection = new HeaderProjection(
+        Arrays.asList("Cookie", "User-Agent"), Arrays.asList("cookie"));
+    assertThat(projection.includes("Cookie")).isFalse();
+    assertThat(projection.includes("User-Agent")).isTrue();
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link HeaderSnapshot}.
+ */
+public class HeaderSnapshotTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.LENIENT);
+
+  @Mock
+  private HttpServletRequest request;
+
+  @Test
+  public void testCaptureAllHeaders() throws Exception {
+    stubHeaders();
+    final HeaderSnapshot snapshot =
+        HeaderSnapshot.capture(request, HeaderProjection.ALL);
+
+    assertThat(snapshot).hasSize(3);
+    assertThat(snapshot.keySet()).containsExactly("Accept", "Cookie", "Via");
+    assertThat(snapshot.get("Accept")).containsExactly("text/html", "*/*");
+    assertThat(snapshot.get("Cookie")).containsExactly("a=1");
+    assertThat(snapshot.get("Via")).containsExactly("proxy");
+  }
+
+  @Test
+  public void testCaptureProjectedHeaders() throws Exception {
+    stubHeaders();
+    final HeaderSnapshot snapshot = HeaderSnapshot.capture(request,
+        new HeaderProjection(Collections.<String>emptyList(),
+            Collections.singletonList("cookie")));
+    assertThat(snapshot.keySet()).containsExactly("Accept", "Via");
+  }
+
+  @Test
+  public void testLookupIgnoresCase() throws Exception {
+    stubHeaders();
+    final HeaderSnapshot snapshot =
+        HeaderSnapshot.capture(request, HeaderProjection.ALL);
+    assertThat(snapshot.containsKey("accept")).isTrue();
+    assertThat(snapshot.get("VIA")).containsExactly("proxy");
+    assertThat(snapshot.get("Host")).isNull();
+  }
+
+  @Test
+  public void testEqualsMapWithSameContent() throws Exception {
+    stubHeaders();
+    final Map<String, List<String>> expected = new LinkedHashMap<>();
+    expected.put("Accept", Arrays.asList("text/html", "*/*"));
+    expected.put("Cookie", Collections.singletonList("a=1"));
+    expected.put("Via", Collections.singletonList("proxy"));
+    assertThat(HeaderSnapshot.capture(request, HeaderProjection.ALL))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  public void testCaptureWithoutHeaderNames() throws Exception {
+    assertThat(HeaderSnapshot.capture(request, HeaderProjection.ALL))
+        .isEmpty();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotIsImmutable() throws Exception {
+    stubHeaders();
+    HeaderSnapshot.capture(request, HeaderProjection.ALL)
+        .get("Accept").set(0, "text/plain");
+  }
+
+  private void stubHeaders() {
+    when(request.getHeaderNames()).thenReturn(Collections.enumeration(
+        Arrays.asList("Accept", "Cookie", "Via", "Empty")));
+    when(request.getHeaders("Accept")).thenReturn(Collections.enumeration(
+        Arrays.asList("text/html", "*/*")));
+    when(request.getHeaders("Cookie")).thenReturn(Collections.enumeration(
+        Collections.singletonList("a=1")));
+    when(request.getHeaders("Via")).thenReturn(Collections.enumeration(
+        Collections.singletonList("proxy")));
+    when(request.getHeaders("Empty")).thenReturn(Collections.enumeration(
+        Collections.<String>emptyList()));
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HedgeBudget}.
+ */
+public class HedgeBudgetTest {
+
+  @Test
+  public void testLimitsToPercentage() throws Exception {
+    final HedgeBudget budget = new HedgeBudget(10);
+    int hedges = 0;
+    for (int i = 0; i < 100; i++) {
+      budget.deposit();
+      if (budget.tryWithdraw()) {
+        hedges++;
+      }
+    }
+    assertThat(hedges).isEqualTo(10);
+  }
+
+  @Test
+  public void testBalanceIsCapped() throws Exception {
+    final HedgeBudget budget = new HedgeBudget(100);
+    for (int i = 0; i < 1000; i++) {
+      budget.deposit();
+    }
+    int hedges = 0;
+    while (budget.tryWithdraw()) {
+      hedges++;
+    }
+    assertThat(hedges).isEqualTo(10);
+  }
+
+  @Test
+  public void testZeroBudget() throws Exception {
+    final HedgeBudget budget = new HedgeBudget(0);
+    budget.deposit();
+    assertThat(budget.tryWithdraw()).isFalse();
+  }
+
+}
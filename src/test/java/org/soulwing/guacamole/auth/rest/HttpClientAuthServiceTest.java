@@ -0,0 +1,386 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletRequest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link HttpClientAuthService}, using a
+ * {@link StubAuthServer}.
+ */
+public class HttpClientAuthServiceTest {
+
+  private static final String AUTHORIZATION_URI = "/authorization";
+
+  private static final String PARAMETERS_URI = "/parameters";
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.LENIENT);
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private HttpServletRequest request;
+
+  private StubAuthServer server;
+
+  private HttpClientAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new StubAuthServer(4);
+    when(config.getServiceUrls()).thenReturn(
+        Collections.singletonList(server.getUrl()));
+    when(config.getAuthorizationUri()).thenReturn(AUTHORIZATION_URI);
+    when(config.getEjectFailures()).thenReturn(1);
+    when(config.getEjectDuration()).thenReturn(60);
+    when(config.isVirtualThreadsEnabled()).thenReturn(true);
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.<String>emptyList()));
+    service = new HttpClientAuthService();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.destroy();
+    server.stop();
+  }
+
+  @Test
+  public void testAuthorizeAsync() throws Exception {
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    final CompletableFuture<AuthResult> future = service.authorizeAsync(
+        AuthSubjectUtil.newAuthSubject(request));
+    final AuthResult result = future.get(5, TimeUnit.SECONDS);
+
+    assertThat(result.isAuthorized()).isTrue();
+    assertThat(result.getConfigurations()).isEmpty();
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.method).isEqualTo("POST");
+    assertThat(received.path).isEqualTo(AUTHORIZATION_URI);
+    assertThat(received.headers.getFirst("Content-Type"))
+        .isEqualTo("application/json");
+    assertThat(received.bodyAsString())
+        .contains("\"username\":\"" + AuthSubjectUtil.USERNAME + "\"");
+  }
+
+  @Test
+  public void testAuthorizeConnectionSubject() throws Exception {
+    when(config.getParametersUri()).thenReturn(PARAMETERS_URI);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{\"conn\":"
+            + "{\"protocol\":\"rdp\",\"parameters\":{\"port\":\"3389\"}}}}"));
+    service.init(config);
+
+    final AuthResult result = service.authorize(new ConnectionSubject(
+        AuthSubjectUtil.newAuthSubject(request), "conn"));
+
+    assertThat(result.getConfigurations().get("conn").getParameter("port"))
+        .isEqualTo("3389");
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.path).isEqualTo(PARAMETERS_URI);
+    assertThat(received.bodyAsString()).contains("\"connection\":\"conn\"");
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testAuthorizeConnectionSubjectWithoutParametersUri()
+      throws Exception {
+    server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+    service.init(config);
+    service.authorize(new ConnectionSubject(
+        AuthSubjectUtil.newAuthSubject(request), "conn"));
+  }
+
+  @Test
+  public void testAuthorizeWithCompression() throws Exception {
+    when(config.isCompressionEnabled()).thenReturn(true);
+    when(config.getCompressionRequestThreshold()).thenReturn(1);
+    server.setResponder(StubAuthServer.gzipJson(200,
+        JerseyAuthServiceTest.configurations(50)));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .getConfigurations()).hasSize(50);
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Accept-Encoding")).contains("gzip");
+    assertThat(received.headers.getFirst("Content-Encoding"))
+        .isEqualTo("gzip");
+    assertThat(new String(JerseyAuthServiceTest.gunzip(received.body),
+        "UTF-8")).contains(
+            "\"username\":\"" + AuthSubjectUtil.USERNAME + "\"");
+  }
+
+  @Test
+  public void testAuthorizeWithSmile() throws Exception {
+    when(config.getWireFormat()).thenReturn("smile");
+    server.setResponder(StubAuthServer.smileJson(200,
+        JerseyAuthServiceTest.configurations(5)));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .getConfigurations()).hasSize(5);
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Content-Type"))
+        .isEqualTo(StubAuthServer.SMILE_TYPE);
+    assertThat(StubAuthServer.readSmile(received.body).get("username"))
+        .isEqualTo(AuthSubjectUtil.USERNAME);
+  }
+
+  @Test
+  public void testAuthorizeWithSmileWhenRejected() throws Exception {
+    when(config.getWireFormat()).thenReturn("smile");
+    server.setResponder(StubAuthServer.rejectSmile(StubAuthServer.smileJson(
+        200, JerseyAuthServiceTest.configurations(5))));
+    service.init(config);
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+          .getConfigurations()).hasSize(5);
+      final StubAuthServer.Request received = server.getLastRequest();
+      assertThat(received.headers.getFirst("Content-Type"))
+          .isEqualTo("application/json");
+    }
+  }
+
+  @Test
+  public void testAuthorizeWithBasicAuth() throws Exception {
+    when(config.isBasicConfigured()).thenReturn(true);
+    when(config.getBasicUsername()).thenReturn("user");
+    when(config.getBasicPassword()).thenReturn("secret");
+    server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isFalse();
+    assertThat(server.getLastRequest().headers.getFirst("Authorization"))
+        .isEqualTo("Basic dXNlcjpzZWNyZXQ=");
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testInitWithDigestAuth() throws Exception {
+    when(config.isDigestConfigured()).thenReturn(true);
+    service.init(config);
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testInitWithOAuth2Auth() throws Exception {
+    when(config.getOAuth2ServiceUrl()).thenReturn(
+        "http://localhost/token");
+    service.init(config);
+  }
+
+  @Test
+  public void testAuthorizeWhenServiceError() throws Exception {
+    server.setResponder(StubAuthServer.json(500, "{}"));
+    service.init(config);
+    try {
+      service.authorizeAsync(AuthSubjectUtil.newAuthSubject(request))
+          .get(5, TimeUnit.SECONDS);
+      fail("expected GuacamoleServerException");
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause()).isInstanceOf(GuacamoleServerException.class);
+    }
+  }
+
+  @Test
+  public void testAuthorizeWithOtherSuccessStatus() throws Exception {
+    server.setResponder(StubAuthServer.json(203, "{\"authorized\":false}"));
+    service.init(config);
+    assertThat(service.authorizeAsync(AuthSubjectUtil.newAuthSubject(request))
+        .get(5, TimeUnit.SECONDS).isAuthorized()).isFalse();
+  }
+
+  @Test
+  public void testAuthorizeSendsDeadlineHeader() throws Exception {
+    when(config.getDeadline()).thenReturn(5000);
+    server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+    service.init(config);
+
+    service.authorize(AuthSubjectUtil.newAuthSubject(request));
+
+    final long remaining = Long.parseLong(server.getLastRequest().headers
+        .getFirst(JerseyAuthService.DEADLINE_HEADER));
+    assertThat(remaining).isBetween(1L, 5000L);
+  }
+
+  @Test
+  public void testAuthorizeUsesSubjectDeadline() throws Exception {
+    when(config.getDeadline()).thenReturn(60000);
+    server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+    service.init(config);
+
+    service.authorize(BoundedAuthSubject.start(
+        AuthSubjectUtil.newAuthSubject(request), 2000));
+
+    final long remaining = Long.parseLong(server.getLastRequest().headers
+        .getFirst(JerseyAuthService.DEADLINE_HEADER));
+    assertThat(remaining).isBetween(1L, 2000L);
+  }
+
+  @Test
+  public void testAuthorizeWhenDeadlineExceeded() throws Exception {
+    when(config.getDeadline()).thenReturn(250);
+    server.setResponder(StubAuthServer.delayed(5000,
+        StubAuthServer.json(200, "{\"authorized\":false}")));
+    service.init(config);
+
+    final long start = System.currentTimeMillis();
+    try {
+      service.authorize(AuthSubjectUtil.newAuthSubject(request));
+      fail("expected GuacamoleUpstreamTimeoutException");
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(System.currentTimeMillis() - start).isLessThan(2500L);
+    }
+  }
+
+  @Test
+  public void testAuthorizeAvoidsFailingEndpoint() throws Exception {
+    final StubAuthServer failing = new StubAuthServer(1);
+    try {
+      failing.setResponder(StubAuthServer.json(503, "{}"));
+      server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+      when(config.getServiceUrls()).thenReturn(
+          Arrays.asList(failing.getUrl(), server.getUrl()));
+      service.init(config);
+
+      int failures = 0;
+      for (int i = 0; i < 10; i++) {
+        try {
+          service.authorize(AuthSubjectUtil.newAuthSubject(request));
+        }
+        catch (GuacamoleServerException ex) {
+          failures++;
+        }
+      }
+      assertThat(failures).isLessThanOrEqualTo(1);
+    }
+    finally {
+      failing.stop();
+    }
+  }
+
+  @Test
+  public void testAuthorizeWithHedge() throws Exception {
+    when(config.isHedgeEnabled()).thenReturn(true);
+    when(config.getHedgeDelay()).thenReturn(50);
+    when(config.getHedgeBudget()).thenReturn(100);
+    final StubAuthServer.Responder fast = StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}");
+    final StubAuthServer.Responder slow = StubAuthServer.delayed(3000, fast);
+    final AtomicInteger count = new AtomicInteger();
+    server.setResponder((received, exchange) -> {
+      if (count.getAndIncrement() == 0) {
+        slow.respond(received, exchange);
+      }
+      else {
+        fast.respond(received, exchange);
+      }
+    });
+    service.init(config);
+
+    final long start = System.currentTimeMillis();
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isTrue();
+    assertThat(System.currentTimeMillis() - start).isLessThan(1500L);
+    assertThat(count.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testResolve() throws Exception {
+    assertThat(HttpClientAuthService.resolve("http://host/", "/path")
+        .toString()).isEqualTo("http://host/path");
+    assertThat(HttpClientAuthService.resolve("http://host", "path")
+        .toString()).isEqualTo("http://host/path");
+  }
+
+  @Test
+  public void testAuthorizeRecordsMetrics() throws Exception {
+    final String body = "{\"authorized\":true,\"configurations\":{}}";
+    server.setResponder(StubAuthServer.json(200, body));
+    final AuthMetrics metrics = new AuthMetrics();
+    service = new HttpClientAuthService(new JacksonJsonMarshaller(),
+        Ticker.SYSTEM, metrics);
+    service.init(config);
+
+    service.authorizeAsync(AuthSubjectUtil.newAuthSubject(request))
+        .get(5, TimeUnit.SECONDS);
+
+    assertThat(metrics.getSerializeLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getRoundTripLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getParseLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getRequestSize().getMax()).isCloseTo(
+        server.getLastRequest().body.length, withinPercentage(1));
+    assertThat(metrics.getResponseSize().getMax()).isCloseTo(
+        body.length(), withinPercentage(1));
+  }
+
+  @Test
+  public void testAuthorizeEmitsRequestEvent() throws Exception {
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Request.class);
+    service.authorizeAsync(AuthSubjectUtil.newAuthSubject(request))
+        .get(5, TimeUnit.SECONDS);
+    final List<RecordedEvent> events =
+        recording.stop(AuthEvents.Request.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("transport")).isEqualTo("jdk");
+    assertThat(events.get(0).getString("endpoint"))
+        .isEqualTo(server.getUrl());
+    assertThat(events.get(0).getInt("status")).isEqualTo(200);
+    assertThat(events.get(0).getString("outcome"))
+        .isEqualTo(AuthEvents.SUCCESS);
+  }
+
+}
@@ -21,11 +21,19 @@ package org.soulwing.guacamole.auth.rest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -41,6 +49,15 @@ public class JacksonJsonMarshallerTest {
   private static final String HEADER_NAME = "headerName";
   private static final String HEADER_VALUE = "headerValue";
 
+  private static final String CONFIG_NAME = "some name";
+  private static final String PROTOCOL_NAME = "some protocol";
+  private static final String STRING_PARAM_NAME = "string param";
+  private static final String STRING_PARAM_VALUE = "some string";
+  private static final String BOOLEAN_PARAM_NAME = "boolean param";
+  private static final boolean BOOLEAN_PARAM_VALUE = true;
+  private static final String NUMBER_PARAM_NAME = "number param";
+  private static final int NUMBER_PARAM_VALUE = -1;
+
   @Rule
   public final MockitoRule rule =
       MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
@@ -48,6 +65,9 @@ public class JacksonJsonMarshallerTest {
   @Mock
   private HttpServletRequest request;
 
+  @Mock
+  private AuthSubject subject;
+
   private JacksonJsonMarshaller marshaller = new JacksonJsonMarshaller();
 
   @Test
@@ -75,5 +95,155 @@ public class JacksonJsonMarshallerTest {
     assertThat(values).containsExactly(HEADER_VALUE);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testWriteToStream() throws Exception {
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.singletonList(HEADER_NAME)));
+    when(request.getHeaders(HEADER_NAME)).thenReturn(
+        Collections.enumeration(Collections.singletonList(HEADER_VALUE)));
+
+    final AuthSubject subject = AuthSubjectUtil.newAuthSubject(request);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    marshaller.write(subject, out);
+    final Map map = marshaller.toMap(out.toString("UTF-8"));
+
+    assertThat(map.get("username")).isEqualTo(AuthSubjectUtil.USERNAME);
+    assertThat(map.get("password")).isEqualTo(AuthSubjectUtil.PASSWORD);
+    final Map<String, List<String>> headers = (Map) map.get("headers");
+    assertThat(headers.get(HEADER_NAME)).containsExactly(HEADER_VALUE);
+  }
+
+  @Test
+  public void testWriteWithoutRequest() throws Exception {
+    when(subject.getUsername()).thenReturn(AuthSubjectUtil.USERNAME);
+    when(subject.getHeaders()).thenReturn(null);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    marshaller.write(subject, out);
+    final Map map = marshaller.toMap(out.toString("UTF-8"));
+
+    assertThat(map.get("username")).isEqualTo(AuthSubjectUtil.USERNAME);
+    assertThat(map.containsKey("headers")).isTrue();
+    assertThat(map.get("headers")).isNull();
+  }
+
+  @Test
+  public void testWriteConnectionSubject() throws Exception {
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.<String>emptyList()));
+    final AuthSubject subject = AuthSubjectUtil.newAuthSubject(request);
+
+    final Map login = marshaller.toMap(marshaller.toJson(subject));
+    assertThat(login.containsKey("connection")).isFalse();
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    marshaller.write(new ConnectionSubject(subject, "conn"), out);
+    final Map map = marshaller.toMap(out.toString("UTF-8"));
+    assertThat(map.get("username")).isEqualTo(AuthSubjectUtil.USERNAME);
+    assertThat(map.get("connection")).isEqualTo("conn");
+  }
+
+  @Test
+  public void testReadResultWhenAuthorized() throws Exception {
+    final String json = "{"
+        + "\"authorized\": true,"
+        + "\"configurations\": {"
+        + "  \"" + CONFIG_NAME + "\": {"
+        + "    \"protocol\": \"" + PROTOCOL_NAME + "\","
+        + "    \"ignored\": [ 1, 2, 3 ],"
+        + "    \"parameters\": {"
+        + "      \"" + STRING_PARAM_NAME + "\": \"" + STRING_PARAM_VALUE + "\","
+        + "      \"" + BOOLEAN_PARAM_NAME + "\": " + BOOLEAN_PARAM_VALUE + ","
+        + "      \"" + NUMBER_PARAM_NAME + "\": " + NUMBER_PARAM_VALUE + ","
+        + "      \"null param\": null"
+        + "    }"
+        + "  }"
+        + "}}";
+
+    final AuthResult result = marshaller.readResult(inputStream(json));
+    assertThat(result.isAuthorized()).isTrue();
+    assertThat(result.getConfigurations()).containsOnlyKeys(CONFIG_NAME);
+
+    final GuacamoleConfiguration guacConfig =
+        result.getConfigurations().get(CONFIG_NAME);
+    assertThat(guacConfig.getProtocol())
+        .isEqualTo(PROTOCOL_NAME);
+    assertThat(guacConfig.getParameter(STRING_PARAM_NAME))
+        .isEqualTo(STRING_PARAM_VALUE);
+    assertThat(guacConfig.getParameter(BOOLEAN_PARAM_NAME))
+        .isEqualTo(Boolean.toString(BOOLEAN_PARAM_VALUE));
+    assertThat(guacConfig.getParameter(NUMBER_PARAM_NAME))
+        .isEqualTo(Integer.toString(NUMBER_PARAM_VALUE));
+    assertThat(guacConfig.getParameterNames()).hasSize(3);
+  }
+
+  @Test
+  public void testReadResultWhenConfigurationsMissing() throws Exception {
+    final AuthResult result = marshaller.readResult(
+        inputStream("{\"authorized\": true}"));
+    assertThat(result.isAuthorized()).isTrue();
+    assertThat(result.getConfigurations()).isNull();
+  }
+
+  @Test
+  public void testReadResultWhenAuthorizedFlagMissing() throws Exception {
+    final AuthResult result = marshaller.readResult(
+        inputStream("{\"configurations\": {}}"));
+    assertThat(result.isAuthorized()).isFalse();
+  }
+
+  @Test
+  public void testReadResultStopsWhenNotAuthorized() throws Exception {
+    // everything after the authorized flag is malformed, and must not be read
+    final AuthResult result = marshaller.readResult(
+        inputStream("{\"authorized\": false, \"configurations\": ]]]"));
+    assertThat(result.isAuthorized()).isFalse();
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadResultWhenNotAnObject() throws Exception {
+    marshaller.readResult(inputStream("[]"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testWriteSmile() throws Exception {
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.singletonList(HEADER_NAME)));
+    when(request.getHeaders(HEADER_NAME)).thenReturn(
+        Collections.enumeration(Collections.singletonList(HEADER_VALUE)));
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JacksonJsonMarshaller(new SmileFactory()).write(
+        AuthSubjectUtil.newAuthSubject(request), out);
+    final Map map = StubAuthServer.readSmile(out.toByteArray());
+
+    assertThat(map.get("username")).isEqualTo(AuthSubjectUtil.USERNAME);
+    final Map<String, List<String>> headers = (Map) map.get("headers");
+    assertThat(headers.get(HEADER_NAME)).containsExactly(HEADER_VALUE);
+  }
+
+  @Test
+  public void testReadResultFromSmile() throws Exception {
+    final String json = "{\"authorized\":true,\"configurations\":{"
+        + "\"" + CONFIG_NAME + "\":{\"protocol\":\"" + PROTOCOL_NAME + "\","
+        + "\"parameters\":{\"" + NUMBER_PARAM_NAME + "\":"
+        + NUMBER_PARAM_VALUE + "}}}}";
+    final byte[] smile = new ObjectMapper(new SmileFactory())
+        .writeValueAsBytes(new ObjectMapper().readTree(json));
+
+    final AuthResult result = new JacksonJsonMarshaller(new SmileFactory())
+        .readResult(new ByteArrayInputStream(smile));
+    assertThat(result.isAuthorized()).isTrue();
+    final GuacamoleConfiguration guacConfig =
+        result.getConfigurations().get(CONFIG_NAME);
+    assertThat(guacConfig.getProtocol()).isEqualTo(PROTOCOL_NAME);
+    assertThat(guacConfig.getParameter(NUMBER_PARAM_NAME))
+        .isEqualTo(Integer.toString(NUMBER_PARAM_VALUE));
+  }
+
+  private static InputStream inputStream(String json) throws Exception {
+    return new ByteArrayInputStream(json.getBytes("UTF-8"));
+  }
 
 }
@@ -0,0 +1,643 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.http.HttpServletRequest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link JerseyAuthService}, using a {@link StubAuthServer}.
+ */
+public class JerseyAuthServiceTest {
+
+  private static final String AUTHORIZATION_URI = "/authorization";
+
+  private static final String PARAMETERS_URI = "/parameters";
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.LENIENT);
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private HttpServletRequest request;
+
+  private StubAuthServer server;
+
+  private JerseyAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new StubAuthServer(4);
+    when(config.getServiceUrls()).thenReturn(
+        Collections.singletonList(server.getUrl()));
+    when(config.getAuthorizationUri()).thenReturn(AUTHORIZATION_URI);
+    when(config.isRequestChunkingEnabled()).thenReturn(true);
+    when(config.getEjectFailures()).thenReturn(1);
+    when(config.getEjectDuration()).thenReturn(60);
+    when(config.getPoolMaxTotal()).thenReturn(2);
+    when(config.getPoolMaxPerRoute()).thenReturn(2);
+    when(config.getPoolIdleTimeout()).thenReturn(60);
+    when(config.getPoolValidateAfterInactivity()).thenReturn(2000);
+    when(request.getHeaderNames()).thenReturn(
+        Collections.enumeration(Collections.<String>emptyList()));
+    service = new JerseyAuthService();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    service.destroy();
+    server.stop();
+  }
+
+  @Test
+  public void testAuthorize() throws Exception {
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    final AuthResult result = service.authorize(
+        AuthSubjectUtil.newAuthSubject(request));
+
+    assertThat(result.isAuthorized()).isTrue();
+    assertThat(result.getConfigurations()).isEmpty();
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.method).isEqualTo("POST");
+    assertThat(received.path).isEqualTo(AUTHORIZATION_URI);
+    assertThat(received.headers.getFirst("Content-Type"))
+        .isEqualTo("application/json");
+    assertThat(received.bodyAsString())
+        .contains("\"username\":\"" + AuthSubjectUtil.USERNAME + "\"");
+  }
+  @Test
+  public void testAuthorizeConnectionSubject() throws Exception {
+    when(config.getParametersUri()).thenReturn(PARAMETERS_URI);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{\"conn\":"
+            + "{\"protocol\":\"rdp\",\"parameters\":{\"port\":\"3389\"}}}}"));
+    service.init(config);
+
+    final AuthResult result = service.authorize(new ConnectionSubject(
+        AuthSubjectUtil.newAuthSubject(request), "conn"));
+
+    assertThat(result.getConfigurations().get("conn").getParameter("port"))
+        .isEqualTo("3389");
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.path).isEqualTo(PARAMETERS_URI);
+    assertThat(received.bodyAsString()).contains("\"connection\":\"conn\"");
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testAuthorizeConnectionSubjectWithoutParametersUri()
+      throws Exception {
+    server.setResponder(StubAuthServer.json(200, "{\"authorized\":false}"));
+    service.init(config);
+    service.authorize(new ConnectionSubject(
+        AuthSubjectUtil.newAuthSubject(request), "conn"));
+  }
+
+
+  @Test
+  public void testAuthorizeAsync() throws Exception {
+    when(config.isVirtualThreadsEnabled()).thenReturn(true);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    final CompletableFuture<AuthResult> future = service.authorizeAsync(
+        AuthSubjectUtil.newAuthSubject(request));
+
+    assertThat(future.get(5, TimeUnit.SECONDS).isAuthorized()).isTrue();
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testAuthorizeWhenServiceError() throws Exception {
+    server.setResponder(StubAuthServer.json(500, "{}"));
+    service.init(config);
+    service.authorize(AuthSubjectUtil.newAuthSubject(request));
+  }
+
+  @Test
+  public void testAuthorizeWithOtherSuccessStatus() throws Exception {
+    server.setResponder(StubAuthServer.json(203, "{\"authorized\":false}"));
+    service.init(config);
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isFalse();
+  }
+
+  @Test
+  public void testAuthorizeWithPool() throws Exception {
+    when(config.isPoolEnabled()).thenReturn(true);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+          .isAuthorized()).isTrue();
+    }
+
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Transfer-Encoding"))
+        .isEqualTo("chunked");
+
+    final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    final Object leaseCount = mbeanServer.getAttribute(
+        JmxSupport.objectName(PooledJerseyClient.MBEAN_TYPE), "LeaseCount");
+    assertThat(leaseCount).isEqualTo(3L);
+    final Object leased = mbeanServer.getAttribute(
+        JmxSupport.objectName(PooledJerseyClient.MBEAN_TYPE), "Leased");
+    assertThat(leased).isEqualTo(0);
+  }
+
+  @Test
+  public void testAuthorizeWithPoolWithoutChunking() throws Exception {
+    when(config.isPoolEnabled()).thenReturn(true);
+    when(config.isRequestChunkingEnabled()).thenReturn(false);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":false}"));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isFalse();
+
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Transfer-Encoding")).isNull();
+    assertThat(received.headers.getFirst("Content-Length"))
+        .isEqualTo(String.valueOf(received.body.length));
+  }
+
+  @Test
+  public void testDestroyWithPool() throws Exception {
+    when(config.isPoolEnabled()).thenReturn(true);
+    service.init(config);
+    service.destroy();
+    assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+        JmxSupport.objectName(PooledJerseyClient.MBEAN_TYPE))).isFalse();
+  }
+
+  @Test
+  public void testAuthorizeSendsDeadlineHeader() throws Exception {
+    when(config.getDeadline()).thenReturn(5000);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":false}"));
+    service.init(config);
+
+    service.authorize(AuthSubjectUtil.newAuthSubject(request));
+
+    final long remaining = Long.parseLong(server.getLastRequest().headers
+        .getFirst(JerseyAuthService.DEADLINE_HEADER));
+    assertThat(remaining).isBetween(1L, 5000L);
+  }
+
+  @Test
+  public void testAuthorizeUsesSubjectDeadline() throws Exception {
+    when(config.getDeadline()).thenReturn(60000);
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":false}"));
+    service.init(config);
+
+    service.authorize(BoundedAuthSubject.start(
+        AuthSubjectUtil.newAuthSubject(request), 2000));
+
+    final long remaining = Long.parseLong(server.getLastRequest().headers
+        .getFirst(JerseyAuthService.DEADLINE_HEADER));
+    assertThat(remaining).isBetween(1L, 2000L);
+  }
+
+  @Test
+  public void testAuthorizeWhenDeadlineExceeded() throws Exception {
+    assertDeadlineExceeded();
+  }
+
+  @Test
+  public void testAuthorizeWithPoolWhenDeadlineExceeded() throws Exception {
+    when(config.isPoolEnabled()).thenReturn(true);
+    assertDeadlineExceeded();
+  }
+
+  private void assertDeadlineExceeded() throws Exception {
+    when(config.getDeadline()).thenReturn(250);
+    server.setResponder(StubAuthServer.delayed(5000,
+        StubAuthServer.json(200, "{\"authorized\":false}")));
+    service.init(config);
+
+    final long start = System.currentTimeMillis();
+    try {
+      service.authorize(AuthSubjectUtil.newAuthSubject(request));
+      fail("expected GuacamoleUpstreamTimeoutException");
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(System.currentTimeMillis() - start).isLessThan(2500L);
+    }
+  }
+
+  @Test
+  public void testAuthorizeAvoidsFailingEndpoint() throws Exception {
+    final StubAuthServer failing = new StubAuthServer(1);
+    try {
+      failing.setResponder(StubAuthServer.json(503, "{}"));
+      server.setResponder(StubAuthServer.json(200,
+          "{\"authorized\":false}"));
+      when(config.getServiceUrls()).thenReturn(
+          Arrays.asList(failing.getUrl(), server.getUrl()));
+      service.init(config);
+
+      int failures = 0;
+      for (int i = 0; i < 10; i++) {
+        try {
+          service.authorize(AuthSubjectUtil.newAuthSubject(request));
+        }
+        catch (GuacamoleServerException ex) {
+          failures++;
+        }
+      }
+      assertThat(failures).isLessThanOrEqualTo(1);
+    }
+    finally {
+      failing.stop();
+    }
+  }
+
+  @Test
+  public void testAuthorizeWithHedge() throws Exception {
+    when(config.isHedgeEnabled()).thenReturn(true);
+    when(config.getHedgeDelay()).thenReturn(50);
+    when(config.getHedgeBudget()).thenReturn(100);
+    server.setResponder(slowFirstResponder(3000));
+    service.init(config);
+
+    final long start = System.currentTimeMillis();
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isTrue();
+    assertThat(System.currentTimeMillis() - start).isLessThan(1500L);
+  }
+
+  @Test
+  public void testAuthorizeWithHedgeWhenBudgetExhausted() throws Exception {
+    when(config.isHedgeEnabled()).thenReturn(true);
+    when(config.getHedgeDelay()).thenReturn(50);
+    when(config.getHedgeBudget()).thenReturn(0);
+    server.setResponder(slowFirstResponder(500));
+    service.init(config);
+
+    final long start = System.currentTimeMillis();
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isTrue();
+    assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(500L);
+  }
+
+  @Test
+  public void testAuthorizeWithDigestReusesNonce() throws Exception {
+    when(config.isDigestConfigured()).thenReturn(true);
+    when(config.getDigestUsername()).thenReturn("user");
+    when(config.getDigestPassword()).thenReturn("secret");
+    final AtomicInteger challenges = new AtomicInteger();
+    server.setResponder(digestResponder("nonce1", challenges));
+    service.init(config);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+          .isAuthorized()).isFalse();
+    }
+    assertThat(challenges.get()).isEqualTo(1);
+    assertThat(server.getLastRequest().headers.getFirst("Authorization"))
+        .contains("nc=00000003");
+
+    server.setResponder(digestResponder("nonce2", challenges));
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .isAuthorized()).isFalse();
+    assertThat(challenges.get()).isEqualTo(2);
+    assertThat(server.getLastRequest().headers.getFirst("Authorization"))
+        .contains("nonce=\"nonce2\"");
+  }
+
+  @Test
+  public void testAuthorizeWithOAuth2FetchesSharedToken() throws Exception {
+    final StubAuthServer tokenServer = new StubAuthServer(1);
+    try {
+      final AtomicInteger fetches = new AtomicInteger();
+      tokenServer.setResponder((received, exchange) -> {
+        final String json = "{\"access_token\":\"token"
+            + fetches.incrementAndGet() + "\",\"expires_in\":3600}";
+        StubAuthServer.sendJson(exchange, 200, json.getBytes("UTF-8"));
+      });
+      final AtomicInteger challenges = new AtomicInteger();
+      server.setResponder(bearerResponder(tokenServer.getUrl() + "/token",
+          "token1", challenges));
+      when(config.getOAuth2ServiceUrl()).thenReturn(
+          tokenServer.getUrl() + "/token");
+      service.init(config);
+
+      for (int i = 0; i < 3; i++) {
+        assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+            .isAuthorized()).isFalse();
+      }
+      // the first request may be sent before the token fetched at startup
+      assertThat(challenges.get()).isLessThanOrEqualTo(1);
+      assertThat(fetches.get()).isEqualTo(1);
+
+      // a rejected token is replaced once, and the request retried
+      final int challenged = challenges.get();
+      server.setResponder(bearerResponder(tokenServer.getUrl() + "/token",
+          "token2", challenges));
+      assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+          .isAuthorized()).isFalse();
+      assertThat(challenges.get()).isEqualTo(challenged + 1);
+      assertThat(fetches.get()).isEqualTo(2);
+    }
+    finally {
+      tokenServer.stop();
+    }
+  }
+
+  @Test
+  public void testAuthorizeWithoutOAuth2ServiceUrlSendsNoToken()
+      throws Exception {
+    final StubAuthServer tokenServer = new StubAuthServer(1);
+    try {
+      tokenServer.setResponder(StubAuthServer.json(200,
+          "{\"access_token\":\"token1\"}"));
+      final AtomicInteger challenges = new AtomicInteger();
+      server.setResponder(bearerResponder(tokenServer.getUrl() + "/token",
+          "token1", challenges));
+      service.init(config);
+      try {
+        service.authorize(AuthSubjectUtil.newAuthSubject(request));
+        fail("expected GuacamoleServerException");
+      }
+      catch (GuacamoleServerException ex) {
+        assertThat(ex.getMessage()).contains("401");
+      }
+      assertThat(challenges.get()).isEqualTo(1);
+      assertThat(tokenServer.getLastRequest()).isNull();
+    }
+    finally {
+      tokenServer.stop();
+    }
+  }
+
+  /**
+   * Creates a responder that challenges any request that does not carry the
+   * given bearer token, naming the token service in the realm.
+   */
+  private static StubAuthServer.Responder bearerResponder(String tokenUrl,
+      String token, AtomicInteger challenges) {
+    final StubAuthServer.Responder ok =
+        StubAuthServer.json(200, "{\"authorized\":false}");
+    return (received, exchange) -> {
+      if (("Bearer " + token).equals(
+          received.headers.getFirst("Authorization"))) {
+        ok.respond(received, exchange);
+        return;
+      }
+      challenges.incrementAndGet();
+      exchange.getResponseHeaders().set("WWW-Authenticate",
+          "Bearer realm=\"" + tokenUrl + "\"");
+      exchange.sendResponseHeaders(401, -1);
+    };
+  }
+
+  @Test
+  public void testAuthorizeWithCompression() throws Exception {
+    when(config.isCompressionEnabled()).thenReturn(true);
+    when(config.getCompressionRequestThreshold()).thenReturn(1);
+    server.setResponder(StubAuthServer.gzipJson(200, configurations(50)));
+    service.init(config);
+
+    final AuthResult result = service.authorize(
+        AuthSubjectUtil.newAuthSubject(request));
+
+    assertThat(result.getConfigurations()).hasSize(50);
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Accept-Encoding")).contains("gzip");
+    assertThat(received.headers.getFirst("Content-Encoding"))
+        .isEqualTo("gzip");
+    assertThat(new String(gunzip(received.body), "UTF-8"))
+        .contains("\"username\":\"" + AuthSubjectUtil.USERNAME + "\"");
+    assertCompressionCounted();
+  }
+
+  @Test
+  public void testAuthorizeWithCompressionAndPool() throws Exception {
+    when(config.isPoolEnabled()).thenReturn(true);
+    when(config.isCompressionEnabled()).thenReturn(true);
+    server.setResponder(StubAuthServer.gzipJson(200, configurations(50)));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .getConfigurations()).hasSize(50);
+    assertThat(server.getLastRequest().headers.getFirst("Content-Encoding"))
+        .isNull();
+    assertCompressionCounted();
+  }
+
+  @Test
+  public void testAuthorizeWithSmile() throws Exception {
+    when(config.getWireFormat()).thenReturn("smile");
+    server.setResponder(StubAuthServer.smileJson(200, configurations(5)));
+    service.init(config);
+
+    assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+        .getConfigurations()).hasSize(5);
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.headers.getFirst("Content-Type"))
+        .isEqualTo(StubAuthServer.SMILE_TYPE);
+    assertThat(StubAuthServer.readSmile(received.body).get("username"))
+        .isEqualTo(AuthSubjectUtil.USERNAME);
+  }
+
+  @Test
+  public void testAuthorizeWithSmileWhenRejected() throws Exception {
+    when(config.getWireFormat()).thenReturn("smile");
+    server.setResponder(StubAuthServer.rejectSmile(
+        StubAuthServer.smileJson(200, configurations(5))));
+    service.init(config);
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(service.authorize(AuthSubjectUtil.newAuthSubject(request))
+          .getConfigurations()).hasSize(5);
+      final StubAuthServer.Request received = server.getLastRequest();
+      assertThat(received.headers.getFirst("Content-Type"))
+          .isEqualTo("application/json");
+    }
+  }
+
+  /**
+   * Creates a responder that challenges any request that does not carry
+   * Digest credentials for the given nonce, reporting the nonce as stale if
+   * the request carried credentials for another nonce.
+   */
+  private static StubAuthServer.Responder digestResponder(String nonce,
+      AtomicInteger challenges) {
+    final StubAuthServer.Responder ok =
+        StubAuthServer.json(200, "{\"authorized\":false}");
+    return (received, exchange) -> {
+      final String authorization = received.headers.getFirst("Authorization");
+      if (authorization != null
+          && authorization.contains("nonce=\"" + nonce + "\"")) {
+        ok.respond(received, exchange);
+        return;
+      }
+      challenges.incrementAndGet();
+      exchange.getResponseHeaders().set("WWW-Authenticate",
+          "Digest realm=\"test\", qop=\"auth\", nonce=\"" + nonce + "\""
+              + (authorization != null ? ", stale=true" : ""));
+      exchange.sendResponseHeaders(401, -1);
+    };
+  }
+
+  private static StubAuthServer.Responder slowFirstResponder(long millis) {
+    final StubAuthServer.Responder fast = StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}");
+    final StubAuthServer.Responder slow = StubAuthServer.delayed(millis, fast);
+    final AtomicInteger count = new AtomicInteger();
+    return new StubAuthServer.Responder() {
+      @Override
+      public void respond(StubAuthServer.Request request,
+          HttpExchange exchange) throws IOException {
+        if (count.getAndIncrement() == 0) {
+          slow.respond(request, exchange);
+        }
+        else {
+          fast.respond(request, exchange);
+        }
+      }
+    };
+  }
+
+  /**
+   * Asserts that the compression management bean counted a response that
+   * was smaller on the wire than when decompressed.
+   */
+  private static void assertCompressionCounted() throws Exception {
+    final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = JmxSupport.objectName(ContentCoding.MBEAN_TYPE);
+    assertThat(mbeanServer.getAttribute(name, "CompressedResponseCount"))
+        .isEqualTo(1L);
+    assertThat((Long) mbeanServer.getAttribute(name, "ResponseWireBytes"))
+        .isLessThan((Long) mbeanServer.getAttribute(name,
+            "ResponseEntityBytes"));
+  }
+
+  /**
+   * Creates an authorization result that contains the given number of
+   * configurations.
+   */
+  static String configurations(int count) {
+    final StringBuilder sb =
+        new StringBuilder("{\"authorized\":true,\"configurations\":{");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) sb.append(',');
+      sb.append("\"connection-").append(i).append("\":{")
+          .append("\"protocol\":\"rdp\",\"parameters\":{")
+          .append("\"hostname\":\"host-").append(i)
+          .append(".example.com\",\"port\":3389}}");
+    }
+    return sb.append("}}").toString();
+  }
+
+  static byte[] gunzip(byte[] body) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(
+        new ByteArrayInputStream(body))) {
+      final byte[] buf = new byte[4096];
+      int count;
+      while ((count = in.read(buf)) != -1) {
+        out.write(buf, 0, count);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testAuthorizeRecordsMetrics() throws Exception {
+    final String body = "{\"authorized\":true,\"configurations\":{}}";
+    server.setResponder(StubAuthServer.json(200, body));
+    final AuthMetrics metrics = new AuthMetrics();
+    service = new JerseyAuthService(new JerseyClientBuilderFactory(),
+        new JacksonJsonMarshaller(), metrics);
+    service.init(config);
+
+    service.authorize(AuthSubjectUtil.newAuthSubject(request));
+
+    assertThat(metrics.getSerializeLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getRoundTripLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getParseLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getRequestSize().getMax()).isCloseTo(
+        server.getLastRequest().body.length, withinPercentage(1));
+    assertThat(metrics.getResponseSize().getMax()).isCloseTo(
+        body.length(), withinPercentage(1));
+  }
+
+  @Test
+  public void testAuthorizeEmitsRequestEvent() throws Exception {
+    server.setResponder(StubAuthServer.json(200,
+        "{\"authorized\":true,\"configurations\":{}}"));
+    service.init(config);
+
+    final FlightRecording recording =
+        new FlightRecording(AuthEvents.Request.class);
+    service.authorize(AuthSubjectUtil.newAuthSubject(request));
+    final List<RecordedEvent> events =
+        recording.stop(AuthEvents.Request.class);
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("transport")).isEqualTo("jersey");
+    assertThat(events.get(0).getString("endpoint"))
+        .isEqualTo(server.getUrl());
+    assertThat(events.get(0).getInt("status")).isEqualTo(200);
+    assertThat(events.get(0).getString("outcome"))
+        .isEqualTo(AuthEvents.SUCCESS);
+  }
+
+}
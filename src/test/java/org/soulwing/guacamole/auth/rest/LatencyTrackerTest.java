@@ -0,0 +1,62 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LatencyTracker}.
+ */
+public class LatencyTrackerTest {
+
+  @Test
+  public void testUnavailableUntilMinSamples() throws Exception {
+    final LatencyTracker tracker = new LatencyTracker(0.95, 100, 10);
+    for (int i = 0; i < 9; i++) {
+      tracker.record(i);
+    }
+    assertThat(tracker.getPercentile()).isEqualTo(-1);
+    tracker.record(9);
+    assertThat(tracker.getPercentile()).isEqualTo(9);
+  }
+
+  @Test
+  public void testPercentile() throws Exception {
+    final LatencyTracker tracker = new LatencyTracker(0.95, 100, 4);
+    for (int i = 100; i > 0; i--) {
+      tracker.record(i);
+    }
+    assertThat(tracker.getPercentile()).isEqualTo(95);
+  }
+
+  @Test
+  public void testRetainsOnlyRecentSamples() throws Exception {
+    final LatencyTracker tracker = new LatencyTracker(0.5, 32, 1);
+    for (int i = 0; i < 32; i++) {
+      tracker.record(1000);
+    }
+    for (int i = 0; i < 33; i++) {
+      tracker.record(1);
+    }
+    assertThat(tracker.getPercentile()).isEqualTo(1);
+  }
+
+}
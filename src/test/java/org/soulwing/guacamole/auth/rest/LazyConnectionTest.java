@@ -0,0 +1,108 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.GuacamoleSecurityException;
+import org.apache.guacamole.protocol.GuacamoleClientInformation;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link LazyConnection}.
+ */
+public class LazyConnectionTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthSubject subject;
+
+  @Mock
+  private ConnectionParameterCache parameters;
+
+  private GuacamoleConfiguration configuration;
+
+  private LazyConnection connection;
+
+  @Before
+  public void setUp() throws Exception {
+    configuration = new GuacamoleConfiguration();
+    configuration.setProtocol("rdp");
+    connection = new LazyConnection("conn", configuration, subject,
+        parameters);
+  }
+
+  @Test
+  public void testConfiguration() throws Exception {
+    assertThat(connection.getIdentifier()).isEqualTo("conn");
+    assertThat(connection.getName()).isEqualTo("conn");
+    assertThat(connection.getConfiguration().getProtocol()).isEqualTo("rdp");
+    assertThat(connection.getConfiguration().getParameters()).isEmpty();
+    assertThat(connection.getFullConfiguration()).isSameAs(configuration);
+  }
+
+  @Test
+  public void testConnectRequestsParameters() throws Exception {
+    final GuacamoleConfiguration full = new GuacamoleConfiguration();
+    full.setProtocol("rdp");
+    full.setParameter("hostname", "localhost");
+    full.setParameter("port", "1");
+    when(parameters.getConfiguration(subject, "conn")).thenReturn(full);
+    try {
+      connection.connect(new GuacamoleClientInformation(),
+          Collections.<String, String>emptyMap());
+    }
+    catch (GuacamoleException ex) {
+      // no guacd to connect to
+    }
+    verify(parameters).getConfiguration(subject, "conn");
+    assertThat(connection.getFullConfiguration()).isSameAs(configuration);
+  }
+
+  @Test
+  public void testConnectWhenNotAuthorized() throws Exception {
+    when(parameters.getConfiguration(subject, "conn")).thenThrow(
+        new GuacamoleSecurityException("not authorized"));
+    try {
+      connection.connect(new GuacamoleClientInformation(),
+          Collections.<String, String>emptyMap());
+      fail("expected GuacamoleSecurityException");
+    }
+    catch (GuacamoleSecurityException ex) {
+      assertThat(connection.getFullConfiguration()).isSameAs(configuration);
+    }
+  }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.guacamole.GuacamoleException;
+import org.apache.guacamole.net.auth.Credentials;
+
+/**
+ * A harness that drives a {@link RestAuthProvider} from many threads, as
+ * in a storm of logins, and reports throughput and latency percentiles.
+ * <p>
+ * The provider is normally created by {@link #newProvider}, with the same
+ * chain of services as in production, configured to use a
+ * {@link StubAuthServer} whose behavior is simulated by a
+ * {@link LoadResponder}. Each thread makes the given number of requests as
+ * one of a fixed number of users, each with its own remote address.
+ */
+class LoadHarness {
+
+  private final RestAuthProvider provider;
+  private final int threads;
+  private final HttpServletRequest[] requests;
+
+  /**
+   * Constructs a new harness.
+   *
+   * @param provider
+   *    The provider to drive.
+   *
+   * @param threads
+   *    Number of threads that make requests concurrently.
+   *
+   * @param users
+   *    Number of distinct users on whose behalf requests are made.
+   */
+  LoadHarness(RestAuthProvider provider, int threads, int users) {
+    this.provider = provider;
+    this.threads = threads;
+    this.requests = new HttpServletRequest[users];
+    for (int i = 0; i < users; i++) {
+      requests[i] = newRequest("10.0." + (i / 250) + "." + (i % 250 + 1));
+    }
+  }
+
+  /**
+   * Creates a provider with the production chain of services, configured
+   * with defaults except for the given properties, that uses the given
+   * server as the REST service.
+   *
+   * @param server
+   *    The REST service.
+   *
+   * @param properties
+   *    Values of configuration properties, keyed by the name of the
+   *    corresponding {@link AuthServiceConfig} method (e.g.
+   *    {@code getCacheTtl}).
+   *
+   * @param metrics
+   *    Metrics in which the provider will record authorizations.
+   *
+   * @return
+   *    Provider.
+   *
+   * @throws GuacamoleException
+   *    If the provider cannot be created.
+   */
+  static RestAuthProvider newProvider(StubAuthServer server,
+      Map<String, ?> properties, AuthMetrics metrics)
+      throws GuacamoleException {
+    final Map<String, Object> overrides = new HashMap<>(properties);
+    overrides.put("getServiceUrls",
+        Collections.singletonList(server.getUrl()));
+    final AuthService chain = new ReloadingAuthService(() ->
+        new CachingAuthService(new CoalescingAuthService(
+            new RateLimitingAuthService(new BulkheadAuthService(
+                new CircuitBreakerAuthService(
+                    new TransportAuthService()))))));
+    return new RestAuthProvider(new ConfiguredAuthService(chain, overrides),
+        metrics);
+  }
+
+  /**
+   * Runs a storm of requests, and waits for it to finish.
+   *
+   * @param requestsPerThread
+   *    Number of requests made by each thread.
+   *
+   * @return
+   *    Report of the outcomes, throughput, and latencies of the requests.
+   *
+   * @throws InterruptedException
+   *    If interrupted while waiting for the storm to finish.
+   */
+  Report run(final int requestsPerThread) throws InterruptedException {
+    final Distribution latency = new Distribution(1.0e-6);
+    final LongAdder authorized = new LongAdder();
+    final LongAdder denied = new LongAdder();
+    final ConcurrentMap<String, LongAdder> failures =
+        new ConcurrentHashMap<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(threads);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        executor.execute(() -> {
+          try {
+            start.await();
+            for (int i = 0; i < requestsPerThread; i++) {
+              final int user = (thread * requestsPerThread + i)
+                  % requests.length;
+              final long begin = System.nanoTime();
+              try {
+                if (authorize(user) != null) {
+                  authorized.increment();
+                }
+                else {
+                  denied.increment();
+                }
+              }
+              catch (GuacamoleException | RuntimeException ex) {
+                failures.computeIfAbsent(ex.getClass().getSimpleName(),
+                    k -> new LongAdder()).increment();
+              }
+              latency.record(System.nanoTime() - begin);
+            }
+          }
+          catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          finally {
+            done.countDown();
+          }
+        });
+      }
+      final long begin = System.nanoTime();
+      start.countDown();
+      done.await();
+      final long elapsed = System.nanoTime() - begin;
+      final Map<String, Long> failed = new TreeMap<>();
+      failures.forEach((name, count) -> failed.put(name, count.sum()));
+      return new Report(authorized.sum(), denied.sum(), failed, elapsed,
+          latency.summarize());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Object authorize(int user) throws GuacamoleException {
+    return provider.getAuthorizedConfigurations(
+        new Credentials("user" + user, "password", requests[user]));
+  }
+
+  private static HttpServletRequest newRequest(String remoteAddress) {
+    final HttpServletRequest request = mock(HttpServletRequest.class,
+        withSettings().stubOnly());
+    when(request.getRemoteAddr()).thenReturn(remoteAddress);
+    when(request.getRemoteHost()).thenReturn(remoteAddress);
+    when(request.getHeaderNames()).thenAnswer(invocation ->
+        Collections.enumeration(Collections.singletonList("User-Agent")));
+    when(request.getHeaders("User-Agent")).thenAnswer(invocation ->
+        Collections.enumeration(Collections.singletonList("LoadHarness")));
+    return request;
+  }
+
+  /**
+   * A report of a storm of requests.
+   */
+  static class Report {
+
+    private final long authorized;
+    private final long denied;
+    private final Map<String, Long> failures;
+    private final long elapsedNanos;
+    private final DistributionSummary latency;
+
+    Report(long authorized, long denied, Map<String, Long> failures,
+        long elapsedNanos, DistributionSummary latency) {
+      this.authorized = authorized;
+      this.denied = denied;
+      this.failures = failures;
+      this.elapsedNanos = elapsedNanos;
+      this.latency = latency;
+    }
+
+    long getRequestCount() {
+      return authorized + denied + getFailedCount();
+    }
+
+    long getAuthorizedCount() {
+      return authorized;
+    }
+
+    long getDeniedCount() {
+      return denied;
+    }
+
+    long getFailedCount() {
+      return failures.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Gets the number of requests that failed, by exception type.
+     *
+     * @return
+     *    Map of simple exception class name to count.
+     */
+    Map<String, Long> getFailures() {
+      return failures;
+    }
+
+    /**
+     * Gets the number of requests completed per second.
+     *
+     * @return
+     *    Throughput.
+     */
+    double getThroughput() {
+      return getRequestCount() / (elapsedNanos / 1.0e9);
+    }
+
+    /**
+     * Gets the distribution of request latencies.
+     *
+     * @return
+     *    Summary with latencies in milliseconds.
+     */
+    DistributionSummary getLatency() {
+      return latency;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d requests: %d authorized, %d denied, "
+              + "%d failed %s; %.0f/s; latency ms p50=%.2f p90=%.2f "
+              + "p99=%.2f p999=%.2f max=%.2f",
+          getRequestCount(), authorized, denied, getFailedCount(),
+          failures, getThroughput(), latency.getP50(), latency.getP90(),
+          latency.getP99(), latency.getP999(), latency.getMax());
+    }
+
+  }
+
+  /**
+   * An {@link AuthService} that initializes its delegate with a
+   * configuration in which some properties are overridden.
+   */
+  private static class ConfiguredAuthService implements AuthService {
+
+    private final AuthService delegate;
+    private final Map<String, Object> overrides;
+
+    ConfiguredAuthService(AuthService delegate,
+        Map<String, Object> overrides) {
+      this.delegate = delegate;
+      this.overrides = overrides;
+    }
+
+    @Override
+    public void init(final AuthServiceConfig config)
+        throws GuacamoleException {
+      final Set<String> names = overrides.keySet();
+      delegate.init((AuthServiceConfig) Proxy.newProxyInstance(
+          AuthServiceConfig.class.getClassLoader(),
+          new Class<?>[] { AuthServiceConfig.class },
+          (proxy, method, args) -> {
+            if (names.contains(method.getName())) {
+              return overrides.get(method.getName());
+            }
+            try {
+              return method.invoke(config, args);
+            }
+            catch (InvocationTargetException ex) {
+              throw ex.getCause();
+            }
+          }));
+    }
+
+    @Override
+    public CompletableFuture<AuthResult> authorizeAsync(AuthSubject subject) {
+      return delegate.authorizeAsync(subject);
+    }
+
+    @Override
+    public void destroy() {
+      delegate.destroy();
+    }
+
+  }
+
+}
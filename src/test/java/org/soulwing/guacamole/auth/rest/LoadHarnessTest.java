@@ -0,0 +1,145 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load tests of the {@link RestAuthProvider}, using a {@link LoadHarness}.
+ * <p>
+ * The storms are kept small so that the tests run quickly; they also serve
+ * as examples of how to reproduce a login storm against a change to
+ * pooling, timeouts, or caching, by raising the thread and request counts
+ * and examining the reports, which are logged at debug level.
+ */
+public class LoadHarnessTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LoadHarnessTest.class);
+
+  private static final int THREADS = 8;
+  private static final int REQUESTS_PER_THREAD = 50;
+  private static final int REQUESTS = THREADS * REQUESTS_PER_THREAD;
+
+  private final Map<String, Object> properties = new HashMap<>();
+
+  private StubAuthServer server;
+
+  private RestAuthProvider provider;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new StubAuthServer(THREADS);
+    properties.put("getEjectFailures", Integer.MAX_VALUE);
+    properties.put("getBreakerFailureRateThreshold", 100);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (provider != null) {
+      provider.shutdown();
+    }
+    server.stop();
+  }
+
+  @Test
+  public void testStorm() throws Exception {
+    final LoadResponder responder = LoadResponder.builder()
+        .latency(LoadResponder.logNormal(2, 0.5))
+        .errorRate(0.05)
+        .deniedRate(0.1)
+        .configurations(20)
+        .build();
+    final LoadHarness.Report report = run(responder, REQUESTS);
+
+    assertThat(report.getRequestCount()).isEqualTo(REQUESTS);
+    assertThat(responder.getRequestCount()).isEqualTo(REQUESTS);
+    assertThat(report.getDeniedCount())
+        .isEqualTo(responder.getDeniedCount());
+    assertThat(report.getFailedCount())
+        .isEqualTo(responder.getErrorCount());
+    assertThat(report.getThroughput()).isGreaterThan(0);
+    assertThat(report.getLatency().getP50()).isGreaterThanOrEqualTo(1.0);
+    assertThat(report.getLatency().getCount()).isEqualTo(REQUESTS);
+  }
+
+  @Test
+  public void testStormWithJdkTransport() throws Exception {
+    properties.put("getTransport", "jdk");
+    final LoadResponder responder = LoadResponder.builder()
+        .latency(LoadResponder.uniform(1, 3))
+        .errorRate(0.05)
+        .build();
+    final LoadHarness.Report report = run(responder, REQUESTS);
+
+    assertThat(report.getRequestCount()).isEqualTo(REQUESTS);
+    assertThat(report.getFailedCount())
+        .isEqualTo(responder.getErrorCount());
+  }
+
+  @Test
+  public void testStormWithCache() throws Exception {
+    properties.put("getCacheTtl", 60);
+    properties.put("isCoalescingEnabled", true);
+    final LoadResponder responder = LoadResponder.builder()
+        .latency(LoadResponder.fixed(5))
+        .build();
+    final LoadHarness.Report report = run(responder, 10);
+
+    assertThat(report.getAuthorizedCount()).isEqualTo(REQUESTS);
+    assertThat(responder.getRequestCount()).isEqualTo(10);
+  }
+
+  @Test
+  public void testStormWithDigestChallenges() throws Exception {
+    properties.put("isDigestConfigured", true);
+    properties.put("getDigestUsername", "guacamole");
+    properties.put("getDigestPassword", "secret");
+    final LoadResponder responder = LoadResponder.builder()
+        .latency(LoadResponder.fixed(1))
+        .challengeRate(0.05)
+        .build();
+    final LoadHarness.Report report = run(responder, REQUESTS);
+
+    assertThat(report.getRequestCount()).isEqualTo(REQUESTS);
+    assertThat(responder.getChallengeCount()).isGreaterThan(0);
+    assertThat(report.getFailedCount()).isLessThan(REQUESTS / 10);
+  }
+
+  private LoadHarness.Report run(LoadResponder responder, int users)
+      throws Exception {
+    server.setResponder(responder);
+    provider = LoadHarness.newProvider(server, properties,
+        new AuthMetrics());
+    final LoadHarness.Report report =
+        new LoadHarness(provider, THREADS, users).run(REQUESTS_PER_THREAD);
+    logger.debug("{}", report);
+    return report;
+  }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * A {@link StubAuthServer.Responder} that simulates a REST authorization
+ * service under load, for use with a {@link LoadHarness}.
+ * <p>
+ * Each request is delayed by a latency drawn from a distribution, then
+ * fails with a server error, is denied, or is authorized with a fixed
+ * number of connection configurations, in the configured proportions.
+ * If a challenge rate is configured, requests must carry Digest
+ * credentials for the current nonce; the nonce is replaced at the given
+ * rate, so that requests carrying the old nonce are challenged as stale.
+ */
+class LoadResponder implements StubAuthServer.Responder {
+
+  /**
+   * A distribution of response latencies.
+   */
+  interface Latency {
+
+    /**
+     * Draws a latency from this distribution.
+     *
+     * @param random
+     *    Source of randomness.
+     *
+     * @return
+     *    Latency in nanoseconds.
+     */
+    long nextNanos(ThreadLocalRandom random);
+
+  }
+
+  /** Response to a request that does not carry valid Digest credentials. */
+  static final int CHALLENGE_STATUS = 401;
+
+  /** Response to a request that fails. */
+  static final int ERROR_STATUS = 503;
+
+  private final Latency latency;
+  private final double errorRate;
+  private final double deniedRate;
+  private final double challengeRate;
+  private final byte[] authorized;
+  private final byte[] denied;
+
+  private final AtomicReference<String> nonce =
+      new AtomicReference<>(newNonce());
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong errorCount = new AtomicLong();
+  private final AtomicLong deniedCount = new AtomicLong();
+  private final AtomicLong challengeCount = new AtomicLong();
+
+  private LoadResponder(Builder builder) throws IOException {
+    this.latency = builder.latency;
+    this.errorRate = builder.errorRate;
+    this.deniedRate = builder.deniedRate;
+    this.challengeRate = builder.challengeRate;
+    this.authorized = newResult(builder.configurations);
+    this.denied = "{\"authorized\":false}".getBytes("UTF-8");
+  }
+
+  /**
+   * Creates a builder for a responder that responds at once, authorizing
+   * every request with one configuration.
+   *
+   * @return
+   *    Builder.
+   */
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a distribution in which every latency is the same.
+   *
+   * @param millis
+   *    Latency in milliseconds.
+   *
+   * @return
+   *    Distribution.
+   */
+  static Latency fixed(long millis) {
+    final long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    return random -> nanos;
+  }
+
+  /**
+   * Creates a distribution in which latencies are uniformly distributed.
+   *
+   * @param minMillis
+   *    Minimum latency in milliseconds.
+   *
+   * @param maxMillis
+   *    Maximum latency in milliseconds.
+   *
+   * @return
+   *    Distribution.
+   */
+  static Latency uniform(long minMillis, long maxMillis) {
+    final long min = TimeUnit.MILLISECONDS.toNanos(minMillis);
+    final long max = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    return random -> min + (long) (random.nextDouble() * (max - min));
+  }
+
+  /**
+   * Creates a distribution in which latencies are log-normally
+   * distributed, like those of most real services: most requests are
+   * near the median, with a long tail of slow ones.
+   *
+   * @param medianMillis
+   *    Median latency in milliseconds.
+   *
+   * @param sigma
+   *    Standard deviation of the logarithm of the latency; at 0.5 the
+   *    99th percentile is about three times the median, and at 1.0 about
+   *    ten times.
+   *
+   * @return
+   *    Distribution.
+   */
+  static Latency logNormal(double medianMillis, double sigma) {
+    final double median = TimeUnit.MILLISECONDS.toNanos(1) * medianMillis;
+    return random ->
+        (long) (median * Math.exp(sigma * random.nextGaussian()));
+  }
+
+  @Override
+  public void respond(StubAuthServer.Request request,
+      HttpExchange exchange) throws IOException {
+    requestCount.incrementAndGet();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (challengeRate > 0 && challenge(request, exchange, random)) return;
+
+    LockSupport.parkNanos(latency.nextNanos(random));
+    final double p = random.nextDouble();
+    if (p < errorRate) {
+      errorCount.incrementAndGet();
+      exchange.sendResponseHeaders(ERROR_STATUS, -1);
+    }
+    else if (p < errorRate + deniedRate) {
+      deniedCount.incrementAndGet();
+      StubAuthServer.sendJson(exchange, 200, denied);
+    }
+    else {
+      StubAuthServer.sendJson(exchange, 200, authorized);
+    }
+  }
+
+  /**
+   * Challenges a request that does not carry Digest credentials for the
+   * current nonce, and replaces the nonce at the challenge rate.
+   *
+   * @return
+   *    {@code true} if the request was challenged.
+   */
+  private boolean challenge(StubAuthServer.Request request,
+      HttpExchange exchange, ThreadLocalRandom random) throws IOException {
+    final String current = nonce.get();
+    final String authorization = request.headers.getFirst("Authorization");
+    if (authorization != null
+        && authorization.contains("nonce=\"" + current + "\"")) {
+      if (random.nextDouble() < challengeRate) {
+        nonce.compareAndSet(current, newNonce());
+      }
+      return false;
+    }
+    challengeCount.incrementAndGet();
+    exchange.getResponseHeaders().set("WWW-Authenticate",
+        "Digest realm=\"load\", qop=\"auth\", nonce=\"" + current + "\""
+            + (authorization != null ? ", stale=true" : ""));
+    exchange.sendResponseHeaders(CHALLENGE_STATUS, -1);
+    return true;
+  }
+
+  long getRequestCount() {
+    return requestCount.get();
+  }
+
+  long getErrorCount() {
+    return errorCount.get();
+  }
+
+  long getDeniedCount() {
+    return deniedCount.get();
+  }
+
+  long getChallengeCount() {
+    return challengeCount.get();
+  }
+
+  int getPayloadSize() {
+    return authorized.length;
+  }
+
+  private static String newNonce() {
+    return Long.toHexString(ThreadLocalRandom.current().nextLong());
+  }
+
+  private static byte[] newResult(int configurations) throws IOException {
+    final Map<String, Object> configs = new LinkedHashMap<>();
+    for (int i = 0; i < configurations; i++) {
+      final Map<String, Object> parameters = new LinkedHashMap<>();
+      parameters.put("hostname", "host-" + i + ".example.com");
+      parameters.put("port", 3389);
+      parameters.put("security", "nla");
+      parameters.put("ignore-cert", true);
+      final Map<String, Object> config = new LinkedHashMap<>();
+      config.put(ProtocolConstants.PROTOCOL_KEY, "rdp");
+      config.put(ProtocolConstants.PARAMS_KEY, parameters);
+      configs.put("connection-" + i, config);
+    }
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put(ProtocolConstants.AUTH_KEY, true);
+    result.put(ProtocolConstants.CONFIGS_KEY, configs);
+    return new ObjectMapper().writeValueAsBytes(result);
+  }
+
+  /**
+   * A builder for a {@link LoadResponder}.
+   */
+  static class Builder {
+
+    private Latency latency = fixed(0);
+    private double errorRate;
+    private double deniedRate;
+    private double challengeRate;
+    private int configurations = 1;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the distribution of response latencies.
+     *
+     * @param latency
+     *    Distribution.
+     *
+     * @return
+     *    This builder.
+     */
+    Builder latency(Latency latency) {
+      this.latency = latency;
+      return this;
+    }
+
+    /**
+     * Sets the proportion of requests that fail with a server error.
+     *
+     * @param errorRate
+     *    Proportion, from 0 to 1.
+     *
+     * @return
+     *    This builder.
+     */
+    Builder errorRate(double errorRate) {
+      this.errorRate = errorRate;
+      return this;
+    }
+
+    /**
+     * Sets the proportion of requests that are denied.
+     *
+     * @param deniedRate
+     *    Proportion, from 0 to 1.
+     *
+     * @return
+     *    This builder.
+     */
+    Builder deniedRate(double deniedRate) {
+      this.deniedRate = deniedRate;
+      return this;
+    }
+
+    /**
+     * Sets the proportion of authenticated requests after which the Digest
+     * nonce is replaced. If zero, requests are not authenticated.
+     *
+     * @param challengeRate
+     *    Proportion, from 0 to 1.
+     *
+     * @return
+     *    This builder.
+     */
+    Builder challengeRate(double challengeRate) {
+      this.challengeRate = challengeRate;
+      return this;
+    }
+
+    /**
+     * Sets the number of configurations in each authorized result, which
+     * determines the size of the response entity.
+     *
+     * @param configurations
+     *    Number of configurations.
+     *
+     * @return
+     *    This builder.
+     */
+    Builder configurations(int configurations) {
+      this.configurations = configurations;
+      return this;
+    }
+
+    LoadResponder build() throws IOException {
+      return new LoadResponder(this);
+    }
+
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MetricsResource}.
+ */
+public class MetricsResourceTest {
+
+  private final AuthMetrics metrics = new AuthMetrics();
+
+  private final MetricsResource resource = new MetricsResource(metrics);
+
+  @Test
+  public void testOutcomeCounts() throws Exception {
+    metrics.recordCall(AuthMetrics.Outcome.AUTHORIZED, 1000);
+    metrics.recordCall(AuthMetrics.Outcome.TIMEOUT, 1000);
+    final String text = resource.getMetrics();
+    assertThat(text)
+        .contains("# TYPE auth_rest_calls_total counter\n")
+        .contains("auth_rest_calls_total{outcome=\"authorized\"} 1\n")
+        .contains("auth_rest_calls_total{outcome=\"denied\"} 0\n")
+        .contains("auth_rest_calls_total{outcome=\"error\"} 0\n")
+        .contains("auth_rest_calls_total{outcome=\"timeout\"} 1\n");
+  }
+
+  @Test
+  public void testStaleCounts() throws Exception {
+    metrics.recordStale(AuthMetrics.StaleReason.ERROR);
+    final String text = resource.getMetrics();
+    assertThat(text)
+        .contains("# TYPE auth_rest_stale_results_total counter\n")
+        .contains("auth_rest_stale_results_total{reason=\"revalidate\"} 0\n")
+        .contains("auth_rest_stale_results_total{reason=\"error\"} 1\n");
+  }
+
+  @Test
+  public void testLatencySummaries() throws Exception {
+    metrics.recordCall(AuthMetrics.Outcome.DENIED,
+        TimeUnit.MILLISECONDS.toNanos(2));
+    metrics.recordStage(AuthMetrics.Stage.ROUND_TRIP,
+        TimeUnit.MILLISECONDS.toNanos(1));
+    final String text = resource.getMetrics();
+    assertThat(text)
+        .contains("# TYPE auth_rest_call_latency_seconds summary\n")
+        .contains("auth_rest_call_latency_seconds{quantile=\"0.99\"} 0.002")
+        .contains("auth_rest_call_latency_seconds_count 1\n")
+        .contains("auth_rest_stage_latency_seconds{stage=\"round_trip\","
+            + "quantile=\"0.5\"} 0.001")
+        .contains("auth_rest_stage_latency_seconds_count{stage=\"round_trip\"}"
+            + " 1\n")
+        .contains("auth_rest_stage_latency_seconds_count{stage=\"parse\"}"
+            + " 0\n");
+  }
+
+  @Test
+  public void testSizeSummaries() throws Exception {
+    metrics.recordRequestSize(100);
+    metrics.recordResponseSize(200);
+    final String text = resource.getMetrics();
+    assertThat(text)
+        .contains("auth_rest_request_size_bytes{quantile=\"0.5\"} 100.0\n")
+        .contains("auth_rest_request_size_bytes_sum 100.0\n")
+        .contains("auth_rest_response_size_bytes{quantile=\"0.999\"} 200.0\n")
+        .contains("auth_rest_response_size_bytes_count 1\n");
+  }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.guacamole.GuacamoleServerException;
+import com.sun.jersey.api.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link OAuth2TokenSource}, using a {@link StubAuthServer}
+ * as the token service.
+ */
+public class OAuth2TokenSourceTest {
+
+  private static final String TOKEN_URI = "/token";
+
+  private static final long REFRESH_AHEAD = TimeUnit.SECONDS.toNanos(60);
+
+  private final MockTicker ticker = new MockTicker();
+
+  private final ManualScheduler scheduler = new ManualScheduler();
+
+  private final AtomicInteger fetches = new AtomicInteger();
+
+  private StubAuthServer server;
+
+  private OAuth2TokenSource tokenSource;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new StubAuthServer(4);
+    server.setResponder(tokenResponder(0, 120));
+    tokenSource = newTokenSource(null, "read write");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    scheduler.shutdownNow();
+    server.stop();
+  }
+
+  @Test
+  public void testStartFetchesTokenInBackground() throws Exception {
+    tokenSource = newTokenSource(server.getUrl() + TOKEN_URI, null);
+    tokenSource.start();
+    assertThat(tokenSource.getToken()).isNull();
+    assertThat(scheduler.delays()).containsExactly(0L);
+
+    scheduler.runNext();
+    assertThat(tokenSource.getToken().value).isEqualTo("token1");
+    assertThat(fetches.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRefreshFetchesToken() throws Exception {
+    assertThat(tokenSource.getToken()).isNull();
+    final OAuth2TokenSource.Token token =
+        tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    assertThat(token.value).isEqualTo("token1");
+    assertThat(tokenSource.getToken()).isSameAs(token);
+
+    final StubAuthServer.Request received = server.getLastRequest();
+    assertThat(received.method).isEqualTo("POST");
+    assertThat(received.path).isEqualTo(TOKEN_URI);
+    assertThat(received.bodyAsString()).isEqualTo(
+        "grant_type=client_credentials&scope=read+write");
+  }
+
+  @Test
+  public void testRefreshUsesServiceUrlWhenRealmIsNotUrl() throws Exception {
+    tokenSource = newTokenSource(server.getUrl() + TOKEN_URI, null);
+    assertThat(tokenSource.refresh("example", null).value)
+        .isEqualTo("token1");
+    assertThat(server.getLastRequest().bodyAsString())
+        .isEqualTo("grant_type=client_credentials");
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testRefreshWithNoServiceUrl() throws Exception {
+    tokenSource.refresh("example", null);
+  }
+
+  @Test(expected = GuacamoleServerException.class)
+  public void testRefreshWhenTokenServiceFails() throws Exception {
+    server.setResponder(StubAuthServer.json(400,
+        "{\"error\":\"invalid_client\"}"));
+    tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+  }
+
+  @Test
+  public void testRefreshOfReplacedTokenDoesNotFetch() throws Exception {
+    final String url = server.getUrl() + TOKEN_URI;
+    final OAuth2TokenSource.Token first = tokenSource.refresh(url, null);
+    final OAuth2TokenSource.Token second = tokenSource.refresh(url, first);
+    assertThat(second.value).isEqualTo("token2");
+    assertThat(tokenSource.refresh(url, first)).isSameAs(second);
+    assertThat(fetches.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConcurrentRefreshesShareFetch() throws Exception {
+    final String url = server.getUrl() + TOKEN_URI;
+    server.setResponder(tokenResponder(200, 120));
+    final List<CompletableFuture<OAuth2TokenSource.Token>> results =
+        new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      results.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return tokenSource.refresh(url, null);
+        }
+        catch (Exception ex) {
+          throw new RuntimeException(ex);
+        }
+      }));
+    }
+    for (final CompletableFuture<OAuth2TokenSource.Token> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS).value).isEqualTo("token1");
+    }
+    assertThat(fetches.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testTokenRefreshScheduledAheadOfExpiry() throws Exception {
+    final OAuth2TokenSource.Token first =
+        tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    assertThat(scheduler.delays()).containsExactly(
+        TimeUnit.SECONDS.toNanos(60));
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(60));
+    scheduler.runNext();
+    scheduler.runNext();
+    assertThat(tokenSource.getToken().value).isEqualTo("token2");
+    assertThat(fetches.get()).isEqualTo(2);
+    assertThat(first.value).isEqualTo("token1");
+
+    // the replacement schedules a refresh of its own
+    assertThat(scheduler.delays()).containsExactly(
+        TimeUnit.SECONDS.toNanos(60));
+  }
+
+  @Test
+  public void testTokenRefreshedWhenUsedAfterScheduledRefreshFails()
+      throws Exception {
+    final OAuth2TokenSource.Token first =
+        tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    server.setResponder(StubAuthServer.json(500, "{}"));
+    ticker.advance(TimeUnit.SECONDS.toNanos(61));
+    scheduler.runNext();
+    scheduler.runNext();
+    assertThat(scheduler.delays()).isEmpty();
+
+    server.setResponder(tokenResponder(0, 120));
+    assertThat(tokenSource.getToken()).isSameAs(first);
+    assertThat(scheduler.delays()).containsExactly(0L);
+    scheduler.runNext();
+    assertThat(tokenSource.getToken().value).isEqualTo("token2");
+  }
+
+  @Test
+  public void testRefreshAheadLimitedToHalfOfLifetime() throws Exception {
+    server.setResponder(tokenResponder(0, 20));
+    tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    assertThat(scheduler.delays()).containsExactly(
+        TimeUnit.SECONDS.toNanos(10));
+  }
+
+  @Test
+  public void testReplacedTokenCancelsScheduledRefresh() throws Exception {
+    final String url = server.getUrl() + TOKEN_URI;
+    final OAuth2TokenSource.Token first = tokenSource.refresh(url, null);
+    final ScheduledFuture<?> scheduled = scheduler.futures.get(0);
+    tokenSource.refresh(url, first);
+    assertThat(scheduled.isCancelled()).isTrue();
+    assertThat(scheduler.delays()).hasSize(1);
+  }
+
+  @Test
+  public void testDestroyCancelsScheduledRefresh() throws Exception {
+    tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    final ScheduledFuture<?> scheduled = scheduler.futures.get(0);
+    tokenSource.destroy();
+    assertThat(scheduled.isCancelled()).isTrue();
+    assertThat(scheduler.isShutdown()).isTrue();
+  }
+
+  @Test
+  public void testExpiredTokenNotUsed() throws Exception {
+    tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    ticker.advance(TimeUnit.SECONDS.toNanos(120));
+    assertThat(tokenSource.getToken()).isNull();
+  }
+
+  @Test
+  public void testTokenWithoutLifetimeNeverExpires() throws Exception {
+    server.setResponder(tokenResponder(0, 0));
+    final OAuth2TokenSource.Token token =
+        tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+    ticker.advance(TimeUnit.DAYS.toNanos(365));
+    assertThat(tokenSource.getToken()).isSameAs(token);
+    assertThat(scheduler.delays()).isEmpty();
+  }
+
+  @Test
+  public void testUnsupportedTokenType() throws Exception {
+    server.setResponder(StubAuthServer.json(200,
+        "{\"access_token\":\"token\",\"token_type\":\"mac\"}"));
+    try {
+      tokenSource.refresh(server.getUrl() + TOKEN_URI, null);
+      fail("expected GuacamoleServerException");
+    }
+    catch (GuacamoleServerException ex) {
+      assertThat(ex.getMessage()).contains("mac");
+    }
+  }
+
+  private OAuth2TokenSource newTokenSource(String serviceUrl, String scope) {
+    return new OAuth2TokenSource(new Client(), new JacksonJsonMarshaller(),
+        serviceUrl, scope, REFRESH_AHEAD, scheduler, ticker);
+  }
+
+  /**
+   * Creates a responder that issues a new token for each request, numbered
+   * in sequence.
+   */
+  private StubAuthServer.Responder tokenResponder(long delay, int expiresIn) {
+    final StubAuthServer.Responder responder = (request, exchange) -> {
+      final String json = "{\"access_token\":\"token"
+          + fetches.incrementAndGet() + "\",\"token_type\":\"Bearer\""
+          + (expiresIn > 0 ? ",\"expires_in\":" + expiresIn : "") + "}";
+      StubAuthServer.sendJson(exchange, 200, json.getBytes("UTF-8"));
+    };
+    return delay > 0 ? StubAuthServer.delayed(delay, responder) : responder;
+  }
+
+  /**
+   * A scheduler that records the tasks given to it, which run only when the
+   * test runs them.
+   */
+  private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+
+    final List<Runnable> tasks = new ArrayList<>();
+    final List<Long> delays = new ArrayList<>();
+    final List<ScheduledFuture<?>> futures = new ArrayList<>();
+
+    ManualScheduler() {
+      super(1);
+    }
+
+    @Override
+    public synchronized ScheduledFuture<?> schedule(Runnable command,
+        long delay, TimeUnit unit) {
+      final ScheduledFuture<?> future =
+          super.schedule(() -> { }, 1, TimeUnit.DAYS);
+      tasks.add(command);
+      delays.add(unit.toNanos(delay));
+      futures.add(future);
+      return future;
+    }
+
+    /**
+     * Gets the delays in nanoseconds of the tasks that have not been
+     * cancelled.
+     */
+    synchronized List<Long> delays() {
+      final List<Long> pending = new ArrayList<>();
+      for (int i = 0; i < tasks.size(); i++) {
+        if (!futures.get(i).isCancelled()) {
+          pending.add(delays.get(i));
+        }
+      }
+      return pending;
+    }
+
+    /**
+     * Runs the earliest task that has not been cancelled, discarding any
+     * that have.
+     */
+    void runNext() {
+      final Runnable task;
+      synchronized (this) {
+        while (futures.get(0).isCancelled()) {
+          remove();
+        }
+        task = tasks.get(0);
+        remove();
+      }
+      task.run();
+    }
+
+    private void remove() {
+      tasks.remove(0);
+      delays.remove(0);
+      futures.remove(0);
+    }
+
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RateLimiter}.
+ */
+public class RateLimiterTest {
+
+  private final MockTicker ticker = new MockTicker();
+
+  @Test
+  public void testAllowsBurst() throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 3, 100, ticker);
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isFalse();
+    assertThat(limiter.tryAcquire("b")).isTrue();
+  }
+
+  @Test
+  public void testRefillsAtRate() throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 1, 100, ticker);
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isFalse();
+    ticker.advance(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(limiter.tryAcquire("a")).isFalse();
+    ticker.advance(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(limiter.tryAcquire("a")).isTrue();
+    assertThat(limiter.tryAcquire("a")).isFalse();
+  }
+
+  @Test
+  public void testDiscardsIdleBuckets() throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 2, 1000, ticker);
+    for (int i = 0; i < 20; i++) {
+      limiter.tryAcquire("key" + i);
+    }
+    assertThat(limiter.size()).isEqualTo(20);
+    ticker.advance(TimeUnit.SECONDS.toNanos(2));
+    for (int i = 0; i < 200; i++) {
+      limiter.tryAcquire("other" + i);
+    }
+    assertThat(limiter.size()).isEqualTo(200);
+  }
+
+  @Test
+  public void testBoundsKeys() throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 1, 32, ticker);
+    for (int i = 0; i < 1000; i++) {
+      limiter.tryAcquire("key" + i);
+    }
+    assertThat(limiter.size()).isLessThanOrEqualTo(32);
+  }
+
+  @Test
+  public void testNewKeysAllowedWhileThrottledKeyStaysThrottled()
+      throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 2, 32, ticker);
+    assertThat(limiter.tryAcquire("victim")).isTrue();
+    assertThat(limiter.tryAcquire("victim")).isTrue();
+    assertThat(limiter.tryAcquire("victim")).isFalse();
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(limiter.tryAcquire("key" + i)).isTrue();
+    }
+    assertThat(limiter.tryAcquire("victim")).isFalse();
+    assertThat(limiter.size()).isLessThanOrEqualTo(32);
+    assertThat(limiter.untrackedCount()).isEqualTo(0);
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(1));
+    assertThat(limiter.tryAcquire("victim")).isTrue();
+  }
+
+  @Test
+  public void testNewKeyAllowedUntrackedWhenAllThrottled() throws Exception {
+    final RateLimiter limiter = new RateLimiter(60, 1, 16, ticker);
+    for (int i = 0; i < 100; i++) {
+      assertThat(limiter.tryAcquire("key" + i)).isTrue();
+    }
+    assertThat(limiter.size()).isLessThanOrEqualTo(16);
+    assertThat(limiter.untrackedCount()).isEqualTo(100 - limiter.size());
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.guacamole.GuacamoleClientTooManyException;
+import org.apache.guacamole.net.auth.Credentials;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link RateLimitingAuthService}.
+ */
+public class RateLimitingAuthServiceTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.LENIENT);
+
+  @Mock
+  private AuthService delegate;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  private final MockTicker ticker = new MockTicker();
+
+  private RateLimitingAuthService service;
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getRateLimitUser()).thenReturn(60);
+    when(config.getRateLimitUserBurst()).thenReturn(2);
+    when(config.getRateLimitAddress()).thenReturn(60);
+    when(config.getRateLimitAddressBurst()).thenReturn(3);
+    when(config.getRateLimitMaxKeys()).thenReturn(100);
+    when(delegate.authorizeAsync(any(AuthSubject.class))).thenReturn(
+        CompletableFuture.completedFuture(AuthResult.DENIED));
+    service = new RateLimitingAuthService(delegate, ticker);
+    service.init(config);
+  }
+
+  @Test
+  public void testLimitsUser() throws Exception {
+    service.authorize(newSubject("user", "10.0.0.1"));
+    service.authorize(newSubject("USER", "10.0.0.2"));
+    assertRejected(newSubject("user", "10.0.0.3"));
+    assertThat(service.getUserRejectedCount()).isEqualTo(1);
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(1));
+    service.authorize(newSubject("user", "10.0.0.4"));
+  }
+
+  @Test
+  public void testLimitsAddress() throws Exception {
+    service.authorize(newSubject("a", "10.0.0.1"));
+    service.authorize(newSubject("b", "10.0.0.1"));
+    service.authorize(newSubject("c", "10.0.0.1"));
+    assertRejected(newSubject("d", "10.0.0.1"));
+    assertThat(service.getAddressRejectedCount()).isEqualTo(1);
+    assertThat(service.getAddressCount()).isEqualTo(1);
+    assertThat(service.getUserCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testAddressRejectionDoesNotChargeUser() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      service.authorize(newSubject("other" + i, "10.0.0.1"));
+    }
+    assertRejected(newSubject("user", "10.0.0.1"));
+    service.authorize(newSubject("user", "10.0.0.2"));
+    service.authorize(newSubject("user", "10.0.0.3"));
+  }
+
+  @Test
+  public void testDoesNotLimitConnectionSubject() throws Exception {
+    final AuthSubject subject = newSubject("user", "10.0.0.1");
+    for (int i = 0; i < 10; i++) {
+      service.authorize(new ConnectionSubject(subject, "conn"));
+    }
+    assertThat(service.getUserCount()).isEqualTo(0);
+    assertThat(service.getAddressCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testNotLimited() throws Exception {
+    when(config.getRateLimitUser()).thenReturn(0);
+    when(config.getRateLimitAddress()).thenReturn(0);
+    service = new RateLimitingAuthService(delegate, ticker);
+    service.init(config);
+    for (int i = 0; i < 10; i++) {
+      service.authorize(newSubject("user", "10.0.0.1"));
+    }
+    assertThat(service.getUserCount()).isEqualTo(0);
+  }
+
+  private void assertRejected(AuthSubject subject) throws Exception {
+    try {
+      service.authorize(subject);
+      fail("expected GuacamoleClientTooManyException");
+    }
+    catch (GuacamoleClientTooManyException ex) {
+      verify(delegate, never()).authorizeAsync(subject);
+    }
+  }
+
+  private static AuthSubject newSubject(String username,
+      String remoteAddress) {
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getRemoteAddr()).thenReturn(remoteAddress);
+    return new DelegatingAuthSubject(
+        new Credentials(username, "password", request));
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.guacamole.GuacamoleServerException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link ReloadingAuthService}.
+ */
+public class ReloadingAuthServiceTest {
+
+  private static final long QUIET_INTERVAL = 50;
+  private static final long FOREVER = Long.MAX_VALUE / 2;
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Mock
+  private ReloadingAuthService.ConfigSource source;
+
+  @Mock
+  private AuthServiceConfig config;
+
+  @Mock
+  private AuthServiceConfig changed;
+
+  @Mock
+  private AuthService first;
+
+  @Mock
+  private AuthService second;
+
+  @Mock
+  private AuthSubject subject;
+
+  private final Deque<AuthService> services = new ArrayDeque<>();
+
+  private final CompletableFuture<AuthResult> firstResult =
+      CompletableFuture.completedFuture(AuthResult.DENIED);
+
+  private final CompletableFuture<AuthResult> secondResult =
+      CompletableFuture.completedFuture(AuthResult.authorized(null));
+
+  @Before
+  public void setUp() throws Exception {
+    services.addAll(Arrays.asList(first, second));
+    when(config.getAuthorizationUri()).thenReturn("/authorize");
+  }
+
+  @Test
+  public void testInitDelegatesWithSnapshot() throws Exception {
+    when(first.authorizeAsync(subject)).thenReturn(firstResult);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    verify(first).init(snapshotOf("/authorize"));
+    assertThat(service.authorizeAsync(subject)).isSameAs(firstResult);
+    service.destroy();
+    verify(first).destroy();
+  }
+
+  @Test
+  public void testReloadReplacesDelegateWhenChanged() throws Exception {
+    when(changed.getAuthorizationUri()).thenReturn("/v2/authorize");
+    when(source.load()).thenReturn(changed);
+    when(second.authorizeAsync(subject)).thenReturn(secondResult);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    service.reload();
+    verify(second).init(snapshotOf("/v2/authorize"));
+    assertThat(service.authorizeAsync(subject)).isSameAs(secondResult);
+    verify(first, timeout(5000)).destroy();
+    service.destroy();
+    verify(second).destroy();
+  }
+
+  @Test
+  public void testReloadIgnoresUnchangedConfiguration() throws Exception {
+    when(source.load()).thenReturn(config);
+    when(first.authorizeAsync(subject)).thenReturn(firstResult);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    service.reload();
+    assertThat(services).containsExactly(second);
+    assertThat(service.authorizeAsync(subject)).isSameAs(firstResult);
+  }
+
+  @Test
+  public void testReloadKeepsDelegateWhenLoadFails() throws Exception {
+    when(source.load()).thenThrow(new GuacamoleServerException("bad"));
+    when(first.authorizeAsync(subject)).thenReturn(firstResult);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    service.reload();
+    assertThat(services).containsExactly(second);
+    assertThat(service.authorizeAsync(subject)).isSameAs(firstResult);
+  }
+
+  @Test
+  public void testReloadKeepsDelegateWhenInitFails() throws Exception {
+    when(changed.getAuthorizationUri()).thenReturn("/v2/authorize");
+    when(source.load()).thenReturn(changed);
+    doThrow(new GuacamoleServerException("bad"))
+        .when(second).init(any(AuthServiceConfig.class));
+    when(first.authorizeAsync(subject)).thenReturn(firstResult);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    service.reload();
+    verify(second).destroy();
+    assertThat(service.authorizeAsync(subject)).isSameAs(firstResult);
+    verify(first, never()).destroy();
+  }
+
+  @Test
+  public void testDestroyDestroysRetiringDelegates() throws Exception {
+    when(changed.getAuthorizationUri()).thenReturn("/v2/authorize");
+    when(source.load()).thenReturn(changed);
+    final ReloadingAuthService service = newService(FOREVER);
+    service.init(config);
+    service.reload();
+    verify(first, never()).destroy();
+    service.destroy();
+    verify(first).destroy();
+    verify(second).destroy();
+  }
+
+  @Test
+  public void testReloadsWhenPropertiesChange() throws Exception {
+    when(config.isConfigReloadEnabled()).thenReturn(true);
+    when(changed.isConfigReloadEnabled()).thenReturn(true);
+    when(changed.getAuthorizationUri()).thenReturn("/v2/authorize");
+    when(source.getDirectory()).thenReturn(folder.getRoot());
+    when(source.load()).thenReturn(changed);
+    final ReloadingAuthService service = newService(0);
+    service.init(config);
+    try {
+      Files.write(folder.newFile(ConfigWatcher.PROPERTIES_FILE).toPath(),
+          "auth-rest-authorization-uri: /v2/authorize\n"
+              .getBytes(StandardCharsets.UTF_8));
+      verify(second, timeout(10000)).init(any(AuthServiceConfig.class));
+      verify(first, timeout(5000)).destroy();
+    }
+    finally {
+      service.destroy();
+    }
+  }
+
+  private static AuthServiceConfig snapshotOf(String authorizationUri) {
+    return argThat(c -> c instanceof ConfigSnapshot && authorizationUri
+        .equals(((ConfigSnapshot) c).getAuthorizationUri()));
+  }
+
+  private ReloadingAuthService newService(long retireDelay) {
+    return new ReloadingAuthService(services::remove, source, QUIET_INTERVAL,
+        retireDelay);
+  }
+
+}
@@ -19,7 +19,11 @@
 package org.soulwing.guacamole.auth.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
@@ -27,15 +31,24 @@ import static org.mockito.Mockito.mock;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.guacamole.GuacamoleSecurityException;
 import org.apache.guacamole.GuacamoleServerException;
+import org.apache.guacamole.GuacamoleUpstreamTimeoutException;
+import org.apache.guacamole.net.auth.AuthenticatedUser;
+import org.apache.guacamole.net.auth.Connection;
 import org.apache.guacamole.net.auth.Credentials;
+import org.apache.guacamole.net.auth.UserContext;
+import org.apache.guacamole.protocol.GuacamoleClientInformation;
 import org.apache.guacamole.protocol.GuacamoleConfiguration;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -52,10 +65,6 @@ public class RestAuthProviderTest {
   private static final String PROTOCOL_NAME = "some protocol";
   private static final String STRING_PARAM_NAME = "string param";
   private static final String STRING_PARAM_VALUE = "some string";
-  private static final String BOOLEAN_PARAM_NAME = "boolean param";
-  private static final boolean BOOLEAN_PARAM_VALUE = true;
-  private static final String NUMBER_PARAM_NAME = "number param";
-  private static final int NUMBER_PARAM_VALUE = -1;
 
   @Rule
   public final MockitoRule rule =
@@ -67,49 +76,38 @@ public class RestAuthProviderTest {
   // not an interface, so we really shouldn't mock it
   private Credentials credentials = new Credentials("user", "pass", mock(HttpServletRequest.class));
 
+  private final AuthMetrics metrics = new AuthMetrics();
+
   private RestAuthProvider provider;
 
   @Before
   public void setUp() throws Exception {
-    provider = new RestAuthProvider(authService);
+    provider = new RestAuthProvider(authService, metrics);
     verify(authService).init(any(AuthServiceConfig.class));
   }
 
 
   @Test
   public void testWhenNotAuthorized() throws Exception {
-    when(authService.authorize(any(DelegatingAuthSubject.class)))
-        .thenReturn(Collections.singletonMap(ProtocolConstants.AUTH_KEY, false));
-    assertThat(provider.getAuthorizedConfigurations(credentials)).isNull();
-  }
-
-  @Test
-  public void testWhenAuthorizedFlagMissing() throws Exception {
-    when(authService.authorize(any(DelegatingAuthSubject.class)
-    ))
-        .thenReturn(Collections.emptyMap());
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.DENIED);
     assertThat(provider.getAuthorizedConfigurations(credentials)).isNull();
+    assertThat(metrics.getDeniedCount()).isEqualTo(1);
+    assertThat(metrics.getCallLatency().getCount()).isEqualTo(1);
   }
 
   @Test
   public void testWhenAuthorized() throws Exception {
-    Map<String, Object> params = new LinkedHashMap<String, Object>();
-    params.put(STRING_PARAM_NAME, STRING_PARAM_VALUE);
-    params.put(BOOLEAN_PARAM_NAME, BOOLEAN_PARAM_VALUE);
-    params.put(NUMBER_PARAM_NAME, NUMBER_PARAM_VALUE);
-
-    Map<String, Object> config = new LinkedHashMap<String, Object>();
-    config.put(ProtocolConstants.PROTOCOL_KEY, PROTOCOL_NAME);
-    config.put(ProtocolConstants.PARAMS_KEY, params);
+    final GuacamoleConfiguration config = new GuacamoleConfiguration();
+    config.setProtocol(PROTOCOL_NAME);
+    config.setParameter(STRING_PARAM_NAME, STRING_PARAM_VALUE);
 
-    Map<String, Object> authResult = new LinkedHashMap<String, Object>();
-    authResult.put(ProtocolConstants.AUTH_KEY, true);
+    final Map<String, GuacamoleConfiguration> configs =
+        new LinkedHashMap<String, GuacamoleConfiguration>();
+    configs.put(CONFIG_NAME, config);
 
-    authResult.put(ProtocolConstants.CONFIGS_KEY,
-        Collections.singletonMap(CONFIG_NAME, config));
-
-    when(authService.authorize(any(DelegatingAuthSubject.class)))
-        .thenReturn(authResult);
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.authorized(configs));
 
     final Map<String, GuacamoleConfiguration> guacConfigs =
         provider.getAuthorizedConfigurations(credentials);
@@ -122,22 +120,186 @@ public class RestAuthProviderTest {
         .isEqualTo(PROTOCOL_NAME);
     assertThat(guacConfig.getParameter(STRING_PARAM_NAME))
         .isEqualTo(STRING_PARAM_VALUE);
-    assertThat(guacConfig.getParameter(BOOLEAN_PARAM_NAME))
-        .isEqualTo(Boolean.toString(BOOLEAN_PARAM_VALUE));
-    assertThat(guacConfig.getParameter(NUMBER_PARAM_NAME))
-        .isEqualTo(Integer.toString(NUMBER_PARAM_VALUE));
+    assertThat(metrics.getAuthorizedCount()).isEqualTo(1);
   }
 
 
+  @Test
+  public void testStartsDeadlineForSubject() throws Exception {
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.DENIED);
+    final long start = System.nanoTime();
+    assertThat(provider.getAuthorizedConfigurations(credentials)).isNull();
+    final long end = System.nanoTime();
+
+    final ArgumentCaptor<AuthSubject> subject =
+        ArgumentCaptor.forClass(AuthSubject.class);
+    verify(authService).authorize(subject.capture());
+    assertThat(subject.getValue().getUsername()).isEqualTo("user");
+    // the default deadline is 10000 ms
+    assertThat(subject.getValue().getDeadline()).isBetween(
+        start + TimeUnit.SECONDS.toNanos(10),
+        end + TimeUnit.SECONDS.toNanos(10));
+  }
+
   @Test(expected = GuacamoleServerException.class)
   public void testWhenAuthorizedButConfigsMissing() throws Exception {
-    Map<String, Object> authResult = new LinkedHashMap<String, Object>();
-    authResult.put(ProtocolConstants.AUTH_KEY, true);
-
-    when(authService.authorize(any(DelegatingAuthSubject.class)))
-        .thenReturn(authResult);
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.authorized(null));
 
     provider.getAuthorizedConfigurations(credentials);
   }
 
+  @Test
+  public void testRecordsErrorOutcome() throws Exception {
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenThrow(new GuacamoleServerException("error"));
+    try {
+      provider.getAuthorizedConfigurations(credentials);
+    }
+    catch (GuacamoleServerException ex) {
+      assertThat(metrics.getErrorCount()).isEqualTo(1);
+      assertThat(metrics.getTimeoutCount()).isEqualTo(0);
+      return;
+    }
+    fail("expected GuacamoleServerException");
+  }
+
+  @Test
+  public void testRecordsTimeoutOutcome() throws Exception {
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenThrow(new GuacamoleUpstreamTimeoutException("timeout"));
+    try {
+      provider.getAuthorizedConfigurations(credentials);
+    }
+    catch (GuacamoleUpstreamTimeoutException ex) {
+      assertThat(metrics.getTimeoutCount()).isEqualTo(1);
+      assertThat(metrics.getErrorCount()).isEqualTo(0);
+      return;
+    }
+    fail("expected GuacamoleUpstreamTimeoutException");
+  }
+
+  @Test
+  public void testNoResourceWhenMetricsEndpointDisabled() throws Exception {
+    assertThat(provider.getResource()).isNull();
+  }
+
+  @Test
+  public void testLazyAuthenticateUser() throws Exception {
+    final RestAuthProvider provider = newLazyProvider();
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.authorized(protocolOnlyConfigs()));
+
+    final AuthenticatedUser user = provider.authenticateUser(credentials);
+    assertThat(user).isInstanceOf(RestAuthenticatedUser.class);
+    assertThat(user.getIdentifier()).isEqualTo("user");
+    assertThat(user.getCredentials()).isSameAs(credentials);
+
+    final UserContext context = provider.getUserContext(user);
+    assertThat(context).isInstanceOf(RestUserContext.class);
+    final Connection connection =
+        context.getConnectionDirectory().get(CONFIG_NAME);
+    assertThat(connection.getConfiguration().getProtocol())
+        .isEqualTo(PROTOCOL_NAME);
+    verify(authService, times(1)).authorize(any(AuthSubject.class));
+    provider.shutdown();
+  }
+
+  @Test
+  public void testLazyAuthenticateUserWhenNotAuthorized() throws Exception {
+    final RestAuthProvider provider = newLazyProvider();
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.DENIED);
+    assertThat(provider.authenticateUser(credentials)).isNull();
+    provider.shutdown();
+  }
+
+  @Test
+  public void testLazyUserContextForOtherUser() throws Exception {
+    final RestAuthProvider provider = newLazyProvider();
+    final AuthenticatedUser user = mock(AuthenticatedUser.class);
+    when(user.getCredentials()).thenReturn(credentials);
+    when(user.getIdentifier()).thenReturn("user");
+    when(authService.authorize(any(AuthSubject.class)))
+        .thenReturn(AuthResult.authorized(protocolOnlyConfigs()));
+
+    final UserContext context = provider.getUserContext(user);
+    assertThat(context.getConnectionDirectory().getIdentifiers())
+        .containsExactly(CONFIG_NAME);
+    assertThat(context.self().getIdentifier()).isEqualTo("user");
+    provider.shutdown();
+  }
+
+  @Test
+  public void testLazyConnectWhenNotAuthorized() throws Exception {
+    final RestAuthProvider provider = newLazyProvider();
+    doReturn(AuthResult.authorized(protocolOnlyConfigs()))
+        .when(authService).authorize(any(AuthSubject.class));
+    doReturn(AuthResult.DENIED).when(authService).authorize(
+        argThat(subject -> subject.getConnectionName() != null));
+
+    final UserContext context =
+        provider.getUserContext(provider.authenticateUser(credentials));
+    try {
+      context.getConnectionDirectory().get(CONFIG_NAME)
+          .connect(new GuacamoleClientInformation(),
+              Collections.<String, String>emptyMap());
+      fail("expected GuacamoleSecurityException");
+    }
+    catch (GuacamoleSecurityException ex) {
+      verify(authService).authorize(
+          argThat(subject -> CONFIG_NAME.equals(subject.getConnectionName())
+              && "user".equals(subject.getUsername())
+              && "pass".equals(subject.getPassword())));
+    }
+    finally {
+      provider.shutdown();
+    }
+  }
+
+  @Test
+  public void testStateRebuiltWhenConfigurationReloaded() throws Exception {
+    final AuthServiceConfig reloaded = mock(AuthServiceConfig.class);
+    when(reloaded.getParametersUri()).thenReturn("/parameters");
+    final ReloadingAuthService.ConfigSource source =
+        mock(ReloadingAuthService.ConfigSource.class);
+    when(source.load()).thenReturn(reloaded);
+    when(authService.authorizeAsync(any(AuthSubject.class)))
+        .thenReturn(CompletableFuture.completedFuture(
+            AuthResult.authorized(protocolOnlyConfigs())));
+
+    final ReloadingAuthService reloading =
+        new ReloadingAuthService(() -> authService, source, 0, 0);
+    final RestAuthProvider provider = new RestAuthProvider(reloading,
+        metrics, mock(AuthServiceConfig.class));
+    try {
+      assertThat(provider.authenticateUser(credentials))
+          .isNotInstanceOf(RestAuthenticatedUser.class);
+      reloading.reload();
+      assertThat(provider.authenticateUser(credentials))
+          .isInstanceOf(RestAuthenticatedUser.class);
+    }
+    finally {
+      provider.shutdown();
+    }
+  }
+
+  private RestAuthProvider newLazyProvider() throws Exception {
+    final AuthServiceConfig config = mock(AuthServiceConfig.class);
+    when(config.getParametersUri()).thenReturn("/parameters");
+    when(config.getParametersCacheTtl()).thenReturn(30);
+    when(config.getCacheMaxEntries()).thenReturn(100);
+    return new RestAuthProvider(authService, metrics, config);
+  }
+
+  private static Map<String, GuacamoleConfiguration> protocolOnlyConfigs() {
+    final GuacamoleConfiguration config = new GuacamoleConfiguration();
+    config.setProtocol(PROTOCOL_NAME);
+    final Map<String, GuacamoleConfiguration> configs =
+        new LinkedHashMap<String, GuacamoleConfiguration>();
+    configs.put(CONFIG_NAME, config);
+    return configs;
+  }
+
 }
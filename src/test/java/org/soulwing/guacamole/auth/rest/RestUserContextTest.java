@@ -0,0 +1,107 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.guacamole.net.auth.AuthenticationProvider;
+import org.apache.guacamole.net.auth.Connection;
+import org.apache.guacamole.net.auth.ConnectionGroup;
+import org.apache.guacamole.net.auth.User;
+import org.apache.guacamole.net.auth.permission.ObjectPermission;
+import org.apache.guacamole.protocol.GuacamoleConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+/**
+ * Unit tests for {@link RestUserContext}.
+ */
+public class RestUserContextTest {
+
+  @Rule
+  public final MockitoRule rule =
+      MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private AuthenticationProvider authProvider;
+
+  @Mock
+  private AuthSubject subject;
+
+  @Mock
+  private ConnectionParameterCache parameters;
+
+  private RestUserContext context;
+
+  @Before
+  public void setUp() throws Exception {
+    final Map<String, GuacamoleConfiguration> configurations =
+        new LinkedHashMap<>();
+    configurations.put("a", configuration("rdp"));
+    configurations.put("b", configuration("ssh"));
+    context = new RestUserContext(authProvider, "user", subject,
+        configurations, parameters);
+  }
+
+  @Test
+  public void testConnectionDirectory() throws Exception {
+    assertThat(context.getAuthenticationProvider()).isSameAs(authProvider);
+    assertThat(context.getConnectionDirectory().getIdentifiers())
+        .containsOnly("a", "b");
+    final Connection connection = context.getConnectionDirectory().get("b");
+    assertThat(connection).isInstanceOf(LazyConnection.class);
+    assertThat(connection.getConfiguration().getProtocol()).isEqualTo("ssh");
+    assertThat(connection.getParentIdentifier())
+        .isEqualTo(context.getRootConnectionGroup().getIdentifier());
+  }
+
+  @Test
+  public void testRootConnectionGroup() throws Exception {
+    final ConnectionGroup root = context.getRootConnectionGroup();
+    assertThat(root.getConnectionIdentifiers()).containsOnly("a", "b");
+  }
+
+  @Test
+  public void testSelf() throws Exception {
+    final User self = context.self();
+    assertThat(self.getIdentifier()).isEqualTo("user");
+    assertThat(self.getConnectionPermissions().hasPermission(
+        ObjectPermission.Type.READ, "a")).isTrue();
+    assertThat(self.getConnectionPermissions().hasPermission(
+        ObjectPermission.Type.READ, "c")).isFalse();
+    assertThat(self.getConnectionGroupPermissions().hasPermission(
+        ObjectPermission.Type.READ,
+        context.getRootConnectionGroup().getIdentifier())).isTrue();
+  }
+
+  private static GuacamoleConfiguration configuration(String protocol) {
+    final GuacamoleConfiguration configuration = new GuacamoleConfiguration();
+    configuration.setProtocol(protocol);
+    return configuration;
+  }
+
+}
@@ -0,0 +1,375 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in for the REST authorization service, for tests.
+ * <p>
+ * The server listens on an ephemeral loopback port. Each request is passed
+ * to a {@link Responder}, which determines the response.
+ */
+class StubAuthServer {
+
+  /** Media type of entities encoded as Smile. */
+  static final String SMILE_TYPE = "application/x-jackson-smile";
+
+  /**
+   * A strategy for responding to a request.
+   */
+  interface Responder {
+
+    /**
+     * Responds to a request.
+     *
+     * @param request
+     *    The request.
+     *
+     * @param exchange
+     *    The exchange on which the response is to be sent.
+     *
+     * @throws IOException
+     *    If an error occurs in sending the response.
+     */
+    void respond(Request request, HttpExchange exchange) throws IOException;
+
+  }
+
+  /**
+   * A request received by the server.
+   */
+  static class Request {
+
+    final String method;
+    final String path;
+    final Headers headers;
+    final byte[] body;
+
+    Request(String method, String path, Headers headers, byte[] body) {
+      this.method = method;
+      this.path = path;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    String bodyAsString() throws IOException {
+      return new String(body, "UTF-8");
+    }
+
+  }
+
+  static {
+    // without TCP_NODELAY, the response body waits for the client's
+    // delayed ACK of the headers, adding ~40ms to every exchange
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private volatile Responder responder;
+  private volatile Request lastRequest;
+
+  /**
+   * Constructs and starts a new server.
+   *
+   * @param threads
+   *    Number of threads that will handle requests.
+   *
+   * @throws IOException
+   *    If the server cannot be started.
+   */
+  StubAuthServer(int threads) throws IOException {
+    server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+    executor = Executors.newFixedThreadPool(threads);
+    server.setExecutor(executor);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        try {
+          final Request request = new Request(exchange.getRequestMethod(),
+              exchange.getRequestURI().getPath(),
+              exchange.getRequestHeaders(),
+              readFully(exchange.getRequestBody()));
+          lastRequest = request;
+          responder.respond(request, exchange);
+        }
+        finally {
+          exchange.close();
+        }
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * Gets the base URL of the server.
+   *
+   * @return
+   *    URL.
+   */
+  String getUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  void setResponder(Responder responder) {
+    this.responder = responder;
+  }
+
+  Request getLastRequest() {
+    return lastRequest;
+  }
+
+  void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Creates a responder that sends a fixed JSON entity.
+   *
+   * @param status
+   *    HTTP status code.
+   *
+   * @param json
+   *    Response entity.
+   *
+   * @return
+   *    Responder.
+   */
+  static Responder json(final int status, final String json) {
+    return new Responder() {
+      @Override
+      public void respond(Request request, HttpExchange exchange)
+          throws IOException {
+        sendJson(exchange, status, json.getBytes("UTF-8"));
+      }
+    };
+  }
+
+  /**
+   * Creates a responder that sends a fixed JSON entity, compressed using
+   * the {@code gzip} coding if the request accepts it.
+   *
+   * @param status
+   *    HTTP status code.
+   *
+   * @param json
+   *    Response entity.
+   *
+   * @return
+   *    Responder.
+   */
+  static Responder gzipJson(final int status, final String json) {
+    return new Responder() {
+      @Override
+      public void respond(Request request, HttpExchange exchange)
+          throws IOException {
+        final byte[] body = json.getBytes("UTF-8");
+        final String accept = request.headers.getFirst("Accept-Encoding");
+        if (accept == null || !accept.contains("gzip")) {
+          sendJson(exchange, status, body);
+          return;
+        }
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
+          out.write(body);
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        sendJson(exchange, status, bos.toByteArray());
+      }
+    };
+  }
+
+  /**
+   * Creates a responder that sends a fixed entity, encoded as Smile if the
+   * request accepts it, and otherwise as JSON.
+   *
+   * @param status
+   *    HTTP status code.
+   *
+   * @param json
+   *    Response entity, in JSON.
+   *
+   * @return
+   *    Responder.
+   */
+  static Responder smileJson(final int status, final String json) {
+    return new Responder() {
+      @Override
+      public void respond(Request request, HttpExchange exchange)
+          throws IOException {
+        final String accept = request.headers.getFirst("Accept");
+        if (accept == null || !accept.contains(SMILE_TYPE)) {
+          sendJson(exchange, status, json.getBytes("UTF-8"));
+          return;
+        }
+        final byte[] body = new ObjectMapper(new SmileFactory())
+            .writeValueAsBytes(new ObjectMapper().readTree(json));
+        exchange.getResponseHeaders().set("Content-Type", SMILE_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+      }
+    };
+  }
+
+  /**
+   * Creates a responder that rejects a request entity encoded as Smile,
+   * and otherwise delegates to another responder.
+   *
+   * @param responder
+   *    The responder that will respond to other requests.
+   *
+   * @return
+   *    Responder.
+   */
+  static Responder rejectSmile(final Responder responder) {
+    return new Responder() {
+      @Override
+      public void respond(Request request, HttpExchange exchange)
+          throws IOException {
+        if (SMILE_TYPE.equals(request.headers.getFirst("Content-Type"))) {
+          exchange.sendResponseHeaders(415, -1);
+          return;
+        }
+        responder.respond(request, exchange);
+      }
+    };
+  }
+
+  /**
+   * Decodes a request entity encoded as Smile.
+   *
+   * @param body
+   *    The entity.
+   *
+   * @return
+   *    Map representation of the entity.
+   *
+   * @throws IOException
+   *    If the entity cannot be decoded.
+   */
+  static Map<?, ?> readSmile(byte[] body) throws IOException {
+    return new ObjectMapper(new SmileFactory()).readValue(body, Map.class);
+  }
+
+  /**
+   * Creates a responder that waits before delegating to another responder.
+   *
+   * @param millis
+   *    Time to wait in milliseconds.
+   *
+   * @param responder
+   *    The responder that will send the response.
+   *
+   * @return
+   *    Responder.
+   */
+  static Responder delayed(final long millis, final Responder responder) {
+    return new Responder() {
+      @Override
+      public void respond(Request request, HttpExchange exchange)
+          throws IOException {
+        try {
+          Thread.sleep(millis);
+        }
+        catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        responder.respond(request, exchange);
+      }
+    };
+  }
+
+  /**
+   * Sends a JSON entity.
+   *
+   * @param exchange
+   *    The exchange on which to send the entity.
+   *
+   * @param status
+   *    HTTP status code.
+   *
+   * @param body
+   *    Encoded entity.
+   *
+   * @throws IOException
+   *    If an error occurs in sending the response.
+   */
+  static void sendJson(HttpExchange exchange, int status, byte[] body)
+      throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    final OutputStream out = exchange.getResponseBody();
+    out.write(body);
+    out.flush();
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buf = new byte[4096];
+    int count;
+    while ((count = in.read(buf)) != -1) {
+      out.write(buf, 0, count);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Gets the first value of a request header.
+   *
+   * @param headers
+   *    Request headers.
+   *
+   * @param name
+   *    Header name.
+   *
+   * @return
+   *    Header value or {@code null}.
+   */
+  static String header(Map<String, List<String>> headers, String name) {
+    for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
+      if (name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+        return entry.getValue().get(0);
+      }
+    }
+    return null;
+  }
+
+}
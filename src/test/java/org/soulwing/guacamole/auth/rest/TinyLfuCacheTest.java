@@ -0,0 +1,119 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TinyLfuCache}.
+ */
+public class TinyLfuCacheTest {
+
+  private static final long TTL = TimeUnit.SECONDS.toNanos(60);
+
+  private static final TinyLfuCache.Weigher<String> LENGTH_WEIGHER =
+      new TinyLfuCache.Weigher<String>() {
+        @Override
+        public long weigh(String value) {
+          return value.length();
+        }
+      };
+
+  private final MockTicker ticker = new MockTicker();
+
+  @Test
+  public void testGetAndPut() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 0);
+    assertThat(cache.get("a")).isNull();
+    cache.put("a", "A");
+    assertThat(cache.get("a")).isEqualTo("A");
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 0);
+    cache.put("a", "A");
+    ticker.advance(TTL - 1);
+    assertThat(cache.get("a")).isEqualTo("A");
+    ticker.advance(1);
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.expirationCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testBoundedByEntries() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 0);
+    for (int i = 0; i < 100; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    assertThat(cache.size()).isEqualTo(10);
+    assertThat(cache.evictionCount()).isEqualTo(90);
+  }
+
+  @Test
+  public void testBoundedByWeight() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 5);
+    cache.put("a", "AA");
+    cache.put("b", "BB");
+    cache.put("c", "CC");
+    assertThat(cache.weightedSize()).isLessThanOrEqualTo(5);
+    assertThat(cache.evictionWeight()).isEqualTo(2);
+  }
+
+  @Test
+  public void testValueHeavierThanMaxWeightIsNotCached() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 5);
+    cache.put("a", "AAAAAA");
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAdmissionFavorsFrequentlyUsedEntries() throws Exception {
+    final TinyLfuCache<String, String> cache = newCache(10, 0);
+    for (int i = 0; i < 9; i++) {
+      cache.put("hot" + i, "value");
+    }
+    for (int n = 0; n < 5; n++) {
+      for (int i = 0; i < 9; i++) {
+        cache.get("hot" + i);
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      cache.put("cold" + i, "value");
+    }
+    for (int i = 0; i < 9; i++) {
+      assertThat(cache.get("hot" + i)).isEqualTo("value");
+    }
+  }
+
+  private TinyLfuCache<String, String> newCache(int maxEntries,
+      long maxWeight) {
+    return new TinyLfuCache<String, String>(maxEntries, maxWeight, TTL,
+        LENGTH_WEIGHER, ticker);
+  }
+
+}
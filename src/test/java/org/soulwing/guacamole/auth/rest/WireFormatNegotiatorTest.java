@@ -0,0 +1,79 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2026 Carl Harris, Jr
+ * and others as noted
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.soulwing.guacamole.auth.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link WireFormatNegotiator}.
+ */
+public class WireFormatNegotiatorTest {
+
+  private final JsonMarshaller json = new JacksonJsonMarshaller();
+
+  @Test
+  public void testJsonOnly() throws Exception {
+    final WireFormatNegotiator negotiator =
+        WireFormatNegotiator.newInstance("json", json);
+    assertThat(negotiator.getRequestType())
+        .isEqualTo(WireFormatNegotiator.JSON_TYPE);
+    assertThat(negotiator.getAcceptHeader())
+        .isEqualTo(WireFormatNegotiator.JSON_TYPE);
+    assertThat(negotiator.getMarshaller(WireFormatNegotiator.SMILE_TYPE))
+        .isSameAs(json);
+    assertThat(negotiator.isRejected(415, WireFormatNegotiator.JSON_TYPE))
+        .isFalse();
+  }
+
+  @Test
+  public void testSmilePreferred() throws Exception {
+    final WireFormatNegotiator negotiator =
+        WireFormatNegotiator.newInstance("smile", json);
+    assertThat(negotiator.getRequestType())
+        .isEqualTo(WireFormatNegotiator.SMILE_TYPE);
+    assertThat(negotiator.getAcceptHeader())
+        .startsWith(WireFormatNegotiator.SMILE_TYPE)
+        .contains(WireFormatNegotiator.JSON_TYPE);
+    assertThat(negotiator.getMarshaller(WireFormatNegotiator.SMILE_TYPE))
+        .isNotSameAs(json);
+    assertThat(negotiator.getMarshaller("application/json; charset=UTF-8"))
+        .isSameAs(json);
+    assertThat(negotiator.getMarshaller(null)).isSameAs(json);
+  }
+
+  @Test
+  public void testFallBackToJsonWhenSmileRejected() throws Exception {
+    final WireFormatNegotiator negotiator =
+        WireFormatNegotiator.newInstance("smile", json);
+    assertThat(negotiator.isRejected(500, WireFormatNegotiator.SMILE_TYPE))
+        .isFalse();
+    assertThat(negotiator.getRequestType())
+        .isEqualTo(WireFormatNegotiator.SMILE_TYPE);
+
+    assertThat(negotiator.isRejected(415, WireFormatNegotiator.SMILE_TYPE))
+        .isTrue();
+    assertThat(negotiator.getRequestType())
+        .isEqualTo(WireFormatNegotiator.JSON_TYPE);
+    assertThat(negotiator.isRejected(415, WireFormatNegotiator.JSON_TYPE))
+        .isFalse();
+  }
+
+}